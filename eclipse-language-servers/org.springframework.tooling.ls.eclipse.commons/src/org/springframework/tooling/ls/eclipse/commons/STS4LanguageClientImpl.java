@@ -71,6 +71,7 @@ import org.springframework.ide.vscode.commons.protocol.java.ClasspathListenerPar
 import org.springframework.ide.vscode.commons.protocol.java.JavaDataParams;
 import org.springframework.ide.vscode.commons.protocol.java.JavaSearchParams;
 import org.springframework.ide.vscode.commons.protocol.java.JavaTypeHierarchyParams;
+import org.springframework.ide.vscode.commons.protocol.java.JavaTypesParams;
 import org.springframework.ide.vscode.commons.protocol.java.TypeData;
 import org.springframework.tooling.jdt.ls.commons.Logger;
 import org.springframework.tooling.jdt.ls.commons.classpath.ReusableClasspathListenerHandler;
@@ -350,7 +351,7 @@ public class STS4LanguageClientImpl extends LanguageClientImpl implements STS4La
 
 	@Override
 	public CompletableFuture<Object> addClasspathListener(ClasspathListenerParams params) {
-		return CompletableFuture.completedFuture(classpathService.addClasspathListener(params.getCallbackCommandId()));
+		return CompletableFuture.completedFuture(classpathService.addClasspathListener(params.getCallbackCommandId(), params.isTypesChanged()));
 	}
 
 	@Override
@@ -404,6 +405,12 @@ public class STS4LanguageClientImpl extends LanguageClientImpl implements STS4La
 		return CompletableFuture.supplyAsync(() -> javaData.typeData(params.getProjectUri(), params.getBindingKey(), JavaDataParams.isLookInOtherProjects(params)));
 	}
 
+	@Override
+	public CompletableFuture<List<TypeData>> javaTypes(JavaTypesParams params) {
+		return CompletableFuture.supplyAsync(() -> javaData.typeData(params.getProjectUri(), params.getBindingKeys(),
+				JavaDataParams.isLookInOtherProjects(params.getProjectUri(), params.getLookInOtherProjects()), Boolean.TRUE.equals(params.getLightweight())));
+	}
+
 	@Override
 	public CompletableFuture<String> javadocHoverLink(JavaDataParams params) {
 		return CompletableFuture.supplyAsync(() -> {
@@ -469,14 +476,14 @@ public class STS4LanguageClientImpl extends LanguageClientImpl implements STS4La
 	@Override
 	public CompletableFuture<List<TypeData>> javaSubTypes(JavaTypeHierarchyParams params) {
 		return CompletableFuture.supplyAsync(() ->
-			typeHierarchy.subTypes(params.getProjectUri() == null ? null : URI.create(params.getProjectUri()), params.getFqName()).collect(Collectors.toList())
+			typeHierarchy.subTypes(params.getProjectUri() == null ? null : URI.create(params.getProjectUri()), params.getFqName(), Boolean.TRUE.equals(params.getLightweight())).collect(Collectors.toList())
 		);
 	}
 
 	@Override
 	public CompletableFuture<List<TypeData>> javaSuperTypes(JavaTypeHierarchyParams params) {
 		return CompletableFuture.supplyAsync(() ->
-			typeHierarchy.superTypes(params.getProjectUri() == null ? null : URI.create(params.getProjectUri()), params.getFqName()).collect(Collectors.toList())
+			typeHierarchy.superTypes(params.getProjectUri() == null ? null : URI.create(params.getProjectUri()), params.getFqName(), Boolean.TRUE.equals(params.getLightweight())).collect(Collectors.toList())
 		);
 	}
 
@@ -11,8 +11,15 @@
 package org.springframework.ide.vscode.commons.jandex;
 
 import java.io.File;
+import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.jboss.jandex.ClassInfo;
 import org.jboss.jandex.DotName;
@@ -22,12 +29,20 @@ import org.slf4j.LoggerFactory;
 import org.springframework.ide.vscode.commons.java.IClasspath;
 import org.springframework.ide.vscode.commons.java.IClasspathUtil;
 import org.springframework.ide.vscode.commons.java.IJavaModuleData;
+import org.springframework.ide.vscode.commons.languageserver.ProgressService;
 import org.springframework.ide.vscode.commons.util.FuzzyMatcher;
 
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Iterables;
 
+import reactor.core.Disposable;
+import reactor.core.Disposables;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
 import reactor.core.scheduler.Schedulers;
 import reactor.util.function.Tuple2;
 import reactor.util.function.Tuple3;
@@ -45,15 +60,31 @@ public class BasicJandexIndex {
 
 	private static final Logger log = LoggerFactory.getLogger(BasicJandexIndex.class);
 
-	private static final String JAVA_IO_TMPDIR = "java.io.tmpdir";
+	private static final String USER_HOME = "user.home";
+
+	/**
+	 * Number of threads shared by all classpaths for building Jandex indexes in the background
+	 */
+	private static final int WARM_UP_WORKERS = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() / 2));
+
+	private static final Supplier<Scheduler> WARM_UP_SCHEDULER = Suppliers.memoize(() -> Schedulers.fromExecutorService(Executors.newFixedThreadPool(WARM_UP_WORKERS, runnable -> {
+		Thread t = new Thread(runnable, "Jandex indexer");
+		t.setDaemon(true);
+		return t;
+	})));
+
+	private static final AtomicInteger warmUpIdCt = new AtomicInteger();
 
 	@FunctionalInterface
 	public static interface IndexFileFinder {
 		File findIndexFile(File jarFile);
 	}
 
+	/**
+	 * Folder for Jandex index files shared by all projects and language server instances, see {@link JandexIndexCache}
+	 */
 	public static File getIndexFolder() {
-		File folder = new File(System.getProperty(JAVA_IO_TMPDIR), "jandex");
+		File folder = Paths.get(System.getProperty(USER_HOME), ".sts4", ".jandexCache").toFile();
 		if (!folder.isDirectory()) {
 			folder.mkdirs();
 		}
@@ -62,7 +93,30 @@ public class BasicJandexIndex {
 
 	private ImmutableList<ModuleJandexIndex> modules;
 
-	BasicJandexIndex(IClasspath classpath, IndexFileFinder indexFileFinder) {
+	/**
+	 * Modules for class folders. Types of these are looked up in their Jandex index, as their
+	 * classes change too often for keeping them in the type table.
+	 */
+	private ImmutableList<ModuleJandexIndex> folderModules;
+
+	private Map<ModuleJandexIndex, Integer> positions = new IdentityHashMap<>();
+
+	private ImmutableList<ModuleJandexIndex> tableModules;
+
+	private File indexFolder;
+
+	private volatile ModuleTypeTable typeTable;
+
+	private volatile boolean warmingUp = false;
+
+	private final AtomicBoolean typeTableRequested = new AtomicBoolean();
+
+	/**
+	 * Background work for this index, which is cancelled when the index isn't used anymore
+	 */
+	private final Disposable.Composite backgroundWork = Disposables.composite();
+
+	BasicJandexIndex(IClasspath classpath, IndexFileFinder indexFileFinder, File indexFolder) {
 		ImmutableList.Builder<ModuleJandexIndex> builder = ImmutableList.builder();
 		try {
 			classpath.getClasspathEntries().forEach(cpe -> {
@@ -73,21 +127,157 @@ public class BasicJandexIndex {
 			log.error("", e);
 		}
 		this.modules = builder.build();
+
+		ImmutableList.Builder<ModuleJandexIndex> folders = ImmutableList.builder();
+		ImmutableList.Builder<ModuleJandexIndex> others = ImmutableList.builder();
+		for (int i = 0; i < modules.size(); i++) {
+			ModuleJandexIndex module = modules.get(i);
+			positions.putIfAbsent(module, i);
+			if (module.getContainer().isDirectory()) {
+				folders.add(module);
+			} else {
+				others.add(module);
+			}
+		}
+		this.folderModules = folders.build();
+		this.tableModules = others.build();
+		this.indexFolder = indexFolder;
+	}
+
+	/**
+	 * Builds the Jandex indexes of all modules and the type table in the background, on a few threads shared
+	 * by all classpaths. Until the type table is ready, lookups first search the modules that are indexed already
+	 * and only wait for the indexes of the other modules if the type isn't found in these.
+	 *
+	 * @param progressService Progress service for reporting the number of indexed modules
+	 * @param name Name of the classpath for progress messages
+	 */
+	public void warmUp(ProgressService progressService, String name) {
+		if (typeTable != null) {
+			return;
+		}
+		warmingUp = true;
+
+		String taskId = BasicJandexIndex.class.getName() + warmUpIdCt.incrementAndGet();
+		AtomicInteger indexed = new AtomicInteger();
+		Scheduler scheduler = WARM_UP_SCHEDULER.get();
+
+		backgroundWork.add(Mono.fromRunnable(() -> {
+			// lookups don't need the Jandex indexes for finding the module of a type
+			ModuleTypeTable stored = ModuleTypeTable.loadStored(tableModules, indexFolder);
+			if (stored != null) {
+				setTypeTable(stored);
+			}
+		})
+		.thenMany(Flux.fromIterable(modules))
+		.flatMap(module -> Mono.fromRunnable(() -> {
+			module.getIndex().get();
+			progressService.progressEvent(taskId, "Indexing classpath of " + name + " (" + indexed.incrementAndGet() + "/" + modules.size() + ")");
+		}).subscribeOn(scheduler), WARM_UP_WORKERS)
+		.then(Mono.fromRunnable(() -> createTypeTable()))
+		.subscribeOn(scheduler)
+		.doFinally(signal -> {
+			warmingUp = false;
+			progressService.progressEvent(taskId, null);
+		})
+		.subscribe(null, error -> log.error("Failed to index " + name, error)));
+	}
+
+	/**
+	 * Cancels the warm up and building the type table in the background, e.g. because the classpath changed
+	 */
+	public void dispose() {
+		backgroundWork.dispose();
+	}
+
+	/**
+	 * The type table, or <code>null</code> if it is being built in the background. Until it is built,
+	 * lookups have to search the modules one after the other.
+	 */
+	private ModuleTypeTable getTypeTable() {
+		ModuleTypeTable table = typeTable;
+		if (table == null && !warmingUp && typeTableRequested.compareAndSet(false, true)) {
+			// building the table needs the Jandex indexes of all modules, which shouldn't hold up the first lookup
+			backgroundWork.add(Mono.fromRunnable(() -> createTypeTable())
+				.subscribeOn(WARM_UP_SCHEDULER.get())
+				.subscribe(null, error -> log.error("Failed to create type table", error)));
+		}
+		return table;
+	}
+
+	private synchronized ModuleTypeTable createTypeTable() {
+		if (typeTable == null) {
+			typeTable = ModuleTypeTable.create(tableModules, indexFolder);
+		}
+		return typeTable;
+	}
+
+	private synchronized void setTypeTable(ModuleTypeTable table) {
+		if (typeTable == null) {
+			typeTable = table;
+		}
+	}
+
+	/**
+	 * Whether a module can be searched without waiting for its Jandex index to be built
+	 */
+	private boolean isAvailable(ModuleJandexIndex module) {
+		return !warmingUp || module.isIndexed();
 	}
 
 	Tuple2<IJavaModuleData, ClassInfo> getClassByName(DotName fqName) {
-		for (ModuleJandexIndex m : modules) {
-			IndexView indexView = m.getIndex().get();
-			if (indexView != null) {
-				ClassInfo info = indexView.getClassByName(fqName);
+		ModuleTypeTable table = getTypeTable();
+		if (table == null) {
+			// search the modules one after the other, while warming up the ones indexed so far first
+			List<ModuleJandexIndex> skipped = new ArrayList<>();
+			for (ModuleJandexIndex m : modules) {
+				if (!isAvailable(m)) {
+					skipped.add(m);
+					continue;
+				}
+				ClassInfo info = getClassByName(m, fqName);
+				if (info != null) {
+					return Tuples.of(m, info);
+				}
+			}
+			// a type must not be reported missing just because its module isn't indexed yet
+			for (ModuleJandexIndex m : skipped) {
+				ClassInfo info = getClassByName(m, fqName);
 				if (info != null) {
 					return Tuples.of(m, info);
 				}
 			}
+			return null;
+		}
+
+		ModuleJandexIndex declaringModule = table.getDeclaringModule(fqName);
+		int declaringPosition = declaringModule == null ? modules.size() : positions.get(declaringModule);
+
+		// class folders preceding the module of the type on the classpath may declare the type as well
+		for (ModuleJandexIndex m : folderModules) {
+			if (positions.get(m) > declaringPosition) {
+				break;
+			}
+			ClassInfo info = getClassByName(m, fqName);
+			if (info != null) {
+				return Tuples.of(m, info);
+			}
+		}
+
+		if (declaringModule != null) {
+			ClassInfo info = getClassByName(declaringModule, fqName);
+			if (info != null) {
+				return Tuples.of(declaringModule, info);
+			}
 		}
 		return null;
 	}
 
+	private ClassInfo getClassByName(ModuleJandexIndex module, DotName fqName) {
+		IndexView indexView = module.getIndex().get();
+		return indexView == null ? null : indexView.getClassByName(fqName);
+	}
+
 	public IJavaModuleData findClasspathResourceForType(String fqName) {
 		Tuple2<IJavaModuleData, ClassInfo> match = getClassByName(DotName.createSimple(fqName));
 		return match == null ? null : match.getT1();
@@ -139,7 +329,7 @@ public class BasicJandexIndex {
 	}
 
 	Flux<Tuple3<IJavaModuleData, ClassInfo, Double>> fuzzySearchTypes(String searchTerm) {
-		Flux<Tuple3<IJavaModuleData, ClassInfo, Double>> flux = Flux.fromIterable(modules).publishOn(Schedulers.parallel())
+		Flux<Tuple3<IJavaModuleData, ClassInfo, Double>> flux = Flux.fromIterable(modules).filter(this::isAvailable).publishOn(Schedulers.parallel())
 			.flatMap(m -> Flux.fromIterable(getKnownTypeTuples(m)))
 			.map(t -> Tuples.of(t.getT1(), t.getT2(), FuzzyMatcher.matchScore(searchTerm, t.getT2().name().toString())))
 			.filter(t -> t.getT3() != 0.0);
@@ -148,7 +338,7 @@ public class BasicJandexIndex {
 	}
 
 	public Flux<Tuple2<String, Double>> fuzzySearchPackages(String searchTerm) {
-		Flux<Tuple2<String, Double>> flux = Flux.fromIterable(modules).publishOn(Schedulers.parallel())
+		Flux<Tuple2<String, Double>> flux = Flux.fromIterable(modules).filter(this::isAvailable).publishOn(Schedulers.parallel())
 			.flatMap(m -> Flux.fromIterable(getKnownPackages(m)))
 			.map(pkg -> Tuples.of(pkg, FuzzyMatcher.matchScore(searchTerm, pkg)))
 			.filter(t -> t.getT2() != 0.0);
@@ -157,7 +347,10 @@ public class BasicJandexIndex {
 	}
 
 	Flux<Tuple2<IJavaModuleData, ClassInfo>> allSubtypesOf(DotName name, boolean isInterface) {
-		Flux<Tuple2<IJavaModuleData, ClassInfo>> flux = Flux.fromIterable(modules).publishOn(Schedulers.parallel())
+		// Jandex only finds subtypes in a module, which declares a direct subtype
+		ModuleTypeTable table = getTypeTable();
+		Iterable<ModuleJandexIndex> candidates = table == null ? modules : Iterables.concat(folderModules, table.getSubtypeModules(name));
+		Flux<Tuple2<IJavaModuleData, ClassInfo>> flux = Flux.fromIterable(candidates).filter(this::isAvailable).publishOn(Schedulers.parallel())
 			.flatMap(module -> Flux.fromIterable(getAllKnownSubclasses(module, name, isInterface)));
 
 		return flux;
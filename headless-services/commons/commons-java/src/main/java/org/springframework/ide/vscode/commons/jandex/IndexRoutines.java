@@ -22,8 +22,12 @@ import java.nio.file.FileSystem;
 import java.nio.file.FileSystems;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Function;
 
 import org.jboss.jandex.Index;
 import org.jboss.jandex.IndexReader;
@@ -36,8 +40,9 @@ import org.slf4j.LoggerFactory;
 import org.springframework.ide.vscode.commons.java.IClasspathUtil;
 import org.springframework.ide.vscode.commons.protocol.java.Classpath.CPE;
 
-import com.google.common.base.Supplier;
 import com.google.common.base.Suppliers;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.ImmutableList;
 
 public class IndexRoutines {
@@ -46,6 +51,11 @@ public class IndexRoutines {
 
 	private static final URI JRT_URI = URI.create("jrt:/");
 
+	/**
+	 * Modules of jars by their index file, so that classpaths with the same jar share its Jandex index in memory as well
+	 */
+	private static final Cache<File, ModuleJandexIndex> JAR_MODULES = CacheBuilder.newBuilder().weakValues().build();
+
 	static ImmutableList<ModuleJandexIndex> fromClasspathBinaryEntry(File file, File indexFile) {
 		ImmutableList.Builder<ModuleJandexIndex> builder = ImmutableList.builder();
 		if (file != null) {
@@ -72,6 +82,13 @@ public class IndexRoutines {
 	}
 
 	private static ModuleJandexIndex fromJar(File file, File indexFile) {
+		if (indexFile != null) {
+			try {
+				return JAR_MODULES.get(indexFile, () -> new ModuleJandexIndex(file, null, Suppliers.memoize(() -> indexJar(file, indexFile))));
+			} catch (ExecutionException e) {
+				log.error("", e);
+			}
+		}
 		return new ModuleJandexIndex(file, null, Suppliers.memoize(() -> indexJar(file, indexFile)));
 	}
 
@@ -116,7 +133,7 @@ public class IndexRoutines {
 	}
 
 	private static IndexView indexModule(Path modulePath, File indexFile) {
-		return createOrLoadIndex(indexFile, () -> createModuleIndex(modulePath, indexFile));
+		return createOrLoadIndex(indexFile, outputFile -> createModuleIndex(modulePath, outputFile));
 	}
 
 	private static IndexView createModuleIndex(Path modulePath, File indexFile) {
@@ -184,7 +201,7 @@ public class IndexRoutines {
 	}
 
 	private static IndexView indexJar(File file, File indexFile) {
-		return createOrLoadIndex(indexFile, () -> createJarIndex(indexFile, file));
+		return createOrLoadIndex(indexFile, outputFile -> createJarIndex(outputFile, file));
 	}
 
 	private static IndexView createJarIndex(File indexFile, File jarFile) {
@@ -197,16 +214,33 @@ public class IndexRoutines {
 		}
 	}
 
-	private static IndexView createOrLoadIndex(File indexFile, Supplier<IndexView> indexCreator) {
+	/**
+	 * Loads the index from the index file, or creates it. Index files are shared by language server instances, so the
+	 * index creator writes to a temporary file which then replaces the index file, rather than writing to the index file.
+	 */
+	private static IndexView createOrLoadIndex(File indexFile, Function<File, IndexView> indexCreator) {
 		if (indexFile != null) {
 			if (!indexFile.getParentFile().exists()) {
 				indexFile.getParentFile().mkdirs();
 			}
 			if (!indexFile.exists()) {
-				return indexCreator.get();
-			} else {
+				File tempFile = new File(indexFile.getParentFile(), indexFile.getName() + "." + UUID.randomUUID() + ".tmp");
+				IndexView index = indexCreator.apply(tempFile);
 				try {
-					return new IndexReader(new FileInputStream(indexFile)).read();
+					if (index != null && tempFile.exists()) {
+						Files.move(tempFile.toPath(), indexFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+					}
+				} catch (IOException e) {
+					log.error("Failed to store index file '" + indexFile + "'", e);
+				} finally {
+					tempFile.delete();
+				}
+				return index;
+			} else {
+				try (InputStream in = new FileInputStream(indexFile)) {
+					IndexView index = new IndexReader(in).read();
+					JandexIndexCache.touch(indexFile);
+					return index;
 				} catch (IOException e) {
 					log.error("Failed to read index file '" + indexFile + "'. Creating new index file.", e);
 					if (indexFile.delete()) {
@@ -26,6 +26,7 @@ import org.springframework.ide.vscode.commons.java.IClasspath;
 import org.springframework.ide.vscode.commons.java.IClasspathUtil;
 import org.springframework.ide.vscode.commons.java.IJavaModuleData;
 import org.springframework.ide.vscode.commons.java.IType;
+import org.springframework.ide.vscode.commons.languageserver.ProgressService;
 import org.springframework.ide.vscode.commons.protocol.java.Classpath;
 import org.springframework.ide.vscode.commons.util.FileObserver;
 
@@ -35,6 +36,8 @@ import com.google.common.base.Suppliers;
 import reactor.core.Disposable;
 import reactor.core.Disposables;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 import reactor.util.function.Tuple2;
 import reactor.util.function.Tuples;
 
@@ -55,21 +58,65 @@ public final class JandexClasspath implements ClasspathIndex {
 	}
 
 	private Supplier<JandexIndex> javaIndex;
+	private JandexIndex createdIndex;
+	private volatile boolean disposed;
 	private final IClasspath classpath;
 	private final FileObserver fileObserver;
 	private final JavadocProviderFactory javadocProviderFactory;
+	private final ProgressService progressService;
 
 	public JandexClasspath(IClasspath classpath, FileObserver fileObserver, JavadocProviderFactory javadocProviderFactory) {
+		this(classpath, fileObserver, javadocProviderFactory, null);
+	}
+
+	/**
+	 * @param progressService if not <code>null</code>, the classpath is indexed in the background right away, rather than
+	 * on demand when types are searched, and progress is reported to this service
+	 */
+	public JandexClasspath(IClasspath classpath, FileObserver fileObserver, JavadocProviderFactory javadocProviderFactory, ProgressService progressService) {
 		this.fileObserver = fileObserver;
 		this.classpath = classpath;
 		this.javadocProviderFactory = javadocProviderFactory;
+		this.progressService = progressService;
 		this.javaIndex = Suppliers.synchronizedSupplier(Suppliers.memoize(() -> createIndex()));
+		if (progressService != null) {
+			// collecting the modules of the classpath shouldn't hold up the caller either
+			Mono.fromRunnable(() -> javaIndex.get()).subscribeOn(Schedulers.elastic()).subscribe();
+		}
 	}
 
 	protected JandexIndex createIndex() {
 		log.info("Creating JandexIndex for "+classpath.getName());
 		attachFolderListeners();
-		return new JandexIndex(classpath, jarFile -> findIndexFile(jarFile), javadocProviderFactory);
+		File indexFolder = getIndexFolder();
+		Mono.fromRunnable(() -> {
+			JandexIndexCache.evict(indexFolder, JandexIndexCache.MAX_SIZE);
+			JandexIndexCache.cleanUpLegacyFolders();
+		}).subscribeOn(Schedulers.elastic()).subscribe();
+		JandexIndex index = new JandexIndex(classpath, jarFile -> findIndexFile(jarFile), indexFolder, javadocProviderFactory);
+		if (progressService != null) {
+			index.warmUp(progressService, classpath.getName());
+		}
+		disposeIndex(index);
+		return index;
+	}
+
+	/**
+	 * Cancels the background work of the index created last, which is replaced by the given one
+	 */
+	private void disposeIndex(JandexIndex replacement) {
+		JandexIndex toDispose;
+		synchronized (this) {
+			toDispose = createdIndex;
+			createdIndex = disposed ? null : replacement;
+		}
+		if (toDispose != null) {
+			toDispose.dispose();
+		}
+		if (disposed && replacement != null) {
+			// created in the background after this classpath got disposed
+			replacement.dispose();
+		}
 	}
 
 	private Disposable.Composite subscriptions = Disposables.composite();
@@ -88,11 +135,13 @@ public final class JandexClasspath implements ClasspathIndex {
 
 	@Override
 	public void dispose() {
+		disposed = true;
 		Composite toDispose = subscriptions;
 		subscriptions = null;
 		if (toDispose!=null) {
 			toDispose.dispose();
 		}
+		disposeIndex(null);
 	}
 
 	@Override
@@ -120,7 +169,7 @@ public final class JandexClasspath implements ClasspathIndex {
 		if (indexFolder == null) {
 			return null;
 		}
-		return new File(indexFolder.toString(), jarFile.getName() + "-" + jarFile.lastModified() + ".jdx");
+		return JandexIndexCache.getIndexFile(indexFolder, jarFile);
 	}
 
 	protected File getIndexFolder() {
@@ -135,6 +184,8 @@ public final class JandexClasspath implements ClasspathIndex {
 	private void reindex() {
 		log.info("Clearing JandexIndex for "+classpath.getName());
 		this.javaIndex = Suppliers.synchronizedSupplier(Suppliers.memoize(() -> createIndex()));
+		// the outdated index isn't warmed up any further
+		disposeIndex(null);
 	}
 
 	private static void updateQueue(Queue<String> queue, Set<String> exclusion, IType type) {
@@ -50,9 +50,9 @@ public class JandexIndex extends BasicJandexIndex {
 		return javadocProviderFactory;
 	}
 
-	public JandexIndex(IClasspath classpath, IndexFileFinder indexFileFinder,
+	public JandexIndex(IClasspath classpath, IndexFileFinder indexFileFinder, File indexFolder,
 			JavadocProviderFactory javadocProviderFactory) {
-		super(classpath, indexFileFinder);
+		super(classpath, indexFileFinder, indexFolder);
 		this.javadocProviderFactory = javadocProviderFactory;
 	}
 
@@ -0,0 +1,262 @@
+/*******************************************************************************
+ * Copyright (c) 2019 Pivotal, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal, Inc. - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.vscode.commons.jandex;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.hash.Hashing;
+
+/**
+ * Routines for the folder with Jandex index files, which is shared by all projects and language server instances.
+ * <p>
+ * The index file of a jar is named after a hash of the path, size and modification time of the jar, so that
+ * projects using the same jar share its index, and a jar that is replaced in place gets indexed again. Index
+ * files are touched whenever they are loaded, so that the least recently used ones can be deleted once the
+ * files in the folder exceed a maximum size.
+ * <p>
+ * Type tables (see {@link ModuleTypeTable}) are small and needed for every lookup, so they are only deleted
+ * once they haven't been used for a long time. Temporary files might still be written by another language
+ * server, so they are only deleted once they are old.
+ */
+public class JandexIndexCache {
+
+	/**
+	 * Default maximum size of all index files in the folder
+	 */
+	public static final long MAX_SIZE = 512L * 1024 * 1024;
+
+	/**
+	 * Minimum time between checking the size of the same index folder
+	 */
+	private static final long EVICTION_INTERVAL = 5 * 60 * 1000;
+
+	/**
+	 * Type tables not used for this long are deleted
+	 */
+	private static final long TYPE_TABLE_EXPIRATION = 30L * 24 * 60 * 60 * 1000;
+
+	/**
+	 * Temporary files older than this are left over from a crashed language server
+	 */
+	private static final long TEMP_FILE_EXPIRATION = 60 * 60 * 1000;
+
+	/**
+	 * Files in the folders of older versions are only deleted once they and the marker file are older than this,
+	 * so that older versions that still run at the same time keep their index files
+	 */
+	private static final long LEGACY_FILE_EXPIRATION = 30L * 24 * 60 * 60 * 1000;
+
+	/**
+	 * Created in the folders of older versions when they are seen for the first time
+	 */
+	private static final String LEGACY_MARKER_FILE = ".outdated";
+
+	private static final Logger log = LoggerFactory.getLogger(JandexIndexCache.class);
+
+	private static final Map<File, Long> lastEvictions = new ConcurrentHashMap<>();
+
+	private static final AtomicBoolean legacyFoldersCleanedUp = new AtomicBoolean();
+
+	/**
+	 * Index file for a jar
+	 */
+	public static File getIndexFile(File indexFolder, File jarFile) {
+		return new File(indexFolder, jarFile.getName() + "-" + hash(jarFile) + ".jdx");
+	}
+
+	/**
+	 * Folder for the index files of the modules in a JDK image (or the jars of a JRE), identified by a file in it
+	 */
+	public static File getModulesIndexFolder(File indexFolder, File jdkFile) {
+		return new File(indexFolder, jdkFile.getName() + "-" + hash(jdkFile));
+	}
+
+	private static String hash(File file) {
+		String key = file.getAbsolutePath() + "|" + file.length() + "|" + file.lastModified();
+		return Hashing.sha256().hashUnencodedChars(key).toString().substring(0, 32);
+	}
+
+	/**
+	 * Marks an index file as used just now
+	 */
+	static void touch(File indexFile) {
+		if (!indexFile.setLastModified(System.currentTimeMillis())) {
+			log.debug("Failed to touch index file {}", indexFile);
+		}
+	}
+
+	/**
+	 * Deletes the least recently used index files in the index folder (including its sub folders), until the
+	 * total size of the files doesn't exceed the maximum size. Deletes type tables that haven't been used for
+	 * a long time and old temporary files as well. Does nothing if the folder has been checked recently.
+	 */
+	public static void evict(File indexFolder, long maxSize) {
+		if (indexFolder == null || !indexFolder.isDirectory()) {
+			return;
+		}
+		long now = System.currentTimeMillis();
+		Long lastEviction = lastEvictions.get(indexFolder);
+		if (lastEviction != null && now - lastEviction < EVICTION_INTERVAL) {
+			return;
+		}
+		lastEvictions.put(indexFolder, now);
+
+		List<IndexFile> files = new ArrayList<>();
+		long totalSize = 0;
+		try (Stream<Path> paths = Files.walk(indexFolder.toPath())) {
+			for (Path path : (Iterable<Path>) paths::iterator) {
+				BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+				if (attributes.isRegularFile()) {
+					String name = path.getFileName().toString();
+					long lastUsed = attributes.lastModifiedTime().toMillis();
+					if (name.endsWith(".tmp")) {
+						if (now - lastUsed > TEMP_FILE_EXPIRATION) {
+							delete(path);
+						}
+					} else if (name.endsWith(".types")) {
+						if (now - lastUsed > TYPE_TABLE_EXPIRATION) {
+							delete(path);
+						}
+					} else {
+						files.add(new IndexFile(path, attributes.size(), lastUsed));
+						totalSize += attributes.size();
+					}
+				}
+			}
+		} catch (IOException | UncheckedIOException e) {
+			log.warn("Failed to list index files in " + indexFolder, e);
+			return;
+		}
+
+		if (totalSize <= maxSize) {
+			return;
+		}
+
+		files.sort(Comparator.comparingLong(file -> file.lastUsed));
+		for (IndexFile file : files) {
+			if (totalSize <= maxSize) {
+				break;
+			}
+			if (delete(file.path)) {
+				totalSize -= file.size;
+				log.info("Deleted least recently used index file {}", file.path);
+			}
+		}
+	}
+
+	private static boolean delete(Path path) {
+		try {
+			Files.delete(path);
+			return true;
+		} catch (IOException e) {
+			// still open, e.g. by another language server on Windows
+			log.debug("Failed to delete index file " + path, e);
+			return false;
+		}
+	}
+
+	/**
+	 * Deletes old files from the folders with index files of older versions. Does nothing if the folders have been
+	 * cleaned up by this process already.
+	 */
+	public static void cleanUpLegacyFolders() {
+		if (!legacyFoldersCleanedUp.compareAndSet(false, true)) {
+			return;
+		}
+		long now = System.currentTimeMillis();
+		cleanUpLegacyFolder(Paths.get(System.getProperty("java.io.tmpdir"), "jandex"), now);
+		cleanUpLegacyFolder(Paths.get(System.getProperty("user.home"), ".sts4-jandex"), now);
+	}
+
+	/**
+	 * Older versions might still run and use the folder, they don't touch the index files they load. So the folder
+	 * is only marked when it is seen for the first time, and files are deleted once both the marker and the files
+	 * are older than the expiration. The folder itself is deleted once only the marker is left.
+	 */
+	static void cleanUpLegacyFolder(Path folder, long now) {
+		if (!Files.isDirectory(folder)) {
+			return;
+		}
+		Path marker = folder.resolve(LEGACY_MARKER_FILE);
+		try {
+			if (!Files.exists(marker)) {
+				Files.createFile(marker);
+				return;
+			}
+			if (now - Files.getLastModifiedTime(marker).toMillis() < LEGACY_FILE_EXPIRATION) {
+				return;
+			}
+		} catch (IOException e) {
+			log.debug("Failed to check outdated index folder " + folder, e);
+			return;
+		}
+
+		log.info("Deleting old files from outdated index folder {}", folder);
+		try (Stream<Path> paths = Files.walk(folder)) {
+			// children first, so that emptied folders can be deleted as well
+			for (Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+				if (path.equals(marker) || path.equals(folder)) {
+					continue;
+				}
+				if (Files.isDirectory(path)) {
+					if (isEmpty(path)) {
+						delete(path);
+					}
+				} else if (now - Files.getLastModifiedTime(path).toMillis() > LEGACY_FILE_EXPIRATION) {
+					delete(path);
+				}
+			}
+			try (Stream<Path> remaining = Files.list(folder)) {
+				if (remaining.allMatch(marker::equals)) {
+					delete(marker);
+					delete(folder);
+				}
+			}
+		} catch (IOException | UncheckedIOException e) {
+			log.warn("Failed to clean up outdated index folder " + folder, e);
+		}
+	}
+
+	private static boolean isEmpty(Path folder) throws IOException {
+		try (Stream<Path> children = Files.list(folder)) {
+			return !children.findAny().isPresent();
+		}
+	}
+
+	private static class IndexFile {
+		final Path path;
+		final long size;
+		final long lastUsed;
+
+		IndexFile(Path path, long size, long lastUsed) {
+			this.path = path;
+			this.size = size;
+			this.lastUsed = lastUsed;
+		}
+	}
+
+}
@@ -11,11 +11,7 @@
 package org.springframework.ide.vscode.commons.jandex;
 
 import java.io.File;
-import java.nio.channels.IllegalSelectorException;
 import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
 import java.util.concurrent.ExecutionException;
 
 import org.slf4j.Logger;
@@ -27,7 +23,6 @@ import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
 import com.google.common.collect.ImmutableList;
-import com.google.common.io.BaseEncoding;
 
 /**
  * Keeps cache of system libs Jandex Indexes
@@ -64,20 +59,12 @@ public class JandexSystemLibsIndex {
 	}
 
 	private File findIndexFile(Path path) {
-		return Paths.get(System.getProperty("user.home"), ".sts4-jandex", folderNameforPath(path.getParent().toString()), path.getFileName() + ".jdx").toFile();
-	}
-
-	private static String folderNameforPath(String path) {
-		try {
-			MessageDigest md = MessageDigest.getInstance("SHA-1");
-			byte[] bytes = md.digest((path).getBytes());
-			String name = new String(BaseEncoding.base32().encode(bytes));
-			name = name.replace('/', '_'); //slashes are trouble in file names.
-			return name;
-		} catch (NoSuchAlgorithmException e) {
-			// shouldn't happen!
-			throw new IllegalSelectorException();
+		File file = path.toFile();
+		if (file.getName().endsWith("jrt-fs.jar")) {
+			// folder for the indexes of all modules of the JDK
+			return JandexIndexCache.getModulesIndexFolder(BasicJandexIndex.getIndexFolder(), file);
 		}
+		return JandexIndexCache.getIndexFile(BasicJandexIndex.getIndexFolder(), file);
 	}
 
 	public ImmutableList<ModuleJandexIndex> index(Path path) {
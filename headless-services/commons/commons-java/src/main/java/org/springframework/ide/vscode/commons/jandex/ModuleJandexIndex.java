@@ -16,11 +16,14 @@ import org.jboss.jandex.IndexView;
 import org.springframework.ide.vscode.commons.java.IJavaModuleData;
 
 import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
 
 class ModuleJandexIndex implements IJavaModuleData {
 
 	private Supplier<IndexView> index;
 
+	private volatile boolean indexed = false;
+
 	private File container;
 
 	private String module;
@@ -28,13 +31,26 @@ class ModuleJandexIndex implements IJavaModuleData {
 	public ModuleJandexIndex(File container, String module, Supplier<IndexView> index) {
 		this.container = container;
 		this.module = module;
-		this.index = index;
+		this.index = Suppliers.memoize(() -> {
+			try {
+				return index.get();
+			} finally {
+				indexed = true;
+			}
+		});
 	}
 
 	public Supplier<IndexView> getIndex() {
 		return index;
 	}
 
+	/**
+	 * Whether the Jandex index has been created or loaded already, i.e. getting it doesn't block
+	 */
+	public boolean isIndexed() {
+		return indexed;
+	}
+
 	@Override
 	public File getContainer() {
 		return container;
@@ -0,0 +1,254 @@
+/*******************************************************************************
+ * Copyright (c) 2019 Pivotal, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal, Inc. - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.vscode.commons.jandex;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.jboss.jandex.ClassInfo;
+import org.jboss.jandex.DotName;
+import org.jboss.jandex.IndexView;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.hash.Hashing;
+
+/**
+ * Lookup table from type names to the modules of a classpath that declare them, and to the modules
+ * that declare direct subtypes of them. Saves looking into the Jandex index of every module for
+ * finding a type, which also would load the index of every module.
+ * <p>
+ * The table is stored in the index folder, next to the Jandex index files, for the list of modules
+ * with the path, size and modification time of their containers. It is only built from the Jandex
+ * indexes, when the table of that list of modules isn't stored yet.
+ */
+class ModuleTypeTable {
+
+	/**
+	 * Version of the binary format, needs to be increased whenever the format changes
+	 */
+	private static final int FORMAT_VERSION = 1;
+	private static final int MAGIC = 0x4a445454; // "JDTT"
+
+	private static final int[] NO_MODULES = new int[0];
+
+	private static final Logger log = LoggerFactory.getLogger(ModuleTypeTable.class);
+
+	private final List<ModuleJandexIndex> modules;
+
+	/**
+	 * First module declaring a type, as position in the list of modules
+	 */
+	private final Map<DotName, Integer> declaringModules;
+
+	/**
+	 * Modules declaring direct subtypes of a type, as positions in the list of modules
+	 */
+	private final Map<DotName, int[]> subtypeModules;
+
+	private ModuleTypeTable(List<ModuleJandexIndex> modules, Map<DotName, Integer> declaringModules, Map<DotName, int[]> subtypeModules) {
+		this.modules = modules;
+		this.declaringModules = declaringModules;
+		this.subtypeModules = subtypeModules;
+	}
+
+	/**
+	 * Loads the table for the modules from the index folder, or builds and stores it, if there is none for the current state of the modules.
+	 *
+	 * @param modules Modules with a persistent Jandex index, i.e. jars and JDK modules
+	 * @param indexFolder Folder for storing the table, or <code>null</code> for not storing it
+	 */
+	static ModuleTypeTable create(ImmutableList<ModuleJandexIndex> modules, File indexFolder) {
+		ModuleTypeTable table = loadStored(modules, indexFolder);
+		if (table == null) {
+			table = build(modules);
+			if (indexFolder != null) {
+				table.store(getTableFile(modules, indexFolder));
+			}
+		}
+		return table;
+	}
+
+	/**
+	 * Loads the table for the modules from the index folder, without looking into the Jandex indexes of the modules.
+	 *
+	 * @return the stored table, or <code>null</code> if there is none for the current state of the modules
+	 */
+	static ModuleTypeTable loadStored(ImmutableList<ModuleJandexIndex> modules, File indexFolder) {
+		File file = indexFolder == null ? null : getTableFile(modules, indexFolder);
+		return file != null && file.isFile() ? load(modules, file) : null;
+	}
+
+	ModuleJandexIndex getDeclaringModule(DotName type) {
+		Integer module = declaringModules.get(type);
+		return module == null ? null : modules.get(module);
+	}
+
+	ImmutableList<ModuleJandexIndex> getSubtypeModules(DotName type) {
+		int[] positions = subtypeModules.getOrDefault(type, NO_MODULES);
+		ImmutableList.Builder<ModuleJandexIndex> builder = ImmutableList.builder();
+		for (int module : positions) {
+			builder.add(modules.get(module));
+		}
+		return builder.build();
+	}
+
+	private static ModuleTypeTable build(ImmutableList<ModuleJandexIndex> modules) {
+		Map<DotName, Integer> declaringModules = new HashMap<>();
+		Map<DotName, int[]> subtypeModules = new HashMap<>();
+		for (int i = 0; i < modules.size(); i++) {
+			IndexView indexView = modules.get(i).getIndex().get();
+			Collection<ClassInfo> knownClasses = indexView == null ? null : indexView.getKnownClasses();
+			if (knownClasses != null) {
+				for (ClassInfo info : knownClasses) {
+					declaringModules.putIfAbsent(info.name(), i);
+					if (info.superName() != null) {
+						addModule(subtypeModules, info.superName(), i);
+					}
+					for (DotName interfaceName : info.interfaceNames()) {
+						addModule(subtypeModules, interfaceName, i);
+					}
+				}
+			}
+		}
+		return new ModuleTypeTable(modules, declaringModules, subtypeModules);
+	}
+
+	private static void addModule(Map<DotName, int[]> subtypeModules, DotName type, int module) {
+		int[] positions = subtypeModules.get(type);
+		if (positions == null) {
+			subtypeModules.put(type, new int[] { module });
+		} else if (positions[positions.length - 1] != module) {
+			// modules are added in order, so the module can only be the last one
+			positions = Arrays.copyOf(positions, positions.length + 1);
+			positions[positions.length - 1] = module;
+			subtypeModules.put(type, positions);
+		}
+	}
+
+	/**
+	 * Reads the table from the file. Corrupt or truncated files are treated like missing ones, the table gets built again in that case.
+	 */
+	private static ModuleTypeTable load(ImmutableList<ModuleJandexIndex> modules, File file) {
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file.toPath())))) {
+			if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION || in.readInt() != modules.size()) {
+				return null;
+			}
+
+			// every entry takes more than one byte, larger counts can only come from a corrupt file
+			long maxCount = file.length();
+
+			int count = readCount(in, maxCount);
+			Map<DotName, Integer> declaringModules = new HashMap<>(count * 4 / 3 + 1);
+			for (int i = 0; i < count; i++) {
+				DotName type = DotName.createSimple(in.readUTF());
+				declaringModules.put(type, readModule(in, modules));
+			}
+
+			count = readCount(in, maxCount);
+			Map<DotName, int[]> subtypeModules = new HashMap<>(count * 4 / 3 + 1);
+			for (int i = 0; i < count; i++) {
+				DotName type = DotName.createSimple(in.readUTF());
+				int[] positions = new int[readCount(in, modules.size())];
+				for (int j = 0; j < positions.length; j++) {
+					positions[j] = readModule(in, modules);
+				}
+				subtypeModules.put(type, positions);
+			}
+
+			if (in.read() != -1) {
+				throw new IOException("Unexpected data after the end of the type table");
+			}
+			JandexIndexCache.touch(file);
+			return new ModuleTypeTable(modules, declaringModules, subtypeModules);
+		} catch (Exception e) {
+			log.warn("Failed to read type table from " + file + ", building it again", e);
+			return null;
+		}
+	}
+
+	private static int readCount(DataInputStream in, long maxCount) throws IOException {
+		int count = in.readInt();
+		if (count < 0 || count > maxCount) {
+			throw new IOException("Invalid number of entries in type table: " + count);
+		}
+		return count;
+	}
+
+	private static int readModule(DataInputStream in, List<ModuleJandexIndex> modules) throws IOException {
+		int module = in.readInt();
+		if (module < 0 || module >= modules.size()) {
+			throw new IOException("Invalid module position in type table: " + module);
+		}
+		return module;
+	}
+
+	private void store(File file) {
+		File tempFile = new File(file.getParentFile(), file.getName() + "." + UUID.randomUUID() + ".tmp");
+		try {
+			Files.createDirectories(file.getParentFile().toPath());
+
+			try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile.toPath())))) {
+				out.writeInt(MAGIC);
+				out.writeInt(FORMAT_VERSION);
+				out.writeInt(modules.size());
+
+				out.writeInt(declaringModules.size());
+				for (Map.Entry<DotName, Integer> entry : declaringModules.entrySet()) {
+					out.writeUTF(entry.getKey().toString());
+					out.writeInt(entry.getValue());
+				}
+
+				out.writeInt(subtypeModules.size());
+				for (Map.Entry<DotName, int[]> entry : subtypeModules.entrySet()) {
+					out.writeUTF(entry.getKey().toString());
+					out.writeInt(entry.getValue().length);
+					for (int module : entry.getValue()) {
+						out.writeInt(module);
+					}
+				}
+			}
+
+			Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (IOException e) {
+			log.warn("Failed to write type table " + file, e);
+		} finally {
+			tempFile.delete();
+		}
+	}
+
+	private static File getTableFile(List<ModuleJandexIndex> modules, File indexFolder) {
+		StringBuilder fingerprint = new StringBuilder();
+		for (ModuleJandexIndex module : modules) {
+			File container = module.getContainer();
+			fingerprint.append(container.getAbsolutePath()).append('|')
+				.append(module.getModule()).append('|')
+				.append(container.length()).append('|')
+				.append(container.lastModified()).append('\n');
+		}
+		String fileName = Hashing.sha256().hashUnencodedChars(fingerprint).toString();
+		return new File(indexFolder, fileName + ".types");
+	}
+
+}
@@ -10,6 +10,10 @@
  *******************************************************************************/
 package org.springframework.ide.vscode.commons.java;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
 import reactor.core.Disposable;
 import reactor.core.publisher.Flux;
 import reactor.util.function.Tuple2;
@@ -17,6 +21,24 @@ import reactor.util.function.Tuple2;
 public interface ClasspathIndex extends Disposable {
 
 	IType findType(String fqName);
+
+	/**
+	 * Looks up several types at once, which is cheaper than looking them up one by one for indexes that
+	 * have to request the types from elsewhere.
+	 *
+	 * @return the found types by fully qualified name, types that aren't found are left out
+	 */
+	default Map<String, IType> findTypes(Collection<String> fqNames) {
+		Map<String, IType> types = new HashMap<>();
+		for (String fqName : fqNames) {
+			IType type = findType(fqName);
+			if (type != null) {
+				types.put(fqName, type);
+			}
+		}
+		return types;
+	}
+
 	Flux<Tuple2<String, Double>> fuzzySearchTypes(String searchTerm, boolean includeBinaries, boolean includeSystemLibs);
 	Flux<Tuple2<String, Double>> fuzzySearchPackages(String searchTerm, boolean includeBinaries, boolean includeSystemLibs);
 	Flux<IType> allSubtypesOf(IType type);
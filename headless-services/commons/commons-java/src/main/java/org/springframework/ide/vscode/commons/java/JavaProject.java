@@ -14,6 +14,7 @@ import java.net.URI;
 
 import org.springframework.ide.vscode.commons.jandex.JandexClasspath;
 import org.springframework.ide.vscode.commons.jandex.JandexIndex.JavadocProviderFactory;
+import org.springframework.ide.vscode.commons.languageserver.ProgressService;
 import org.springframework.ide.vscode.commons.languageserver.java.JavadocService;
 import org.springframework.ide.vscode.commons.protocol.java.Classpath.CPE;
 import org.springframework.ide.vscode.commons.util.FileObserver;
@@ -22,10 +23,20 @@ public class JavaProject extends AbstractJavaProject {
 
 	private final FileObserver fileObserver;
 	private final JavadocProviderFactory javadocProviderFactory;
+	private final ProgressService progressService;
 
 	public JavaProject(FileObserver fileObserver, URI uri, IClasspath classpath, JavadocService javadocService) {
+		this(fileObserver, uri, classpath, javadocService, null);
+	}
+
+	/**
+	 * @param progressService if not <code>null</code>, the classpath gets indexed in the background as soon as the
+	 * index of the project is created, and progress is reported to this service
+	 */
+	public JavaProject(FileObserver fileObserver, URI uri, IClasspath classpath, JavadocService javadocService, ProgressService progressService) {
 		super(uri, classpath);
 		this.fileObserver = fileObserver;
+		this.progressService = progressService;
 		this.javadocProviderFactory = (classpathResource) -> {
 			CPE cpe = IClasspathUtil.findEntryForBinaryRoot(classpath, classpathResource);
 			return javadocService.javadocProvider(uri.toString(), cpe);
@@ -34,7 +45,7 @@ public class JavaProject extends AbstractJavaProject {
 
 	@Override
 	protected ClasspathIndex createIndex() {
-		return new JandexClasspath(getClasspath(), fileObserver, javadocProviderFactory);
+		return new JandexClasspath(getClasspath(), fileObserver, javadocProviderFactory, progressService);
 	}
 
 }
@@ -13,20 +13,27 @@ package org.springframework.ide.vscode.commons.java;
 import java.net.URI;
 
 import org.springframework.ide.vscode.commons.jdtls.JdtLsIndex;
+import org.springframework.ide.vscode.commons.jdtls.JdtLsTypeStore;
 import org.springframework.ide.vscode.commons.protocol.STS4LanguageClient;
 
 public class JdtLsJavaProject extends AbstractJavaProject {
 
 	final private STS4LanguageClient client;
+	final private JdtLsTypeStore typeStore;
 
 	public JdtLsJavaProject(STS4LanguageClient client, URI uri, IClasspath classpath) {
+		this(client, uri, classpath, new JdtLsTypeStore());
+	}
+
+	public JdtLsJavaProject(STS4LanguageClient client, URI uri, IClasspath classpath, JdtLsTypeStore typeStore) {
 		super(uri, classpath);
 		this.client = client;
+		this.typeStore = typeStore;
 	}
 
 	@Override
 	protected ClasspathIndex createIndex() {
-		return new JdtLsIndex(client, getLocationUri());
+		return new JdtLsIndex(client, getLocationUri(), typeStore);
 	}
 
 }
@@ -11,12 +11,25 @@
 package org.springframework.ide.vscode.commons.jdtls;
 
 import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
 
+import org.eclipse.lsp4j.jsonrpc.ResponseErrorException;
+import org.eclipse.lsp4j.jsonrpc.messages.ResponseErrorCode;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.ide.vscode.commons.java.ClasspathIndex;
@@ -28,12 +41,12 @@ import org.springframework.ide.vscode.commons.protocol.STS4LanguageClient;
 import org.springframework.ide.vscode.commons.protocol.java.JavaDataParams;
 import org.springframework.ide.vscode.commons.protocol.java.JavaSearchParams;
 import org.springframework.ide.vscode.commons.protocol.java.JavaTypeHierarchyParams;
+import org.springframework.ide.vscode.commons.protocol.java.JavaTypesParams;
 import org.springframework.ide.vscode.commons.protocol.java.TypeData;
 import org.springframework.ide.vscode.commons.util.FuzzyMatcher;
 
+import com.google.common.base.Supplier;
 import com.google.common.base.Suppliers;
-import com.google.common.cache.Cache;
-import com.google.common.cache.CacheBuilder;
 
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -44,6 +57,8 @@ import reactor.util.function.Tuples;
 public class JdtLsIndex implements ClasspathIndex {
 
 	private static final long SEARCH_TIMEOUT = 700;
+	private static final long TYPES_TIMEOUT = 1000;
+	private static final long FIND_TYPE_TIMEOUT = 500;
 
 	private static final Logger log = LoggerFactory.getLogger(JdtLsIndex.class);
 
@@ -51,11 +66,34 @@ public class JdtLsIndex implements ClasspathIndex {
 	private final URI projectUri;
 	private final JdtLsJavadocProvider javadocProvider;
 
-	private Cache<String, Optional<IType>> cache = CacheBuilder.newBuilder().expireAfterAccess(10, TimeUnit.SECONDS).build();
+	private final JdtLsTypeStore store;
+
+	/**
+	 * Types that are requested from the client, but not received yet
+	 */
+	private final Map<String, CompletableFuture<Optional<TypeData>>> requested = new HashMap<>();
+
+	/**
+	 * Types to request with the next batch, once the request in flight is done
+	 */
+	private List<String> queued = new ArrayList<>();
+	private boolean requestInFlight;
+
+	/**
+	 * Completed once the queued types are sent
+	 */
+	private CompletableFuture<Void> queuedSent = new CompletableFuture<>();
+
+	private volatile boolean batchRequestsSupported = true;
 
 	public JdtLsIndex(STS4LanguageClient client, URI projectUri) {
+		this(client, projectUri, new JdtLsTypeStore());
+	}
+
+	public JdtLsIndex(STS4LanguageClient client, URI projectUri, JdtLsTypeStore store) {
 		this.client = client;
 		this.projectUri = projectUri;
+		this.store = store;
 		this.javadocProvider = new JdtLsJavadocProvider(client, projectUri.toString());
 	}
 
@@ -63,33 +101,238 @@ public class JdtLsIndex implements ClasspathIndex {
 	public void dispose() {
 	}
 
-	private IType toType(TypeData data) {
+	/**
+	 * Types are requested without members, which are only requested from the client when they are needed.
+	 *
+	 * @param storeKey key to upgrade the stored type data with the members, or <code>null</code> if the type data isn't stored
+	 */
+	private IType toType(TypeData data, String storeKey) {
+		return toType(data, () -> requestMembers(data.getBindingKey(), storeKey));
+	}
+
+	private IType toType(TypeData data, Supplier<TypeData> membersSupplier) {
 		String declaringTypeBindingKey = data.getDeclaringType();
 		String declaringTypeFqName = JavaUtils.typeBindingKeyToFqName(declaringTypeBindingKey);
-		return Wrappers.wrap(data, Suppliers.memoize(() -> declaringTypeFqName == null ? null : findType(declaringTypeFqName)), javadocProvider);
+		return Wrappers.wrap(data,
+				Suppliers.memoize(() -> declaringTypeFqName == null ? null : findType(declaringTypeFqName)),
+				membersSupplier,
+				javadocProvider);
+	}
+
+	/**
+	 * Type hierarchies are requested without members. Once the members of one type are needed, the members
+	 * of all types of the hierarchy are requested in one batch, rather than each type on its own.
+	 */
+	private Flux<IType> toTypes(List<TypeData> types) {
+		List<String> bindingKeys = types.stream().map(TypeData::getBindingKey).collect(Collectors.toList());
+		Supplier<Map<String, TypeData>> members = Wrappers.memoizeNonNull(() -> requestMembers(bindingKeys));
+		return Flux.fromIterable(types)
+				.map(data -> toType(data, () -> {
+					Map<String, TypeData> allMembers = members.get();
+					return allMembers == null ? null : allMembers.get(data.getBindingKey());
+				}));
+	}
+
+	private TypeData requestMembers(String bindingKey, String storeKey) {
+		long version = store.getVersion();
+		try {
+			TypeData data = client.javaType(new JavaDataParams(projectUri.toString(), bindingKey, false)).get(TYPES_TIMEOUT, TimeUnit.MILLISECONDS);
+			if (data != null && storeKey != null) {
+				store.put(storeKey, data, version);
+			}
+			return data;
+		} catch (InterruptedException | ExecutionException | TimeoutException e) {
+			log.error("", e);
+			return null;
+		}
 	}
 
 	@Override
 	public IType findType(String fqName) {
-		try {
-			return cache.get(fqName, () -> {
-				JavaDataParams params = new JavaDataParams(projectUri.toString(), "L" + fqName.replace('.', '/') + ";", false);
+		return findTypes(Collections.singletonList(fqName)).get(fqName);
+	}
+
+	@Override
+	public Map<String, IType> findTypes(Collection<String> fqNames) {
+		Map<String, IType> types = new HashMap<>();
+		Map<String, String> missing = new LinkedHashMap<>();
+		for (String fqName : fqNames) {
+			String bindingKey = "L" + fqName.replace('.', '/') + ";";
+			Optional<TypeData> data = store.get(bindingKey);
+			if (data == null) {
+				missing.put(fqName, bindingKey);
+			} else if (data.isPresent()) {
+				types.put(fqName, toType(data.get(), bindingKey));
+			}
+		}
+		if (!missing.isEmpty()) {
+			Map<String, CompletableFuture<Optional<TypeData>>> requests = request(missing.values());
+			// the request for the types may have to wait for the request in flight, the time for the response starts once it is sent
+			try {
+				whenSent(missing.values()).get(TYPES_TIMEOUT, TimeUnit.MILLISECONDS);
+			} catch (InterruptedException | ExecutionException | TimeoutException e) {
+				log.error("", e);
+			}
+			long deadline = System.currentTimeMillis() + FIND_TYPE_TIMEOUT;
+			for (Map.Entry<String, String> entry : missing.entrySet()) {
+				String bindingKey = entry.getValue();
 				try {
-					TypeData data = client.javaType(params).get(500, TimeUnit.MILLISECONDS);
-					if (data != null) {
-						return Optional.ofNullable(toType(data));
+					long timeout = Math.max(0, deadline - System.currentTimeMillis());
+					Optional<TypeData> data = requests.get(bindingKey).get(timeout, TimeUnit.MILLISECONDS);
+					if (data.isPresent()) {
+						types.put(entry.getKey(), toType(data.get(), bindingKey));
 					}
 				} catch (InterruptedException | ExecutionException | TimeoutException e) {
 					log.error("", e);
 				}
-				return Optional.empty();
-			}).orElse(null);
-		} catch (ExecutionException e) {
-			log.error("{}", e);
+			}
+		}
+		return types;
+	}
+
+	/**
+	 * Queues the types that aren't requested yet, so that they are sent with one batch.
+	 */
+	private Map<String, CompletableFuture<Optional<TypeData>>> request(Collection<String> bindingKeys) {
+		Map<String, CompletableFuture<Optional<TypeData>>> requests = new HashMap<>();
+		boolean send = false;
+		synchronized (this) {
+			for (String bindingKey : bindingKeys) {
+				CompletableFuture<Optional<TypeData>> data = requested.get(bindingKey);
+				if (data == null) {
+					data = new CompletableFuture<>();
+					requested.put(bindingKey, data);
+					queued.add(bindingKey);
+				}
+				requests.put(bindingKey, data);
+			}
+			if (!queued.isEmpty() && !requestInFlight) {
+				requestInFlight = true;
+				send = true;
+			}
+		}
+		if (send) {
+			sendQueued();
+		}
+		return requests;
+	}
+
+	/**
+	 * @return future that completes once none of the types is waiting for the request in flight anymore
+	 */
+	private synchronized CompletableFuture<Void> whenSent(Collection<String> bindingKeys) {
+		for (String bindingKey : bindingKeys) {
+			if (queued.contains(bindingKey)) {
+				return queuedSent;
+			}
+		}
+		return CompletableFuture.completedFuture(null);
+	}
+
+	/**
+	 * Requests the members of several types in one batch
+	 *
+	 * @return the full type data by binding key, or <code>null</code> if the request failed
+	 */
+	private Map<String, TypeData> requestMembers(List<String> bindingKeys) {
+		try {
+			List<TypeData> results = requestTypes(bindingKeys, false).block(Duration.ofMillis(TYPES_TIMEOUT));
+			Map<String, TypeData> members = new HashMap<>();
+			for (int i = 0; i < bindingKeys.size() && i < results.size(); i++) {
+				if (results.get(i) != null) {
+					members.put(bindingKeys.get(i), results.get(i));
+				}
+			}
+			return members;
+		} catch (Exception e) {
+			log.error("", e);
 			return null;
 		}
 	}
 
+	/**
+	 * Sends the types requested while the previous request was in flight as one batch, so that lookups
+	 * from several threads are coalesced into one round trip to the client, and only one request is in
+	 * flight at a time.
+	 */
+	private void sendQueued() {
+		List<String> bindingKeys;
+		CompletableFuture<Void> sent;
+		synchronized (this) {
+			if (queued.isEmpty()) {
+				requestInFlight = false;
+				return;
+			}
+			bindingKeys = queued;
+			queued = new ArrayList<>();
+			sent = queuedSent;
+			queuedSent = new CompletableFuture<>();
+		}
+		sent.complete(null);
+		long version = store.getVersion();
+		requestTypes(bindingKeys, true)
+			.timeout(Duration.ofMillis(TYPES_TIMEOUT))
+			.doFinally(signal -> {
+				// types without response are not stored and can be requested again
+				synchronized (this) {
+					for (String bindingKey : bindingKeys) {
+						CompletableFuture<Optional<TypeData>> data = requested.remove(bindingKey);
+						if (data != null) {
+							data.complete(Optional.empty());
+						}
+					}
+				}
+				sendQueued();
+			})
+			.subscribe(results -> {
+				for (int i = 0; i < bindingKeys.size() && i < results.size(); i++) {
+					String bindingKey = bindingKeys.get(i);
+					TypeData data = results.get(i);
+					store.put(bindingKey, data, version);
+					CompletableFuture<Optional<TypeData>> future;
+					synchronized (this) {
+						future = requested.remove(bindingKey);
+					}
+					if (future != null) {
+						future.complete(Optional.ofNullable(data));
+					}
+				}
+			}, error -> log.error("", error));
+	}
+
+	private Mono<List<TypeData>> requestTypes(List<String> bindingKeys, boolean lightweight) {
+		return batchRequestsSupported
+				? Mono.defer(() -> Mono.fromFuture(client.javaTypes(new JavaTypesParams(projectUri.toString(), bindingKeys, false, lightweight))))
+						.onErrorResume(e -> {
+							if (isMethodNotFound(e)) {
+								// client older than the batch request
+								batchRequestsSupported = false;
+							} else {
+								log.warn("Failed to request types in one batch", e);
+							}
+							return requestOneByOne(bindingKeys);
+						})
+				: requestOneByOne(bindingKeys);
+	}
+
+	private static boolean isMethodNotFound(Throwable e) {
+		Throwable cause = e instanceof CompletionException ? e.getCause() : e;
+		return cause instanceof ResponseErrorException
+				&& ((ResponseErrorException) cause).getResponseError().getCode() == ResponseErrorCode.MethodNotFound.getValue();
+	}
+
+	/**
+	 * Fallback for clients that don't support the batch request
+	 */
+	private Mono<List<TypeData>> requestOneByOne(List<String> bindingKeys) {
+		return Flux.fromIterable(bindingKeys)
+				.flatMapSequential(bindingKey -> Mono.fromFuture(client.javaType(new JavaDataParams(projectUri.toString(), bindingKey, false)))
+						.map(Optional::of)
+						.defaultIfEmpty(Optional.empty()))
+				.map(data -> data.orElse(null))
+				.collectList();
+	}
+
 	@Override
 	public Flux<Tuple2<String, Double>> fuzzySearchTypes(String searchTerm, boolean includeBinaries, boolean includeSystemLibs) {
 		JavaSearchParams searchParams = new JavaSearchParams(projectUri.toString(), searchTerm, includeBinaries, includeSystemLibs, SEARCH_TIMEOUT);
@@ -112,20 +355,16 @@ public class JdtLsIndex implements ClasspathIndex {
 
 	@Override
 	public Flux<IType> allSubtypesOf(IType type) {
-		JavaTypeHierarchyParams searchParams = new JavaTypeHierarchyParams(projectUri.toString(), type.getFullyQualifiedName());
+		JavaTypeHierarchyParams searchParams = new JavaTypeHierarchyParams(projectUri.toString(), type.getFullyQualifiedName(), true);
 		return Mono.fromFuture(client.javaSubTypes(searchParams))
-				.flatMapMany(results -> Flux.fromIterable(results).publishOn(Schedulers.parallel()))
-				.filter(Objects::nonNull)
-				.map(this::toType);
+				.flatMapMany(results -> toTypes(results.stream().filter(Objects::nonNull).collect(Collectors.toList())).publishOn(Schedulers.parallel()));
 	}
 
 	@Override
 	public Flux<IType> allSuperTypesOf(IType type) {
-		JavaTypeHierarchyParams searchParams = new JavaTypeHierarchyParams(projectUri.toString(), type.getFullyQualifiedName());
+		JavaTypeHierarchyParams searchParams = new JavaTypeHierarchyParams(projectUri.toString(), type.getFullyQualifiedName(), true);
 		return Mono.fromFuture(client.javaSuperTypes(searchParams))
-				.flatMapMany(results -> Flux.fromIterable(results).publishOn(Schedulers.parallel()))
-				.filter(Objects::nonNull)
-				.map(this::toType);
+				.flatMapMany(results -> toTypes(results.stream().filter(Objects::nonNull).collect(Collectors.toList())).publishOn(Schedulers.parallel()));
 	}
 
 	@Override
@@ -0,0 +1,144 @@
+/*******************************************************************************
+ * Copyright (c) 2019 Pivotal, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal, Inc. - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.vscode.commons.jdtls;
+
+import java.io.File;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.ide.vscode.commons.protocol.java.Classpath;
+import org.springframework.ide.vscode.commons.protocol.java.Classpath.CPE;
+import org.springframework.ide.vscode.commons.protocol.java.TypeData;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * Local copy of the type data received from JDT LS for a project, so that repeated lookups of the
+ * same types don't need a round trip to JDT LS. The store outlives the project instances created for
+ * classpath changes, and is kept up to date with deltas:
+ * <ul>
+ * <li>For a classpath change, types from classpath entries that are gone, or jars that changed on disk,
+ * are removed, as well as the types that couldn't be found before.</li>
+ * <li>For changes in the sources of the project, JDT LS sends the keys of the changed types.</li>
+ * </ul>
+ * Every delta increases the version of the store. Type data requested before a delta is not stored,
+ * because it may be stale already.
+ */
+public class JdtLsTypeStore {
+
+	private static final int MAX_SIZE = 2000;
+
+	/**
+	 * Maximum age of types from the project sources, as long as JDT LS hasn't sent any changed types,
+	 * e.g. because the JDT LS extension is too old for that
+	 */
+	private static final long SOURCE_TYPES_MAX_AGE = TimeUnit.SECONDS.toNanos(10);
+
+	private final Cache<String, Entry> entries = CacheBuilder.newBuilder().maximumSize(MAX_SIZE).build();
+
+	private long version;
+
+	private volatile boolean receivesChangedTypes;
+
+	private static class Entry {
+		final Optional<TypeData> data;
+		final long stored = System.nanoTime();
+		final File jar;
+		final long jarModified;
+
+		Entry(Optional<TypeData> data) {
+			this.data = data;
+			CPE cpe = data.map(TypeData::getClasspathEntry).map(entry -> entry.getCpe()).orElse(null);
+			this.jar = cpe != null && Classpath.ENTRY_KIND_BINARY.equals(cpe.getKind()) && cpe.getPath() != null ? new File(cpe.getPath()) : null;
+			this.jarModified = jar == null ? 0 : jar.lastModified();
+		}
+
+		/**
+		 * Types that are not found, or found in sources, may change without classpath change
+		 */
+		boolean isSource() {
+			return jar == null;
+		}
+	}
+
+	public synchronized long getVersion() {
+		return version;
+	}
+
+	/**
+	 * @return the type data for the binding key, an empty optional for a type that is known not to exist,
+	 *         or <code>null</code> if the type needs to be requested from JDT LS
+	 */
+	public Optional<TypeData> get(String bindingKey) {
+		Entry entry = entries.getIfPresent(bindingKey);
+		if (entry != null && entry.isSource() && !receivesChangedTypes && System.nanoTime() - entry.stored > SOURCE_TYPES_MAX_AGE) {
+			entries.invalidate(bindingKey);
+			return null;
+		}
+		return entry == null ? null : entry.data;
+	}
+
+	/**
+	 * Stores type data (<code>null</code> for a type that is not found) requested at the given version of the store.
+	 * Ignored if there was a delta since the request.
+	 */
+	public synchronized void put(String bindingKey, TypeData data, long requestVersion) {
+		if (requestVersion == version) {
+			entries.put(bindingKey, new Entry(Optional.ofNullable(data)));
+		}
+	}
+
+	/**
+	 * Removes changed types from the store, including their nested types.
+	 *
+	 * @param bindingKeys keys of top level types like <code>Lorg/example/Foo;</code>, or package prefixes like <code>Lorg/example/</code>
+	 */
+	public synchronized void typesChanged(Collection<String> bindingKeys) {
+		receivesChangedTypes = true;
+		version++;
+		for (String key : bindingKeys) {
+			if (key.endsWith(";")) {
+				String nestedPrefix = key.substring(0, key.length() - 1) + '$';
+				entries.asMap().keySet().removeIf(k -> k.equals(key) || k.startsWith(nestedPrefix));
+			} else {
+				entries.asMap().keySet().removeIf(k -> k.startsWith(key));
+			}
+		}
+	}
+
+	/**
+	 * Removes types that may have changed with the classpath: types from jars that are not on the new classpath or changed
+	 * on disk, and types not found before. Types from the project sources are kept, they are updated by {@link #typesChanged(Collection)}.
+	 */
+	public synchronized void classpathChanged(Collection<CPE> classpath) {
+		version++;
+		Set<String> jars = new HashSet<>();
+		for (CPE cpe : classpath) {
+			if (Classpath.ENTRY_KIND_BINARY.equals(cpe.getKind()) && cpe.getPath() != null) {
+				jars.add(new File(cpe.getPath()).getAbsolutePath());
+			}
+		}
+		entries.asMap().values().removeIf(entry -> {
+			if (!entry.data.isPresent()) {
+				return true;
+			}
+			if (entry.jar != null) {
+				return !jars.contains(entry.jar.getAbsolutePath()) || entry.jar.lastModified() != entry.jarModified;
+			}
+			return !receivesChangedTypes;
+		});
+	}
+
+}
@@ -40,6 +40,7 @@ import org.springframework.ide.vscode.commons.protocol.java.TypeData.FieldData;
 import org.springframework.ide.vscode.commons.protocol.java.TypeData.MethodData;
 
 import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
 
 public class Wrappers {
 
@@ -366,7 +367,37 @@ public class Wrappers {
 		};
 	}
 
+	/**
+	 * Like {@link Suppliers#memoize(Supplier)}, except that <code>null</code> isn't kept, so that values that
+	 * couldn't be had, e.g. because of a timeout, are requested again the next time.
+	 */
+	static <T> Supplier<T> memoizeNonNull(Supplier<T> delegate) {
+		return new Supplier<T>() {
+			private volatile T value;
+
+			@Override
+			public T get() {
+				T result = value;
+				if (result == null) {
+					result = value = delegate.get();
+				}
+				return result;
+			}
+		};
+	}
+
 	public static IType wrap(TypeData data, Supplier<IType> declaringTypeSupplier, IJavadocProvider javadocProvider) {
+		return wrap(data, declaringTypeSupplier, () -> data, javadocProvider);
+	}
+
+	/**
+	 * Wraps type data that may be the lightweight form without members. The fields, methods and annotations
+	 * are then only requested from the members supplier when the wrapper is asked for them.
+	 *
+	 * @param membersSupplier supplies the full type data, or <code>null</code> if it isn't available
+	 */
+	public static IType wrap(TypeData data, Supplier<IType> declaringTypeSupplier, Supplier<TypeData> membersSupplier, IJavadocProvider javadocProvider) {
+		Supplier<TypeData> members = data.hasMembers() ? () -> data : memoizeNonNull(membersSupplier);
 		return new IType() {
 
 			@Override
@@ -422,7 +453,8 @@ public class Wrappers {
 
 			@Override
 			public Stream<IAnnotation> getAnnotations() {
-				return data.getAnnotations().stream().map(a -> Wrappers.wrap(a, javadocProvider));
+				TypeData membersData = members.get();
+				return membersData == null ? Stream.empty() : membersData.getAnnotations().stream().map(a -> Wrappers.wrap(a, javadocProvider));
 			}
 
 			@Override
@@ -457,13 +489,18 @@ public class Wrappers {
 
 			@Override
 			public Stream<IField> getFields() {
-				return data.getFields().stream().map(f -> wrap(f, this, javadocProvider));
+				TypeData membersData = members.get();
+				return membersData == null ? Stream.empty() : membersData.getFields().stream().map(f -> wrap(f, this, javadocProvider));
 			}
 
 			@Override
 			public IMethod getMethod(String name, Stream<IJavaType> parameters) {
 				List<IJavaType> arguments = parameters.collect(Collectors.toList());
-				return data.getMethods().stream()
+				TypeData membersData = members.get();
+				if (membersData == null) {
+					return null;
+				}
+				return membersData.getMethods().stream()
 						.filter(m -> name.equals(m.getName()))
 						.filter(m -> arguments.equals(m.getParameters().stream()
 								.map(Wrappers::wrap)
@@ -475,7 +512,8 @@ public class Wrappers {
 
 			@Override
 			public Stream<IMethod> getMethods() {
-				return data.getMethods().stream().map(m -> wrap(m, this, javadocProvider));
+				TypeData membersData = members.get();
+				return membersData == null ? Stream.empty() : membersData.getMethods().stream().map(m -> wrap(m, this, javadocProvider));
 			}
 
 			@Override
@@ -15,7 +15,14 @@ import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 
 import java.io.File;
+import java.io.FileOutputStream;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.function.BiConsumer;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
 import java.util.stream.Stream;
 
 import org.junit.Rule;
@@ -27,6 +34,7 @@ import org.springframework.ide.vscode.commons.java.IMethod;
 import org.springframework.ide.vscode.commons.java.IType;
 import org.springframework.ide.vscode.commons.protocol.java.Classpath.CPE;
 import org.springframework.ide.vscode.commons.util.BasicFileObserver;
+import org.springframework.ide.vscode.commons.util.test.ACondition;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.io.Files;
@@ -106,6 +114,121 @@ public class JandexClasspathTest {
 	}
 
 
+	@Test public void typesFromJarsAreFoundWithStoredTypeTable() throws Exception {
+		TestProject project = new TestProject("simple-java-project");
+		File jar = folder.newFile("demo.jar");
+		try (JarOutputStream out = new JarOutputStream(new FileOutputStream(jar))) {
+			for (String name : ImmutableList.of("Hello", "Goodbye")) {
+				out.putNextEntry(new JarEntry("demo/" + name + ".class"));
+				Files.copy(new File(project.testClassesFolder, "demo/" + name + ".class"), out);
+				out.closeEntry();
+			}
+		}
+		File indexFolder = folder.newFolder();
+		ClasspathData classpath = new ClasspathData("jar-project", ImmutableList.of(CPE.binary(jar.getAbsolutePath())));
+
+		for (int i = 0; i < 2; i++) {
+			JandexClasspath subject = new JandexClasspath(classpath, project.fileObserver, null) {
+				@Override
+				protected File getIndexFolder() {
+					return indexFolder;
+				}
+			};
+
+			assertNotNull(subject.findType("demo.Hello"));
+			assertNull(subject.findType("demo.Unknown"));
+			assertEquals(jar, subject.findClasspathResourceContainer("demo.Goodbye").getContainer());
+
+			// the type table is built in the background after the first lookup
+			ACondition.waitFor(Duration.ofSeconds(10), () -> {
+				assertEquals(1, indexFolder.listFiles((dir, name) -> name.endsWith(".types")).length);
+			});
+			assertNotNull(subject.findType("demo.Goodbye"));
+		}
+	}
+
+	@Test public void corruptTypeTableIsBuiltAgain() throws Exception {
+		TestProject project = new TestProject("simple-java-project");
+		File jar = folder.newFile("demo.jar");
+		try (JarOutputStream out = new JarOutputStream(new FileOutputStream(jar))) {
+			for (String name : ImmutableList.of("Hello", "Goodbye")) {
+				out.putNextEntry(new JarEntry("demo/" + name + ".class"));
+				Files.copy(new File(project.testClassesFolder, "demo/" + name + ".class"), out);
+				out.closeEntry();
+			}
+		}
+		File indexFolder = folder.newFolder();
+		ClasspathData classpath = new ClasspathData("jar-project", ImmutableList.of(CPE.binary(jar.getAbsolutePath())));
+
+		JandexClasspath subject = new JandexClasspath(classpath, project.fileObserver, null) {
+			@Override
+			protected File getIndexFolder() {
+				return indexFolder;
+			}
+		};
+		assertNotNull(subject.findType("demo.Hello"));
+		ACondition.waitFor(Duration.ofSeconds(10), () -> {
+			assertEquals(1, indexFolder.listFiles((dir, name) -> name.endsWith(".types")).length);
+		});
+		File table = indexFolder.listFiles((dir, name) -> name.endsWith(".types"))[0];
+		long length = table.length();
+
+		// cut the table in the middle of its entries
+		byte[] content = Files.toByteArray(table);
+		Files.write(Arrays.copyOf(content, content.length / 2), table);
+
+		subject = new JandexClasspath(classpath, project.fileObserver, null) {
+			@Override
+			protected File getIndexFolder() {
+				return indexFolder;
+			}
+		};
+		assertNotNull(subject.findType("demo.Hello"));
+		assertNotNull(subject.findType("demo.Goodbye"));
+		assertNull(subject.findType("demo.Unknown"));
+		ACondition.waitFor(Duration.ofSeconds(10), () -> {
+			assertEquals(length, table.length());
+		});
+	}
+
+	@Test public void classpathIndexedInBackground() throws Exception {
+		TestProject project = new TestProject("simple-java-project");
+		project.createClass("demo.Hello");
+
+		List<String> progress = new CopyOnWriteArrayList<>();
+		JandexClasspath subject = new JandexClasspath(project.getClasspath(), project.fileObserver, null, (taskId, message) -> progress.add(String.valueOf(message)));
+
+		ACondition.waitFor(Duration.ofSeconds(10), () -> {
+			assertEquals("null", progress.get(progress.size() - 1));
+		});
+		assertEquals("Indexing classpath of simple-java-project (1/1)", progress.get(0));
+		assertNotNull(subject.findType("demo.Hello"));
+	}
+
+	@Test public void typesFoundWhileIndexingInBackground() throws Exception {
+		TestProject project = new TestProject("simple-java-project");
+		project.createClass("demo.Hello");
+
+		JandexClasspath subject = new JandexClasspath(project.getClasspath(), project.fileObserver, null, (taskId, message) -> {});
+		assertNotNull(subject.findType("demo.Hello"));
+		assertNull(subject.findType("demo.Goodbye"));
+	}
+
+	@Test public void backgroundIndexingStoppedByDispose() throws Exception {
+		TestProject project = new TestProject("simple-java-project");
+		project.createClass("demo.Hello");
+
+		List<String> progress = new CopyOnWriteArrayList<>();
+		JandexClasspath subject = new JandexClasspath(project.getClasspath(), project.fileObserver, null, (taskId, message) -> progress.add(String.valueOf(message)));
+		subject.dispose();
+
+		ACondition.waitFor(Duration.ofSeconds(10), () -> {
+			assertEquals("null", progress.get(progress.size() - 1));
+		});
+		// lookups still work, without the background indexing
+		assertNotNull(subject.findType("demo.Hello"));
+	}
+
 	@Test public void fieldSignature() throws Exception {
 		TestProject project = new TestProject("simple-java-project");
 		project.createClass("demo.Hello");
@@ -0,0 +1,111 @@
+/*******************************************************************************
+ * Copyright (c) 2019 Pivotal, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal, Inc. - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.vscode.commons.jandex;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.google.common.io.Files;
+
+public class JandexIndexCacheTest {
+
+	@Rule public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test public void jarReplacedInPlaceGetsNewIndexFile() throws Exception {
+		File indexFolder = folder.newFolder();
+		File jar = folder.newFile("lib.jar");
+		Files.write(new byte[10], jar);
+		jar.setLastModified(1000000);
+
+		File indexFile = JandexIndexCache.getIndexFile(indexFolder, jar);
+		assertEquals(indexFile, JandexIndexCache.getIndexFile(indexFolder, jar));
+		assertTrue(indexFile.getName().startsWith("lib.jar-"));
+
+		Files.write(new byte[20], jar);
+		jar.setLastModified(1000000);
+		assertNotEquals(indexFile, JandexIndexCache.getIndexFile(indexFolder, jar));
+	}
+
+	@Test public void leastRecentlyUsedFilesAreEvicted() throws Exception {
+		File indexFolder = folder.newFolder();
+		File[] files = new File[4];
+		for (int i = 0; i < files.length; i++) {
+			files[i] = new File(indexFolder, "lib" + i + ".jar-x.jdx");
+			Files.write(new byte[100], files[i]);
+			files[i].setLastModified(1000000 * (i + 1));
+		}
+		JandexIndexCache.touch(files[0]);
+
+		JandexIndexCache.evict(indexFolder, 250);
+
+		assertTrue(files[0].exists());
+		assertFalse(files[1].exists());
+		assertFalse(files[2].exists());
+		assertTrue(files[3].exists());
+	}
+
+	@Test public void typeTablesAndRecentTemporaryFilesAreKept() throws Exception {
+		File indexFolder = folder.newFolder();
+		File indexFile = new File(indexFolder, "lib.jar-x.jdx");
+		Files.write(new byte[100], indexFile);
+		File typeTable = new File(indexFolder, "x.types");
+		Files.write(new byte[100], typeTable);
+		typeTable.setLastModified(System.currentTimeMillis() - 24 * 60 * 60 * 1000);
+		File recentTempFile = new File(indexFolder, "lib.jar-y.jdx.tmp");
+		Files.write(new byte[100], recentTempFile);
+		File oldTempFile = new File(indexFolder, "lib.jar-z.jdx.tmp");
+		Files.write(new byte[100], oldTempFile);
+		oldTempFile.setLastModified(System.currentTimeMillis() - 2 * 60 * 60 * 1000);
+
+		JandexIndexCache.evict(indexFolder, 0);
+
+		assertFalse(indexFile.exists());
+		assertTrue(typeTable.exists());
+		assertTrue(recentTempFile.exists());
+		assertFalse(oldTempFile.exists());
+	}
+
+	@Test public void onlyOldFilesOfLegacyFoldersAreDeleted() throws Exception {
+		File legacyFolder = folder.newFolder();
+		File oldFile = new File(legacyFolder, "old.jdx");
+		Files.write(new byte[100], oldFile);
+		File recentFile = new File(new File(legacyFolder, "jdk"), "recent.jdx");
+		Files.createParentDirs(recentFile);
+		Files.write(new byte[100], recentFile);
+		long now = System.currentTimeMillis();
+		long longAgo = now - 60L * 24 * 60 * 60 * 1000;
+		oldFile.setLastModified(longAgo);
+
+		// an older version might still be running, the folder is only marked when seen for the first time
+		JandexIndexCache.cleanUpLegacyFolder(legacyFolder.toPath(), now);
+		File marker = new File(legacyFolder, ".outdated");
+		assertTrue(marker.exists());
+		assertTrue(oldFile.exists());
+
+		marker.setLastModified(longAgo);
+		JandexIndexCache.cleanUpLegacyFolder(legacyFolder.toPath(), now);
+		assertFalse(oldFile.exists());
+		assertTrue(recentFile.exists());
+
+		recentFile.setLastModified(longAgo);
+		JandexIndexCache.cleanUpLegacyFolder(legacyFolder.toPath(), now);
+		assertFalse(legacyFolder.exists());
+	}
+
+}
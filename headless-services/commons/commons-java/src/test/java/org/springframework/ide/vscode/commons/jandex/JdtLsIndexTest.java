@@ -13,20 +13,35 @@ package org.springframework.ide.vscode.commons.jandex;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.io.File;
 import java.io.FileReader;
 import java.lang.reflect.Type;
 import java.net.URI;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import org.eclipse.lsp4j.jsonrpc.ResponseErrorException;
+import org.eclipse.lsp4j.jsonrpc.messages.ResponseError;
+import org.eclipse.lsp4j.jsonrpc.messages.ResponseErrorCode;
 import org.junit.Test;
 import org.mockito.Mockito;
 import org.springframework.ide.vscode.commons.java.IAnnotation;
@@ -35,8 +50,10 @@ import org.springframework.ide.vscode.commons.java.IPrimitiveType;
 import org.springframework.ide.vscode.commons.java.IType;
 import org.springframework.ide.vscode.commons.jdtls.JdtLsIndex;
 import org.springframework.ide.vscode.commons.protocol.STS4LanguageClient;
+import org.springframework.ide.vscode.commons.protocol.java.JavaTypesParams;
 import org.springframework.ide.vscode.commons.protocol.java.TypeData;
 
+import com.google.common.collect.ImmutableSet;
 import com.google.gson.Gson;
 import com.google.gson.reflect.TypeToken;
 
@@ -126,6 +143,232 @@ public class JdtLsIndexTest {
 		assertEquals("Lorg/springframework/boot/context/properties/ConfigurationProperties;", a.getBindingKey());
 	}
 
+	@Test
+	public void typesRequestedWhileRequestInFlightAreBatched() throws Exception {
+		Map<String, TypeData> types = new HashMap<>();
+		types.put("Ljava/util/Map;", loadJsonData("Map.json"));
+		types.put("Lorg/springframework/boot/autoconfigure/web/ServerProperties;", loadJsonData("ServerProperties.json"));
+
+		List<JavaTypesParams> requests = new CopyOnWriteArrayList<>();
+		CompletableFuture<Void> firstRequestDone = new CompletableFuture<>();
+		CountDownLatch firstRequestSent = new CountDownLatch(1);
+		STS4LanguageClient client = Mockito.mock(STS4LanguageClient.class);
+		when(client.javaTypes(any())).thenAnswer(invocation -> {
+			JavaTypesParams params = (JavaTypesParams) invocation.getArguments()[0];
+			requests.add(params);
+			firstRequestSent.countDown();
+			CompletableFuture<Void> done = requests.size() == 1 ? firstRequestDone : CompletableFuture.completedFuture(null);
+			return done.thenApply(x -> params.getBindingKeys().stream().map(types::get).collect(Collectors.toList()));
+		});
+		// Some valid URI necessary for URI#toString() to succeed
+		JdtLsIndex index = new JdtLsIndex(client, URI.create(System.getProperty("java.io.tmpdir")));
+
+		ExecutorService executor = Executors.newCachedThreadPool();
+		try {
+			Future<IType> map = executor.submit(() -> index.findType("java.util.Map"));
+			assertTrue(firstRequestSent.await(2, TimeUnit.SECONDS));
+
+			List<Thread> lookups = new CopyOnWriteArrayList<>();
+			CountDownLatch lookupsStarted = new CountDownLatch(2);
+			Future<IType> serverProperties = executor.submit(() -> {
+				lookups.add(Thread.currentThread());
+				lookupsStarted.countDown();
+				return index.findType("org.springframework.boot.autoconfigure.web.ServerProperties");
+			});
+			Future<IType> unknown = executor.submit(() -> {
+				lookups.add(Thread.currentThread());
+				lookupsStarted.countDown();
+				return index.findType("org.test.Unknown");
+			});
+			assertTrue(lookupsStarted.await(2, TimeUnit.SECONDS));
+			// both lookups are queued up behind the request in flight once they wait for the response
+			for (Thread lookup : lookups) {
+				awaitTimedWaiting(lookup);
+			}
+			firstRequestDone.complete(null);
+
+			assertEquals("java.util.Map", map.get().getFullyQualifiedName());
+			assertEquals("org.springframework.boot.autoconfigure.web.ServerProperties", serverProperties.get().getFullyQualifiedName());
+			assertNull(unknown.get());
+		} finally {
+			executor.shutdown();
+		}
+
+		assertEquals(2, requests.size());
+		assertEquals(ImmutableSet.of("Lorg/springframework/boot/autoconfigure/web/ServerProperties;", "Lorg/test/Unknown;"),
+				ImmutableSet.copyOf(requests.get(1).getBindingKeys()));
+
+		// found types are cached
+		assertNotNull(index.findType("java.util.Map"));
+		assertEquals(2, requests.size());
+	}
+
+	@Test
+	public void typeRequestedBehindSlowRequestIsFound() throws Exception {
+		Map<String, TypeData> types = new HashMap<>();
+		types.put("Ljava/util/Map;", loadJsonData("Map.json"));
+		types.put("Lorg/springframework/boot/autoconfigure/web/ServerProperties;", loadJsonData("ServerProperties.json"));
+
+		List<JavaTypesParams> requests = new CopyOnWriteArrayList<>();
+		CompletableFuture<Void> firstRequestDone = new CompletableFuture<>();
+		CountDownLatch firstRequestSent = new CountDownLatch(1);
+		STS4LanguageClient client = Mockito.mock(STS4LanguageClient.class);
+		when(client.javaTypes(any())).thenAnswer(invocation -> {
+			JavaTypesParams params = (JavaTypesParams) invocation.getArguments()[0];
+			requests.add(params);
+			firstRequestSent.countDown();
+			CompletableFuture<Void> done = requests.size() == 1 ? firstRequestDone : CompletableFuture.completedFuture(null);
+			return done.thenApply(x -> params.getBindingKeys().stream().map(types::get).collect(Collectors.toList()));
+		});
+		// Some valid URI necessary for URI#toString() to succeed
+		JdtLsIndex index = new JdtLsIndex(client, URI.create(System.getProperty("java.io.tmpdir")));
+
+		ExecutorService executor = Executors.newCachedThreadPool();
+		try {
+			executor.submit(() -> index.findType("java.util.Map"));
+			assertTrue(firstRequestSent.await(2, TimeUnit.SECONDS));
+
+			CompletableFuture<Thread> lookup = new CompletableFuture<>();
+			Future<IType> serverProperties = executor.submit(() -> {
+				lookup.complete(Thread.currentThread());
+				return index.findType("org.springframework.boot.autoconfigure.web.ServerProperties");
+			});
+			awaitTimedWaiting(lookup.get(2, TimeUnit.SECONDS));
+
+			// the request in flight takes longer than a lookup waits for the response to its own request
+			Thread.sleep(800);
+			firstRequestDone.complete(null);
+
+			assertNotNull(serverProperties.get());
+			assertEquals("org.springframework.boot.autoconfigure.web.ServerProperties", serverProperties.get().getFullyQualifiedName());
+		} finally {
+			executor.shutdown();
+		}
+		assertEquals(2, requests.size());
+	}
+
+	private static void awaitTimedWaiting(Thread thread) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 2000;
+		while (thread.getState() != Thread.State.TIMED_WAITING) {
+			assertTrue(System.currentTimeMillis() < deadline);
+			Thread.sleep(1);
+		}
+	}
+
+	@Test
+	public void typesFoundInOneBatch() throws Exception {
+		STS4LanguageClient client = Mockito.mock(STS4LanguageClient.class);
+		when(client.javaTypes(any())).thenReturn(CompletableFuture.completedFuture(Arrays.asList(loadJsonData("Map.json"), null)));
+		// Some valid URI necessary for URI#toString() to succeed
+		JdtLsIndex index = new JdtLsIndex(client, URI.create(System.getProperty("java.io.tmpdir")));
+
+		Map<String, IType> types = index.findTypes(Arrays.asList("java.util.Map", "org.test.Unknown"));
+		assertEquals(ImmutableSet.of("java.util.Map"), types.keySet());
+		assertEquals("java.util.Map", types.get("java.util.Map").getFullyQualifiedName());
+		verify(client, times(1)).javaTypes(any());
+		verify(client, times(0)).javaType(any());
+
+		// found types are cached
+		assertNotNull(index.findType("java.util.Map"));
+		verify(client, times(1)).javaTypes(any());
+	}
+
+	@Test
+	public void typesRequestedOneByOneIfClientDoesntSupportBatches() throws Exception {
+		STS4LanguageClient client = Mockito.mock(STS4LanguageClient.class);
+		CompletableFuture<List<TypeData>> unsupported = new CompletableFuture<>();
+		unsupported.completeExceptionally(new ResponseErrorException(new ResponseError(ResponseErrorCode.MethodNotFound, "Unsupported request method: sts/javaTypes", null)));
+		when(client.javaTypes(any())).thenReturn(unsupported);
+		when(client.javaType(any())).thenReturn(CompletableFuture.completedFuture(loadJsonData("Map.json")));
+		// Some valid URI necessary for URI#toString() to succeed
+		JdtLsIndex index = new JdtLsIndex(client, URI.create(System.getProperty("java.io.tmpdir")));
+
+		IType type = index.findType("java.util.Map");
+		assertNotNull(type);
+		assertEquals("java.util.Map", type.getFullyQualifiedName());
+
+		index.findType("java.util.HashMap");
+		verify(client, times(1)).javaTypes(any());
+		verify(client, times(2)).javaType(any());
+	}
+
+	@Test
+	public void membersRequestedOnDemand() throws Exception {
+		TypeData lightweight = loadJsonData("Map.json");
+		lightweight.setFields(null);
+		lightweight.setMethods(null);
+		lightweight.setAnnotations(null);
+		STS4LanguageClient client = Mockito.mock(STS4LanguageClient.class);
+		when(client.javaTypes(any())).thenReturn(CompletableFuture.completedFuture(Arrays.asList(lightweight)));
+		when(client.javaType(any())).thenReturn(CompletableFuture.completedFuture(loadJsonData("Map.json")));
+		// Some valid URI necessary for URI#toString() to succeed
+		JdtLsIndex index = new JdtLsIndex(client, URI.create(System.getProperty("java.io.tmpdir")));
+
+		IType type = index.findType("java.util.Map");
+		assertTrue(type.isInterface());
+		verify(client, times(0)).javaType(any());
+
+		assertNotNull(type.getMethod("size", Stream.of()));
+		assertTrue(type.getMethods().count() > 0);
+		verify(client, times(1)).javaType(any());
+
+		// the stored type has the members now
+		assertNotNull(index.findType("java.util.Map").getMethod("size", Stream.of()));
+		verify(client, times(1)).javaTypes(any());
+		verify(client, times(1)).javaType(any());
+	}
+
+	@Test
+	public void membersRequestedAgainAfterFailure() throws Exception {
+		TypeData lightweight = loadJsonData("Map.json");
+		lightweight.setFields(null);
+		lightweight.setMethods(null);
+		lightweight.setAnnotations(null);
+		CompletableFuture<TypeData> failed = new CompletableFuture<>();
+		failed.completeExceptionally(new IllegalStateException("No response"));
+		STS4LanguageClient client = Mockito.mock(STS4LanguageClient.class);
+		when(client.javaTypes(any())).thenReturn(CompletableFuture.completedFuture(Arrays.asList(lightweight)));
+		when(client.javaType(any())).thenReturn(failed, CompletableFuture.completedFuture(loadJsonData("Map.json")));
+		// Some valid URI necessary for URI#toString() to succeed
+		JdtLsIndex index = new JdtLsIndex(client, URI.create(System.getProperty("java.io.tmpdir")));
+
+		IType type = index.findType("java.util.Map");
+		assertNull(type.getMethod("size", Stream.of()));
+		assertNotNull(type.getMethod("size", Stream.of()));
+		verify(client, times(2)).javaType(any());
+	}
+
+	@Test
+	public void hierarchyMembersRequestedInOneBatch() throws Exception {
+		TypeData map = loadJsonData("Map.json");
+		TypeData serverProperties = loadJsonData("ServerProperties.json");
+		List<TypeData> lightweight = new ArrayList<>();
+		for (String fileName : Arrays.asList("Map.json", "ServerProperties.json")) {
+			TypeData data = loadJsonData(fileName);
+			data.setFields(null);
+			data.setMethods(null);
+			data.setAnnotations(null);
+			lightweight.add(data);
+		}
+		STS4LanguageClient client = Mockito.mock(STS4LanguageClient.class);
+		when(client.javaSuperTypes(any())).thenReturn(CompletableFuture.completedFuture(lightweight));
+		when(client.javaTypes(any())).thenReturn(CompletableFuture.completedFuture(Arrays.asList(map, serverProperties)));
+		// Some valid URI necessary for URI#toString() to succeed
+		JdtLsIndex index = new JdtLsIndex(client, URI.create(System.getProperty("java.io.tmpdir")));
+
+		IType type = Mockito.mock(IType.class);
+		when(type.getFullyQualifiedName()).thenReturn("org.test.Type");
+		List<IType> superTypes = index.allSuperTypesOf(type).collectList().block();
+		assertEquals(2, superTypes.size());
+		verify(client, times(0)).javaTypes(any());
+
+		for (IType superType : superTypes) {
+			assertTrue(superType.getMethods().count() > 0);
+		}
+		verify(client, times(1)).javaTypes(any());
+		verify(client, times(0)).javaType(any());
+	}
+
 	@Test
 	public void searchType() throws Exception {
 		STS4LanguageClient client = Mockito.mock(STS4LanguageClient.class);
@@ -0,0 +1,102 @@
+/*******************************************************************************
+ * Copyright (c) 2019 Pivotal, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal, Inc. - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.vscode.commons.jandex;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.io.File;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.ide.vscode.commons.jdtls.JdtLsTypeStore;
+import org.springframework.ide.vscode.commons.protocol.java.Classpath.CPE;
+import org.springframework.ide.vscode.commons.protocol.java.TypeData;
+import org.springframework.ide.vscode.commons.protocol.java.TypeData.ClasspathEntryData;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.io.Files;
+
+public class JdtLsTypeStoreTest {
+
+	@Rule public TemporaryFolder folder = new TemporaryFolder();
+
+	private static TypeData type(CPE cpe) {
+		TypeData data = new TypeData();
+		ClasspathEntryData classpathEntry = new ClasspathEntryData();
+		classpathEntry.setCpe(cpe);
+		data.setClasspathEntry(classpathEntry);
+		return data;
+	}
+
+	@Test public void changedTypesAreRemovedWithNestedTypes() throws Exception {
+		JdtLsTypeStore store = new JdtLsTypeStore();
+		CPE source = CPE.source(folder.newFolder("src"), folder.newFolder("bin"));
+		store.put("Ldemo/Foo;", type(source), store.getVersion());
+		store.put("Ldemo/Foo$Inner;", type(source), store.getVersion());
+		store.put("Ldemo/FooBar;", type(source), store.getVersion());
+		store.put("Lother/Bar;", type(source), store.getVersion());
+		store.put("Lother/Missing;", null, store.getVersion());
+
+		assertNotNull(store.get("Ldemo/Foo;"));
+		assertFalse(store.get("Lother/Missing;").isPresent());
+
+		store.typesChanged(ImmutableList.of("Ldemo/Foo;", "Lother/"));
+
+		assertNull(store.get("Ldemo/Foo;"));
+		assertNull(store.get("Ldemo/Foo$Inner;"));
+		assertNotNull(store.get("Ldemo/FooBar;"));
+		assertNull(store.get("Lother/Bar;"));
+		assertNull(store.get("Lother/Missing;"));
+	}
+
+	@Test public void typesRequestedBeforeChangeAreNotStored() throws Exception {
+		JdtLsTypeStore store = new JdtLsTypeStore();
+		long version = store.getVersion();
+		store.typesChanged(ImmutableList.of("Ldemo/Foo;"));
+		store.put("Ldemo/Foo;", type(null), version);
+		assertNull(store.get("Ldemo/Foo;"));
+
+		store.put("Ldemo/Foo;", type(null), store.getVersion());
+		assertNotNull(store.get("Ldemo/Foo;"));
+	}
+
+	@Test public void classpathChangeRemovesTypesFromChangedJars() throws Exception {
+		JdtLsTypeStore store = new JdtLsTypeStore();
+		File kept = folder.newFile("kept.jar");
+		File removed = folder.newFile("removed.jar");
+		File replaced = folder.newFile("replaced.jar");
+		replaced.setLastModified(1000000);
+		CPE source = CPE.source(folder.newFolder("src"), folder.newFolder("bin"));
+		store.typesChanged(ImmutableList.of());
+
+		store.put("Lkept/Type;", type(CPE.binary(kept.getAbsolutePath())), store.getVersion());
+		store.put("Lremoved/Type;", type(CPE.binary(removed.getAbsolutePath())), store.getVersion());
+		store.put("Lreplaced/Type;", type(CPE.binary(replaced.getAbsolutePath())), store.getVersion());
+		store.put("Ldemo/Foo;", type(source), store.getVersion());
+		store.put("Ldemo/Missing;", null, store.getVersion());
+
+		Files.write(new byte[10], replaced);
+		replaced.setLastModified(2000000);
+		store.classpathChanged(ImmutableList.of(CPE.binary(kept.getAbsolutePath()), CPE.binary(replaced.getAbsolutePath()), source));
+
+		assertNotNull(store.get("Lkept/Type;"));
+		assertNull(store.get("Lremoved/Type;"));
+		assertNull(store.get("Lreplaced/Type;"));
+		assertNotNull(store.get("Ldemo/Foo;"));
+		assertNull(store.get("Ldemo/Missing;"));
+		assertEquals(2, store.getVersion());
+	}
+
+}
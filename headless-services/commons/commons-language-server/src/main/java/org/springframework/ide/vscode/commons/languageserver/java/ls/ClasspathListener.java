@@ -10,6 +10,8 @@
  *******************************************************************************/
 package org.springframework.ide.vscode.commons.languageserver.java.ls;
 
+import java.util.List;
+
 import org.springframework.ide.vscode.commons.protocol.java.Classpath;
 
 public interface ClasspathListener {
@@ -23,18 +25,29 @@ public interface ClasspathListener {
 		public final boolean deleted;
 		public final Classpath classpath;
 
+		/**
+		 * Binding keys of the types changed in the sources of the project (or package prefixes
+		 * like <code>Lorg/example/</code>), or <code>null</code> if the classpath changed.
+		 */
+		public final List<String> changedTypes;
+
 		public Event(String projectUri, String name, boolean deleted, Classpath classpath) {
+			this(projectUri, name, deleted, classpath, null);
+		}
+
+		public Event(String projectUri, String name, boolean deleted, Classpath classpath, List<String> changedTypes) {
 			super();
 			this.projectUri = projectUri;
 			this.name = name;
 			this.deleted = deleted;
 			this.classpath = classpath;
+			this.changedTypes = changedTypes;
 		}
 
 		@Override
 		public String toString() {
 			return "Event [projectUri=" + projectUri + ", name=" + name + ", deleted=" + deleted + ", classpath="
-					+ classpath + "]";
+					+ classpath + ", changedTypes=" + changedTypes + "]";
 		}
 	}
 
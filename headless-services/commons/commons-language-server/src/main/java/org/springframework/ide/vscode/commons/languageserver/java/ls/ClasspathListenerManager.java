@@ -10,6 +10,7 @@
  *******************************************************************************/
 package org.springframework.ide.vscode.commons.languageserver.java.ls;
 
+import java.lang.reflect.Type;
 import java.util.List;
 import java.util.UUID;
 
@@ -29,7 +30,9 @@ import org.springframework.ide.vscode.commons.util.AsyncRunner;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.gson.Gson;
+import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
+import com.google.gson.reflect.TypeToken;
 
 import reactor.core.Disposable;
 import reactor.core.publisher.Mono;
@@ -43,6 +46,7 @@ public class ClasspathListenerManager {
 	private AsyncRunner async;
 
 	private static final Gson gson = new Gson();
+	private static final Type STRING_LIST = new TypeToken<List<String>>() {}.getType();
 
 	public ClasspathListenerManager(SimpleLanguageServer server) {
 		this.server = server;
@@ -66,6 +70,14 @@ public class ClasspathListenerManager {
 			boolean deleted = ((JsonElement)args.get(2)).getAsBoolean();
 			log.debug("deleted = {}", deleted);
 
+			if (args.size() > 4 && args.get(4) instanceof JsonArray) {
+				// types changed in the sources of the project, classpath unchanged
+				List<String> changedTypes = gson.fromJson((JsonElement) args.get(4), STRING_LIST);
+				log.debug("changedTypes = {}", changedTypes);
+				classpathListener.changed(new ClasspathListener.Event(projectUri, name, deleted, null, changedTypes));
+				return "done";
+			}
+
 			Classpath classpath = gson.fromJson((JsonElement)args.get(3), Classpath.class);
 			log.debug("classpath = {}", classpath);
 
@@ -86,7 +98,8 @@ public class ClasspathListenerManager {
 				server.getClient().registerCapability(params)
 		));
 		Mono<Object> registerClasspathListener = Mono.defer(() -> Mono.fromFuture(
-				server.getClient().addClasspathListener(new ClasspathListenerParams(callbackCommandId))
+				// asks for types changed notifications, the classpath listener of older clients doesn't send them
+				server.getClient().addClasspathListener(new ClasspathListenerParams(callbackCommandId, true))
 		));
 
 		Disposable cleanups = () -> {
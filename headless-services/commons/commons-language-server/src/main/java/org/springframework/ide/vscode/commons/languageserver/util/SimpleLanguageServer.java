@@ -26,6 +26,7 @@ import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
 import java.util.function.Consumer;
 
 import org.eclipse.lsp4j.ApplyWorkspaceEditParams;
@@ -149,6 +150,7 @@ public final class SimpleLanguageServer implements Sts4LanguageServer, LanguageC
 		t.setDaemon(true);
 		return t;
 	}));
+	private Scheduler readOnlyRequestScheduler;
 	private ClasspathListenerManager classpathListenerManager;
 
 	private Optional<CompletionFilter> completionFilter = Optional.empty();
@@ -687,6 +689,31 @@ public final class SimpleLanguageServer implements Sts4LanguageServer, LanguageC
 		return this.async;
 	}
 
+	/**
+	 * Executes read-only requests (like hovers, references or code lenses) in parallel on the given number
+	 * of threads. Zero or less executes all requests in sequence on the main thread of the language server.
+	 * Document changes and other notifications are always executed in sequence.
+	 */
+	public synchronized void setReadOnlyRequestWorkers(int workers) {
+		Scheduler oldScheduler = readOnlyRequestScheduler;
+
+		if (workers > 0) {
+			readOnlyRequestScheduler = Schedulers.fromExecutorService(Executors.newFixedThreadPool(workers, runable -> {
+				Thread t = new Thread(runable, "Simple-Language-Server request thread");
+				t.setDaemon(true);
+				return t;
+			}));
+		} else {
+			readOnlyRequestScheduler = null;
+		}
+		async.setReadOnlyScheduler(readOnlyRequestScheduler);
+
+		if (oldScheduler != null) {
+			// pending requests already scheduled on the old threads still finish
+			async.execute(() -> oldScheduler.dispose());
+		}
+	}
+
 	public synchronized Mono<Disposable> addClasspathListener(ClasspathListener classpathListener) {
 		if (classpathListenerManager == null) {
 			classpathListenerManager = new ClasspathListenerManager(this);
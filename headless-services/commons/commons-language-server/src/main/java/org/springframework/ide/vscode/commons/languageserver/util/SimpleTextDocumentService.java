@@ -12,10 +12,10 @@ package org.springframework.ide.vscode.commons.languageserver.util;
 
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
@@ -74,7 +74,7 @@ public class SimpleTextDocumentService implements TextDocumentService, DocumentE
 	private static Logger log = LoggerFactory.getLogger(SimpleTextDocumentService.class);
 
 	final private SimpleLanguageServer server;
-	private Map<String, TrackedDocument> documents = new HashMap<>();
+	private Map<String, TrackedDocument> documents = new ConcurrentHashMap<>();
 	private ListenerList<TextDocumentContentChange> documentChangeListeners = new ListenerList<>();
 	private ListenerList<TextDocument> documentCloseListeners = new ListenerList<>();
 
@@ -297,7 +297,7 @@ public class SimpleTextDocumentService implements TextDocumentService, DocumentE
 	@Override
 	public CompletableFuture<CompletionItem> resolveCompletionItem(CompletionItem unresolved) {
 		log.info("Completion item resolve request received: {}", unresolved.getLabel());
-		return async.invoke(() -> {
+		return async.invokeReadOnly(() -> {
 			try {
 				CompletionResolveHandler h = completionResolveHandler;
 				if (h!=null) {
@@ -313,7 +313,7 @@ public class SimpleTextDocumentService implements TextDocumentService, DocumentE
 
 	@Override
 	public CompletableFuture<Hover> hover(TextDocumentPositionParams position) {
-	  return async.invoke(() -> {
+	  return async.invokeReadOnly(() -> {
 		HoverHandler h = hoverHandler;
 		if (h!=null) {
 			return hoverHandler.handle(position);
@@ -329,7 +329,7 @@ public class SimpleTextDocumentService implements TextDocumentService, DocumentE
 
 	@Override
 	public CompletableFuture<List<? extends Location>> definition(TextDocumentPositionParams position) {
-	  return async.invoke(() -> {
+	  return async.invokeReadOnly(() -> {
 		DefinitionHandler h = this.definitionHandler;
 		if (h!=null) {
 			return h.handle(position);
@@ -340,7 +340,7 @@ public class SimpleTextDocumentService implements TextDocumentService, DocumentE
 
 	@Override
 	public CompletableFuture<List<? extends Location>> references(ReferenceParams params) {
-	  return async.invoke(() -> {
+	  return async.invokeReadOnly(() -> {
 		ReferencesHandler h = this.referencesHandler;
 		if (h != null) {
 			return h.handle(params);
@@ -351,7 +351,7 @@ public class SimpleTextDocumentService implements TextDocumentService, DocumentE
 
 	@Override
 	public CompletableFuture<List<Either<SymbolInformation, DocumentSymbol>>> documentSymbol(DocumentSymbolParams params) {
-		return async.invoke(() -> {
+		return async.invokeReadOnly(() -> {
 			DocumentSymbolHandler h = this.documentSymbolHandler;
 			if (h!=null) {
 				server.waitForReconcile();
@@ -377,7 +377,7 @@ public class SimpleTextDocumentService implements TextDocumentService, DocumentE
 
 	@Override
 	public CompletableFuture<List<Either<Command, CodeAction>>> codeAction(CodeActionParams params) {
-	  return async.invoke(() -> {
+	  return async.invokeReadOnly(() -> {
 		TrackedDocument doc = documents.get(params.getTextDocument().getUri());
 		if (doc!=null) {
 			ImmutableList<Either<Command,CodeAction>> list = doc.getQuickfixes().stream()
@@ -396,7 +396,7 @@ public class SimpleTextDocumentService implements TextDocumentService, DocumentE
 	public CompletableFuture<List<? extends CodeLens>> codeLens(CodeLensParams params) {
 		CodeLensHandler handler = this.codeLensHandler;
 		if (handler != null) {
-			return async.invoke(() -> handler.handle(params));
+			return async.invokeReadOnly(() -> handler.handle(params));
 		}
 		return CompletableFuture.completedFuture(Collections.emptyList());
 	}
@@ -405,7 +405,7 @@ public class SimpleTextDocumentService implements TextDocumentService, DocumentE
 	public CompletableFuture<CodeLens> resolveCodeLens(CodeLens unresolved) {
 		CodeLensResolveHandler handler = this.codeLensResolveHandler;
 		if (handler != null) {
-			return async.invoke(() -> handler.handle(unresolved));
+			return async.invokeReadOnly(() -> handler.handle(unresolved));
 		}
 		return CompletableFuture.completedFuture(null);
 	}
@@ -463,7 +463,7 @@ public class SimpleTextDocumentService implements TextDocumentService, DocumentE
 		}
 	}
 
-	public void setQuickfixes(TextDocumentIdentifier docId, List<Quickfix> quickfixes) {
+	public synchronized void setQuickfixes(TextDocumentIdentifier docId, List<Quickfix> quickfixes) {
 		TrackedDocument td = documents.get(docId.getUri());
 		if (td!=null) {
 			td.setQuickfixes(quickfixes);
@@ -481,7 +481,7 @@ public class SimpleTextDocumentService implements TextDocumentService, DocumentE
 
 	@Override
 	public CompletableFuture<List<? extends DocumentHighlight>> documentHighlight(TextDocumentPositionParams position) {
-	  return async.invoke(() -> {
+	  return async.invokeReadOnly(() -> {
 		DocumentHighlightHandler handler = this.documentHighlightHandler;
 		if (handler != null) {
 			return handler.handle(position);
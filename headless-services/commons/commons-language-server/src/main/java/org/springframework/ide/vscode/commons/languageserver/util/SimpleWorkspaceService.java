@@ -60,7 +60,7 @@ public class SimpleWorkspaceService implements WorkspaceService {
 
 	@Override
 	public CompletableFuture<List<? extends SymbolInformation>> symbol(WorkspaceSymbolParams params) {
-	  return async.invoke(() -> {
+	  return async.invokeReadOnly(() -> {
 		WorkspaceSymbolHandler workspaceSymbolHandler = this.workspaceSymbolHandler;
 		if (workspaceSymbolHandler==null) {
 			return ImmutableList.of();
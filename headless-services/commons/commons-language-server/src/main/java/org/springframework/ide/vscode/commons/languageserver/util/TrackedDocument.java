@@ -20,7 +20,7 @@ import com.google.common.collect.ImmutableList;
 public class TrackedDocument {
 
 	private final TextDocument doc;
-	private List<Quickfix> quickfixes = ImmutableList.of();
+	private volatile List<Quickfix> quickfixes = ImmutableList.of();
 	private int openCount = 0;
 
 	public TrackedDocument(TextDocument doc) {
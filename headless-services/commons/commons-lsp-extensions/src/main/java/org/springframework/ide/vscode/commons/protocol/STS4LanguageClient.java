@@ -22,6 +22,7 @@ import org.springframework.ide.vscode.commons.protocol.java.ClasspathListenerPar
 import org.springframework.ide.vscode.commons.protocol.java.JavaDataParams;
 import org.springframework.ide.vscode.commons.protocol.java.JavaSearchParams;
 import org.springframework.ide.vscode.commons.protocol.java.JavaTypeHierarchyParams;
+import org.springframework.ide.vscode.commons.protocol.java.JavaTypesParams;
 import org.springframework.ide.vscode.commons.protocol.java.TypeData;
 
 /**
@@ -52,6 +53,9 @@ public interface STS4LanguageClient extends LanguageClient {
 	@JsonRequest("sts/javaType")
 	CompletableFuture<TypeData> javaType(JavaDataParams params);
 
+	@JsonRequest("sts/javaTypes")
+	CompletableFuture<List<TypeData>> javaTypes(JavaTypesParams params);
+
 	@JsonRequest("sts/javadocHoverLink")
 	CompletableFuture<String> javadocHoverLink(JavaDataParams params);
 
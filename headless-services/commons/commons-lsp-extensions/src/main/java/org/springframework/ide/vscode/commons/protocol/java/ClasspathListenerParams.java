@@ -14,9 +14,20 @@ public class ClasspathListenerParams {
 
 	private String callbackCommandId;
 
+	/**
+	 * Whether the callback also handles types changed in the sources of projects, which are sent with
+	 * a <code>null</code> classpath and the binding keys of the changed types as additional argument.
+	 */
+	private boolean typesChanged;
+
 	public ClasspathListenerParams(String callbackCommandId) {
+		this(callbackCommandId, false);
+	}
+
+	public ClasspathListenerParams(String callbackCommandId, boolean typesChanged) {
 		super();
 		this.callbackCommandId = callbackCommandId;
+		this.typesChanged = typesChanged;
 	}
 
 	public String getCallbackCommandId() {
@@ -27,9 +38,17 @@ public class ClasspathListenerParams {
 		this.callbackCommandId = callbackCommandId;
 	}
 
+	public boolean isTypesChanged() {
+		return typesChanged;
+	}
+
+	public void setTypesChanged(boolean typesChanged) {
+		this.typesChanged = typesChanged;
+	}
+
 	@Override
 	public String toString() {
-		return "ClasspathListenerParams [callbackCommandId=" + callbackCommandId + "]";
+		return "ClasspathListenerParams [callbackCommandId=" + callbackCommandId + ", typesChanged=" + typesChanged + "]";
 	}
 
 }
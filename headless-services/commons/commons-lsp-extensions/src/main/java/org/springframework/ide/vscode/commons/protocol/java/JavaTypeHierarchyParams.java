@@ -14,11 +14,17 @@ public class JavaTypeHierarchyParams {
 	
 	private String projectUri;
 	private String fqName;
+	private Boolean lightweight;
 	
 	public JavaTypeHierarchyParams(String projectUri, String fqName) {
+		this(projectUri, fqName, false);
+	}
+
+	public JavaTypeHierarchyParams(String projectUri, String fqName, boolean lightweight) {
 		super();
 		this.projectUri = projectUri;
 		this.fqName = fqName;
+		this.lightweight = lightweight;
 	}
 
 	public String getProjectUri() {
@@ -36,5 +42,16 @@ public class JavaTypeHierarchyParams {
 	public void setFqName(String fqName) {
 		this.fqName = fqName;
 	}
+
+	/**
+	 * Whether the lightweight form of the type data, without members, is requested
+	 */
+	public Boolean getLightweight() {
+		return lightweight;
+	}
+
+	public void setLightweight(Boolean lightweight) {
+		this.lightweight = lightweight;
+	}
 	
 }
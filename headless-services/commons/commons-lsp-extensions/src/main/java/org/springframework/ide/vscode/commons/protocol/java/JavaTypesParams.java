@@ -0,0 +1,82 @@
+/*******************************************************************************
+ * Copyright (c) 2019 Pivotal, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal, Inc. - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.vscode.commons.protocol.java;
+
+import java.util.List;
+
+/**
+ * Parameters for resolving several types in one request. The result is a list
+ * with the type data for each binding key, in the same order, with
+ * <code>null</code> for binding keys that couldn't be resolved.
+ * <p>
+ * With the lightweight option, the type data doesn't contain fields, methods and annotations.
+ */
+public class JavaTypesParams {
+
+	private String projectUri;
+	private List<String> bindingKeys;
+	private Boolean lookInOtherProjects;
+	private Boolean lightweight;
+
+	public JavaTypesParams(String projectUri, List<String> bindingKeys, boolean lookInOtherProjects) {
+		this(projectUri, bindingKeys, lookInOtherProjects, false);
+	}
+
+	public JavaTypesParams(String projectUri, List<String> bindingKeys, boolean lookInOtherProjects, boolean lightweight) {
+		super();
+		this.projectUri = projectUri;
+		this.bindingKeys = bindingKeys;
+		this.lookInOtherProjects = lookInOtherProjects;
+		this.lightweight = lightweight;
+	}
+
+	public String getProjectUri() {
+		return projectUri;
+	}
+
+	public void setProjectUri(String projectUri) {
+		this.projectUri = projectUri;
+	}
+
+	public List<String> getBindingKeys() {
+		return bindingKeys;
+	}
+
+	public void setBindingKeys(List<String> bindingKeys) {
+		this.bindingKeys = bindingKeys;
+	}
+
+	public Boolean getLookInOtherProjects() {
+		return lookInOtherProjects;
+	}
+
+	public void setLookInOtherProjects(Boolean lookInOtherProjects) {
+		this.lookInOtherProjects = lookInOtherProjects;
+	}
+
+	/**
+	 * Whether the lightweight form of the type data, without members, is requested
+	 */
+	public Boolean getLightweight() {
+		return lightweight;
+	}
+
+	public void setLightweight(Boolean lightweight) {
+		this.lightweight = lightweight;
+	}
+
+	@Override
+	public String toString() {
+		return "JavaTypesParams [projectUri=" + projectUri + ", bindingKeys=" + bindingKeys + ", lookInOtherProjects="
+				+ lookInOtherProjects + ", lightweight=" + lightweight + "]";
+	}
+
+}
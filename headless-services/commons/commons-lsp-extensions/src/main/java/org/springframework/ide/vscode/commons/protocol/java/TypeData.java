@@ -16,6 +16,10 @@ import java.util.Map;
 
 import org.springframework.ide.vscode.commons.protocol.java.Classpath.CPE;
 
+/**
+ * Data of a Java type. The lightweight form of the type data has no fields, methods and annotations,
+ * see {@link #hasMembers()}, those need to be requested separately when needed.
+ */
 public class TypeData extends MemberData {
 
 	private String fqName;
@@ -127,6 +131,13 @@ public class TypeData extends MemberData {
 	public void setAnnotations(List<AnnotationData> annotations) {
 		this.annotations = annotations;
 	}
+
+	/**
+	 * @return <code>false</code> for the lightweight form of the type data, without fields, methods and annotations
+	 */
+	public boolean hasMembers() {
+		return fields != null && methods != null && annotations != null;
+	}
 	
 	
 	
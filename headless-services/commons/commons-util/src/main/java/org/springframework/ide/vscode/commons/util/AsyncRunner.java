@@ -11,39 +11,100 @@
 package org.springframework.ide.vscode.commons.util;
 
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.slf4j.Logger;
 
 import reactor.core.publisher.Mono;
 import reactor.core.scheduler.Scheduler;
 
+/**
+ * Executes requests asynchronously and in the order they have been submitted.
+ * <p>
+ * By default all requests are executed one after the other. When a scheduler for read-only requests is set,
+ * requests submitted via {@link #invokeReadOnly(Callable)} run in parallel to each other on that scheduler.
+ * They still run only after all previously submitted (exclusive) requests are done, and exclusive requests
+ * wait for all previously submitted read-only requests to finish, so that read-only requests never observe
+ * changes that happen after they have been submitted. This includes requests that got cancelled while their
+ * work was already running, the next requests wait until that work is finished.
+ */
 public class AsyncRunner {
 
 	private Scheduler executor;
+	private Scheduler readOnlyExecutor;
 
 	// Used in test harness to wait for all pending request to finish.
 	// We only need to remember the last request as requests are executed in order, so if
-	// the last request is done, all requests are done
+	// the last request is done, all requests are done. This is done when the work of the request
+	// is finished (or skipped), which isn't the case for a cancelled future of a running request.
 	private CompletableFuture<?> lastRequest;
 
+	// Read-only requests submitted after the last exclusive request, in parallel mode only. These are done
+	// when their work is finished (or skipped), which isn't the case for a cancelled future of a running request.
+	private List<CompletableFuture<?>> readOnlyRequests = new ArrayList<>();
+
 	public AsyncRunner(Scheduler scheduler) {
 		 this.executor = scheduler;
 	}
 
+	/**
+	 * Sets the scheduler that executes read-only requests in parallel, or <code>null</code> to
+	 * execute read-only requests in sequence with all other requests.
+	 */
+	public synchronized void setReadOnlyScheduler(Scheduler readOnlyExecutor) {
+		this.readOnlyExecutor = readOnlyExecutor;
+	}
+
+	/**
+	 * Invokes a request that doesn't change any state, like a hover or a references request. Depending on the
+	 * configuration, these requests run in parallel to each other.
+	 * <p>
+	 * Cancelling the returned future skips the request if it didn't start yet.
+	 */
+	public synchronized <T> CompletableFuture<T> invokeReadOnly(Callable<T> callable) {
+		if (readOnlyExecutor == null) {
+			return invoke(callable);
+		}
+
+		readOnlyRequests.removeIf(CompletableFuture::isDone);
+
+		CompletableFuture<T> result = new CompletableFuture<>();
+		CompletableFuture<Void> done = new CompletableFuture<>();
+		readOnlyRequests.add(done);
+
+		scheduleAfter(lastRequest, readOnlyExecutor, () -> {
+			try {
+				if (!result.isDone()) {
+					result.complete(callable.call());
+				}
+			} catch (Throwable e) {
+				result.completeExceptionally(e);
+			} finally {
+				done.complete(null);
+			}
+		});
+		return result;
+	}
+
 	public synchronized <T> CompletableFuture<T> invoke(Duration timeout, Callable<T> callable) {
-		CompletableFuture<T> x = Mono.fromCallable(callable)
-				.subscribeOn(executor)
-				.timeout(timeout)
+		Execution execution = new Execution();
+		CompletableFuture<T> x = execution.track(afterReadOnlyRequests(Mono.fromCallable(execution.track(callable))
+				.subscribeOn(executor))
+				.timeout(timeout))
 				.toFuture();
-		lastRequest = x;
+		lastRequest = execution.finished;
 		return x;
 	}
 
 	public synchronized <T> CompletableFuture<T> invoke(Callable<T> callable) {
-		CompletableFuture<T> x = Mono.fromCallable(callable).subscribeOn(executor).toFuture();
-		lastRequest = x;
+		Execution execution = new Execution();
+		CompletableFuture<T> x = execution.track(afterReadOnlyRequests(Mono.fromCallable(execution.track(callable)).subscribeOn(executor))).toFuture();
+		lastRequest = execution.finished;
 		return x;
 	}
 
@@ -61,29 +122,112 @@ public class AsyncRunner {
 	}
 
 	public synchronized CompletableFuture<Void> execute(RunnableWithException runnable) {
-		CompletableFuture<Void> x = Mono.<Void>fromRunnable(() -> {
+		Execution execution = new Execution();
+		Mono<Void> work = Mono.<Void>fromCallable(execution.track(() -> {
 			try {
 				runnable.run();
 			} catch (Exception e) {
 				throw new RuntimeException(e);
 			}
-		})
-		.subscribeOn(executor)
-		.toFuture();
-		lastRequest = x;
+			return null;
+		}))
+		.subscribeOn(executor);
+		CompletableFuture<Void> x = execution.track(afterReadOnlyRequests(work)).toFuture();
+		lastRequest = execution.finished;
 		return x;
 	}
 
+	/**
+	 * In parallel mode, exclusive requests have to wait until the read-only requests submitted before
+	 * are done, and also until the previous exclusive request is done, since that one might be waiting
+	 * for read-only requests as well.
+	 */
+	private <T> Mono<T> afterReadOnlyRequests(Mono<T> work) {
+		readOnlyRequests.removeIf(CompletableFuture::isDone);
+
+		// read-only requests may still be pending from before parallel mode got switched off
+		if (readOnlyExecutor == null && readOnlyRequests.isEmpty()) {
+			return work;
+		}
+
+		List<CompletableFuture<?>> predecessors = new ArrayList<>(readOnlyRequests);
+		if (lastRequest != null) {
+			predecessors.add(lastRequest);
+		}
+		readOnlyRequests.clear();
+
+		// use a fresh future here, cancelling the request must not cancel the shared predecessors
+		CompletableFuture<Void> ready = CompletableFuture.allOf(predecessors.toArray(new CompletableFuture<?>[predecessors.size()]))
+				.handle((v, e) -> null);
+		return Mono.fromFuture(ready).then(work);
+	}
+
+	/**
+	 * Tracks when the work of an exclusive request is actually finished. Cancelling the future of a request
+	 * (or a timeout) completes that future right away, while the work itself might still be running.
+	 */
+	private static class Execution {
+
+		private final CompletableFuture<Void> finished = new CompletableFuture<>();
+		private final AtomicBoolean started = new AtomicBoolean(false);
+
+		/**
+		 * The work doesn't start anymore once the request got cancelled before
+		 */
+		public <T> Callable<T> track(Callable<T> callable) {
+			return () -> {
+				if (!started.compareAndSet(false, true)) {
+					throw new CancellationException();
+				}
+				try {
+					return callable.call();
+				} finally {
+					finished.complete(null);
+				}
+			};
+		}
 
-	public synchronized void waitForAll() {
-		while (lastRequest != null) {
-			try {
-				lastRequest.get();
-			} catch (Exception e) {
+		/**
+		 * The request is finished if it terminates before its work started
+		 */
+		public <T> Mono<T> track(Mono<T> request) {
+			return request.doFinally(signal -> {
+				if (started.compareAndSet(false, true)) {
+					finished.complete(null);
+				}
+			});
+		}
+	}
 
+	private void scheduleAfter(CompletableFuture<?> predecessor, Scheduler scheduler, Runnable work) {
+		if (predecessor == null || predecessor.isDone()) {
+			scheduler.schedule(work);
+		} else {
+			predecessor.whenComplete((v, e) -> scheduler.schedule(work));
+		}
+	}
+
+	public void waitForAll() {
+		while (true) {
+			List<CompletableFuture<?>> pending;
+			synchronized (this) {
+				pending = new ArrayList<>(readOnlyRequests);
+				if (lastRequest != null) {
+					pending.add(lastRequest);
+				}
+				pending.removeIf(CompletableFuture::isDone);
+				if (pending.isEmpty()) {
+					lastRequest = null;
+					readOnlyRequests.clear();
+					return;
+				}
 			}
-			if (lastRequest.isDone()) {
-				lastRequest = null;
+			for (CompletableFuture<?> request : pending) {
+				try {
+					request.get();
+				} catch (Exception e) {
+
+				}
 			}
 		}
 	}
@@ -11,20 +11,36 @@
 package org.springframework.ide.vscode.commons.util;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Map.Entry;
+import java.util.PriorityQueue;
 import java.util.TreeMap;
 import java.util.logging.Logger;
 
+import com.google.common.collect.Iterators;
+
 /**
  * A collection of data that can be searched with a simple 'fuzzy' string
  * matching algorithm. Clients must override 'getKey' method to define how
  * a search 'key' is associated with each data item.
  * <p>
  * The collection can then be searched for items who's key matches
- * simple 'fuzzy' patterns.
+ * simple 'fuzzy' patterns. Searches use an index of the characters
+ * contained in each key, so only entries that contain all characters
+ * of a pattern get scored.
+ * <p>
+ * A map can be layered on top of a base map. It then contains the entries
+ * of the base map as well, without copying or indexing them again, so
+ * that many maps can share the entries (and the index) of the same base map.
+ * The base map must not be modified anymore once other maps use it.
  */
 public abstract class FuzzyMap<E> implements Iterable<E> {
 	
@@ -63,24 +79,193 @@ public abstract class FuzzyMap<E> implements Iterable<E> {
 
 	@Override
 	public Iterator<E> iterator() {
-		return entries.values().iterator();
+		if (base == null) {
+			return entries.values().iterator();
+		}
+		return Iterators.<E>mergeSorted(Arrays.asList(entries.values().iterator(), base.iterator()),
+				(e1, e2) -> getKey(e1).compareTo(getKey(e2)));
+	}
+
+	/**
+	 * Entries in key order, together with a bitset per character that tells which of the
+	 * entries have that character in their key.
+	 */
+	private static class CharIndex<E> {
+		final String[] keys;
+		final List<E> values;
+		final Map<Character, BitSet> entriesWithChar = new HashMap<>();
+
+		CharIndex(TreeMap<String, E> entries) {
+			keys = entries.keySet().toArray(new String[entries.size()]);
+			values = new ArrayList<>(entries.values());
+			for (int i = 0; i < keys.length; i++) {
+				String key = keys[i];
+				for (int j = 0; j < key.length(); j++) {
+					entriesWithChar.computeIfAbsent(key.charAt(j), c -> new BitSet(keys.length)).set(i);
+				}
+			}
+		}
+
+		/**
+		 * Entries that contain all the characters of the pattern, which is necessary (but not sufficient)
+		 * for them to match the pattern.
+		 */
+		BitSet candidates(String pattern) {
+			BitSet result = null;
+			for (int i = 0; i < pattern.length(); i++) {
+				BitSet withChar = entriesWithChar.get(pattern.charAt(i));
+				if (withChar == null) {
+					return new BitSet();
+				}
+				if (result == null) {
+					result = (BitSet) withChar.clone();
+				} else {
+					result.and(withChar);
+				}
+			}
+			return result;
+		}
 	}
 
 	private TreeMap<String,E> entries = new TreeMap<String, E>();
 
+	private final FuzzyMap<E> base;
+
+	private volatile CharIndex<E> index;
+
+	protected FuzzyMap() {
+		this(null);
+	}
+
+	/**
+	 * @param base map whose entries are contained in this map as well, may be <code>null</code>
+	 */
+	protected FuzzyMap(FuzzyMap<E> base) {
+		this.base = base;
+	}
+
 	protected abstract String getKey(E entry);
 
 	public void add(E value) {
 		//This assumes no two entries have the same id.
 		String key = getKey(value);
-		E existing = entries.get(key);
+		E existing = get(key);
 		if (existing==null) {
 			entries.put(getKey(value), value);
+			index = null;
 		} else {
 			LOG.warning(FuzzyMap.class.getName()+": Multiple entries for key "+key+" some entries discarded");
 		}
 	}
 
+	/**
+	 * The entries matching a pattern, with their scores. A search can be used as the starting point for
+	 * searching a longer pattern that starts with the same characters, since every entry matching the
+	 * longer pattern also matches the shorter one.
+	 */
+	public static final class Search<E> {
+
+		private final FuzzyMap<E> map;
+		private final CharIndex<E> index;
+		private final String pattern;
+
+		// matching entries (in key order) and their scores
+		private final int[] matches;
+		private final double[] scores;
+
+		// search of the base map, if any
+		private Search<E> base;
+
+		private Search(FuzzyMap<E> map, CharIndex<E> index, String pattern, int[] matches, double[] scores) {
+			this.map = map;
+			this.index = index;
+			this.pattern = pattern;
+			this.matches = matches;
+			this.scores = scores;
+		}
+
+		public String getPattern() {
+			return pattern;
+		}
+
+		public int size() {
+			return matches.length + (base == null ? 0 : base.size());
+		}
+
+		/**
+		 * All matches, sorted lexicographically
+		 */
+		public List<Match<E>> getMatches() {
+			ArrayList<Match<E>> result = new ArrayList<Match<E>>(matches.length);
+			for (int i = 0; i < matches.length; i++) {
+				result.add(new Match<E>(pattern, scores[i], index.values.get(matches[i])));
+			}
+			if (base == null) {
+				return result;
+			}
+			return merge(result, base.getMatches(), byKey(), Integer.MAX_VALUE);
+		}
+
+		/**
+		 * The <code>limit</code> best matches, sorted by score (best first). Matches with the same
+		 * score are sorted lexicographically.
+		 */
+		public List<Match<E>> getBest(int limit) {
+			if (limit <= 0) {
+				return Collections.emptyList();
+			}
+
+			// keeps the best matches seen so far, with the worst of them on top. Matches are visited in key
+			// order, so a later match with the same score is considered worse.
+			Comparator<Integer> worstFirst = (m1, m2) -> {
+				int byScore = Double.compare(scores[m1], scores[m2]);
+				return byScore != 0 ? byScore : Integer.compare(m2, m1);
+			};
+			PriorityQueue<Integer> best = new PriorityQueue<>(Math.min(limit, matches.length) + 1, worstFirst);
+			for (int i = 0; i < matches.length; i++) {
+				if (best.size() < limit || scores[i] > scores[best.peek()]) {
+					best.add(i);
+					if (best.size() > limit) {
+						best.poll();
+					}
+				}
+			}
+
+			List<Integer> sorted = new ArrayList<>(best);
+			sorted.sort(worstFirst.reversed());
+			ArrayList<Match<E>> result = new ArrayList<Match<E>>(sorted.size());
+			for (int i : sorted) {
+				result.add(new Match<E>(pattern, scores[i], index.values.get(matches[i])));
+			}
+			if (base == null) {
+				return result;
+			}
+			Comparator<Match<E>> bestFirst = (m1, m2) -> Double.compare(m2.score, m1.score);
+			return merge(result, base.getBest(limit), bestFirst.thenComparing(byKey()), limit);
+		}
+
+		private Comparator<Match<E>> byKey() {
+			return (m1, m2) -> map.getKey(m1.data).compareTo(map.getKey(m2.data));
+		}
+
+		/**
+		 * Merges two sorted lists of matches into one sorted list of at most <code>limit</code> matches
+		 */
+		private static <E> List<Match<E>> merge(List<Match<E>> l1, List<Match<E>> l2, Comparator<Match<E>> order, int limit) {
+			ArrayList<Match<E>> result = new ArrayList<Match<E>>(Math.min(limit, l1.size() + l2.size()));
+			int i1 = 0;
+			int i2 = 0;
+			while (result.size() < limit && (i1 < l1.size() || i2 < l2.size())) {
+				if (i2 >= l2.size() || (i1 < l1.size() && order.compare(l1.get(i1), l2.get(i2)) <= 0)) {
+					result.add(l1.get(i1++));
+				} else {
+					result.add(l2.get(i2++));
+				}
+			}
+			return result;
+		}
+	}
+
 	/**
 	 * Search for pattern. A pattern is just a sequence of characters which have to found in
 	 * an entrie's key in the same order as they are in the pattern.
@@ -89,27 +274,84 @@ public abstract class FuzzyMap<E> implements Iterable<E> {
 	 * are sorted lexicographically thanks to the fact we use a Tree representation).
 	 */
 	public List<Match<E>> find(String pattern) {
+		return search(pattern, null).getMatches();
+	}
+
+	/**
+	 * Search for pattern, like {@link #find(String)}, but only returns the <code>limit</code> best matches.
+	 * <p>
+	 * Unlike {@link #find(String)}, the returned matches are sorted by score (best first). Matches with
+	 * the same score are sorted lexicographically.
+	 */
+	public List<Match<E>> find(String pattern, int limit) {
+		return search(pattern, null).getBest(limit);
+	}
+
+	/**
+	 * Search for pattern. If given, a previous search of this map for a prefix of the pattern is used
+	 * to narrow down the entries to look at. Previous searches are ignored if they don't apply, e.g.
+	 * because entries got added to the map in the meantime.
+	 */
+	public Search<E> search(String pattern, Search<E> previous) {
+		Search<E> search = searchEntries(pattern, previous);
+		if (base != null) {
+			search.base = base.search(pattern, previous == null ? null : previous.base);
+		}
+		return search;
+	}
+
+	/**
+	 * Search for pattern in the entries of this map, without the entries of the base map
+	 */
+	private Search<E> searchEntries(String pattern, Search<E> previous) {
+		CharIndex<E> index = getIndex();
 		if ("".equals(pattern)) {
 			//Special case because
 			// 1) no need to search. Matches everything
 			// 2) want to use different way of sorting / scoring. See https://issuetracker.springsource.com/browse/STS-4008
-			ArrayList<Match<E>> matches = new ArrayList<Match<E>>(entries.size());
-			for (E v : entries.values()) {
-				matches.add(new Match<E>(pattern, 1.0, v));
+			int[] matches = new int[index.keys.length];
+			double[] scores = new double[index.keys.length];
+			for (int i = 0; i < matches.length; i++) {
+				matches[i] = i;
+				scores[i] = 1.0;
 			}
-			return matches;
-		} else {
-			//TODO: optimize somehow with a smarter index? (right now searches all map entries sequentially)
-			ArrayList<Match<E>> matches = new ArrayList<Match<E>>();
-			for (Entry<String, E> e : entries.entrySet()) {
-				String key = e.getKey();
-				double score = FuzzyMatcher.matchScore(pattern, key);
-				if (score!=0.0) {
-					matches.add(new Match<E>(pattern, score, e.getValue()));
+			return new Search<>(this, index, pattern, matches, scores);
+		}
+
+		BitSet candidates = index.candidates(pattern);
+		if (previous != null && previous.index == index && pattern.startsWith(previous.pattern)) {
+			BitSet previousMatches = new BitSet(index.keys.length);
+			for (int match : previous.matches) {
+				previousMatches.set(match);
+			}
+			candidates.and(previousMatches);
+		}
+
+		int[] matches = new int[candidates.cardinality()];
+		double[] scores = new double[matches.length];
+		int count = 0;
+		for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+			double score = FuzzyMatcher.matchScore(pattern, index.keys[i]);
+			if (score!=0.0) {
+				matches[count] = i;
+				scores[count] = score;
+				count++;
+			}
+		}
+		return new Search<>(this, index, pattern, Arrays.copyOf(matches, count), Arrays.copyOf(scores, count));
+	}
+
+	private CharIndex<E> getIndex() {
+		CharIndex<E> index = this.index;
+		if (index == null || index.keys.length != entries.size()) {
+			synchronized (this) {
+				index = this.index;
+				if (index == null || index.keys.length != entries.size()) {
+					this.index = index = new CharIndex<>(entries);
 				}
 			}
-			return matches;
 		}
+		return index;
 	}
 
 	/**
@@ -146,26 +388,47 @@ public abstract class FuzzyMap<E> implements Iterable<E> {
 			int ceilnScore = ceiln==null?0:StringUtil.commonPrefixLength(ceiln.getKey(), propertyName);
 			best = floorScore>ceilnScore ? floor : ceiln;
 		}
-		return best==null?null:best.getValue();
+		E result = best==null?null:best.getValue();
+		if (base != null) {
+			E baseResult = base.findLongestCommonPrefixEntry(propertyName);
+			if (result == null || (baseResult != null
+					&& StringUtil.commonPrefixLength(getKey(baseResult), propertyName) > StringUtil.commonPrefixLength(getKey(result), propertyName))) {
+				result = baseResult;
+			}
+		}
+		return result;
 	}
 
 	/**
 	 * Find an exact match if it exists.
 	 */
 	public E get(String id) {
-		return entries.get(id);
+		E e = entries.get(id);
+		if (e == null && base != null) {
+			e = base.get(id);
+		}
+		return e;
 	}
 
 	public boolean isEmpty() {
-		return entries==null || entries.isEmpty();
+		return (entries==null || entries.isEmpty()) && (base == null || base.isEmpty());
 	}
 
 	public int size() {
-		return entries.size();
+		return entries.size() + (base == null ? 0 : base.size());
 	}
 
+	/**
+	 * The entries of this map. For a map with a base map, this is a copy that contains the entries
+	 * of the base map as well.
+	 */
 	public TreeMap<String, E> getTreeMap() {
-		return entries;
+		if (base == null) {
+			return entries;
+		}
+		TreeMap<String, E> all = new TreeMap<>(base.getTreeMap());
+		all.putAll(entries);
+		return all;
 	}
 
 }
@@ -20,14 +20,17 @@ import org.eclipse.lsp4j.TextDocumentContentChangeEvent;
 import org.eclipse.lsp4j.TextDocumentIdentifier;
 import org.springframework.ide.vscode.commons.util.BadLocationException;
 import org.springframework.ide.vscode.commons.util.Log;
-import org.springframework.ide.vscode.commons.util.text.linetracker.DefaultLineTracker;
-import org.springframework.ide.vscode.commons.util.text.linetracker.ILineTracker;
+import org.springframework.ide.vscode.commons.util.text.linetracker.PersistentLineIndex;
 
 import javolution.text.Text;
 
+/**
+ * Text document backed by immutable structures (a javolution {@link Text} rope and a {@link PersistentLineIndex}),
+ * so that taking a snapshot via {@link #copy()} doesn't copy anything and edits only touch the changed parts.
+ */
 public class TextDocument implements IDocument {
 
-	ILineTracker lineTracker = new DefaultLineTracker();
+	private PersistentLineIndex lineIndex = PersistentLineIndex.EMPTY;
 	private static final Pattern NEWLINE = Pattern.compile("\\r|\\n|\\r\\n|\\n\\r");
 
 	private final LanguageId languageId;
@@ -43,7 +46,7 @@ public class TextDocument implements IDocument {
 		this.uri = other.uri;
 		this.languageId = other.getLanguageId();
 		this.text = other.text;
-		this.lineTracker.set(text.toString());
+		this.lineIndex = other.lineIndex;
 		this.version = other.version;
 	}
 
@@ -70,7 +73,7 @@ public class TextDocument implements IDocument {
 
 	public synchronized void setText(String text) {
 		this.text = new Text(text);
-		this.lineTracker.set(text);
+		this.lineIndex = PersistentLineIndex.create(text);
 	}
 
 	private void apply(TextDocumentContentChangeEvent change) throws BadLocationException {
@@ -114,7 +117,7 @@ public class TextDocument implements IDocument {
 	 * Determine the line-number a given offset (i.e. what line is the offset inside of?)
 	 */
 	private int lineNumber(int offset) throws BadLocationException {
-		return lineTracker.getLineNumberOfOffset(offset);
+		return lineIndex.getLineNumberOfOffset(offset);
 	}
 
 
@@ -129,8 +132,7 @@ public class TextDocument implements IDocument {
 	}
 
 	private int startOfLine(int line) throws BadLocationException {
-		IRegion region = lineTracker.getLineInformation(line);
-		return region.getOffset();
+		return lineIndex.getLineOffset(line);
 	}
 
 	@Override
@@ -162,7 +164,7 @@ public class TextDocument implements IDocument {
 
 	@Override
 	public int getNumberOfLines() {
-		return lineTracker.getNumberOfLines();
+		return lineIndex.getNumberOfLines();
 	}
 
 	@Override
@@ -184,13 +186,13 @@ public class TextDocument implements IDocument {
 
 	@Override
 	public int getLineOfOffset(int offset) throws BadLocationException {
-		return lineTracker.getLineNumberOfOffset(offset);
+		return lineIndex.getLineNumberOfOffset(offset);
 	}
 
 	@Override
 	public IRegion getLineInformation(int line) {
 		try {
-			return lineTracker.getLineInformation(line);
+			return lineIndex.getLineInformation(line);
 		} catch (BadLocationException e) {
 			//line doesn't exist
 		}
@@ -199,12 +201,11 @@ public class TextDocument implements IDocument {
 
 	@Override
 	public int getLineOffset(int line) throws BadLocationException {
-		return lineTracker.getLineOffset(line);
+		return lineIndex.getLineOffset(line);
 	}
 
 	public int toOffset(Position position) throws BadLocationException {
-		IRegion region = lineTracker.getLineInformation(position.getLine());
-		int lineStart = region.getOffset();
+		int lineStart = lineIndex.getLineOffset(position.getLine());
 		return lineStart + position.getCharacter();
 	}
 
@@ -214,7 +215,7 @@ public class TextDocument implements IDocument {
 		text = text
 			.delete(start, end)
 			.insert(start, new Text(ins));
-		lineTracker.replace(start, len, ins);
+		lineIndex = lineIndex.replace(start, len, ins.length(), text);
 	}
 
 	public synchronized TextDocument copy() {
@@ -0,0 +1,323 @@
+/*******************************************************************************
+ * Copyright (c) 2019 Pivotal, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal, Inc. - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.vscode.commons.util.text.linetracker;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.springframework.ide.vscode.commons.util.BadLocationException;
+import org.springframework.ide.vscode.commons.util.text.IRegion;
+import org.springframework.ide.vscode.commons.util.text.Region;
+
+/**
+ * Immutable line structure of a text, considering the same line delimiters as the
+ * {@link DefaultLineTracker} ('\n', '\r', '\r\n').
+ * <p>
+ * The lines are kept in a balanced tree (a treap keyed by line index) that knows the number
+ * of lines and characters of each subtree, so offset and line conversions are O(log n).
+ * Changes create a new index that shares all untouched subtrees with the old one, so taking
+ * a snapshot of an index is free and changes are O(log n) plus the size of the changed lines.
+ */
+public final class PersistentLineIndex {
+
+	private static final class Node {
+
+		final int lineLength;
+		final int delimiterLength;
+		final int priority;
+
+		final Node left;
+		final Node right;
+
+		final int lines;
+		final int length;
+
+		Node(int lineLength, int delimiterLength, int priority, Node left, Node right) {
+			this.lineLength = lineLength;
+			this.delimiterLength = delimiterLength;
+			this.priority = priority;
+			this.left = left;
+			this.right = right;
+			this.lines = lines(left) + 1 + lines(right);
+			this.length = length(left) + lineLength + length(right);
+		}
+
+		Node with(Node left, Node right) {
+			return left == this.left && right == this.right ? this : new Node(lineLength, delimiterLength, priority, left, right);
+		}
+	}
+
+	public static final PersistentLineIndex EMPTY = create("");
+
+	private final Node root;
+
+	private PersistentLineIndex(Node root) {
+		this.root = root;
+	}
+
+	public static PersistentLineIndex create(CharSequence text) {
+		return new PersistentLineIndex(build(text, 0, text.length(), true));
+	}
+
+	public int getNumberOfLines() {
+		return root.lines;
+	}
+
+	public int getLength() {
+		return root.length;
+	}
+
+	/**
+	 * the line containing the given offset, the end of the text belongs to the last line
+	 */
+	public int getLineNumberOfOffset(int offset) throws BadLocationException {
+		if (offset < 0 || offset > root.length) {
+			throw new BadLocationException();
+		}
+		if (offset == root.length) {
+			return root.lines - 1;
+		}
+
+		Node node = root;
+		int line = 0;
+		while (true) {
+			int leftLength = length(node.left);
+			if (offset < leftLength) {
+				node = node.left;
+			} else {
+				offset -= leftLength;
+				if (offset < node.lineLength) {
+					return line + lines(node.left);
+				}
+				offset -= node.lineLength;
+				line += lines(node.left) + 1;
+				node = node.right;
+			}
+		}
+	}
+
+	public int getLineOffset(int line) throws BadLocationException {
+		checkLine(line);
+
+		Node node = root;
+		int offset = 0;
+		while (true) {
+			int leftLines = lines(node.left);
+			if (line < leftLines) {
+				node = node.left;
+			} else if (line == leftLines) {
+				return offset + length(node.left);
+			} else {
+				offset += length(node.left) + node.lineLength;
+				line -= leftLines + 1;
+				node = node.right;
+			}
+		}
+	}
+
+	/**
+	 * length of the line including its delimiter
+	 */
+	public int getLineLength(int line) throws BadLocationException {
+		return getLine(line).lineLength;
+	}
+
+	/**
+	 * offset and length of the line, without its delimiter
+	 */
+	public IRegion getLineInformation(int line) throws BadLocationException {
+		Node node = getLine(line);
+		return new Region(getLineOffset(line), node.lineLength - node.delimiterLength);
+	}
+
+	/**
+	 * Creates the line index of the text after replacing the given range of this text.
+	 *
+	 * @param newText the complete text after the change
+	 */
+	public PersistentLineIndex replace(int offset, int length, int insertedLength, CharSequence newText) throws BadLocationException {
+		if (offset < 0 || length < 0 || offset + length > root.length) {
+			throw new BadLocationException();
+		}
+
+		// lines around the change are reparsed as well, since changes at the boundaries of a line
+		// can join or split "\r\n" delimiters of the adjacent lines
+		int firstLine = Math.max(0, getLineNumberOfOffset(offset) - 1);
+		int lastLine = Math.min(root.lines - 1, getLineNumberOfOffset(offset + length) + 1);
+		boolean lastLineOfText = lastLine == root.lines - 1;
+
+		int start = getLineOffset(firstLine);
+		int oldEnd = getLineOffset(lastLine) + getLineLength(lastLine);
+		int newEnd = oldEnd - length + insertedLength;
+
+		Node[] head = split(root, firstLine);
+		Node[] tail = split(head[1], lastLine - firstLine + 1);
+		Node changedLines = build(newText, start, newEnd, lastLineOfText);
+
+		return new PersistentLineIndex(merge(merge(head[0], changedLines), tail[1]));
+	}
+
+	private void checkLine(int line) throws BadLocationException {
+		if (line < 0 || line >= root.lines) {
+			throw new BadLocationException();
+		}
+	}
+
+	private Node getLine(int line) throws BadLocationException {
+		checkLine(line);
+
+		Node node = root;
+		while (true) {
+			int leftLines = lines(node.left);
+			if (line < leftLines) {
+				node = node.left;
+			} else if (line == leftLines) {
+				return node;
+			} else {
+				line -= leftLines + 1;
+				node = node.right;
+			}
+		}
+	}
+
+	/**
+	 * Builds the tree for the lines of the given part of the text. The part is expected to start at the beginning
+	 * of a line and to end with a line delimiter, unless it reaches the end of the text.
+	 */
+	private static Node build(CharSequence text, int start, int end, boolean endOfText) {
+		int[] lineLengths = new int[16];
+		int[] delimiterLengths = new int[16];
+		int count = 0;
+
+		int lineStart = start;
+		int i = start;
+		while (i < end) {
+			char c = text.charAt(i);
+			int delimiterLength = 0;
+			if (c == '\n') {
+				delimiterLength = 1;
+			} else if (c == '\r') {
+				delimiterLength = i + 1 < end && text.charAt(i + 1) == '\n' ? 2 : 1;
+			}
+
+			if (delimiterLength > 0) {
+				i += delimiterLength;
+				if (count == lineLengths.length) {
+					lineLengths = Arrays.copyOf(lineLengths, count * 2);
+					delimiterLengths = Arrays.copyOf(delimiterLengths, count * 2);
+				}
+				lineLengths[count] = i - lineStart;
+				delimiterLengths[count] = delimiterLength;
+				count++;
+				lineStart = i;
+			} else {
+				i++;
+			}
+		}
+
+		if (endOfText || lineStart < end) {
+			if (count == lineLengths.length) {
+				lineLengths = Arrays.copyOf(lineLengths, count + 1);
+				delimiterLengths = Arrays.copyOf(delimiterLengths, count + 1);
+			}
+			lineLengths[count] = end - lineStart;
+			delimiterLengths[count] = 0;
+			count++;
+		}
+
+		return build(lineLengths, delimiterLengths, count);
+	}
+
+	/**
+	 * Builds the treap for the given lines in linear time, by computing the cartesian tree of random priorities
+	 */
+	private static Node build(int[] lineLengths, int[] delimiterLengths, int count) {
+		if (count == 0) {
+			return null;
+		}
+
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		int[] priorities = new int[count];
+		int[] leftChildren = new int[count];
+		int[] rightChildren = new int[count];
+		Arrays.fill(rightChildren, -1);
+
+		Deque<Integer> stack = new ArrayDeque<>();
+		for (int i = 0; i < count; i++) {
+			priorities[i] = random.nextInt();
+
+			int last = -1;
+			while (!stack.isEmpty() && priorities[stack.peek()] < priorities[i]) {
+				last = stack.pop();
+			}
+			leftChildren[i] = last;
+			if (!stack.isEmpty()) {
+				rightChildren[stack.peek()] = i;
+			}
+			stack.push(i);
+		}
+
+		return createNode(stack.peekLast(), lineLengths, delimiterLengths, priorities, leftChildren, rightChildren);
+	}
+
+	private static Node createNode(int i, int[] lineLengths, int[] delimiterLengths, int[] priorities, int[] leftChildren, int[] rightChildren) {
+		if (i < 0) {
+			return null;
+		}
+		Node left = createNode(leftChildren[i], lineLengths, delimiterLengths, priorities, leftChildren, rightChildren);
+		Node right = createNode(rightChildren[i], lineLengths, delimiterLengths, priorities, leftChildren, rightChildren);
+		return new Node(lineLengths[i], delimiterLengths[i], priorities[i], left, right);
+	}
+
+	/**
+	 * splits the tree into the first <code>lines</code> lines and the rest
+	 */
+	private static Node[] split(Node node, int lines) {
+		if (node == null) {
+			return new Node[] {null, null};
+		}
+
+		int leftLines = lines(node.left);
+		if (lines <= leftLines) {
+			Node[] parts = split(node.left, lines);
+			return new Node[] {parts[0], node.with(parts[1], node.right)};
+		} else {
+			Node[] parts = split(node.right, lines - leftLines - 1);
+			return new Node[] {node.with(node.left, parts[0]), parts[1]};
+		}
+	}
+
+	private static Node merge(Node first, Node second) {
+		if (first == null) {
+			return second;
+		}
+		if (second == null) {
+			return first;
+		}
+
+		if (first.priority > second.priority) {
+			return first.with(first.left, merge(first.right, second));
+		} else {
+			return second.with(merge(first, second.left), second.right);
+		}
+	}
+
+	private static int lines(Node node) {
+		return node == null ? 0 : node.lines;
+	}
+
+	private static int length(Node node) {
+		return node == null ? 0 : node.length;
+	}
+
+}
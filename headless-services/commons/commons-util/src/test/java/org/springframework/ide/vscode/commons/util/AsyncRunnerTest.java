@@ -0,0 +1,193 @@
+/*******************************************************************************
+ * Copyright (c) 2019 Pivotal, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal, Inc. - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.vscode.commons.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+public class AsyncRunnerTest {
+
+	private Scheduler mainScheduler;
+	private Scheduler readOnlyScheduler;
+	private AsyncRunner async;
+
+	@Before
+	public void setup() {
+		mainScheduler = Schedulers.newSingle("async-runner-test");
+		readOnlyScheduler = Schedulers.fromExecutorService(Executors.newFixedThreadPool(4));
+		async = new AsyncRunner(mainScheduler);
+		async.setReadOnlyScheduler(readOnlyScheduler);
+	}
+
+	@After
+	public void cleanup() {
+		mainScheduler.dispose();
+		readOnlyScheduler.dispose();
+	}
+
+	@Test
+	public void readOnlyRequestsRunInParallel() throws Exception {
+		CountDownLatch bothStarted = new CountDownLatch(2);
+
+		CompletableFuture<Boolean> first = async.invokeReadOnly(() -> {
+			bothStarted.countDown();
+			return bothStarted.await(5, TimeUnit.SECONDS);
+		});
+		CompletableFuture<Boolean> second = async.invokeReadOnly(() -> {
+			bothStarted.countDown();
+			return bothStarted.await(5, TimeUnit.SECONDS);
+		});
+
+		assertTrue(first.get());
+		assertTrue(second.get());
+	}
+
+	@Test
+	public void exclusiveRequestWaitsForEarlierReadOnlyRequests() throws Exception {
+		List<String> events = new CopyOnWriteArrayList<>();
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+
+		CompletableFuture<Void> read = async.invokeReadOnly(() -> {
+			started.countDown();
+			release.await(5, TimeUnit.SECONDS);
+			events.add("read");
+			return null;
+		});
+		CompletableFuture<Void> write = async.execute(() -> events.add("write"));
+
+		assertTrue(started.await(5, TimeUnit.SECONDS));
+		assertFalse(write.isDone());
+
+		release.countDown();
+		write.get(5, TimeUnit.SECONDS);
+		assertTrue(read.isDone());
+		assertEquals("[read, write]", events.toString());
+	}
+
+	@Test
+	public void readOnlyRequestWaitsForEarlierExclusiveRequest() throws Exception {
+		List<String> events = new CopyOnWriteArrayList<>();
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+
+		async.execute(() -> {
+			started.countDown();
+			release.await(5, TimeUnit.SECONDS);
+			events.add("write");
+		});
+		CompletableFuture<String> read = async.invokeReadOnly(() -> events.toString());
+
+		assertTrue(started.await(5, TimeUnit.SECONDS));
+		assertFalse(read.isDone());
+
+		release.countDown();
+		assertEquals("[write]", read.get(5, TimeUnit.SECONDS));
+	}
+
+	@Test
+	public void readOnlyRequestWaitsForCancelledRunningExclusiveRequest() throws Exception {
+		List<String> events = new CopyOnWriteArrayList<>();
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+
+		CompletableFuture<Void> write = async.execute(() -> {
+			started.countDown();
+			awaitUninterruptibly(release);
+			events.add("write");
+		});
+		assertTrue(started.await(5, TimeUnit.SECONDS));
+
+		// the request is cancelled, but its work keeps running
+		write.cancel(true);
+		CompletableFuture<String> read = async.invokeReadOnly(() -> events.toString());
+		assertFalse(read.isDone());
+
+		release.countDown();
+		assertEquals("[write]", read.get(5, TimeUnit.SECONDS));
+	}
+
+	@Test
+	public void cancelledExclusiveRequestIsSkipped() throws Exception {
+		CountDownLatch release = new CountDownLatch(1);
+		AtomicBoolean executed = new AtomicBoolean(false);
+
+		async.invokeReadOnly(() -> release.await(5, TimeUnit.SECONDS));
+		CompletableFuture<Void> write = async.execute(() -> executed.set(true));
+		write.cancel(true);
+		release.countDown();
+
+		async.waitForAll();
+		assertFalse(executed.get());
+	}
+
+	@Test
+	public void cancelledReadOnlyRequestIsSkipped() throws Exception {
+		CountDownLatch release = new CountDownLatch(1);
+		AtomicBoolean executed = new AtomicBoolean(false);
+
+		async.execute(() -> release.await(5, TimeUnit.SECONDS));
+		CompletableFuture<Void> read = async.invokeReadOnly(() -> {
+			executed.set(true);
+			return null;
+		});
+		read.cancel(true);
+		release.countDown();
+
+		async.waitForAll();
+		assertFalse(executed.get());
+	}
+
+	@Test
+	public void sequentialWithoutReadOnlyScheduler() throws Exception {
+		async.setReadOnlyScheduler(null);
+		List<String> events = new CopyOnWriteArrayList<>();
+		CountDownLatch release = new CountDownLatch(1);
+
+		async.invokeReadOnly(() -> {
+			release.await(5, TimeUnit.SECONDS);
+			return events.add("read");
+		});
+		async.execute(() -> events.add("write"));
+
+		release.countDown();
+		async.waitForAll();
+		assertEquals("[read, write]", events.toString());
+	}
+
+	private static void awaitUninterruptibly(CountDownLatch latch) {
+		while (true) {
+			try {
+				latch.await();
+				return;
+			} catch (InterruptedException e) {
+				// cancelling the request may interrupt its work, which goes on anyway
+			}
+		}
+	}
+
+}
@@ -13,9 +13,11 @@ package org.springframework.ide.vscode.commons.util;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Random;
 
 import org.junit.Test;
 import org.springframework.ide.vscode.commons.util.FuzzyMap.Match;
@@ -71,6 +73,10 @@ public class FuzzyMapTest {
 
 	public class TestMap extends FuzzyMap<String> {
 		public TestMap(String... entries) {
+			this(null, entries);
+		}
+		public TestMap(TestMap base, String... entries) {
+			super(base);
 			for (String e : entries) {
 				add(e);
 			}
@@ -139,6 +145,126 @@ public class FuzzyMapTest {
 		assertEquals(null, empty.findLongestCommonPrefixEntry(""));
 	}
 
+	@Test
+	public void testIndexedFindSameAsFullScan() {
+		Random random = new Random(1234);
+		String[] words = {"server", "port", "spring", "jpa", "datasource", "url", "enabled", "cache", "mvc", "view-names"};
+		TestMap map = new TestMap();
+		for (int i = 0; i < 500; i++) {
+			map.add(words[random.nextInt(words.length)] + "." + words[random.nextInt(words.length)] + "." + i);
+		}
+
+		for (String pattern : new String[] {"s", "sport", "spring.jpa", "dsu", "zzz", "vn", "enabled.1", "e-"}) {
+			List<String> expected = new ArrayList<>();
+			for (String key : map.getTreeMap().keySet()) {
+				if (FuzzyMatcher.matchScore(pattern, key)!=0.0) {
+					expected.add(key);
+				}
+			}
+			List<String> actual = new ArrayList<>();
+			for (Match<String> match : map.find(pattern)) {
+				actual.add(match.data);
+			}
+			assertEquals(pattern, expected, actual);
+		}
+	}
+
+	@Test
+	public void testFindBest() {
+		TestMap map = new TestMap(
+				"piano.sorting",
+				"port",
+				"server.port-mapping",
+				"server.port",
+				"server.address"
+		);
+		List<Match<String>> best = map.find("port", 3);
+		assertEquals(3, best.size());
+		assertEquals("port", best.get(0).data);
+		assertEquals("server.port", best.get(1).data);
+		assertEquals("server.port-mapping", best.get(2).data);
+
+		assertEquals(4, map.find("port", 10).size());
+		assertEquals(0, map.find("port", 0).size());
+
+		//entries with equal scores come in alphabetic order
+		List<Match<String>> all = map.find("", 2);
+		assertEquals(2, all.size());
+		assertEquals("piano.sorting", all.get(0).data);
+		assertEquals("port", all.get(1).data);
+
+		//index must pick up added entries
+		map.add("port.extra");
+		assertEquals("port.extra", map.find("port", 2).get(1).data);
+	}
+
+	@Test
+	public void testNarrowPreviousSearch() {
+		TestMap map = new TestMap(
+				"spring.datasource.hikari.pool",
+				"spring.datasource.host",
+				"spring.datasource.url",
+				"spring.data.rest.base-path",
+				"server.port"
+		);
+		FuzzyMap.Search<String> search = map.search("spring.datasource.h", null);
+		assertEquals(2, search.size());
+
+		FuzzyMap.Search<String> narrowed = map.search("spring.datasource.hi", search);
+		assertEquals(1, narrowed.size());
+		assertEquals("spring.datasource.hikari.pool", narrowed.getMatches().get(0).data);
+
+		//a search that isn't a prefix of the new pattern isn't used
+		assertEquals(map.find("sport").size(), map.search("sport", narrowed).size());
+		assertTrue(map.search("sport", narrowed).size() > 1);
+
+		//a search on an outdated index isn't used
+		map.add("spring.datasource.hikari.timeout");
+		assertEquals(2, map.search("spring.datasource.hik", narrowed).size());
+	}
+
+	@Test
+	public void testLayeredSameAsFlat() {
+		String[] baseEntries = {"server.port", "server.address", "spring.datasource.url", "piano.sorting"};
+		String[] ownEntries = {"port", "server.port-mapping", "spring.datasource.host", "zspring"};
+		TestMap base = new TestMap(baseEntries);
+		TestMap layered = new TestMap(base, ownEntries);
+		TestMap flat = new TestMap(baseEntries);
+		for (String e : ownEntries) {
+			flat.add(e);
+		}
+
+		assertEquals(8, layered.size());
+		assertEquals(4, base.size());
+		assertEquals(new ArrayList<>(flat.getTreeMap().values()), toList(layered));
+		assertEquals("server.port", layered.get("server.port"));
+		assertEquals("spring.datasource.url", layered.findLongestCommonPrefixEntry("spring.datasource.u"));
+
+		for (String pattern : new String[] {"", "port", "spring", "sdh", "zzz"}) {
+			assertEquals(pattern, data(flat.find(pattern)), data(layered.find(pattern)));
+			assertEquals(pattern, data(flat.find(pattern, 3)), data(layered.find(pattern, 3)));
+			FuzzyMap.Search<String> search = layered.search(pattern, null);
+			assertEquals(pattern, data(flat.find(pattern + "o")), data(layered.search(pattern + "o", search).getMatches()));
+		}
+
+		//entries of the base map aren't added again
+		layered.add("server.port");
+		assertEquals(8, layered.size());
+	}
+
+	private static List<String> data(List<Match<String>> matches) {
+		List<String> data = new ArrayList<>();
+		for (Match<String> match : matches) {
+			data.add(match.data);
+		}
+		return data;
+	}
+
+	private static List<String> toList(Iterable<String> iterable) {
+		List<String> list = new ArrayList<>();
+		iterable.forEach(list::add);
+		return list;
+	}
 
 	private void assertMatchOrder(String pattern, String... datas) {
 		TestMap map = new TestMap(datas);
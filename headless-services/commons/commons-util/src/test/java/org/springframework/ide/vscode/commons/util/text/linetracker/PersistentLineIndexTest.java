@@ -0,0 +1,110 @@
+/*******************************************************************************
+ * Copyright (c) 2019 Pivotal, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal, Inc. - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.vscode.commons.util.text.linetracker;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+
+import org.junit.Test;
+import org.springframework.ide.vscode.commons.util.text.IRegion;
+import org.springframework.ide.vscode.commons.util.text.LanguageId;
+import org.springframework.ide.vscode.commons.util.text.TextDocument;
+
+public class PersistentLineIndexTest {
+
+	@Test
+	public void emptyText() throws Exception {
+		PersistentLineIndex index = PersistentLineIndex.create("");
+		assertEquals(1, index.getNumberOfLines());
+		assertEquals(0, index.getLineNumberOfOffset(0));
+		assertEquals(0, index.getLineInformation(0).getLength());
+	}
+
+	@Test
+	public void lineDelimiters() throws Exception {
+		assertSameLines("a\nb\r\nc\rd", PersistentLineIndex.create("a\nb\r\nc\rd"));
+		assertSameLines("a\n\r\n\r\r\n", PersistentLineIndex.create("a\n\r\n\r\r\n"));
+	}
+
+	@Test
+	public void randomEditsKeepSnapshotsUnchanged() throws Exception {
+		Random random = new Random(4711);
+		String alphabet = "ab\r\n";
+
+		for (int round = 0; round < 200; round++) {
+			StringBuilder text = new StringBuilder(randomText(random, alphabet, 30));
+			PersistentLineIndex index = PersistentLineIndex.create(text);
+
+			for (int edit = 0; edit < 30; edit++) {
+				int offset = random.nextInt(text.length() + 1);
+				int length = random.nextInt(text.length() - offset + 1);
+				String insert = randomText(random, alphabet, 5);
+
+				String oldText = text.toString();
+				PersistentLineIndex oldIndex = index;
+
+				text.replace(offset, offset + length, insert);
+				index = index.replace(offset, length, insert.length(), text);
+
+				assertSameLines(text.toString(), index);
+				assertSameLines(oldText, oldIndex);
+			}
+		}
+	}
+
+	@Test
+	public void documentCopyIsNotAffectedByChanges() throws Exception {
+		TextDocument doc = new TextDocument("file:///test.yml", LanguageId.PLAINTEXT, 0, "first\nsecond\nthird\n");
+		TextDocument copy = doc.copy();
+
+		doc.replace(6, 6, "changed\nlines");
+
+		assertEquals("first\nchanged\nlines\nthird\n", doc.get());
+		assertEquals(5, doc.getNumberOfLines());
+		assertEquals(14, doc.getLineOffset(2));
+
+		assertEquals("first\nsecond\nthird\n", copy.get());
+		assertEquals(4, copy.getNumberOfLines());
+		assertEquals(13, copy.getLineOffset(2));
+	}
+
+	private String randomText(Random random, String alphabet, int maxLength) {
+		StringBuilder result = new StringBuilder();
+		int length = random.nextInt(maxLength);
+		for (int i = 0; i < length; i++) {
+			result.append(alphabet.charAt(random.nextInt(alphabet.length())));
+		}
+		return result.toString();
+	}
+
+	private void assertSameLines(String text, PersistentLineIndex index) throws Exception {
+		DefaultLineTracker expected = new DefaultLineTracker();
+		expected.set(text);
+
+		String message = text.replace("\r", "\\r").replace("\n", "\\n");
+		assertEquals(message, expected.getNumberOfLines(), index.getNumberOfLines());
+		assertEquals(message, text.length(), index.getLength());
+
+		for (int offset = 0; offset <= text.length(); offset++) {
+			assertEquals(message, expected.getLineNumberOfOffset(offset), index.getLineNumberOfOffset(offset));
+		}
+
+		for (int line = 0; line < expected.getNumberOfLines(); line++) {
+			IRegion expectedLine = expected.getLineInformation(line);
+			IRegion actualLine = index.getLineInformation(line);
+			assertEquals(message, expectedLine.getOffset(), actualLine.getOffset());
+			assertEquals(message, expectedLine.getLength(), actualLine.getLength());
+			assertEquals(message, expected.getLineLength(line), index.getLineLength(line));
+		}
+	}
+
+}
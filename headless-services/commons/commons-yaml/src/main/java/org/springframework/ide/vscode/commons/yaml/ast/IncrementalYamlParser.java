@@ -0,0 +1,410 @@
+/*******************************************************************************
+ * Copyright (c) 2019 Pivotal, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal, Inc. - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.vscode.commons.yaml.ast;
+
+import java.nio.CharBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import org.springframework.ide.vscode.commons.util.text.IDocument;
+import org.yaml.snakeyaml.Yaml;
+import org.yaml.snakeyaml.error.Mark;
+import org.yaml.snakeyaml.error.MarkedYAMLException;
+import org.yaml.snakeyaml.nodes.MappingNode;
+import org.yaml.snakeyaml.nodes.Node;
+import org.yaml.snakeyaml.nodes.NodeTuple;
+import org.yaml.snakeyaml.nodes.ScalarNode;
+import org.yaml.snakeyaml.nodes.SequenceNode;
+import org.yaml.snakeyaml.nodes.Tag;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Sets;
+
+import javolution.io.CharSequenceReader;
+
+/**
+ * Parser for documents that are edited, which avoids parsing all of a large document for every version.
+ * <p>
+ * The text is split into chunks: the yaml documents separated by <code>---</code> lines, and the top level
+ * blocks (a key at column 0 with its value) of documents that are block mappings. Each chunk is parsed on
+ * its own. Chunks that have the same text as in the AST of a previous version are not parsed again, their
+ * nodes are reused, with marks shifted to the new position of the chunk. So typically only the edited chunk
+ * is parsed.
+ * <p>
+ * Texts that chunks may not parse the same as the whole text, or that have syntax errors, are parsed as a
+ * whole like {@link YamlParser} does. Top level blocks that can't be parsed on their own, e.g. with aliases to
+ * anchors in another block, are remembered, and their document is parsed as a whole in the next versions.
+ * Chunks with merge keys are parsed every time, because their nodes are modified when the merge keys are
+ * resolved.
+ */
+public class IncrementalYamlParser implements YamlASTProvider {
+
+	/**
+	 * Directives, document end markers, and line breaks other than '\n' and "\r\n"
+	 */
+	private static final Pattern NOT_INCREMENTAL = Pattern.compile("^%|^\\.\\.\\.(\\s|$)|\r(?!\n)|[\\u0085\\u2028\\u2029]", Pattern.MULTILINE);
+
+	/**
+	 * Characters that a top level key at the start of a line can't start with
+	 */
+	private static final String NOT_KEY_START = " \t\r\n#-?:,[]{}!&*|>%@`";
+
+	private final Yaml yaml;
+	private final YamlParser parser;
+
+	public IncrementalYamlParser(Yaml yaml) {
+		this.yaml = yaml;
+		this.parser = new YamlParser(yaml);
+	}
+
+	@Override
+	public YamlFileAST getAST(IDocument doc) throws Exception {
+		return getAST(doc, null);
+	}
+
+	/**
+	 * @param previous AST of a previous version of the document, or <code>null</code>
+	 */
+	public YamlFileAST getAST(IDocument doc, YamlFileAST previous) throws Exception {
+		String text = doc.get();
+		if (!NOT_INCREMENTAL.matcher(text).find()) {
+			ChunkParser chunkParser = new ChunkParser(doc, text, previous == null ? null : previous.getChunks());
+			try {
+				return chunkParser.parse();
+			} catch (RuntimeException e) {
+				// Syntax errors must be reported with the marks from parsing the whole text
+			}
+			YamlFileAST ast = parser.getAST(doc);
+			// The chunks parsed so far, and the blocks that can't be parsed on their own, are kept for the next version
+			return new YamlFileAST(doc, ast.getNodes(), chunkParser.chunks);
+		}
+		return parser.getAST(doc);
+	}
+
+	/**
+	 * Chunks of a parsed text that can be reused when parsing another version of the text
+	 */
+	static class Chunks {
+		private final String text;
+		private final Map<Integer, Chunk> byHash = new HashMap<>();
+
+		/**
+		 * Hashes of the texts of top level blocks that couldn't be parsed on their own, e.g. because of an alias to
+		 * an anchor in another block. Documents with these blocks are parsed as a whole, until the blocks are edited.
+		 */
+		private final Set<Integer> wholeDocumentBlocks = new HashSet<>();
+
+		Chunks(String text) {
+			this.text = text;
+		}
+
+		void add(Chunk chunk) {
+			byHash.put(chunk.hash, chunk);
+		}
+
+		Chunk find(String otherText, int start, int end, int hash) {
+			Chunk chunk = byHash.get(hash);
+			if (chunk != null && chunk.end - chunk.start == end - start && otherText.regionMatches(start, text, chunk.start, end - start)) {
+				return chunk;
+			}
+			return null;
+		}
+	}
+
+	private static class Chunk {
+		final int start;
+		final int end;
+		final int hash;
+		/**
+		 * Index and line of the start of the chunk, as in the marks of the nodes
+		 */
+		final int index;
+		final int line;
+		final List<Node> nodes;
+
+		Chunk(int start, int end, int hash, int index, int line, List<Node> nodes) {
+			this.start = start;
+			this.end = end;
+			this.hash = hash;
+			this.index = index;
+			this.line = line;
+			this.nodes = nodes;
+		}
+	}
+
+	private class ChunkParser {
+
+		private final IDocument doc;
+		private final String text;
+		private final Chunks previous;
+		private final Chunks chunks;
+
+		/**
+		 * Offsets in the text of the starts of the lines
+		 */
+		private final List<Integer> lineStarts = new ArrayList<>();
+
+		/**
+		 * Mark indexes count code points, the offset and index of the last chunk are remembered to count them
+		 * from there for the next chunk
+		 */
+		private int lastOffset = 0;
+		private int lastIndex = 0;
+
+		ChunkParser(IDocument doc, String text, Chunks previous) {
+			this.doc = doc;
+			this.text = text;
+			this.previous = previous;
+			this.chunks = new Chunks(text);
+		}
+
+		YamlFileAST parse() {
+			lineStarts.add(0);
+			for (int i = text.indexOf('\n'); i >= 0 && i + 1 < text.length(); i = text.indexOf('\n', i + 1)) {
+				lineStarts.add(i + 1);
+			}
+
+			List<Node> nodes = new ArrayList<>();
+			List<Integer> keyLines = new ArrayList<>();
+			int documentLine = 0;
+			for (int line = 0; line < lineStarts.size(); line++) {
+				int offset = lineStarts.get(line);
+				if (line > documentLine && isDocumentStart(offset)) {
+					parseDocument(documentLine, line, keyLines, nodes);
+					documentLine = line;
+					keyLines.clear();
+				}
+				if (isTopLevelKey(offset)) {
+					keyLines.add(line);
+				}
+			}
+			parseDocument(documentLine, lineStarts.size(), keyLines, nodes);
+			return new YamlFileAST(doc, nodes, chunks);
+		}
+
+		private void parseDocument(int startLine, int endLine, List<Integer> keyLines, List<Node> nodes) {
+			int start = lineStart(startLine);
+			int end = lineStart(endLine);
+			if (start == end) {
+				return;
+			}
+			if (keyLines.size() > 1 && !hasWholeDocumentBlock(startLine, endLine, keyLines)) {
+				List<Chunk> blocks = new ArrayList<>(keyLines.size());
+				for (int i = 0; i < keyLines.size(); i++) {
+					int blockStartLine = i == 0 ? startLine : keyLines.get(i);
+					int blockEndLine = i + 1 < keyLines.size() ? keyLines.get(i + 1) : endLine;
+					try {
+						blocks.add(chunk(blockStartLine, blockEndLine));
+					} catch (MarkedYAMLException e) {
+						// A line that looks like a top level key may not be one, e.g. in a multi-line flow collection,
+						// or the block may have an alias to an anchor in another block, or a syntax error. The whole
+						// text is parsed then, and the block is remembered so that the split isn't tried again.
+						chunks.wholeDocumentBlocks.add(hash(lineStart(blockStartLine), lineStart(blockEndLine)));
+						throw e;
+					}
+				}
+				Node root = joinBlocks(blocks);
+				if (root != null) {
+					nodes.add(root);
+					return;
+				}
+			}
+			nodes.addAll(chunk(startLine, endLine).nodes);
+		}
+
+		/**
+		 * Whether the document has a top level block that couldn't be parsed on its own in the previous version
+		 */
+		private boolean hasWholeDocumentBlock(int startLine, int endLine, List<Integer> keyLines) {
+			if (previous != null && !previous.wholeDocumentBlocks.isEmpty()) {
+				for (int i = 0; i < keyLines.size(); i++) {
+					int blockStartLine = i == 0 ? startLine : keyLines.get(i);
+					int blockEndLine = i + 1 < keyLines.size() ? keyLines.get(i + 1) : endLine;
+					int hash = hash(lineStart(blockStartLine), lineStart(blockEndLine));
+					if (previous.wholeDocumentBlocks.contains(hash)) {
+						chunks.wholeDocumentBlocks.add(hash);
+						return true;
+					}
+				}
+			}
+			return false;
+		}
+
+		/**
+		 * Root mapping of a document from its top level blocks, or <code>null</code> if the blocks don't
+		 * parse as a block mapping with one entry each
+		 */
+		private Node joinBlocks(List<Chunk> blocks) {
+			List<NodeTuple> tuples = new ArrayList<>(blocks.size());
+			for (int i = 0; i < blocks.size(); i++) {
+				List<Node> nodes = blocks.get(i).nodes;
+				if (nodes.size() != 1 || !(nodes.get(0) instanceof MappingNode)) {
+					return null;
+				}
+				MappingNode block = (MappingNode) nodes.get(0);
+				if (Boolean.TRUE.equals(block.getFlowStyle()) || block.getValue().size() != 1 || (i > 0 && !Tag.MAP.equals(block.getTag()))) {
+					return null;
+				}
+				tuples.addAll(block.getValue());
+			}
+			MappingNode first = (MappingNode) blocks.get(0).nodes.get(0);
+			MappingNode last = (MappingNode) blocks.get(blocks.size() - 1).nodes.get(0);
+			return new MappingNode(first.getTag(), true, tuples, first.getStartMark(), last.getEndMark(), first.getFlowStyle());
+		}
+
+		private Chunk chunk(int startLine, int endLine) {
+			int start = lineStart(startLine);
+			int end = lineStart(endLine);
+			int hash = hash(start, end);
+			int index = index(start);
+			Chunk old = previous == null ? null : previous.find(text, start, end, hash);
+			List<Node> nodes;
+			boolean reusable;
+			if (old != null) {
+				nodes = shift(old.nodes, index - old.index, startLine - old.line);
+				reusable = true;
+			} else {
+				CharSequenceReader reader = new CharSequenceReader();
+				reader.setInput(CharBuffer.wrap(text, start, end));
+				List<Node> parsed = new ArrayList<>(1);
+				for (Node node : yaml.composeAll(reader)) {
+					parsed.add(node);
+				}
+				nodes = shift(parsed, index, startLine);
+				reusable = !hasMergeKeys(parsed, Sets.newIdentityHashSet());
+			}
+			Chunk chunk = new Chunk(start, end, hash, index, startLine, nodes);
+			if (reusable) {
+				chunks.add(chunk);
+			}
+			return chunk;
+		}
+
+		private int lineStart(int line) {
+			return line < lineStarts.size() ? lineStarts.get(line) : text.length();
+		}
+
+		private boolean isDocumentStart(int offset) {
+			return text.startsWith("---", offset) && (offset + 3 == text.length() || Character.isWhitespace(text.charAt(offset + 3)));
+		}
+
+		private boolean isTopLevelKey(int offset) {
+			return offset < text.length() && NOT_KEY_START.indexOf(text.charAt(offset)) < 0;
+		}
+
+		private int hash(int start, int end) {
+			int hash = 0;
+			for (int i = start; i < end; i++) {
+				hash = 31 * hash + text.charAt(i);
+			}
+			return hash;
+		}
+
+		private int index(int offset) {
+			if (offset >= lastOffset) {
+				lastIndex += Character.codePointCount(text, lastOffset, offset);
+			} else {
+				lastIndex -= Character.codePointCount(text, offset, lastOffset);
+			}
+			lastOffset = offset;
+			return lastIndex;
+		}
+	}
+
+	private static boolean hasMergeKeys(List<Node> nodes, Set<Node> visited) {
+		for (Node node : nodes) {
+			if (visited.add(node)) {
+				if (node instanceof MappingNode) {
+					MappingNode mapping = (MappingNode) node;
+					if (mapping.isMerged()) {
+						return true;
+					}
+					for (NodeTuple tuple : mapping.getValue()) {
+						if (hasMergeKeys(ImmutableList.of(tuple.getKeyNode(), tuple.getValueNode()), visited)) {
+							return true;
+						}
+					}
+				} else if (node instanceof SequenceNode && hasMergeKeys(((SequenceNode) node).getValue(), visited)) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	private static List<Node> shift(List<Node> nodes, int indexDelta, int lineDelta) {
+		if (indexDelta == 0 && lineDelta == 0) {
+			return nodes;
+		}
+		Map<Node, Node> copies = new IdentityHashMap<>();
+		List<Node> shifted = new ArrayList<>(nodes.size());
+		for (Node node : nodes) {
+			shifted.add(shift(node, indexDelta, lineDelta, copies));
+		}
+		return shifted;
+	}
+
+	/**
+	 * Copy of a node with its marks (and the ones of its children) moved by some lines. Columns stay the same,
+	 * since chunks start at the start of a line. Nodes that occur more than once because of aliases are
+	 * copied once.
+	 */
+	private static Node shift(Node node, int indexDelta, int lineDelta, Map<Node, Node> copies) {
+		Node copy = copies.get(node);
+		if (copy != null) {
+			return copy;
+		}
+		Mark start = shift(node.getStartMark(), indexDelta, lineDelta);
+		Mark end = shift(node.getEndMark(), indexDelta, lineDelta);
+		switch (node.getNodeId()) {
+		case scalar:
+			ScalarNode scalar = (ScalarNode) node;
+			copy = new ScalarNode(scalar.getTag(), scalar.getValue(), start, end, scalar.getStyle());
+			copies.put(node, copy);
+			return copy;
+		case sequence:
+			SequenceNode sequence = (SequenceNode) node;
+			List<Node> values = new ArrayList<>(sequence.getValue().size());
+			copy = new SequenceNode(sequence.getTag(), true, values, start, end, sequence.getFlowStyle());
+			copies.put(node, copy);
+			for (Node value : sequence.getValue()) {
+				values.add(shift(value, indexDelta, lineDelta, copies));
+			}
+			return copy;
+		case mapping:
+			MappingNode mapping = (MappingNode) node;
+			List<NodeTuple> tuples = new ArrayList<>(mapping.getValue().size());
+			MappingNode mappingCopy = new MappingNode(mapping.getTag(), true, tuples, start, end, mapping.getFlowStyle());
+			mappingCopy.setMerged(mapping.isMerged());
+			copies.put(node, mappingCopy);
+			for (NodeTuple tuple : mapping.getValue()) {
+				tuples.add(new NodeTuple(shift(tuple.getKeyNode(), indexDelta, lineDelta, copies), shift(tuple.getValueNode(), indexDelta, lineDelta, copies)));
+			}
+			return mappingCopy;
+		default:
+			throw new IllegalStateException("Unexpected node: " + node);
+		}
+	}
+
+	private static Mark shift(Mark mark, int indexDelta, int lineDelta) {
+		if (mark == null) {
+			return null;
+		}
+		return new Mark(mark.getName(), mark.getIndex() + indexDelta, mark.getLine() + lineDelta, mark.getColumn(), mark.getBuffer(), mark.getPointer());
+	}
+
+}
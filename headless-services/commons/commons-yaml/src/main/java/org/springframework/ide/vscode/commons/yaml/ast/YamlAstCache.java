@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2017 Pivotal, Inc.
+ * Copyright (c) 2017, 2019 Pivotal, Inc.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -10,27 +10,57 @@
  *******************************************************************************/
 package org.springframework.ide.vscode.commons.yaml.ast;
 
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.ide.vscode.commons.util.text.IDocument;
 import org.springframework.ide.vscode.commons.yaml.util.StaleFallbackCache;
 import org.yaml.snakeyaml.Yaml;
 
+/**
+ * ASTs of the open documents, so that reconciling, hovers, completions and symbols parse each version of a
+ * document only once. Documents are parsed concurrently, a slow parse of one document doesn't block lookups
+ * of the others. Only the parts of a document that changed since the previous version are parsed again,
+ * see {@link IncrementalYamlParser}.
+ */
 public class YamlAstCache {
 
-	private final StaleFallbackCache<String, YamlFileAST> asts = new StaleFallbackCache<>();
-	private final YamlParser parser;
+	private static final Logger log = LoggerFactory.getLogger(YamlAstCache.class);
+
+	/**
+	 * Minimum time between two reports of the cache statistics in the debug log
+	 */
+	private static final long STATS_LOG_INTERVAL = TimeUnit.MINUTES.toNanos(1);
+
+	/**
+	 * Maximum total length (in characters) of the documents of the stale ASTs kept as fallback
+	 */
+	private static final long MAX_STALE_AST_CHARS = 8 * 1024 * 1024;
+
+	private final StaleFallbackCache<String, YamlFileAST> asts = new StaleFallbackCache<>(MAX_STALE_AST_CHARS,
+			(uri, ast) -> Math.max(1, ast.getDocument().getLength()));
+	private final IncrementalYamlParser parser;
+	private final AtomicLong lastStatsLog = new AtomicLong(System.nanoTime());
 
 	public YamlAstCache() {
 		Yaml yaml = new Yaml();
-		this.parser = new YamlParser(yaml);
+		this.parser = new IncrementalYamlParser(yaml);
 	}
 
 	public YamlASTProvider getAstProvider(boolean allowStaleAsts) {
 		return (IDocument doc) -> {
 			String uri = doc.getUri();
 			if (uri!=null) {
-				return asts.get(uri, doc.getVersion(), allowStaleAsts, () -> {
-					return parser.getAST(doc);
-				});
+				try {
+					return asts.get(uri, doc.getVersion(), allowStaleAsts, () -> {
+						// Chunks that didn't change since the last successfully parsed version are reused
+						return parser.getAST(doc, asts.getStale(uri));
+					});
+				} finally {
+					logStats();
+				}
 			}
 			return null;
 		};
@@ -55,4 +85,17 @@ public class YamlAstCache {
 		return null;
 	}
 
+	/**
+	 * Reports hits, loads and parse times in the debug log, at most once per {@link #STATS_LOG_INTERVAL}
+	 */
+	private void logStats() {
+		if (log.isDebugEnabled()) {
+			long now = System.nanoTime();
+			long last = lastStatsLog.get();
+			if (now - last >= STATS_LOG_INTERVAL && lastStatsLog.compareAndSet(last, now)) {
+				log.debug("YAML AST cache {}", asts.getStats());
+			}
+		}
+	}
+
 }
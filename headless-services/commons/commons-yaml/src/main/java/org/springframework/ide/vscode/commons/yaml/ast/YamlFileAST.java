@@ -39,6 +39,7 @@ public class YamlFileAST {
 	private static final List<NodeRef<?>> NO_CHILDREN = Collections.emptyList();
 	private final List<Node> nodes;
 	private final IDocument doc;
+	private final IncrementalYamlParser.Chunks chunks;
 
 	public YamlFileAST(IDocument doc, Iterable<Node> iter) {
 		this.doc = doc;
@@ -46,6 +47,13 @@ public class YamlFileAST {
 		for (Node node : iter) {
 			nodes.add(node);
 		}
+		this.chunks = null;
+	}
+
+	YamlFileAST(IDocument doc, List<Node> nodes, IncrementalYamlParser.Chunks chunks) {
+		this.doc = doc;
+		this.nodes = nodes;
+		this.chunks = chunks;
 	}
 
 	public List<NodeRef<?>> findPath(int offset) {
@@ -159,5 +167,12 @@ public class YamlFileAST {
 		return doc;
 	}
 
+	/**
+	 * Parsed chunks of the text that can be reused by the {@link IncrementalYamlParser}, or <code>null</code>
+	 */
+	IncrementalYamlParser.Chunks getChunks() {
+		return chunks;
+	}
+
 
 }
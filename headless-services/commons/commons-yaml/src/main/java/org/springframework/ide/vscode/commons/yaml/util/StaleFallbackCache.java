@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2016 Pivotal, Inc.
+ * Copyright (c) 2016, 2019 Pivotal, Inc.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -10,24 +10,40 @@
  *******************************************************************************/
 package org.springframework.ide.vscode.commons.yaml.util;
 
-import java.util.HashMap;
-import java.util.Map;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.ide.vscode.commons.util.Assert;
 import org.springframework.ide.vscode.commons.util.ExceptionUtil;
 
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.Weigher;
 
 /**
  * A simple cache implementation that provides an option for lookups to fallback
  * to a 'stale' cache entry when computing a current one fails.
+ * <p>
+ * There is no global lock: a value is computed once per key and version, by the
+ * first thread asking for it, while other threads asking for the same key and
+ * version wait for that computation. Lookups of other keys are not blocked.
  */
 public class StaleFallbackCache<K, V>{
 
+	private static final Logger log = LoggerFactory.getLogger(StaleFallbackCache.class);
+
+	/**
+	 * Default maximum number of stale entries, for caches without a weigher
+	 */
+	private static final long DEFAULT_MAX_STALE_ENTRIES = 100;
+
 	private static class Versioned<T> {
 		int version;
 		T it;
@@ -68,41 +84,150 @@ public class StaleFallbackCache<K, V>{
 		}
 	}
 
-	Map<K, V> staleEntries = new HashMap<>();
-	Cache<K, Versioned<CompletableFuture<V>>> latestEntries = CacheBuilder.newBuilder().build();
+	/**
+	 * Counters for lookups in the cache
+	 */
+	public static class Stats {
+		private final AtomicLong hits = new AtomicLong();
+		private final AtomicLong loads = new AtomicLong();
+		private final AtomicLong loadFailures = new AtomicLong();
+		private final AtomicLong staleHits = new AtomicLong();
+		private final AtomicLong totalLoadTime = new AtomicLong();
+
+		/**
+		 * Lookups that found the current version, computed or still being computed by another thread
+		 */
+		public long getHitCount() {
+			return hits.get();
+		}
+
+		/**
+		 * Lookups that had to compute the current version
+		 */
+		public long getLoadCount() {
+			return loads.get();
+		}
+
+		public long getLoadFailureCount() {
+			return loadFailures.get();
+		}
+
+		/**
+		 * Lookups that fell back to a stale entry because computing the current version failed
+		 */
+		public long getStaleHitCount() {
+			return staleHits.get();
+		}
 
-	public synchronized V get(K key, int version, boolean allowStaleEntries, Callable<? extends V> valueLoader) throws Exception {
-		Versioned<CompletableFuture<V>> latest = latestEntries.get(key, () -> new Versioned<>(version, load(valueLoader)));
-		if (latest.version!=version) {
-			latestEntries.invalidate(key);
-			keepStaleBackup(key, latest);
-			latest = latestEntries.get(key, () -> new Versioned<>(version, load(valueLoader)));
+		public double getHitRate() {
+			long requests = hits.get() + loads.get();
+			return requests == 0 ? 1.0 : (double) hits.get() / requests;
 		}
-		if (!allowStaleEntries) {
-			return future_get(version, latest);
-		} else {
-			if (latest.it.isCompletedExceptionally()) {
-				V staleValue = staleEntries.get(key);
-				if (staleValue!=null) {
-					return staleValue;
+
+		/**
+		 * Average time to compute a value, in milliseconds
+		 */
+		public double getAverageLoadTime() {
+			long count = loads.get();
+			return count == 0 ? 0.0 : (double) totalLoadTime.get() / count / TimeUnit.MILLISECONDS.toNanos(1);
+		}
+
+		@Override
+		public String toString() {
+			return String.format("Stats [hits=%d, loads=%d, loadFailures=%d, staleHits=%d, hitRate=%.2f, averageLoadTime=%.1fms]",
+					getHitCount(), getLoadCount(), getLoadFailureCount(), getStaleHitCount(), getHitRate(), getAverageLoadTime());
+		}
+	}
+
+	private final ConcurrentMap<K, Versioned<CompletableFuture<V>>> latestEntries = new ConcurrentHashMap<>();
+	private final Cache<K, Versioned<V>> staleEntries;
+	private final Stats stats = new Stats();
+
+	public StaleFallbackCache() {
+		this(DEFAULT_MAX_STALE_ENTRIES, (key, value) -> 1);
+	}
+
+	/**
+	 * @param maxStaleWeight maximum total weight of the stale entries kept as fallback. The least recently used ones are
+	 *        evicted beyond that, and all of them may be collected when memory runs low.
+	 * @param weigher weight of a stale entry, e.g. an estimate of its size
+	 */
+	public StaleFallbackCache(long maxStaleWeight, Weigher<? super K, ? super V> weigher) {
+		// stale entries are only written when a new version is computed, so a single segment is
+		// enough, and lets entries use the whole maximum weight
+		this.staleEntries = CacheBuilder.newBuilder()
+				.concurrencyLevel(1)
+				.maximumWeight(maxStaleWeight)
+				.<K, Versioned<V>>weigher((key, stale) -> weigher.weigh(key, stale.it))
+				.softValues()
+				.build();
+	}
+
+	public V get(K key, int version, boolean allowStaleEntries, Callable<? extends V> valueLoader) throws Exception {
+		Versioned<CompletableFuture<V>> latest;
+		while (true) {
+			latest = latestEntries.get(key);
+			if (latest != null && latest.version == version) {
+				stats.hits.incrementAndGet();
+				break;
+			}
+			Versioned<CompletableFuture<V>> created = new Versioned<>(version, new CompletableFuture<>());
+			boolean owner = latest == null
+					? latestEntries.putIfAbsent(key, created) == null
+					: latestEntries.replace(key, latest, created);
+			if (owner) {
+				if (latest != null) {
+					keepStaleBackup(key, latest);
+				}
+				load(key, created.it, valueLoader);
+				latest = created;
+				break;
+			}
+			// Another thread replaced the entry in the meantime, look again.
+		}
+		if (allowStaleEntries) {
+			try {
+				latest.it.join();
+			} catch (Exception e) {
+				Versioned<V> stale = staleEntries.getIfPresent(key);
+				if (stale != null) {
+					stats.staleHits.incrementAndGet();
+					return stale.it;
 				}
 			}
-			return future_get(latest.it);
 		}
+		return future_get(version, latest);
+	}
+
+	/**
+	 * The value of an older version kept as fallback, if there is one
+	 */
+	public V getStale(K key) {
+		Versioned<V> stale = staleEntries.getIfPresent(key);
+		return stale == null ? null : stale.it;
+	}
+
+	public Stats getStats() {
+		return stats;
 	}
 
 	/**
 	 * Called when a stale entry is found in the 'latest' map. This method is
 	 * responsible for determining if the entry should be kept as a staleBackup,
-	 * and store it.
+	 * and store it. The entry may still be computed by another thread, so it is
+	 * stored once that is done.
 	 */
 	private void keepStaleBackup(K key, Versioned<CompletableFuture<V>> latest) {
-		try {
-			staleEntries.put(key, latest.it.get());
-		} catch (InterruptedException | ExecutionException e) {
-			//ignore: This means its a 'bad' entry and so we don't want to keep it
-			// as a 'stale backup'.
-		}
+		latest.it.thenAccept(value -> {
+			synchronized (staleEntries) {
+				Versioned<V> existing = staleEntries.getIfPresent(key);
+				if (existing == null || existing.version < latest.version) {
+					staleEntries.put(key, new Versioned<>(latest.version, value));
+				}
+			}
+		});
+		//Failed entries are ignored: This means its a 'bad' entry and so we don't want to keep it
+		// as a 'stale backup'.
 	}
 
 	private V future_get(int wantedVersion, Versioned<CompletableFuture<V>> versioned) throws Exception {
@@ -120,16 +245,21 @@ public class StaleFallbackCache<K, V>{
 		}
 	}
 
-	private CompletableFuture<V> load(Callable<? extends V> valueLoader) {
-		CompletableFuture<V> future = new CompletableFuture<V>();
+	private void load(K key, CompletableFuture<V> future, Callable<? extends V> valueLoader) {
+		long start = System.nanoTime();
 		try {
 			V value = valueLoader.call();
 			Assert.isNotNull(value);
 			future.complete(value);
 		} catch (Throwable e) {
+			stats.loadFailures.incrementAndGet();
 			future.completeExceptionally(e);
+		} finally {
+			long time = System.nanoTime() - start;
+			stats.loads.incrementAndGet();
+			stats.totalLoadTime.addAndGet(time);
+			log.debug("Loaded {} in {} ms", key, TimeUnit.NANOSECONDS.toMillis(time));
 		}
-		return future;
 	}
 
 }
@@ -0,0 +1,165 @@
+/*******************************************************************************
+ * Copyright (c) 2019 Pivotal, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal, Inc. - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.vscode.yaml.ast;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import java.util.List;
+
+import org.junit.Test;
+import org.springframework.ide.vscode.commons.util.text.IDocument;
+import org.springframework.ide.vscode.commons.util.text.LanguageId;
+import org.springframework.ide.vscode.commons.util.text.TextDocument;
+import org.springframework.ide.vscode.commons.yaml.ast.IncrementalYamlParser;
+import org.springframework.ide.vscode.commons.yaml.ast.YamlFileAST;
+import org.springframework.ide.vscode.commons.yaml.ast.YamlParser;
+import org.yaml.snakeyaml.Yaml;
+import org.yaml.snakeyaml.error.Mark;
+import org.yaml.snakeyaml.error.MarkedYAMLException;
+import org.yaml.snakeyaml.nodes.MappingNode;
+import org.yaml.snakeyaml.nodes.Node;
+import org.yaml.snakeyaml.nodes.NodeTuple;
+import org.yaml.snakeyaml.nodes.ScalarNode;
+import org.yaml.snakeyaml.nodes.SequenceNode;
+
+public class IncrementalYamlParserTest {
+
+	private static final String PIPELINE =
+			"# pipeline\n" +
+			"resources:\n" +
+			"- name: repo\n" +
+			"  type: git\n" +
+			"\n" +
+			"jobs:\n" +
+			"- name: build\n" +
+			"  plan:\n" +
+			"  - get: repo\n" +
+			"    trigger: true\n" +
+			"groups:\n" +
+			"- name: all\n" +
+			"  jobs: [build]\n" +
+			"---\n" +
+			"second: document\n";
+
+	private final IncrementalYamlParser parser = new IncrementalYamlParser(new Yaml());
+
+	private static IDocument document(String text) {
+		TextDocument doc = new TextDocument(null, LanguageId.YAML);
+		doc.setText(text);
+		return doc;
+	}
+
+	private static String mark(Mark mark) {
+		return mark.getIndex() + ":" + mark.getLine() + ":" + mark.getColumn();
+	}
+
+	private static void dump(Node node, StringBuilder dump, String indent) {
+		dump.append(indent).append(node.getNodeId()).append(' ').append(node.getTag())
+			.append(' ').append(mark(node.getStartMark())).append('-').append(mark(node.getEndMark()));
+		if (node instanceof ScalarNode) {
+			dump.append(" '").append(((ScalarNode) node).getValue()).append('\'');
+		}
+		dump.append('\n');
+		if (node instanceof SequenceNode) {
+			for (Node child : ((SequenceNode) node).getValue()) {
+				dump(child, dump, indent + "  ");
+			}
+		} else if (node instanceof MappingNode) {
+			for (NodeTuple tuple : ((MappingNode) node).getValue()) {
+				dump(tuple.getKeyNode(), dump, indent + "  ");
+				dump(tuple.getValueNode(), dump, indent + "    ");
+			}
+		}
+	}
+
+	private static String dump(YamlFileAST ast) {
+		StringBuilder dump = new StringBuilder();
+		for (Node node : ast.getNodes()) {
+			dump(node, dump, "");
+		}
+		return dump.toString();
+	}
+
+	private void assertSameAsFullParse(YamlFileAST previous, String text) throws Exception {
+		YamlFileAST expected = new YamlParser(new Yaml()).getAST(document(text));
+		assertEquals(dump(expected), dump(parser.getAST(document(text), previous)));
+	}
+
+	private static List<NodeTuple> topLevel(YamlFileAST ast) {
+		return ((MappingNode) ast.get(0)).getValue();
+	}
+
+	@Test public void unchangedBlocksAreReused() throws Exception {
+		YamlFileAST previous = parser.getAST(document(PIPELINE), null);
+		String edited = PIPELINE.replace("  - get: repo\n", "  - get: repo\n    passed: [test]\n");
+		YamlFileAST ast = parser.getAST(document(edited), previous);
+
+		// block before the edit
+		assertSame(topLevel(previous).get(0).getValueNode(), topLevel(ast).get(0).getValueNode());
+		// edited block, and block after the edit with shifted marks
+		assertNotSame(topLevel(previous).get(1).getValueNode(), topLevel(ast).get(1).getValueNode());
+		Node groups = topLevel(ast).get(2).getKeyNode();
+		assertEquals(edited.indexOf("groups:"), groups.getStartMark().getIndex());
+		assertEquals(11, groups.getStartMark().getLine());
+
+		assertSameAsFullParse(previous, edited);
+	}
+
+	@Test public void sameAsFullParse() throws Exception {
+		YamlFileAST previous = parser.getAST(document(PIPELINE), null);
+		String[] versions = {
+				"new: block\n" + PIPELINE,
+				PIPELINE.replace("---\n", "---\nfirst: key\n"),
+				PIPELINE + "---\n- sequence\n",
+				PIPELINE.replace("groups:\n", "base: &base {a: 1}\nother: *base\ngroups:\n"),
+				PIPELINE.replace("groups:\n", "merged:\n  <<: {a: 1}\n  b: 2\ngroups:\n"),
+				PIPELINE.replace("  type: git\n", "  type: [git,\ngit]\n"),
+				PIPELINE.replace("jobs:\n", "? complex\n: key\njobs:\n"),
+				PIPELINE.replace("\n", "\r\n"),
+				""
+		};
+		for (String version : versions) {
+			assertSameAsFullParse(previous, version);
+			assertSameAsFullParse(null, version);
+		}
+	}
+
+	@Test public void documentWithAliasesToOtherBlocksParsedAsWhole() throws Exception {
+		String text = "base: &base {a: 1}\nother: *base\n---\nsecond: document\n";
+		YamlFileAST first = parser.getAST(document(text), null);
+		YamlFileAST second = parser.getAST(document(text.replace("second: document", "second: edited")), first);
+		YamlFileAST third = parser.getAST(document(text.replace("second: document", "second: edited again")), second);
+
+		// the document isn't split into blocks again, so it is reused as a whole once it is parsed as one chunk
+		assertSame(second.get(0), third.get(0));
+		assertSameAsFullParse(second, text.replace("second: document", "second: edited again"));
+	}
+
+	@Test public void syntaxErrorHasMarkInWholeText() throws Exception {
+		YamlFileAST previous = parser.getAST(document(PIPELINE), null);
+		String broken = PIPELINE.replace("  jobs: [build]", "  jobs: [build");
+		try {
+			parser.getAST(document(broken), previous);
+			fail("Expected a syntax error");
+		} catch (MarkedYAMLException e) {
+			try {
+				new YamlParser(new Yaml()).getAST(document(broken));
+				fail("Expected a syntax error");
+			} catch (MarkedYAMLException expected) {
+				assertEquals(expected.getProblemMark().getIndex(), e.getProblemMark().getIndex());
+			}
+		}
+	}
+
+}
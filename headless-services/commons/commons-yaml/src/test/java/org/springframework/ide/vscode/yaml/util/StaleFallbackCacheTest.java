@@ -0,0 +1,96 @@
+/*******************************************************************************
+ * Copyright (c) 2019 Pivotal, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal, Inc. - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.vscode.yaml.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+import org.springframework.ide.vscode.commons.yaml.util.StaleFallbackCache;
+
+public class StaleFallbackCacheTest {
+
+	@Test public void slowLoadDoesntBlockOtherKeys() throws Exception {
+		StaleFallbackCache<String, String> cache = new StaleFallbackCache<>();
+		CountDownLatch slowLoadStarted = new CountDownLatch(1);
+		CountDownLatch slowLoadDone = new CountDownLatch(1);
+		AtomicInteger slowLoads = new AtomicInteger();
+		ExecutorService executor = Executors.newCachedThreadPool();
+		try {
+			Future<String> slow = executor.submit(() -> cache.get("slow", 1, false, () -> {
+				slowLoads.incrementAndGet();
+				slowLoadStarted.countDown();
+				slowLoadDone.await();
+				return "slow-1";
+			}));
+			slowLoadStarted.await();
+			Future<String> sameKey = executor.submit(() -> cache.get("slow", 1, false, () -> {
+				slowLoads.incrementAndGet();
+				return "slow-1";
+			}));
+
+			assertEquals("fast-1", cache.get("fast", 1, false, () -> "fast-1"));
+
+			slowLoadDone.countDown();
+			assertEquals("slow-1", slow.get(2, TimeUnit.SECONDS));
+			assertEquals("slow-1", sameKey.get(2, TimeUnit.SECONDS));
+			assertEquals(1, slowLoads.get());
+		} finally {
+			executor.shutdown();
+		}
+		assertEquals(2, cache.getStats().getLoadCount());
+		assertEquals(1, cache.getStats().getHitCount());
+	}
+
+	@Test public void failedLoadFallsBackToStaleEntry() throws Exception {
+		StaleFallbackCache<String, String> cache = new StaleFallbackCache<>();
+		assertEquals("v1", cache.get("key", 1, true, () -> "v1"));
+		assertEquals("v1", cache.get("key", 2, true, () -> {
+			throw new IllegalStateException("Parse error");
+		}));
+		try {
+			cache.get("key", 2, false, () -> "v2");
+			fail("Expected the failure of version 2");
+		} catch (IllegalStateException e) {
+			assertEquals("Parse error", e.getMessage());
+		}
+		assertEquals(1, cache.getStats().getStaleHitCount());
+		assertEquals(1, cache.getStats().getLoadFailureCount());
+	}
+
+	@Test public void staleEntriesAreBoundedByWeight() throws Exception {
+		StaleFallbackCache<String, String> cache = new StaleFallbackCache<>(10, (key, value) -> value.length());
+		for (String key : new String[] { "a", "b", "c" }) {
+			cache.get(key, 1, true, () -> "12345");
+			cache.get(key, 2, true, () -> {
+				throw new IllegalStateException();
+			});
+		}
+		int staleHits = 0;
+		for (String key : new String[] { "a", "b", "c" }) {
+			try {
+				cache.get(key, 2, true, () -> "unused");
+				staleHits++;
+			} catch (IllegalStateException e) {
+				// evicted
+			}
+		}
+		assertEquals(2, staleHits);
+	}
+
+}
@@ -0,0 +1,431 @@
+/*******************************************************************************
+ * Copyright (c) 2019 Pivotal, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal, Inc. - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.vscode.java.properties.fast.parser;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import org.springframework.ide.vscode.java.properties.parser.ParseResults;
+import org.springframework.ide.vscode.java.properties.parser.Parser;
+import org.springframework.ide.vscode.java.properties.parser.Problem;
+import org.springframework.ide.vscode.java.properties.parser.ProblemCodes;
+import org.springframework.ide.vscode.java.properties.parser.PropertiesAst;
+import org.springframework.ide.vscode.java.properties.parser.PropertiesFileEscapes;
+
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Hand-written parser for the same grammar as the ANTLR based {@link org.springframework.ide.vscode.java.properties.antlr.parser.AntlrParser}.
+ * <p>
+ * Scans the text in a single pass, without creating tokens, parse trees or substrings. Nodes only
+ * keep offsets into the text, keys and values are decoded on demand. For text without syntax errors
+ * the AST is the same as the one created by the ANTLR based parser. Syntax errors are reported at
+ * most once per line and never affect the parsing of the following lines.
+ */
+public class FastParser implements Parser {
+
+	private static final Pattern CONTINUATION = Pattern.compile("\\\\(\r?\n|\r)[ \t\f]*");
+
+	@Override
+	public ParseResults parse(String text) {
+		return new Scanner(text).scan();
+	}
+
+	private static final class Scanner {
+
+		private final String text;
+		private final int length;
+		private final List<PropertiesAst.Node> nodes = new ArrayList<>();
+		private final List<Problem> syntaxErrors = new ArrayList<>();
+
+		private int pos = 0;
+		private int lineStart = 0;
+		private boolean lineHasError;
+
+		Scanner(String text) {
+			this.text = text;
+			this.length = text.length();
+		}
+
+		ParseResults scan() {
+			while (pos < length) {
+				line();
+			}
+			return new ParseResults(new PropertiesAst(ImmutableList.copyOf(nodes)), ImmutableList.copyOf(syntaxErrors), ImmutableList.of());
+		}
+
+		private void line() {
+			int start = pos;
+			lineHasError = false;
+
+			char c;
+			while (true) {
+				skipSpaces();
+				if (pos == length) {
+					error("no viable alternative at input '" + text.substring(start, pos) + "'", pos);
+					return;
+				}
+				c = text.charAt(pos);
+				if (c != ':' && c != '=') {
+					break;
+				}
+				// separator without a key: skip it, like ANTLR does for a single extraneous token
+				error("extraneous input '" + c + "' expecting {<EOF>, '\\', '!', '#', LineBreak, Space, IdentifierChar}", pos);
+				start = ++pos;
+			}
+
+			if (isLineBreak(c)) {
+				nodes.add(new EmptyLine(start, pos - start + 1));
+				nextLine(pos);
+			} else if (c == '#' || c == '!') {
+				comment();
+			} else {
+				property(start);
+			}
+		}
+
+		private void comment() {
+			int start = pos;
+			while (pos < length && !isLineBreak(text.charAt(pos))) {
+				pos++;
+			}
+			if (pos < length) {
+				nodes.add(new Comment(start, pos - start + 1));
+				nextLine(pos);
+			} else {
+				nodes.add(new Comment(start, pos - start));
+			}
+		}
+
+		private void property(int start) {
+			int keyStart = pos;
+			while (pos < length) {
+				char c = text.charAt(pos);
+				if (c == '\\') {
+					if (pos + 1 < length && isEscapedKeyChar(text.charAt(pos + 1))) {
+						pos += 2;
+						continue;
+					}
+					error("mismatched input '" + tokenText(pos + 1) + "' expecting {':', '='}", pos + 1);
+				} else if (!isKeyChar(c)) {
+					break;
+				}
+				pos++;
+			}
+			int keyEnd = pos;
+
+			// The value starts with its separator, or with whatever is there instead
+			int contextStart = pos;
+			int stop = -1;
+			if (pos < length && isSeparator(text.charAt(pos))) {
+				stop = pos++;
+			} else {
+				error("missing {':', '=', Space} at '" + tokenText(pos) + "'", pos);
+			}
+
+			while (pos < length) {
+				char c = text.charAt(pos);
+				if (c == '\\') {
+					if (pos + 1 < length && isLineBreak(text.charAt(pos + 1))) {
+						stop = pos + 1;
+						nextLine(pos + 1);
+						continue;
+					} else if (pos + 1 < length) {
+						error("extraneous input '" + tokenText(pos + 1) + "' expecting LineBreak", pos + 1);
+					} else {
+						error("missing LineBreak at '<EOF>'", pos + 1);
+					}
+				} else if (isLineBreak(c)) {
+					break;
+				}
+				stop = pos++;
+			}
+			int valueEnd = pos;
+
+			// Same as ANTLR parser's value: the text of separator and value without leading spaces and separator
+			int valueOffset = contextStart;
+			while (valueOffset < valueEnd && isRegexSpace(text.charAt(valueOffset))) {
+				valueOffset++;
+			}
+			if (valueOffset < valueEnd && isSeparatorChar(text.charAt(valueOffset))) {
+				valueOffset++;
+			}
+			if (stop < 0) {
+				valueOffset = keyEnd;
+			}
+
+			Key key = new Key(text, keyStart, keyEnd - keyStart);
+			Value value = new Value(text, valueOffset, stop < 0 ? 0 : stop - valueOffset + 1, valueEnd);
+
+			int pairLength;
+			if (pos < length) {
+				// line break is included, except for a '\n'
+				pairLength = pos - start + (text.charAt(pos) == '\n' ? 0 : 1);
+				nextLine(pos);
+			} else {
+				int last = stop < 0 ? keyEnd - 1 : stop;
+				pairLength = last - start + (text.charAt(last) == '\n' ? 0 : 1);
+			}
+			nodes.add(new KeyValuePair(start, pairLength, key, value));
+		}
+
+		private void skipSpaces() {
+			while (pos < length && isSpace(text.charAt(pos))) {
+				pos++;
+			}
+		}
+
+		/**
+		 * Moves to the start of the next line
+		 * @param lineBreak offset of the line break
+		 */
+		private void nextLine(int lineBreak) {
+			pos = lineBreak + 1;
+			if (text.charAt(lineBreak) == '\r' && pos < length && text.charAt(pos) == '\n') {
+				pos++;
+			}
+			lineStart = pos;
+		}
+
+		/**
+		 * Reports an error about the token at the given offset. The error covers the line up to the token.
+		 */
+		private void error(String message, int tokenOffset) {
+			if (!lineHasError) {
+				lineHasError = true;
+				syntaxErrors.add(new SyntaxError(message, lineStart, tokenOffset - lineStart));
+			}
+		}
+
+		private String tokenText(int offset) {
+			if (offset >= length) {
+				return "<EOF>";
+			}
+			char c = text.charAt(offset);
+			if (c == '\n') {
+				return "\\n";
+			} else if (c == '\r') {
+				return offset + 1 < length && text.charAt(offset + 1) == '\n' ? "\\r\\n" : "\\r";
+			}
+			return String.valueOf(c);
+		}
+
+	}
+
+	private static boolean isLineBreak(char c) {
+		return c == '\n' || c == '\r';
+	}
+
+	private static boolean isSpace(char c) {
+		return c == ' ' || c == '\t' || c == '\f';
+	}
+
+	private static boolean isSeparatorChar(char c) {
+		return c == ':' || c == '=';
+	}
+
+	private static boolean isSeparator(char c) {
+		return isSpace(c) || isSeparatorChar(c);
+	}
+
+	private static boolean isEscapedKeyChar(char c) {
+		return isSeparatorChar(c);
+	}
+
+	private static boolean isKeyChar(char c) {
+		return !isSeparator(c) && !isLineBreak(c) && c != '\\' && c != '!' && c != '#';
+	}
+
+	/**
+	 * Whitespace as matched by <code>\s</code> in regular expressions
+	 */
+	private static boolean isRegexSpace(char c) {
+		return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+	}
+
+	private static class SyntaxError implements Problem {
+
+		private final String message;
+		private final int offset;
+		private final int length;
+
+		SyntaxError(String message, int offset, int length) {
+			this.message = message;
+			this.offset = offset;
+			this.length = length;
+		}
+
+		@Override
+		public String getMessage() {
+			return message;
+		}
+
+		@Override
+		public String getCode() {
+			return ProblemCodes.PROPERTIES_SYNTAX_ERROR;
+		}
+
+		@Override
+		public int getOffset() {
+			return offset;
+		}
+
+		@Override
+		public int getLength() {
+			return length;
+		}
+
+	}
+
+	private static abstract class Node implements PropertiesAst.Node {
+
+		private final int offset;
+		private final int length;
+
+		Node(int offset, int length) {
+			this.offset = offset;
+			this.length = length;
+		}
+
+		@Override
+		public int getOffset() {
+			return offset;
+		}
+
+		@Override
+		public int getLength() {
+			return length;
+		}
+
+		@Override
+		public PropertiesAst.Node getParent() {
+			return null;
+		}
+
+		@Override
+		public List<? extends PropertiesAst.Node> getChildren() {
+			return null;
+		}
+
+	}
+
+	private static class EmptyLine extends Node implements PropertiesAst.EmptyLine {
+
+		EmptyLine(int offset, int length) {
+			super(offset, length);
+		}
+
+	}
+
+	private static class Comment extends Node implements PropertiesAst.Comment {
+
+		Comment(int offset, int length) {
+			super(offset, length);
+		}
+
+	}
+
+	private static class KeyValuePair extends Node implements PropertiesAst.KeyValuePair {
+
+		private final Key key;
+		private final Value value;
+
+		KeyValuePair(int offset, int length, Key key, Value value) {
+			super(offset, length);
+			this.key = key;
+			this.value = value;
+			key.parent = value.parent = this;
+		}
+
+		@Override
+		public Key getKey() {
+			return key;
+		}
+
+		@Override
+		public Value getValue() {
+			return value;
+		}
+
+		@Override
+		public List<? extends PropertiesAst.Node> getChildren() {
+			return ImmutableList.of(key, value);
+		}
+
+	}
+
+	private static class Key extends Node implements PropertiesAst.Key {
+
+		private final String text;
+		private KeyValuePair parent;
+
+		Key(String text, int offset, int length) {
+			super(offset, length);
+			this.text = text;
+		}
+
+		@Override
+		public String decode() {
+			String encoded = text.substring(getOffset(), getOffset() + getLength());
+			try {
+				return PropertiesFileEscapes.unescape(encoded);
+			} catch (Exception e) {
+				return encoded.replace("\\:", ":").replace("\\=", "=");
+			}
+		}
+
+		@Override
+		public KeyValuePair getParent() {
+			return parent;
+		}
+
+	}
+
+	private static class Value extends Node implements PropertiesAst.Value {
+
+		private final String text;
+		private final int end;
+		private KeyValuePair parent;
+		private String decoded;
+
+		Value(String text, int offset, int length, int end) {
+			super(offset, length);
+			this.text = text;
+			this.end = end;
+		}
+
+		@Override
+		public String decode() {
+			if (decoded == null) {
+				int start = getOffset();
+				while (start < end && isRegexSpace(text.charAt(start))) {
+					start++;
+				}
+				String value = CONTINUATION.matcher(text.substring(start, end)).replaceAll("");
+				try {
+					value = PropertiesFileEscapes.unescape(value);
+				} catch (Exception e) {
+					// ignore
+				}
+				decoded = value;
+			}
+			return decoded;
+		}
+
+		@Override
+		public KeyValuePair getParent() {
+			return parent;
+		}
+
+	}
+
+}
@@ -0,0 +1,370 @@
+/*******************************************************************************
+ * Copyright (c) 2019 Pivotal, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal, Inc. - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.vscode.java.properties.parser;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.ide.vscode.java.properties.parser.PropertiesAst.Comment;
+import org.springframework.ide.vscode.java.properties.parser.PropertiesAst.EmptyLine;
+import org.springframework.ide.vscode.java.properties.parser.PropertiesAst.Key;
+import org.springframework.ide.vscode.java.properties.parser.PropertiesAst.KeyValuePair;
+import org.springframework.ide.vscode.java.properties.parser.PropertiesAst.Node;
+import org.springframework.ide.vscode.java.properties.parser.PropertiesAst.Value;
+
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Parser that can update the results of parsing a previous version of a text by only
+ * parsing the logical lines touched by the changes.
+ * <p>
+ * Lines of a properties file are independent of each other, except for lines ending with a
+ * backslash which are continued on the next line. The text between the first and the last
+ * changed character is therefore widened to complete logical lines, parsed with the delegate
+ * parser, and spliced into the previous results. Nodes and problems after the change are
+ * reused with their offsets shifted.
+ */
+public class IncrementalParser implements Parser {
+
+	private final Parser parser;
+
+	public IncrementalParser(Parser parser) {
+		this.parser = parser;
+	}
+
+	@Override
+	public ParseResults parse(String text) {
+		return parser.parse(text);
+	}
+
+	/**
+	 * Parses the new text, reusing the results of parsing the old text for the lines that didn't change
+	 *
+	 * @param oldText Previously parsed text
+	 * @param oldResults Results of parsing the old text
+	 * @param newText Text to parse
+	 * @return Results of the parsing. See {@link ParseResults}
+	 */
+	public ParseResults reparse(String oldText, ParseResults oldResults, String newText) {
+		int oldLength = oldText.length();
+		int newLength = newText.length();
+		int maxCommon = Math.min(oldLength, newLength);
+
+		int prefix = 0;
+		while (prefix < maxCommon && oldText.charAt(prefix) == newText.charAt(prefix)) {
+			prefix++;
+		}
+		if (prefix == oldLength && prefix == newLength) {
+			return oldResults;
+		}
+
+		int suffix = 0;
+		while (suffix < maxCommon - prefix && oldText.charAt(oldLength - 1 - suffix) == newText.charAt(newLength - 1 - suffix)) {
+			suffix++;
+		}
+
+		int delta = newLength - oldLength;
+		List<Node> oldNodes = oldResults.ast.getAllNodes();
+
+		// whether an offset starts a line depends on the character at the offset, so it must not be a changed one
+		int start = 0;
+		for (int offset = prefix - 1; offset > 0; offset--) {
+			if (isLineStart(newText, offset) && !isInsideNode(oldNodes, offset)) {
+				start = offset;
+				break;
+			}
+		}
+
+		int newEnd = newLength - suffix;
+		while (newEnd < newLength && !(isLineStart(newText, newEnd) && isLineStart(oldText, newEnd - delta) && !isInsideNode(oldNodes, newEnd - delta))) {
+			newEnd++;
+		}
+		int oldEnd = newEnd - delta;
+
+		if (start == 0 && newEnd == newLength) {
+			return parser.parse(newText);
+		}
+
+		ParseResults changed = start < newEnd ? parser.parse(newText.substring(start, newEnd)) : null;
+
+		List<Node> nodes = new ArrayList<>(oldNodes.size() + 16);
+		List<Problem> syntaxErrors = new ArrayList<>();
+		List<Problem> problems = new ArrayList<>();
+
+		for (Node node : oldNodes) {
+			if (node.getOffset() < start) {
+				nodes.add(node);
+			}
+		}
+		keepBefore(oldResults.syntaxErrors, start, syntaxErrors);
+		keepBefore(oldResults.problems, start, problems);
+
+		if (changed != null) {
+			for (Node node : changed.ast.getAllNodes()) {
+				nodes.add(shift(node, start));
+			}
+			shiftAll(changed.syntaxErrors, 0, start, syntaxErrors);
+			shiftAll(changed.problems, 0, start, problems);
+		}
+
+		// problems at the end of the old text belong to its last line, unless that line didn't change
+		if (oldEnd < oldLength) {
+			for (Node node : oldNodes) {
+				if (node.getOffset() >= oldEnd) {
+					nodes.add(shift(node, delta));
+				}
+			}
+			shiftAll(oldResults.syntaxErrors, oldEnd, delta, syntaxErrors);
+			shiftAll(oldResults.problems, oldEnd, delta, problems);
+		}
+
+		return new ParseResults(new PropertiesAst(ImmutableList.copyOf(nodes)), ImmutableList.copyOf(syntaxErrors), ImmutableList.copyOf(problems));
+	}
+
+	/**
+	 * Whether the offset is the start of a logical line, i.e. it follows a line break that isn't
+	 * escaped by a backslash and doesn't split a "\r\n" line break.
+	 */
+	private static boolean isLineStart(String text, int offset) {
+		if (offset <= 0 || offset >= text.length()) {
+			return true;
+		}
+		int lineBreak;
+		char c = text.charAt(offset - 1);
+		if (c == '\n') {
+			lineBreak = offset >= 2 && text.charAt(offset - 2) == '\r' ? offset - 2 : offset - 1;
+		} else if (c == '\r' && text.charAt(offset) != '\n') {
+			lineBreak = offset - 1;
+		} else {
+			return false;
+		}
+		return lineBreak == 0 || text.charAt(lineBreak - 1) != '\\';
+	}
+
+	/**
+	 * Whether the offset is inside of one of the (sorted) nodes, which happens for nodes spanning more than a
+	 * logical line when the parser recovered from syntax errors.
+	 */
+	private static boolean isInsideNode(List<Node> nodes, int offset) {
+		int low = 0;
+		int high = nodes.size() - 1;
+		Node before = null;
+		while (low <= high) {
+			int mid = (low + high) >>> 1;
+			Node node = nodes.get(mid);
+			if (node.getOffset() < offset) {
+				before = node;
+				low = mid + 1;
+			} else {
+				high = mid - 1;
+			}
+		}
+		return before != null && offset < before.getOffset() + before.getLength();
+	}
+
+	/**
+	 * Problems about a token without a range start at the beginning of the line (as seen by ANTLR, which doesn't
+	 * consider '\r' a line break), so the end of a problem tells better which line it belongs to.
+	 */
+	private static int getLocation(Problem problem) {
+		return problem.getOffset() + problem.getLength();
+	}
+
+	private static void keepBefore(List<Problem> problems, int end, List<Problem> result) {
+		for (Problem problem : problems) {
+			if (getLocation(problem) < end) {
+				result.add(problem);
+			}
+		}
+	}
+
+	private static void shiftAll(List<Problem> problems, int start, int delta, List<Problem> result) {
+		for (Problem problem : problems) {
+			if (getLocation(problem) >= start) {
+				result.add(delta == 0 ? problem : new ShiftedProblem(problem, delta));
+			}
+		}
+	}
+
+	private static Node shift(Node node, int delta) {
+		if (delta == 0) {
+			return node;
+		}
+		if (node instanceof ShiftedNode) {
+			ShiftedNode<?> shifted = (ShiftedNode<?>) node;
+			return shift(shifted.node, shifted.delta + delta);
+		}
+		if (node instanceof KeyValuePair) {
+			return new ShiftedKeyValuePair((KeyValuePair) node, delta);
+		} else if (node instanceof Comment) {
+			return new ShiftedComment((Comment) node, delta);
+		} else if (node instanceof EmptyLine) {
+			return new ShiftedEmptyLine((EmptyLine) node, delta);
+		} else {
+			return new ShiftedNode<>(node, delta, null);
+		}
+	}
+
+	private static class ShiftedProblem implements Problem {
+
+		private final Problem problem;
+		private final int delta;
+
+		ShiftedProblem(Problem problem, int delta) {
+			if (problem instanceof ShiftedProblem) {
+				this.problem = ((ShiftedProblem) problem).problem;
+				this.delta = ((ShiftedProblem) problem).delta + delta;
+			} else {
+				this.problem = problem;
+				this.delta = delta;
+			}
+		}
+
+		@Override
+		public String getMessage() {
+			return problem.getMessage();
+		}
+
+		@Override
+		public String getCode() {
+			return problem.getCode();
+		}
+
+		@Override
+		public int getOffset() {
+			return problem.getOffset() + delta;
+		}
+
+		@Override
+		public int getLength() {
+			return problem.getLength();
+		}
+
+	}
+
+	/**
+	 * Node of a previous parse at a different offset
+	 */
+	private static class ShiftedNode<T extends Node> implements Node {
+
+		final T node;
+		final int delta;
+		final Node parent;
+
+		ShiftedNode(T node, int delta, Node parent) {
+			this.node = node;
+			this.delta = delta;
+			this.parent = parent;
+		}
+
+		@Override
+		public int getOffset() {
+			return node.getOffset() + delta;
+		}
+
+		@Override
+		public int getLength() {
+			return node.getLength();
+		}
+
+		@Override
+		public Node getParent() {
+			return parent;
+		}
+
+		@Override
+		public List<? extends Node> getChildren() {
+			return null;
+		}
+
+	}
+
+	private static class ShiftedComment extends ShiftedNode<Comment> implements Comment {
+
+		ShiftedComment(Comment node, int delta) {
+			super(node, delta, null);
+		}
+
+	}
+
+	private static class ShiftedEmptyLine extends ShiftedNode<EmptyLine> implements EmptyLine {
+
+		ShiftedEmptyLine(EmptyLine node, int delta) {
+			super(node, delta, null);
+		}
+
+	}
+
+	private static class ShiftedKeyValuePair extends ShiftedNode<KeyValuePair> implements KeyValuePair {
+
+		private final ShiftedKey key;
+		private final ShiftedValue value;
+
+		ShiftedKeyValuePair(KeyValuePair node, int delta) {
+			super(node, delta, null);
+			this.key = new ShiftedKey(node.getKey(), delta, this);
+			this.value = new ShiftedValue(node.getValue(), delta, this);
+		}
+
+		@Override
+		public Key getKey() {
+			return key;
+		}
+
+		@Override
+		public Value getValue() {
+			return value;
+		}
+
+		@Override
+		public List<? extends Node> getChildren() {
+			return ImmutableList.of(key, value);
+		}
+
+	}
+
+	private static class ShiftedKey extends ShiftedNode<Key> implements Key {
+
+		ShiftedKey(Key node, int delta, KeyValuePair parent) {
+			super(node, delta, parent);
+		}
+
+		@Override
+		public String decode() {
+			return node.decode();
+		}
+
+		@Override
+		public KeyValuePair getParent() {
+			return (KeyValuePair) parent;
+		}
+
+	}
+
+	private static class ShiftedValue extends ShiftedNode<Value> implements Value {
+
+		ShiftedValue(Value node, int delta, KeyValuePair parent) {
+			super(node, delta, parent);
+		}
+
+		@Override
+		public String decode() {
+			return node.decode();
+		}
+
+		@Override
+		public KeyValuePair getParent() {
+			return (KeyValuePair) parent;
+		}
+
+	}
+
+}
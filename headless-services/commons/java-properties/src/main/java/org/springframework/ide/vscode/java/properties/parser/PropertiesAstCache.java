@@ -0,0 +1,71 @@
+/*******************************************************************************
+ * Copyright (c) 2019 Pivotal, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal, Inc. - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.vscode.java.properties.parser;
+
+import org.springframework.ide.vscode.commons.util.text.IDocument;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * Keeps the {@link ParseResults} of the latest version of each properties document, so that
+ * reconciling, completions, hovers etc. on the same version of a document share a single parse.
+ * A new version of a document is parsed incrementally, based on the results of the previous one.
+ */
+public class PropertiesAstCache {
+
+	private static final int MAX_DOCUMENTS = 100;
+
+	private static class Snapshot {
+		final String text;
+		final ParseResults results;
+
+		Snapshot(String text, ParseResults results) {
+			this.text = text;
+			this.results = results;
+		}
+	}
+
+	private final IncrementalParser parser;
+	private final Cache<String, Snapshot> snapshots = CacheBuilder.newBuilder()
+			.maximumSize(MAX_DOCUMENTS)
+			.build();
+
+	public PropertiesAstCache(Parser parser) {
+		this.parser = new IncrementalParser(parser);
+	}
+
+	/**
+	 * Parse results for the current content of the document
+	 *
+	 * @param doc Properties document
+	 * @return Results of the parsing. See {@link ParseResults}
+	 */
+	public ParseResults getParseResults(IDocument doc) {
+		String text = doc.get();
+		String uri = doc.getUri();
+		if (uri == null) {
+			return parser.parse(text);
+		}
+
+		// compares the text rather than the version, documents that aren't managed by the client can change without a new version
+		Snapshot previous = snapshots.getIfPresent(uri);
+		if (previous != null && previous.text.equals(text)) {
+			return previous.results;
+		}
+
+		// Results are immutable, so concurrent requests for the same document may just both parse it
+		ParseResults results = previous == null ? parser.parse(text) : parser.reparse(previous.text, previous.results, text);
+		snapshots.put(uri, new Snapshot(text, results));
+		return results;
+	}
+
+}
@@ -0,0 +1,251 @@
+/*******************************************************************************
+ * Copyright (c) 2019 Pivotal, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal, Inc. - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.vscode.java.properties.fast.parser.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.Ignore;
+import org.junit.Test;
+import org.springframework.ide.vscode.java.properties.antlr.parser.AntlrParser;
+import org.springframework.ide.vscode.java.properties.fast.parser.FastParser;
+import org.springframework.ide.vscode.java.properties.parser.ParseResults;
+import org.springframework.ide.vscode.java.properties.parser.Problem;
+import org.springframework.ide.vscode.java.properties.parser.PropertiesAst.Comment;
+import org.springframework.ide.vscode.java.properties.parser.PropertiesAst.EmptyLine;
+import org.springframework.ide.vscode.java.properties.parser.PropertiesAst.KeyValuePair;
+import org.springframework.ide.vscode.java.properties.parser.PropertiesAst.Node;
+
+/**
+ * Checks that {@link FastParser} creates the same AST as {@link AntlrParser}
+ */
+public class FastParserTest {
+
+	private static final String[] CORPUS = {
+			"! This is comment",
+			"    ! This is comment =  ",
+			"# This is comment",
+			"    # This is comment =  ",
+			"key=value",
+			"key \t = \t \tvalue",
+			"key:value",
+			"key \t : \t \tvalue",
+			"key value",
+			"key       \t    value",
+			"key=value 1 and more staff \t that is all",
+			"        key2:value 2",
+			" key3     \t     :value3",
+			"ke\\:\\=y4=v\\\na\\\nl\\\nu\\\ne  \t  4",
+			"key\\=5==",
+			"key7 = =",
+			"key = value  1  ",
+			"k\u2b22ey\u2b28 = val\u2b24ue  1\u2b24  ",
+			"key=va!lue",
+			"key=va#lue",
+			"key=va\\\\lue",
+			"key=va\\u0041lue",
+			"# Comment-1\n\nkey = value  1  \n# Comment-2",
+			"# Comment\nkey  = value",
+			"# Comment\nkey  = value\n\t\n",
+			"# Comment\nkey  = value\n",
+			"# Comment\nkey  =",
+			"# Comment\n\n \t   \t \n\t\t\n",
+			"# Comment\n\nkey = value  1  \n \t   \t \n\t\t\n",
+			"#comment\nliquibase.enabled=\n#comment",
+			"\n\n \t   \t \n# Comment\n\t\t\n",
+			"key=value\r\nother=value\r\n",
+			"key=value\rother=value\r",
+			"key=a,\\\r\n  b,\\\r  c\n",
+			"key=a,\\\n",
+			"key=a,\\\r\n",
+			"key \t ",
+			"key \t \n",
+			"key=\n",
+			"\n",
+			"\r\n",
+			"",
+	};
+
+	private static final String[] LINES = {
+			"# Comment\n",
+			"! Comment\n",
+			"\n",
+			"\r\n",
+			"  \t\n",
+			"server.port=8080\n",
+			"spring.application.name : demo\n",
+			"  indented.key  value with spaces  \n",
+			"my.list = a,\\\n    b,\\\n    c\n",
+			"key\\:with\\=escapes=value\n",
+			"unicode.value=\u2b24\n",
+			"empty.value=\n",
+			"empty.value.space \n",
+			"! other comment\r\n",
+			"logging.level.root=INFO\r",
+			"windows.list=a,\\\r\n b\r\n",
+			"abrakadabra\n",
+			"=value\n",
+			"bad\\key=value\n",
+			"bad.value=a\\b\n",
+	};
+
+	AntlrParser antlr = new AntlrParser();
+	FastParser parser = new FastParser();
+
+	@Test
+	public void sameAsAntlrParser() throws Exception {
+		for (String text : CORPUS) {
+			assertSameAsAntlr(text);
+		}
+	}
+
+	@Test
+	public void randomLines() throws Exception {
+		Random random = new Random(4711);
+		for (int i = 0; i < 1000; i++) {
+			String text = randomLines(random, 10);
+			if (random.nextBoolean()) {
+				// without line break at the end
+				text = text.substring(0, text.length() - 1);
+			}
+			assertSameAsAntlr(text);
+		}
+	}
+
+	@Test
+	public void syntaxError() throws Exception {
+		String text = "abrakadabra";
+		ParseResults results = parser.parse(text);
+		assertEquals(1, results.syntaxErrors.size());
+		assertTrue(results.problems.isEmpty());
+		assertEquals(1, results.ast.getAllNodes().size());
+
+		Problem syntaxError = results.syntaxErrors.get(0);
+		assertEquals(0, syntaxError.getOffset());
+		assertEquals(text.length(), syntaxError.getLength());
+	}
+
+	@Test
+	public void multipleSyntaxErrors() throws Exception {
+		String text = "abrakadabra\nkey:value\nsdcsdc";
+		ParseResults results = parser.parse(text);
+		assertEquals(2, results.syntaxErrors.size());
+		assertEquals(3, results.ast.getNodes(KeyValuePair.class).size());
+
+		KeyValuePair validLine = results.ast.getNodes(KeyValuePair.class).get(1);
+		assertEquals("key", validLine.getKey().decode());
+		assertEquals("value", validLine.getValue().decode());
+
+		assertEquals(0, results.syntaxErrors.get(0).getOffset());
+		assertEquals(11, results.syntaxErrors.get(0).getLength());
+		assertEquals(22, results.syntaxErrors.get(1).getOffset());
+		assertEquals(6, results.syntaxErrors.get(1).getLength());
+	}
+
+	@Test
+	public void errorsDontAffectFollowingLines() throws Exception {
+		String text = "=value\nbad\\key=value\nbad.value=a\\b\nkey=value\n";
+		ParseResults results = parser.parse(text);
+		assertEquals(3, results.syntaxErrors.size());
+
+		KeyValuePair last = results.ast.getNodes(KeyValuePair.class).get(3);
+		assertEquals("key", last.getKey().decode());
+		assertEquals("value", last.getValue().decode());
+	}
+
+	@Test
+	public void largeFiles() throws Exception {
+		Random random = new Random(4711);
+		for (int lines = 100; lines <= 10000; lines *= 10) {
+			String text = randomFile(random, lines);
+			assertEquals(dump(text, antlr.parse(text)), dump(text, parser.parse(text)));
+		}
+	}
+
+	@Ignore("Benchmark, not run by default")
+	@Test
+	public void fasterThanAntlr() throws Exception {
+		String text = randomFile(new Random(4711), 100000);
+
+		// warm up
+		antlr.parse(text);
+		parser.parse(text);
+
+		long start = System.nanoTime();
+		antlr.parse(text);
+		long antlrTime = System.nanoTime() - start;
+
+		start = System.nanoTime();
+		parser.parse(text);
+		long fastTime = System.nanoTime() - start;
+
+		assertTrue("ANTLR " + antlrTime / 1000000 + "ms, fast " + fastTime / 1000000 + "ms", fastTime < antlrTime);
+	}
+
+	private String randomFile(Random random, int lines) {
+		StringBuilder buf = new StringBuilder();
+		for (int i = 0; i < lines; i++) {
+			buf.append(LINES[random.nextInt(13)]);
+		}
+		return buf.toString();
+	}
+
+	private String randomLines(Random random, int maxLines) {
+		StringBuilder text = new StringBuilder();
+		int lines = random.nextInt(maxLines) + 1;
+		for (int i = 0; i < lines; i++) {
+			text.append(LINES[random.nextInt(LINES.length)]);
+		}
+		return text.toString();
+	}
+
+	private void assertSameAsAntlr(String text) {
+		ParseResults expected = antlr.parse(text);
+		ParseResults actual = parser.parse(text);
+		if (expected.syntaxErrors.isEmpty()) {
+			assertEquals(text, dump(text, expected), dump(text, actual));
+		} else {
+			// messages and error recovery are different, but both parsers should find the errors
+			assertFalse(text, actual.syntaxErrors.isEmpty());
+		}
+		assertTrue(actual.problems.isEmpty());
+	}
+
+	private String dump(String text, ParseResults results) {
+		StringBuilder buf = new StringBuilder();
+		for (Node node : results.ast.getAllNodes()) {
+			if (node instanceof KeyValuePair) {
+				KeyValuePair pair = (KeyValuePair) node;
+				buf.append("pair ").append(dump(text, node))
+					.append(" key ").append(dump(text, pair.getKey())).append(" '").append(pair.getKey().decode()).append("'")
+					.append(" value ").append(dump(text, pair.getValue())).append(" '").append(pair.getValue().decode()).append("'");
+				assertSame(pair, pair.getKey().getParent());
+				assertSame(pair, pair.getValue().getParent());
+			} else if (node instanceof Comment) {
+				buf.append("comment ").append(dump(text, node));
+			} else if (node instanceof EmptyLine) {
+				buf.append("empty ").append(dump(text, node));
+			}
+			buf.append("\n");
+		}
+		buf.append(results.syntaxErrors.size()).append(" errors\n");
+		return buf.toString();
+	}
+
+	private String dump(String text, Node node) {
+		return node.getOffset() + ":" + node.getLength() + " '" + text.substring(node.getOffset(), Math.min(text.length(), node.getOffset() + node.getLength())) + "'";
+	}
+
+}
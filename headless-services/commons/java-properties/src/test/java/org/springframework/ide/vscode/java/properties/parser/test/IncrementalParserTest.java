@@ -0,0 +1,146 @@
+/*******************************************************************************
+ * Copyright (c) 2019 Pivotal, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal, Inc. - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.vscode.java.properties.parser.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.util.Random;
+
+import org.junit.Test;
+import org.springframework.ide.vscode.commons.util.text.LanguageId;
+import org.springframework.ide.vscode.commons.util.text.TextDocument;
+import org.springframework.ide.vscode.java.properties.antlr.parser.AntlrParser;
+import org.springframework.ide.vscode.java.properties.parser.IncrementalParser;
+import org.springframework.ide.vscode.java.properties.parser.ParseResults;
+import org.springframework.ide.vscode.java.properties.parser.Problem;
+import org.springframework.ide.vscode.java.properties.parser.PropertiesAst.Comment;
+import org.springframework.ide.vscode.java.properties.parser.PropertiesAst.EmptyLine;
+import org.springframework.ide.vscode.java.properties.parser.PropertiesAst.KeyValuePair;
+import org.springframework.ide.vscode.java.properties.parser.PropertiesAst.Node;
+import org.springframework.ide.vscode.java.properties.parser.PropertiesAstCache;
+
+public class IncrementalParserTest {
+
+	private static final String[] LINES = {
+			"# Comment\n",
+			"\n",
+			"  \t\n",
+			"server.port=8080\n",
+			"spring.application.name : demo\n",
+			"my.list = a,\\\n    b,\\\n    c\n",
+			"key\\:with\\=escapes=value\n",
+			"! other comment\r\n",
+			"logging.level.root=INFO\r",
+	};
+
+	AntlrParser parser = new AntlrParser();
+	IncrementalParser incremental = new IncrementalParser(parser);
+
+	@Test
+	public void changeValue() throws Exception {
+		String oldText = "# Comment\nserver.port=8080\nmy.list=a,\\\nb\nlogging.level.root=INFO\n";
+		String newText = "# Comment\nserver.port=9090\nmy.list=a,\\\nb\nlogging.level.root=INFO\n";
+		assertSameResults(newText, incremental.reparse(oldText, parser.parse(oldText), newText));
+	}
+
+	@Test
+	public void joinContinuationLine() throws Exception {
+		String oldText = "server.port=8080\nmy.list=a,\nb=c\nlogging.level.root=INFO\n";
+		String newText = "server.port=8080\nmy.list=a,\\\nb=c\nlogging.level.root=INFO\n";
+		assertSameResults(newText, incremental.reparse(oldText, parser.parse(oldText), newText));
+		assertSameResults(oldText, incremental.reparse(newText, parser.parse(newText), oldText));
+	}
+
+	@Test
+	public void randomEditsOfLines() throws Exception {
+		Random random = new Random(4711);
+		for (int round = 0; round < 100; round++) {
+			String text = randomLines(random, 10);
+			ParseResults results = parser.parse(text);
+			for (int edit = 0; edit < 20; edit++) {
+				int offset = random.nextInt(text.length() + 1);
+				int length = random.nextInt(Math.min(10, text.length() - offset) + 1);
+				String insert = random.nextBoolean() ? randomLines(random, 2) : LINES[random.nextInt(LINES.length)].substring(0, 1);
+				String newText = text.substring(0, offset) + insert + text.substring(offset + length);
+
+				ParseResults expected = parser.parse(newText);
+				results = incremental.reparse(text, results, newText);
+				if (expected.syntaxErrors.isEmpty()) {
+					// error recovery isn't guaranteed to be the same, when parsing only parts of the text
+					assertEquals(newText, dump(newText, expected), dump(newText, results));
+				} else {
+					results = expected;
+				}
+				text = newText;
+			}
+		}
+	}
+
+	@Test
+	public void cacheSharesResultsForSameText() throws Exception {
+		PropertiesAstCache cache = new PropertiesAstCache(parser);
+		TextDocument doc = new TextDocument("file:///application.properties", LanguageId.BOOT_PROPERTIES, 0, "server.port=8080\n# Comment\n");
+
+		ParseResults results = cache.getParseResults(doc);
+		assertSame(results, cache.getParseResults(doc));
+
+		doc.replace(12, 4, "9090");
+		ParseResults changed = cache.getParseResults(doc);
+		assertNotSame(results, changed);
+		assertSameResults(doc.get(), changed);
+	}
+
+	private String randomLines(Random random, int maxLines) {
+		StringBuilder text = new StringBuilder();
+		int lines = random.nextInt(maxLines) + 1;
+		for (int i = 0; i < lines; i++) {
+			text.append(LINES[random.nextInt(LINES.length)]);
+		}
+		return text.toString();
+	}
+
+	private void assertSameResults(String text, ParseResults actual) {
+		assertEquals(dump(text, parser.parse(text)), dump(text, actual));
+	}
+
+	private String dump(String text, ParseResults results) {
+		StringBuilder buf = new StringBuilder();
+		for (Node node : results.ast.getAllNodes()) {
+			if (node instanceof KeyValuePair) {
+				KeyValuePair pair = (KeyValuePair) node;
+				buf.append("pair ").append(dump(text, node))
+					.append(" key ").append(dump(text, pair.getKey())).append(" '").append(pair.getKey().decode()).append("'")
+					.append(" value ").append(dump(text, pair.getValue())).append(" '").append(pair.getValue().decode()).append("'");
+				assertSame(pair, pair.getKey().getParent());
+				assertSame(pair, pair.getValue().getParent());
+			} else if (node instanceof Comment) {
+				buf.append("comment ").append(dump(text, node));
+			} else if (node instanceof EmptyLine) {
+				buf.append("empty ").append(dump(text, node));
+			}
+			buf.append("\n");
+		}
+		for (Problem problem : results.syntaxErrors) {
+			buf.append("error ").append(problem.getOffset()).append(" ").append(problem.getLength()).append(" ").append(problem.getMessage()).append("\n");
+		}
+		for (Problem problem : results.problems) {
+			buf.append("problem ").append(problem.getOffset()).append(" ").append(problem.getLength()).append(" ").append(problem.getMessage()).append("\n");
+		}
+		return buf.toString();
+	}
+
+	private String dump(String text, Node node) {
+		return node.getOffset() + ":" + node.getLength() + " '" + text.substring(node.getOffset(), Math.min(text.length(), node.getOffset() + node.getLength())) + "'";
+	}
+
+}
@@ -112,6 +112,7 @@ import org.springframework.ide.vscode.commons.protocol.java.ClasspathListenerPar
 import org.springframework.ide.vscode.commons.protocol.java.JavaDataParams;
 import org.springframework.ide.vscode.commons.protocol.java.JavaSearchParams;
 import org.springframework.ide.vscode.commons.protocol.java.JavaTypeHierarchyParams;
+import org.springframework.ide.vscode.commons.protocol.java.JavaTypesParams;
 import org.springframework.ide.vscode.commons.protocol.java.TypeData;
 import org.springframework.ide.vscode.commons.util.ExceptionUtil;
 import org.springframework.ide.vscode.commons.util.IOUtil;
@@ -351,6 +352,11 @@ public class LanguageServerHarness {
 					return CompletableFuture.completedFuture(null);
 				}
 
+				@Override
+				public CompletableFuture<List<TypeData>> javaTypes(JavaTypesParams params) {
+					return CompletableFuture.completedFuture(null);
+				}
+
 				@Override
 				public CompletableFuture<String> javadocHoverLink(JavaDataParams params) {
 					return CompletableFuture.completedFuture(null);
@@ -11,19 +11,26 @@
 package org.springframework.tooling.jdt.ls.commons.test;
 
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.lang3.RandomStringUtils;
+import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.resources.IProjectDescription;
 import org.eclipse.core.resources.IResource;
@@ -172,6 +179,34 @@ public class ClasspathListenerHandlerTest {
 		});
 	}
 
+	@Test public void typesChangedOnlySentToSubscribersAskingForThem() throws Exception {
+		String projectName = "classpath-test-simple-java-project";
+		IProject project = createTestProject(projectName);
+		File loc = project.getLocation().toFile();
+
+		MockClasspathCache typesListener = new MockClasspathCache();
+		try {
+			service.addClasspathListener(classpaths.commandId);
+			service.addClasspathListener(typesListener.commandId, true);
+			ACondition.waitFor("Project with classpath to appear", Duration.ofSeconds(50), () -> {
+				assertNotNull(classpaths.getFor(loc));
+				assertNotNull(typesListener.getFor(loc));
+			});
+
+			IFile file = project.getFile("src/com/demo/Something.java");
+			String contents = "package com.demo;\n\npublic class Something {\n\tpublic String name;\n}\n";
+			file.setContents(new ByteArrayInputStream(contents.getBytes(StandardCharsets.UTF_8)), true, false, null);
+
+			ACondition.waitFor("Changed type to be sent", Duration.ofSeconds(5), () -> {
+				assertTrue(typesListener.getChangedTypes().contains("Lcom/demo/Something;"));
+			});
+			// older subscribers would fail on the types changed notification without classpath
+			assertTrue(classpaths.getChangedTypes().isEmpty());
+		} finally {
+			typesListener.dispose();
+		}
+	}
+
 	///////////// harness stuff below ///////////////////////////////////////////////
 
 	@Rule public TemporaryFolder tmp = new TemporaryFolder();
@@ -215,6 +250,7 @@ public class ClasspathListenerHandlerTest {
 		String commandId = RandomStringUtils.randomAlphabetic(8);
 
 		Map<File, Info> classpaths = new HashMap<>();
+		List<String> changedTypes = new ArrayList<>();
 
 		{
 			commandExecutor.addHandler(commandId, this);
@@ -228,7 +264,12 @@ public class ClasspathListenerHandlerTest {
 				File projectLoc = new File(new URI((String) params.get(0)));
 				String name = (String) params.get(1);
 				boolean deleted = (boolean) params.get(2);
-				if (deleted) {
+				if (params.size() > 4) {
+					@SuppressWarnings("unchecked")
+					Collection<String> keys = (Collection<String>) params.get(4);
+					System.out.println("CHANGED "+name+" "+keys);
+					changedTypes.addAll(keys);
+				} else if (deleted) {
 					System.out.println("DELETING "+name);
 					classpaths.remove(projectLoc);
 				} else {
@@ -244,6 +285,10 @@ public class ClasspathListenerHandlerTest {
 			return classpaths.get(location);
 		}
 
+		public synchronized List<String> getChangedTypes() {
+			return new ArrayList<>(changedTypes);
+		}
+
 		public void dispose() throws Exception {
 			service.removeClasspathListener(commandId);
 			commandExecutor.removeHandler(commandId);
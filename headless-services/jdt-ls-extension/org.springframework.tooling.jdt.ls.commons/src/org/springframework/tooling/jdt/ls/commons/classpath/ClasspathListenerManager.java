@@ -11,18 +11,25 @@
 package org.springframework.tooling.jdt.ls.commons.classpath;
 
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.Set;
 import java.util.function.Supplier;
 
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.resources.ResourcesPlugin;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.jdt.core.ElementChangedEvent;
+import org.eclipse.jdt.core.ICompilationUnit;
 import org.eclipse.jdt.core.IElementChangedListener;
 import org.eclipse.jdt.core.IJavaElement;
 import org.eclipse.jdt.core.IJavaElementDelta;
 import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.IPackageFragmentRoot;
+import org.eclipse.jdt.core.IType;
 import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.jdt.core.JavaModelException;
 import org.springframework.tooling.jdt.ls.commons.Logger;
 
 /**
@@ -36,6 +43,15 @@ public class ClasspathListenerManager {
 
 	public interface ClasspathListener {
 		public abstract void classpathChanged(IJavaProject jp);
+
+		/**
+		 * Called when types in the sources of a project are added, removed or changed, without a classpath change.
+		 *
+		 * @param bindingKeys keys of the changed top level types, or package prefixes like <code>Lorg/example/</code>
+		 *        if a whole package changed
+		 */
+		default void typesChanged(IJavaProject jp, Collection<String> bindingKeys) {
+		}
 	}
 
 	private class MyListener implements IElementChangedListener {
@@ -54,6 +70,54 @@ public class ClasspathListenerManager {
 			case IJavaElement.JAVA_PROJECT:
 				if (isCreatedOrDeleted(delta) || isClasspathChanged(delta.getFlags())) {
 					listener.classpathChanged((IJavaProject)el);
+				} else {
+					Set<String> changedTypes = new LinkedHashSet<>();
+					collectChangedTypes(delta, changedTypes);
+					if (!changedTypes.isEmpty()) {
+						listener.typesChanged((IJavaProject)el, changedTypes);
+					}
+				}
+				break;
+			default:
+				break;
+			}
+		}
+
+		private void collectChangedTypes(IJavaElementDelta delta, Set<String> changedTypes) {
+			IJavaElement el = delta.getElement();
+			switch (el.getElementType()) {
+			case IJavaElement.JAVA_PROJECT:
+				collectChangedTypes(delta.getAffectedChildren(), changedTypes);
+				break;
+			case IJavaElement.PACKAGE_FRAGMENT_ROOT:
+				// changes of jars come with a classpath change
+				if (!((IPackageFragmentRoot) el).isArchive()) {
+					collectChangedTypes(delta.getAffectedChildren(), changedTypes);
+				}
+				break;
+			case IJavaElement.PACKAGE_FRAGMENT:
+				if (delta.getKind() == IJavaElementDelta.CHANGED) {
+					collectChangedTypes(delta.getAffectedChildren(), changedTypes);
+				} else {
+					changedTypes.add(packageKey(el.getElementName()));
+				}
+				break;
+			case IJavaElement.COMPILATION_UNIT:
+				if (delta.getKind() != IJavaElementDelta.CHANGED || (delta.getFlags() & (IJavaElementDelta.F_CONTENT | IJavaElementDelta.F_PRIMARY_RESOURCE)) != 0) {
+					ICompilationUnit cu = (ICompilationUnit) el;
+					String packageName = cu.getParent().getElementName();
+					String typeName = cu.getElementName().substring(0, cu.getElementName().lastIndexOf('.'));
+					changedTypes.add(packageKey(packageName) + typeName + ";");
+					try {
+						if (cu.exists()) {
+							// secondary types in the same file
+							for (IType type : cu.getTypes()) {
+								changedTypes.add(type.getKey());
+							}
+						}
+					} catch (JavaModelException e) {
+						logger.log(e);
+					}
 				}
 				break;
 			default:
@@ -61,6 +125,16 @@ public class ClasspathListenerManager {
 			}
 		}
 
+		private String packageKey(String packageName) {
+			return packageName.isEmpty() ? "L" : "L" + packageName.replace('.', '/') + "/";
+		}
+
+		private void collectChangedTypes(IJavaElementDelta[] deltas, Set<String> changedTypes) {
+			for (IJavaElementDelta delta : deltas) {
+				collectChangedTypes(delta, changedTypes);
+			}
+		}
+
 		private boolean isCreatedOrDeleted(IJavaElementDelta delta) {
 			int kind = delta.getKind();
 			return kind == IJavaElementDelta.ADDED || kind==IJavaElementDelta.REMOVED;
@@ -12,12 +12,14 @@ package org.springframework.tooling.jdt.ls.commons.classpath;
 
 import java.io.File;
 import java.net.URI;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.function.Supplier;
@@ -96,10 +98,14 @@ public class ReusableClasspathListenerHandler {
 	class Subscriptions {
 
 		private Set<String> subscribers = null;
+		/**
+		 * Subscribers that asked for types changed notifications as well, older subscribers expect a classpath with each notification
+		 */
+		private Set<String> typesChangedSubscribers = new HashSet<>();
 		private ClasspathListenerManager classpathListener = null;
 		
-		public synchronized void subscribe(String callbackCommandId) {
-			logger.log("subscribing to classpath changes: " + callbackCommandId);
+		public synchronized void subscribe(String callbackCommandId, boolean typesChanged) {
+			logger.log("subscribing to classpath changes: " + callbackCommandId + (typesChanged ? " (with types changed)" : ""));
 			if (subscribers==null) {
 				//First subscriber
 				subscribers = new HashSet<>();
@@ -108,9 +114,19 @@ public class ReusableClasspathListenerHandler {
 					public void classpathChanged(IJavaProject jp) {
 						sendNotification(jp, subscribers);
 					}
+
+					@Override
+					public void typesChanged(IJavaProject jp, Collection<String> bindingKeys) {
+						if (!typesChangedSubscribers.isEmpty()) {
+							sendTypesChangedNotification(jp, bindingKeys, typesChangedSubscribers);
+						}
+					}
 				});
 			}
 			subscribers.add(callbackCommandId);
+			if (typesChanged) {
+				typesChangedSubscribers.add(callbackCommandId);
+			}
 			logger.log("subsribers = " + subscribers);
 			sendInitialEvents(callbackCommandId);
 		}
@@ -195,10 +211,42 @@ public class ReusableClasspathListenerHandler {
 			job.schedule();
 		}
 
+		/**
+		 * Sends the keys of the types changed in the project to the subscribers, so that they can update the
+		 * type data they keep. Uses the same callback as classpath notifications, with a <code>null</code>
+		 * classpath and the list of keys as additional argument, so it is only sent to subscribers that asked
+		 * for it.
+		 */
+		private void sendTypesChangedNotification(IJavaProject jp, Collection<String> bindingKeys, Collection<String> callbackIds) {
+			List<String> keys = new ArrayList<>(bindingKeys);
+			List<String> subscribers = new ArrayList<>(callbackIds);
+			Job job = new Job("Send types changed notification") {
+				@Override
+				protected IStatus run(IProgressMonitor monitor) {
+					URI projectLoc = getProjectLocation(jp);
+					if (projectLoc==null) {
+						logger.log("Could not send types changed event for project because no project location: "+jp.getElementName());
+						return Status.OK_STATUS;
+					}
+					for (String callbackCommandId : subscribers) {
+						try {
+							conn.executeClientCommand(callbackCommandId, projectLoc.toString(), jp.getElementName(), false, null, keys);
+						} catch (Exception e) {
+							logger.log("executing callback "+callbackCommandId+" for changed types FAILED");
+							logger.log(e);
+						}
+					}
+					return Status.OK_STATUS;
+				}
+			};
+			job.schedule();
+		}
+
 		public synchronized void unsubscribe(String callbackCommandId) {
 			logger.log("unsubscribing from classpath changes: " + callbackCommandId);
 			if (subscribers != null) {
 				subscribers.remove(callbackCommandId);
+				typesChangedSubscribers.remove(callbackCommandId);
 				if (subscribers.isEmpty()) {
 					subscribers = null;
 					if (classpathListener!=null) {
@@ -225,8 +273,16 @@ public class ReusableClasspathListenerHandler {
 	}
 
 	public Object addClasspathListener(String callbackCommandId) {
+		return addClasspathListener(callbackCommandId, false);
+	}
+
+	/**
+	 * @param typesChanged whether the subscriber also wants to be notified about types changed in the sources of
+	 *        projects, with a <code>null</code> classpath and the binding keys of the types as additional argument
+	 */
+	public Object addClasspathListener(String callbackCommandId, boolean typesChanged) {
 		logger.log("ClasspathListenerHandler addClasspathListener " + callbackCommandId);
-		subscribptions.subscribe(callbackCommandId);
+		subscribptions.subscribe(callbackCommandId, typesChanged);
 		logger.log("ClasspathListenerHandler addClasspathListener " + callbackCommandId + " => OK");
 		return "ok";
 	}
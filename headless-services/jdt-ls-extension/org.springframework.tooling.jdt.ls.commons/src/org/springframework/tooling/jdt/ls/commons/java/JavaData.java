@@ -12,6 +12,7 @@ package org.springframework.tooling.jdt.ls.commons.java;
 
 import java.net.MalformedURLException;
 import java.net.URI;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -73,8 +74,41 @@ public class JavaData {
 		return null;
 	}
 	
+	/**
+	 * Resolves several types at once, looking up the project only once.
+	 *
+	 * @param lightweight whether to leave out the fields, methods and annotations of the types
+	 * @return type data for each binding key, in the same order, with <code>null</code> for types that are not found
+	 */
+	public List<TypeData> typeData(String projectUri, List<String> bindingKeys, boolean lookInOtherProjects, boolean lightweight) {
+		List<TypeData> types = new ArrayList<>(bindingKeys.size());
+		IJavaProject javaProject = null;
+		try {
+			javaProject = projectUri == null ? null : ResourceUtils.getJavaProject(URI.create(projectUri));
+		} catch (Exception e) {
+			logger.log(e);
+		}
+		for (String bindingKey : bindingKeys) {
+			TypeData data = null;
+			try {
+				IJavaElement element = findElement(javaProject, bindingKey, lookInOtherProjects);
+				if (element instanceof IType) {
+					data = lightweight ? createLightweightTypeData((IType) element) : createTypeData((IType) element);
+				}
+			} catch (Exception e) {
+				logger.log(e);
+			}
+			types.add(data);
+		}
+		return types;
+	}
+	
 	public static IJavaElement findElement(URI projectUri, String bindingKey, boolean lookInOtherProjects) throws Exception {
 		IJavaProject javaProject = projectUri == null ? null : ResourceUtils.getJavaProject(projectUri);
+		return findElement(javaProject, bindingKey, lookInOtherProjects);
+	}
+
+	private static IJavaElement findElement(IJavaProject javaProject, String bindingKey, boolean lookInOtherProjects) throws Exception {
 		IJavaElement element = javaProject == null ? null : findElement(javaProject, bindingKey);
 		if (lookInOtherProjects && element == null) {
 			for (IJavaProject jp : ResourceUtils.allJavaProjects()) {
@@ -251,6 +285,16 @@ public class JavaData {
 	}
 
 	public TypeData createTypeData(IType type) {
+		TypeData data = new TypeData();
+		fillTypeData(type, data);
+		fillTypeMembers(type, data);
+		return data;
+	}
+	
+	/**
+	 * Type data without fields, methods and annotations, which are the bulk of the data for most types.
+	 */
+	public TypeData createLightweightTypeData(IType type) {
 		TypeData data = new TypeData();
 		fillTypeData(type, data);
 		return data;
@@ -263,6 +307,21 @@ public class JavaData {
 		
 		data.setBindingKey(type.getKey());
 		
+		try {
+			data.setAnnotation(type.isAnnotation());
+			data.setClass(type.isClass());
+			data.setEnum(type.isEnum());
+			data.setInterface(type.isInterface());
+			data.setSuperClassName(type.getSuperclassName());
+			data.setSuperInterfaceNames(type.getSuperInterfaceNames());
+		} catch (JavaModelException e) {
+			logger.log(e);
+		}
+		
+		data.setClasspathEntry(createClasspathEntryData(type));
+	}
+	
+	private void fillTypeMembers(IType type, TypeData data) {
 		ImmutableList.Builder<FieldData> fieldsBuilder = ImmutableList.builder(); 
 		ImmutableList.Builder<MethodData> methodsBuilder = ImmutableList.builder();
 		ImmutableList.Builder<AnnotationData> annotationsBuilder = ImmutableList.builder();
@@ -276,20 +335,12 @@ public class JavaData {
 			for (IAnnotation annotation : type.getAnnotations()) {
 				annotationsBuilder.add(createAnnotationData(type, annotation));
 			}
-			data.setAnnotation(type.isAnnotation());
-			data.setClass(type.isClass());
-			data.setEnum(type.isEnum());
-			data.setInterface(type.isInterface());
-			data.setSuperClassName(type.getSuperclassName());
-			data.setSuperInterfaceNames(type.getSuperInterfaceNames());
 		} catch (JavaModelException e) {
 			logger.log(e);
 		}
 		data.setFields(fieldsBuilder.build());
 		data.setMethods(methodsBuilder.build());
 		data.setAnnotations(annotationsBuilder.build());
-		
-		data.setClasspathEntry(createClasspathEntryData(type));
 	}
 	
 	private ClasspathEntryData createClasspathEntryData(IMember member) {
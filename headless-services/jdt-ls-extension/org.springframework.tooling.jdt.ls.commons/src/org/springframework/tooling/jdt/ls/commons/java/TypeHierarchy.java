@@ -12,6 +12,7 @@ package org.springframework.tooling.jdt.ls.commons.java;
 
 import java.net.URI;
 import java.util.Arrays;
+import java.util.function.Function;
 import java.util.stream.Stream;
 
 import org.eclipse.core.runtime.NullProgressMonitor;
@@ -62,21 +63,25 @@ public class TypeHierarchy {
 		return null;
 	}
 	
-	public Stream<TypeData> subTypes(URI projectUri, String fqName) {
+	public Stream<TypeData> subTypes(URI projectUri, String fqName, boolean lightweight) {
 		ITypeHierarchy hierarchy = hierarchy(projectUri, fqName, false);
 		if (hierarchy != null) {
-			return Arrays.stream(hierarchy.getAllSubtypes(hierarchy.getType())).parallel().map(javaData::createTypeData);
+			return Arrays.stream(hierarchy.getAllSubtypes(hierarchy.getType())).parallel().map(typeData(lightweight));
 		}
 		return Stream.of();
 	}
 
-	public Stream<TypeData> superTypes(URI projectUri, String fqName) {
+	public Stream<TypeData> superTypes(URI projectUri, String fqName, boolean lightweight) {
 		ITypeHierarchy hierarchy = hierarchy(projectUri, fqName, true);
 		if (hierarchy != null) {
 			return Arrays.stream(hierarchy.getAllSupertypes(hierarchy.getType()))
 				.parallel()
-				.map(javaData::createTypeData);
+				.map(typeData(lightweight));
 		}
 		return Stream.of();
 	}
+
+	private Function<IType, TypeData> typeData(boolean lightweight) {
+		return lightweight ? javaData::createLightweightTypeData : javaData::createTypeData;
+	}
 }
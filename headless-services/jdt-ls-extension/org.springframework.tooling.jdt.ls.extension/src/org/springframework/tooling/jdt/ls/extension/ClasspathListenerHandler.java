@@ -48,7 +48,8 @@ public class ClasspathListenerHandler implements IDelegateCommandHandler {
 		logger.log("ClasspathListenerHandler executeCommand " + commandId + ", " + arguments);
 		switch (commandId) {
 		case "sts.java.addClasspathListener":
-			return addClasspathListener((String) arguments.get(0));
+			// older clients only pass the callback command
+			return addClasspathListener((String) arguments.get(0), arguments.size() > 1 && isTrue(arguments.get(1)));
 		case "sts.java.removeClasspathListener":
 			return removeClasspathListener((String) arguments.get(0));
 		default:
@@ -61,9 +62,13 @@ public class ClasspathListenerHandler implements IDelegateCommandHandler {
 		return handlerImpl.removeClasspathListener(callbackCommandId);
 	}
 
-	private Object addClasspathListener(String callbackCommandId) {
+	private static boolean isTrue(Object argument) {
+		return argument != null && Boolean.parseBoolean(argument.toString());
+	}
+
+	private Object addClasspathListener(String callbackCommandId, boolean typesChanged) {
 		logger.log("ClasspathListenerHandler addClasspathListener " + callbackCommandId);
-		handlerImpl.addClasspathListener(callbackCommandId);
+		handlerImpl.addClasspathListener(callbackCommandId, typesChanged);
 		logger.log("ClasspathListenerHandler addClasspathListener " + callbackCommandId + " => OK");
 		return "ok";
 	}
@@ -27,11 +27,12 @@ public class HierarchyHandler implements IDelegateCommandHandler {
 		Map<String, Object> obj = (Map<String, Object>) arguments.get(0);
 		String projectUri = (String) obj.get("projectUri");
 		String fqName = (String) obj.get("fqName");
+		boolean lightweight = Boolean.TRUE.equals(obj.get("lightweight"));
 		switch (commandId) {
 		case "sts.java.hierarchy.subtypes":
-			return JavaHelpers.HIERARCHY.get().subTypes(URI.create(projectUri), fqName).collect(Collectors.toList());
+			return JavaHelpers.HIERARCHY.get().subTypes(URI.create(projectUri), fqName, lightweight).collect(Collectors.toList());
 		case "sts.java.hierarchy.supertypes":
-			return JavaHelpers.HIERARCHY.get().superTypes(URI.create(projectUri), fqName).collect(Collectors.toList());
+			return JavaHelpers.HIERARCHY.get().superTypes(URI.create(projectUri), fqName, lightweight).collect(Collectors.toList());
 		default:
 			return null;
 		}
@@ -25,9 +25,16 @@ public class JavaTypeHandler implements IDelegateCommandHandler {
 	public Object executeCommand(String commandId, List<Object> arguments, IProgressMonitor monitor) throws Exception {
 		Map<String, Object> obj = (Map<String, Object>) arguments.get(0);
 		String uri = (String) obj.get("projectUri");
-		String bindingKey = (String) obj.get("bindingKey");
 		Boolean lookInOtherProjects = (Boolean) obj.get("lookInOtherProjects");
-		return JavaHelpers.DATA.get().typeData(uri, bindingKey, JavaDataParams.isLookInOtherProjects(uri, lookInOtherProjects));
+		switch (commandId) {
+		case "sts.java.types":
+			List<String> bindingKeys = (List<String>) obj.get("bindingKeys");
+			boolean lightweight = Boolean.TRUE.equals(obj.get("lightweight"));
+			return JavaHelpers.DATA.get().typeData(uri, bindingKeys, JavaDataParams.isLookInOtherProjects(uri, lookInOtherProjects), lightweight);
+		default:
+			String bindingKey = (String) obj.get("bindingKey");
+			return JavaHelpers.DATA.get().typeData(uri, bindingKey, JavaDataParams.isLookInOtherProjects(uri, lookInOtherProjects));
+		}
 	}
 
 
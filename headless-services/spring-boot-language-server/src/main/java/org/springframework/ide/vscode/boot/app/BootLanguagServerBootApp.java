@@ -10,6 +10,8 @@
  *******************************************************************************/
 package org.springframework.ide.vscode.boot.app;
 
+import java.nio.file.Paths;
+
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.SpringApplication;
@@ -18,6 +20,7 @@ import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingClas
 import org.springframework.context.annotation.Bean;
 import org.springframework.ide.vscode.boot.common.PropertyCompletionFactory;
 import org.springframework.ide.vscode.boot.common.RelaxedNameConfig;
+import org.springframework.ide.vscode.boot.configurationmetadata.ConfigurationMetadataCache;
 import org.springframework.ide.vscode.boot.java.links.DefaultJavaElementLocationProvider;
 import org.springframework.ide.vscode.boot.java.links.EclipseJavaDocumentUriProvider;
 import org.springframework.ide.vscode.boot.java.links.JavaDocumentUriProvider;
@@ -27,6 +30,8 @@ import org.springframework.ide.vscode.boot.java.links.JdtJavaDocumentUriProvider
 import org.springframework.ide.vscode.boot.java.links.SourceLinkFactory;
 import org.springframework.ide.vscode.boot.java.links.SourceLinks;
 import org.springframework.ide.vscode.boot.java.utils.CompilationUnitCache;
+import org.springframework.ide.vscode.boot.java.utils.SymbolCache;
+import org.springframework.ide.vscode.boot.java.utils.SymbolCacheOnDisc;
 import org.springframework.ide.vscode.boot.metadata.AdHocSpringPropertyIndexProvider;
 import org.springframework.ide.vscode.boot.metadata.ClassReferenceProvider;
 import org.springframework.ide.vscode.boot.metadata.LoggerNameProvider;
@@ -48,6 +53,9 @@ import org.springframework.ide.vscode.commons.yaml.completion.YamlAssistContext;
 import org.springframework.ide.vscode.commons.yaml.completion.YamlAssistContextProvider;
 import org.springframework.ide.vscode.commons.yaml.structure.YamlDocument;
 import org.springframework.ide.vscode.commons.yaml.structure.YamlStructureProvider;
+import org.springframework.ide.vscode.java.properties.antlr.parser.AntlrParser;
+import org.springframework.ide.vscode.java.properties.fast.parser.FastParser;
+import org.springframework.ide.vscode.java.properties.parser.PropertiesAstCache;
 import org.yaml.snakeyaml.Yaml;
 
 @SpringBootApplication
@@ -89,7 +97,10 @@ public class BootLanguagServerBootApp {
 
 	@ConditionalOnMissingClass("org.springframework.ide.vscode.languageserver.testharness.LanguageServerHarness")
 	@Bean BootLanguageServerParams serverParams(SimpleLanguageServer server, ValueProviderRegistry valueProviders, BootLsConfigProperties configProperties) {
-		return BootLanguageServerParams.createDefault(server, valueProviders, configProperties.isEnableJandexIndex());
+		ConfigurationMetadataCache metadataCache = configProperties.isEnableMetadataCache()
+				? new ConfigurationMetadataCache(Paths.get(System.getProperty("user.home"), ".sts4", ".metadataCache").toFile())
+				: null;
+		return BootLanguageServerParams.createDefault(server, valueProviders, configProperties.isEnableJandexIndex(), metadataCache);
 	}
 
 	@ConditionalOnMissingClass("org.springframework.ide.vscode.languageserver.testharness.LanguageServerHarness")
@@ -97,6 +108,14 @@ public class BootLanguagServerBootApp {
 		return SourceLinkFactory.createSourceLinks(server, cuCache, params.projectFinder);
 	}
 
+	@ConditionalOnMissingClass("org.springframework.ide.vscode.languageserver.testharness.LanguageServerHarness")
+	@Bean SymbolCache symbolCache(BootLsConfigProperties configProperties) {
+		if (configProperties.isEnableSymbolCache()) {
+			return new SymbolCacheOnDisc(Paths.get(System.getProperty("user.home"), ".sts4", ".symbolCache").toFile());
+		}
+		return SymbolCache.NULL;
+	}
+
 	@Bean CompilationUnitCache cuCache(BootLanguageServerParams params, SimpleTextDocumentService documents) {
 		return new CompilationUnitCache(params.projectFinder, documents, params.projectObserver);
 	}
@@ -130,6 +149,10 @@ public class BootLanguagServerBootApp {
 		return new YamlParser(yaml);
 	}
 
+	@Bean PropertiesAstCache propertiesAstCache(BootLsConfigProperties configProperties) {
+		return new PropertiesAstCache(configProperties.isEnableFastPropertiesParser() ? new FastParser() : new AntlrParser());
+	}
+
 	@Bean YamlStructureProvider yamlStructureProvider() {
 		return YamlStructureProvider.DEFAULT;
 	}
@@ -19,6 +19,7 @@ import org.springframework.ide.vscode.boot.java.BootJavaLanguageServerComponents
 import org.springframework.ide.vscode.boot.java.links.JavaElementLocationProvider;
 import org.springframework.ide.vscode.boot.java.links.SourceLinks;
 import org.springframework.ide.vscode.boot.java.utils.CompilationUnitCache;
+import org.springframework.ide.vscode.boot.java.utils.SymbolCache;
 import org.springframework.ide.vscode.boot.metadata.ProjectBasedPropertyIndexProvider;
 import org.springframework.ide.vscode.boot.properties.BootPropertiesLanguageServerComponents;
 import org.springframework.ide.vscode.commons.languageserver.completion.ICompletionEngine;
@@ -32,6 +33,7 @@ import org.springframework.ide.vscode.commons.util.text.TextDocument;
 import org.springframework.ide.vscode.commons.yaml.ast.YamlASTProvider;
 import org.springframework.ide.vscode.commons.yaml.completion.YamlAssistContextProvider;
 import org.springframework.ide.vscode.commons.yaml.structure.YamlStructureProvider;
+import org.springframework.ide.vscode.java.properties.parser.PropertiesAstCache;
 import org.springframework.stereotype.Component;
 import org.springframework.util.Assert;
 
@@ -46,8 +48,11 @@ public class BootLanguageServerInitializer implements InitializingBean {
 	@Autowired YamlASTProvider parser;
 	@Autowired YamlStructureProvider yamlStructureProvider;
 	@Autowired YamlAssistContextProvider yamlAssistContextProvider;
+	@Autowired PropertiesAstCache propertiesAsts;
 
 	@Qualifier("adHocProperties") @Autowired ProjectBasedPropertyIndexProvider adHocProperties;
+	@Autowired(required = false) SymbolCache symbolCache;
+	@Autowired BootLsConfigProperties configProperties;
 
 	private CompositeLanguageServerComponents components;
 	private VscodeCompletionEngineAdapter completionEngineAdapter;
@@ -70,8 +75,12 @@ public class BootLanguageServerInitializer implements InitializingBean {
 		//TODO: ComposableLanguageServer object instance serves no purpose anymore. The constructor really just contains
 		// some server intialization code. Migrate that code and get rid of the ComposableLanguageServer class
 		CompositeLanguageServerComponents.Builder builder = new CompositeLanguageServerComponents.Builder();
-		builder.add(new BootPropertiesLanguageServerComponents(server, params, javaElementLocationProvider, parser, yamlStructureProvider, yamlAssistContextProvider, sourceLinks));
-		builder.add(new BootJavaLanguageServerComponents(server, params, sourceLinks, cuCache, adHocProperties));
+		builder.add(new BootPropertiesLanguageServerComponents(server, params, javaElementLocationProvider, parser, yamlStructureProvider, yamlAssistContextProvider, sourceLinks, propertiesAsts));
+		BootJavaLanguageServerComponents bootJavaComponents = new BootJavaLanguageServerComponents(server, params, sourceLinks, cuCache, adHocProperties, symbolCache != null ? symbolCache : SymbolCache.NULL);
+		bootJavaComponents.getSpringSymbolIndex().configureScanWorkers(configProperties.getScanJavaWorkers(), configProperties.getScanJavaMinFilesPerBatch());
+		bootJavaComponents.getSpringSymbolIndex().configureUpdateDelay(configProperties.getSymbolUpdateDelay(), configProperties.getSymbolUpdateMaxDelay());
+		server.setReadOnlyRequestWorkers(configProperties.getRequestWorkers());
+		builder.add(bootJavaComponents);
 		components = builder.build(server);
 		params.projectObserver.addListener(reconcileOpenDocuments(server, components));
 
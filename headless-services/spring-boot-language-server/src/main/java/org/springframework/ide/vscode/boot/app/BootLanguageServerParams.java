@@ -17,6 +17,7 @@ import java.util.Collection;
 import java.util.Optional;
 
 import org.eclipse.lsp4j.TextDocumentIdentifier;
+import org.springframework.ide.vscode.boot.configurationmetadata.ConfigurationMetadataCache;
 import org.springframework.ide.vscode.boot.java.handlers.RunningAppProvider;
 import org.springframework.ide.vscode.boot.java.links.SourceLinks;
 import org.springframework.ide.vscode.boot.java.utils.SpringLiveHoverWatchdog;
@@ -87,7 +88,7 @@ public class BootLanguageServerParams {
 		this.watchDogInterval = watchDogInterval;
 	}
 
-	public static BootLanguageServerParams createDefault(SimpleLanguageServer server, ValueProviderRegistry valueProviders, boolean isJandexIndex) {
+	public static BootLanguageServerParams createDefault(SimpleLanguageServer server, ValueProviderRegistry valueProviders, boolean isJandexIndex, ConfigurationMetadataCache metadataCache) {
 		// Initialize project finders, project caches and project observers
 		JavaProjectsService jdtProjectCache = new JavaProjectsServiceWithFallback(
 				server,
@@ -98,6 +99,7 @@ public class BootLanguageServerParams {
 		FileObserver fileObserver = server.getWorkspaceService().getFileObserver();
 		DefaultSpringPropertyIndexProvider indexProvider = new DefaultSpringPropertyIndexProvider(jdtProjectCache, jdtProjectCache, fileObserver, valueProviders);
 		indexProvider.setProgressService(server.getProgressService());
+		indexProvider.setMetadataCache(metadataCache);
 
 		return new BootLanguageServerParams(
 				jdtProjectCache.filter(project -> SpringProjectUtil.isBootProject(project) || SpringProjectUtil.isSpringProject(project)),
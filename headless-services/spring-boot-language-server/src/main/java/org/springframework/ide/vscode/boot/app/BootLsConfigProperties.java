@@ -23,6 +23,57 @@ public class BootLsConfigProperties {
 	 */
 	private boolean enableJandexIndex = false;
 
+	/**
+	 * Enables/disables the persistent cache for Spring symbols. When enabled, symbols
+	 * of unchanged Java source files are restored from disc instead of parsing the
+	 * files again when projects get indexed.
+	 */
+	private boolean enableSymbolCache = true;
+
+	/**
+	 * Number of threads used to parse Java source files in parallel when a project gets
+	 * indexed as a whole. Zero or less uses as many threads as processors are available.
+	 * Defaults to one thread, i.e. the files are parsed one after the other.
+	 */
+	private int scanJavaWorkers = 1;
+
+	/**
+	 * Minimum number of Java source files parsed by one thread when a project gets indexed as a whole.
+	 * Projects with fewer files than twice this number are parsed by a single thread.
+	 */
+	private int scanJavaMinFilesPerBatch = 100;
+
+	/**
+	 * Time in milliseconds that the symbol index waits for further changes before it indexes changed
+	 * documents, so that changes arriving in quick succession are indexed together.
+	 */
+	private long symbolUpdateDelay = 100;
+
+	/**
+	 * Maximum time in milliseconds that changed documents wait for further changes before the symbol
+	 * index indexes them, even if changes keep arriving.
+	 */
+	private long symbolUpdateMaxDelay = 1000;
+
+	/**
+	 * Enables/disables the persistent cache for Spring Boot configuration metadata. When enabled,
+	 * the metadata of unchanged jars and output folders is restored from disc instead of parsing
+	 * it again when the properties index of a project is built.
+	 */
+	private boolean enableMetadataCache = true;
+
+	/**
+	 * Number of threads used to execute read-only requests like hovers, references or code lenses
+	 * in parallel. Zero or less executes all requests one after the other.
+	 */
+	private int requestWorkers = 0;
+
+	/**
+	 * Enables/disables the hand-written parser for properties files. When disabled the
+	 * ANTLR based parser is used, which reports more detailed syntax errors.
+	 */
+	private boolean enableFastPropertiesParser = false;
+
 	public boolean isEnableJandexIndex() {
 		return enableJandexIndex;
 	}
@@ -31,5 +82,69 @@ public class BootLsConfigProperties {
 		this.enableJandexIndex = enableJandexIndex;
 	}
 
+	public boolean isEnableSymbolCache() {
+		return enableSymbolCache;
+	}
+
+	public void setEnableSymbolCache(boolean enableSymbolCache) {
+		this.enableSymbolCache = enableSymbolCache;
+	}
+
+	public boolean isEnableMetadataCache() {
+		return enableMetadataCache;
+	}
+
+	public void setEnableMetadataCache(boolean enableMetadataCache) {
+		this.enableMetadataCache = enableMetadataCache;
+	}
+
+	public int getScanJavaWorkers() {
+		return scanJavaWorkers;
+	}
+
+	public void setScanJavaWorkers(int scanJavaWorkers) {
+		this.scanJavaWorkers = scanJavaWorkers;
+	}
+
+	public int getScanJavaMinFilesPerBatch() {
+		return scanJavaMinFilesPerBatch;
+	}
+
+	public void setScanJavaMinFilesPerBatch(int scanJavaMinFilesPerBatch) {
+		this.scanJavaMinFilesPerBatch = scanJavaMinFilesPerBatch;
+	}
+
+	public long getSymbolUpdateDelay() {
+		return symbolUpdateDelay;
+	}
+
+	public void setSymbolUpdateDelay(long symbolUpdateDelay) {
+		this.symbolUpdateDelay = symbolUpdateDelay;
+	}
+
+	public long getSymbolUpdateMaxDelay() {
+		return symbolUpdateMaxDelay;
+	}
+
+	public void setSymbolUpdateMaxDelay(long symbolUpdateMaxDelay) {
+		this.symbolUpdateMaxDelay = symbolUpdateMaxDelay;
+	}
+
+	public int getRequestWorkers() {
+		return requestWorkers;
+	}
+
+	public void setRequestWorkers(int requestWorkers) {
+		this.requestWorkers = requestWorkers;
+	}
+
+	public boolean isEnableFastPropertiesParser() {
+		return enableFastPropertiesParser;
+	}
+
+	public void setEnableFastPropertiesParser(boolean enableFastPropertiesParser) {
+		this.enableFastPropertiesParser = enableFastPropertiesParser;
+	}
+
 
 }
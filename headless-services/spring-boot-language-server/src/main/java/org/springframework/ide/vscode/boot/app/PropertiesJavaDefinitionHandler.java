@@ -36,6 +36,7 @@ import org.springframework.ide.vscode.commons.util.text.TextDocument;
 import org.springframework.ide.vscode.java.properties.parser.PropertiesAst.Key;
 import org.springframework.ide.vscode.java.properties.parser.PropertiesAst.Node;
 import org.springframework.ide.vscode.java.properties.parser.PropertiesAst.Value;
+import org.springframework.ide.vscode.java.properties.parser.PropertiesAstCache;
 import org.springframework.stereotype.Component;
 
 @Component
@@ -53,6 +54,9 @@ public class PropertiesJavaDefinitionHandler implements DefinitionHandler, Langu
 	@Autowired
 	private BootLanguageServerParams params;
 
+	@Autowired
+	private PropertiesAstCache propertiesAsts;
+
 	@Override
 	public List<Location> handle(TextDocumentPositionParams position) {
 		try {
@@ -69,7 +73,7 @@ public class PropertiesJavaDefinitionHandler implements DefinitionHandler, Langu
 
 	private List<Location> getDefinitions(FuzzyMap<PropertyInfo> index, TypeUtil typeUtil, TextDocument doc, int offset) {
 		IJavaProject project = typeUtil.getJavaProject();
-		PropertyFinder propertyFinder = new PropertyFinder(index, typeUtil, doc, offset);
+		PropertyFinder propertyFinder = new PropertyFinder(index, typeUtil, propertiesAsts, doc, offset);
 		Node node = propertyFinder.findNode();
 		if (node instanceof Key) {
 			Collection<IMember> propertyJavaElements = PropertiesDefinitionCalculator.getPropertyJavaElements(propertyFinder, project, ((Key) node).decode());
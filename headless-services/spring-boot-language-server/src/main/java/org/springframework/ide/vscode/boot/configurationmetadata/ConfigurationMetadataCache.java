@@ -0,0 +1,456 @@
+/*******************************************************************************
+ * Copyright (c) 2019 Pivotal, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal, Inc. - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.vscode.boot.configurationmetadata;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ide.eclipse.org.json.JSONArray;
+import org.springframework.ide.eclipse.org.json.JSONObject;
+
+import com.google.common.hash.Hashing;
+
+/**
+ * Persistent cache for the parsed configuration metadata of a single jar file or metadata file.
+ * <p>
+ * The metadata of each file is stored in a compact binary file, together with the path, size
+ * and modification time of the file it has been parsed from. A cache file is only used if the original
+ * file didn't change since it got cached.
+ * <p>
+ * Cache files are touched whenever they are read, so that the least recently used ones can be deleted
+ * once the cache files exceed a maximum size.
+ */
+public class ConfigurationMetadataCache {
+
+	/**
+	 * Version of the binary format, needs to be increased whenever the format changes
+	 */
+	private static final int FORMAT_VERSION = 2;
+	private static final int MAGIC = 0x53504d43; // "SPMC"
+
+	private static final byte NULL_VALUE = 0;
+	private static final byte STRING_VALUE = 1;
+	private static final byte BOOLEAN_VALUE = 2;
+	private static final byte INTEGER_VALUE = 3;
+	private static final byte LONG_VALUE = 4;
+	private static final byte DOUBLE_VALUE = 5;
+	private static final byte ARRAY_VALUE = 6;
+	private static final byte JSON_NULL_VALUE = 7;
+	private static final byte JSON_OBJECT_VALUE = 8;
+	private static final byte JSON_ARRAY_VALUE = 9;
+	private static final byte BIG_INTEGER_VALUE = 10;
+	private static final byte BIG_DECIMAL_VALUE = 11;
+
+	/**
+	 * Default maximum size of all cache files
+	 */
+	public static final long MAX_SIZE = 64L * 1024 * 1024;
+
+	/**
+	 * Minimum time between checking the size of the cache directory
+	 */
+	private static final long EVICTION_INTERVAL = 5 * 60 * 1000;
+
+	/**
+	 * Temporary files older than this are left over from a crashed language server
+	 */
+	private static final long TEMP_FILE_EXPIRATION = 60 * 60 * 1000;
+
+	private static final Logger log = LoggerFactory.getLogger(ConfigurationMetadataCache.class);
+
+	private final File cacheDirectory;
+	private final long maxSize;
+	private long lastEviction;
+
+	public ConfigurationMetadataCache(File cacheDirectory) {
+		this(cacheDirectory, MAX_SIZE);
+	}
+
+	public ConfigurationMetadataCache(File cacheDirectory, long maxSize) {
+		this.cacheDirectory = cacheDirectory;
+		this.maxSize = maxSize;
+	}
+
+	/**
+	 * The cached metadata of the given file, or <code>null</code> if there is no cached metadata for the current state of that file
+	 */
+	synchronized List<RawConfigurationMetadata> retrieve(Path file) {
+		File cacheFile = getCacheFile(file);
+		if (!cacheFile.exists()) {
+			return null;
+		}
+
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(cacheFile.toPath())))) {
+			if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION
+					|| !file.toString().equals(readString(in))
+					|| in.readLong() != Files.size(file)
+					|| in.readLong() != Files.getLastModifiedTime(file).toMillis()) {
+				return null;
+			}
+
+			int count = in.readInt();
+			List<RawConfigurationMetadata> result = new ArrayList<>(count);
+			for (int i = 0; i < count; i++) {
+				result.add(readMetadata(in));
+			}
+
+			if (!cacheFile.setLastModified(System.currentTimeMillis())) {
+				log.debug("Failed to touch cache file {}", cacheFile);
+			}
+			return result;
+		} catch (Exception e) {
+			log.warn("Failed to read cached configuration metadata from " + cacheFile, e);
+			return null;
+		}
+	}
+
+	synchronized void store(Path file, List<RawConfigurationMetadata> metadata) {
+		File cacheFile = getCacheFile(file);
+		File tempFile = new File(cacheFile.getParentFile(), cacheFile.getName() + ".tmp");
+
+		try {
+			Files.createDirectories(cacheDirectory.toPath());
+
+			long size = Files.size(file);
+			long lastModified = Files.getLastModifiedTime(file).toMillis();
+
+			try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile.toPath())))) {
+				out.writeInt(MAGIC);
+				out.writeInt(FORMAT_VERSION);
+				writeString(out, file.toString());
+				out.writeLong(size);
+				out.writeLong(lastModified);
+
+				out.writeInt(metadata.size());
+				for (RawConfigurationMetadata rawMetadata : metadata) {
+					writeMetadata(out, rawMetadata);
+				}
+			}
+
+			Files.move(tempFile.toPath(), cacheFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (Exception e) {
+			log.warn("Failed to write configuration metadata cache for " + file, e);
+		} finally {
+			tempFile.delete();
+		}
+
+		evict();
+	}
+
+	/**
+	 * Deletes the least recently used cache files until the total size of the cache files doesn't exceed
+	 * the maximum size, and deletes temporary files left over by crashed language servers. Does nothing if
+	 * the directory has been checked recently.
+	 */
+	private void evict() {
+		long now = System.currentTimeMillis();
+		if (now - lastEviction < EVICTION_INTERVAL) {
+			return;
+		}
+		lastEviction = now;
+
+		File[] files = cacheDirectory.listFiles(File::isFile);
+		if (files == null) {
+			return;
+		}
+
+		List<File> cacheFiles = new ArrayList<>();
+		long totalSize = 0;
+		for (File file : files) {
+			if (file.getName().endsWith(".tmp")) {
+				// recent temporary files might still be written by another language server
+				if (now - file.lastModified() > TEMP_FILE_EXPIRATION && !file.delete()) {
+					log.debug("Failed to delete temporary cache file {}", file);
+				}
+			} else {
+				cacheFiles.add(file);
+				totalSize += file.length();
+			}
+		}
+
+		if (totalSize <= maxSize) {
+			return;
+		}
+
+		cacheFiles.sort(Comparator.comparingLong(File::lastModified));
+		for (File file : cacheFiles) {
+			if (totalSize <= maxSize) {
+				break;
+			}
+			long size = file.length();
+			if (file.delete()) {
+				totalSize -= size;
+			} else {
+				log.debug("Failed to delete cache file {}", file);
+			}
+		}
+	}
+
+	private File getCacheFile(Path file) {
+		String fileName = Hashing.sha256().hashUnencodedChars(file.toString()).toString();
+		return new File(cacheDirectory, fileName + ".bin");
+	}
+
+	//
+	// writing
+	//
+
+	private void writeMetadata(DataOutputStream out, RawConfigurationMetadata metadata) throws IOException {
+		writeString(out, metadata.getOrigin() == null ? null : metadata.getOrigin().toString());
+
+		out.writeInt(metadata.getSources().size());
+		for (ConfigurationMetadataSource source : metadata.getSources()) {
+			writeString(out, source.getGroupId());
+			writeString(out, source.getType());
+			writeString(out, source.getDescription());
+			writeString(out, source.getShortDescription());
+			writeString(out, source.getSourceType());
+			writeString(out, source.getSourceMethod());
+		}
+
+		out.writeInt(metadata.getItems().size());
+		for (ConfigurationMetadataItem item : metadata.getItems()) {
+			writeString(out, item.getId());
+			writeString(out, item.getType());
+			writeString(out, item.getDescription());
+			writeString(out, item.getShortDescription());
+			writeValue(out, item.getDefaultValue());
+
+			Deprecation deprecation = item.getDeprecation();
+			out.writeBoolean(deprecation != null);
+			if (deprecation != null) {
+				writeString(out, deprecation.getLevel() == null ? null : deprecation.getLevel().name());
+				writeString(out, deprecation.getReason());
+				writeString(out, deprecation.getReplacement());
+			}
+
+			writeString(out, item.getSourceType());
+			writeString(out, item.getSourceMethod());
+		}
+
+		out.writeInt(metadata.getHints().size());
+		for (ConfigurationMetadataHint hint : metadata.getHints()) {
+			writeString(out, hint.getId());
+
+			out.writeInt(hint.getValueHints().size());
+			for (ValueHint valueHint : hint.getValueHints()) {
+				writeValue(out, valueHint.getValue());
+				writeString(out, valueHint.getDescription());
+				writeString(out, valueHint.getShortDescription());
+			}
+
+			out.writeInt(hint.getValueProviders().size());
+			for (ValueProvider provider : hint.getValueProviders()) {
+				writeString(out, provider.getName());
+				out.writeInt(provider.getParameters().size());
+				for (Map.Entry<String, Object> parameter : provider.getParameters().entrySet()) {
+					writeString(out, parameter.getKey());
+					writeValue(out, parameter.getValue());
+				}
+			}
+		}
+	}
+
+	private void writeValue(DataOutputStream out, Object value) throws IOException {
+		if (value == null) {
+			out.writeByte(NULL_VALUE);
+		} else if (value instanceof String) {
+			out.writeByte(STRING_VALUE);
+			writeString(out, (String) value);
+		} else if (value instanceof Boolean) {
+			out.writeByte(BOOLEAN_VALUE);
+			out.writeBoolean((Boolean) value);
+		} else if (value instanceof Integer) {
+			out.writeByte(INTEGER_VALUE);
+			out.writeInt((Integer) value);
+		} else if (value instanceof Long) {
+			out.writeByte(LONG_VALUE);
+			out.writeLong((Long) value);
+		} else if (value instanceof Double) {
+			out.writeByte(DOUBLE_VALUE);
+			out.writeDouble((Double) value);
+		} else if (value instanceof BigInteger) {
+			out.writeByte(BIG_INTEGER_VALUE);
+			writeString(out, value.toString());
+		} else if (value instanceof BigDecimal) {
+			out.writeByte(BIG_DECIMAL_VALUE);
+			writeString(out, value.toString());
+		} else if (value instanceof Object[]) {
+			Object[] array = (Object[]) value;
+			out.writeByte(ARRAY_VALUE);
+			out.writeInt(array.length);
+			for (Object element : array) {
+				writeValue(out, element);
+			}
+		} else if (value == JSONObject.NULL) {
+			out.writeByte(JSON_NULL_VALUE);
+		} else if (value instanceof JSONObject) {
+			out.writeByte(JSON_OBJECT_VALUE);
+			writeString(out, value.toString());
+		} else if (value instanceof JSONArray) {
+			out.writeByte(JSON_ARRAY_VALUE);
+			writeString(out, value.toString());
+		} else {
+			// don't cache anything that would come back differently
+			throw new IOException("Unsupported metadata value type: " + value.getClass().getName());
+		}
+	}
+
+	private void writeString(DataOutputStream out, String string) throws IOException {
+		if (string == null) {
+			out.writeInt(-1);
+		} else {
+			byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+			out.writeInt(bytes.length);
+			out.write(bytes);
+		}
+	}
+
+	//
+	// reading
+	//
+
+	private RawConfigurationMetadata readMetadata(DataInputStream in) throws IOException {
+		String origin = readString(in);
+
+		int sourceCount = in.readInt();
+		List<ConfigurationMetadataSource> sources = new ArrayList<>(sourceCount);
+		for (int i = 0; i < sourceCount; i++) {
+			ConfigurationMetadataSource source = new ConfigurationMetadataSource();
+			source.setGroupId(readString(in));
+			source.setType(readString(in));
+			source.setDescription(readString(in));
+			source.setShortDescription(readString(in));
+			source.setSourceType(readString(in));
+			source.setSourceMethod(readString(in));
+			sources.add(source);
+		}
+
+		int itemCount = in.readInt();
+		List<ConfigurationMetadataItem> items = new ArrayList<>(itemCount);
+		for (int i = 0; i < itemCount; i++) {
+			ConfigurationMetadataItem item = new ConfigurationMetadataItem();
+			item.setId(readString(in));
+			item.setType(readString(in));
+			item.setDescription(readString(in));
+			item.setShortDescription(readString(in));
+			item.setDefaultValue(readValue(in));
+
+			if (in.readBoolean()) {
+				Deprecation deprecation = new Deprecation();
+				String level = readString(in);
+				deprecation.setLevel(level == null ? null : Deprecation.Level.valueOf(level));
+				deprecation.setReason(readString(in));
+				deprecation.setReplacement(readString(in));
+				item.setDeprecation(deprecation);
+			}
+
+			item.setSourceType(readString(in));
+			item.setSourceMethod(readString(in));
+			items.add(item);
+		}
+
+		int hintCount = in.readInt();
+		List<ConfigurationMetadataHint> hints = new ArrayList<>(hintCount);
+		for (int i = 0; i < hintCount; i++) {
+			ConfigurationMetadataHint hint = new ConfigurationMetadataHint();
+			hint.setId(readString(in));
+
+			int valueHintCount = in.readInt();
+			for (int j = 0; j < valueHintCount; j++) {
+				ValueHint valueHint = new ValueHint();
+				valueHint.setValue(readValue(in));
+				valueHint.setDescription(readString(in));
+				valueHint.setShortDescription(readString(in));
+				hint.getValueHints().add(valueHint);
+			}
+
+			int providerCount = in.readInt();
+			for (int j = 0; j < providerCount; j++) {
+				ValueProvider provider = new ValueProvider();
+				provider.setName(readString(in));
+				int parameterCount = in.readInt();
+				for (int k = 0; k < parameterCount; k++) {
+					String key = readString(in);
+					provider.getParameters().put(key, readValue(in));
+				}
+				hint.getValueProviders().add(provider);
+			}
+
+			hints.add(hint);
+		}
+
+		return new RawConfigurationMetadata(origin, sources, items, hints);
+	}
+
+	private Object readValue(DataInputStream in) throws IOException {
+		byte type = in.readByte();
+		switch (type) {
+		case NULL_VALUE:
+			return null;
+		case STRING_VALUE:
+			return readString(in);
+		case BOOLEAN_VALUE:
+			return in.readBoolean();
+		case INTEGER_VALUE:
+			return in.readInt();
+		case LONG_VALUE:
+			return in.readLong();
+		case DOUBLE_VALUE:
+			return in.readDouble();
+		case ARRAY_VALUE:
+			Object[] array = new Object[in.readInt()];
+			for (int i = 0; i < array.length; i++) {
+				array[i] = readValue(in);
+			}
+			return array;
+		case JSON_NULL_VALUE:
+			return JSONObject.NULL;
+		case JSON_OBJECT_VALUE:
+			return new JSONObject(readString(in));
+		case JSON_ARRAY_VALUE:
+			return new JSONArray(readString(in));
+		case BIG_INTEGER_VALUE:
+			return new BigInteger(readString(in));
+		case BIG_DECIMAL_VALUE:
+			return new BigDecimal(readString(in));
+		default:
+			throw new IllegalStateException("Unknown metadata value type: " + type);
+		}
+	}
+
+	private String readString(DataInputStream in) throws IOException {
+		int length = in.readInt();
+		if (length < 0) {
+			return null;
+		}
+		byte[] bytes = new byte[length];
+		in.readFully(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+}
@@ -19,7 +19,9 @@ package org.springframework.ide.vscode.boot.configurationmetadata;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.Charset;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -43,7 +45,7 @@ public final class ConfigurationMetadataRepositoryJsonBuilder {
 
 	private Charset defaultCharset = UTF_8;
 
-	private final JsonReader reader = new JsonReader();
+	private final StreamingJsonReader reader = new StreamingJsonReader();
 
 	private final List<RawConfigurationMetadata> rawDatas = new ArrayList<>();
 
@@ -89,6 +91,43 @@ public final class ConfigurationMetadataRepositoryJsonBuilder {
 		return this;
 	}
 
+	/**
+	 * Add the metadata of the given file from the cache, if the cache has an entry for
+	 * the current state of that file. Otherwise the given loader is called to add the
+	 * metadata of the file to this builder, and the added metadata is stored in the
+	 * cache. Nothing is stored if the loader fails.
+	 * @param cache the cache to use, may be <code>null</code>
+	 * @param file the jar or json file the metadata is loaded from
+	 * @param loader adds the metadata of the file to this builder
+	 * @return this builder
+	 * @throws Exception in case the loader fails
+	 */
+	public ConfigurationMetadataRepositoryJsonBuilder withCachedResources(
+			ConfigurationMetadataCache cache, Path file, ResourceLoader loader) throws Exception {
+		if (cache == null) {
+			loader.load(this);
+			return this;
+		}
+		List<RawConfigurationMetadata> cached = cache.retrieve(file);
+		if (cached != null) {
+			this.rawDatas.addAll(cached);
+		}
+		else {
+			int start = this.rawDatas.size();
+			loader.load(this);
+			cache.store(file, new ArrayList<>(this.rawDatas.subList(start, this.rawDatas.size())));
+		}
+		return this;
+	}
+
+	/**
+	 * Callback to add the metadata of a single file to a builder.
+	 */
+	@FunctionalInterface
+	public interface ResourceLoader {
+		void load(ConfigurationMetadataRepositoryJsonBuilder builder) throws Exception;
+	}
+
 	/**
 	 * Build a {@link ConfigurationMetadataRepository} with the current state of this
 	 * builder.
@@ -100,6 +139,28 @@ public final class ConfigurationMetadataRepositoryJsonBuilder {
 		return result;
 	}
 
+	/**
+	 * Whether all hints added to this builder refer to properties that have been added to
+	 * this builder as well.
+	 * @return <code>true</code> if no hint refers to properties defined elsewhere
+	 */
+	public boolean isSelfContained() {
+		Set<String> ids = new HashSet<>();
+		for (RawConfigurationMetadata metadata : this.rawDatas) {
+			for (ConfigurationMetadataItem item : metadata.getItems()) {
+				ids.add(item.getId());
+			}
+		}
+		for (RawConfigurationMetadata metadata : this.rawDatas) {
+			for (ConfigurationMetadataHint hint : metadata.getHints()) {
+				if (!ids.contains(hint.getId()) && !ids.contains(hint.resolveId())) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
 	private RawConfigurationMetadata parseRaw(Object origin, InputStream in, Charset charset)
 			throws IOException {
 		try {
@@ -48,6 +48,10 @@ class RawConfigurationMetadata {
 		}
 	}
 
+	public Object getOrigin() {
+		return this.origin;
+	}
+
 	public List<ConfigurationMetadataSource> getSources() {
 		return this.sources;
 	}
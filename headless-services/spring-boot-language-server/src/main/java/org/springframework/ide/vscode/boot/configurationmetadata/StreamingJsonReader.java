@@ -0,0 +1,350 @@
+/*******************************************************************************
+ * Copyright (c) 2019 Pivotal, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal, Inc. - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.vscode.boot.configurationmetadata;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import org.springframework.ide.eclipse.org.json.JSONArray;
+import org.springframework.ide.eclipse.org.json.JSONException;
+import org.springframework.ide.eclipse.org.json.JSONObject;
+
+import com.google.gson.stream.JsonToken;
+
+/**
+ * Reads the standard json metadata format in a single pass over the input, without building
+ * a json tree for the whole document first.
+ * <p>
+ * Produces the same {@link RawConfigurationMetadata} as {@link JsonReader}, including the
+ * types of values (numbers, booleans, {@link JSONObject#NULL} and nested {@link JSONObject}s
+ * and {@link JSONArray}s for default values and hints), so both readers can be used
+ * interchangeably.
+ */
+class StreamingJsonReader {
+
+	private final DescriptionExtractor descriptionExtractor = new DescriptionExtractor();
+
+	public RawConfigurationMetadata read(Object origin, InputStream in, Charset charset) throws IOException {
+		List<ConfigurationMetadataSource> sources = new ArrayList<>();
+		List<ConfigurationMetadataItem> items = new ArrayList<>();
+		List<ConfigurationMetadataHint> hints = new ArrayList<>();
+
+		try (com.google.gson.stream.JsonReader json = new com.google.gson.stream.JsonReader(new InputStreamReader(in, charset))) {
+			json.setLenient(true);
+
+			json.beginObject();
+			while (json.hasNext()) {
+				switch (json.nextName()) {
+				case "groups":
+					json.beginArray();
+					while (json.hasNext()) {
+						sources.add(parseSource(json));
+					}
+					json.endArray();
+					break;
+				case "properties":
+					json.beginArray();
+					while (json.hasNext()) {
+						items.add(parseItem(json));
+					}
+					json.endArray();
+					break;
+				case "hints":
+					json.beginArray();
+					while (json.hasNext()) {
+						hints.add(parseHint(json));
+					}
+					json.endArray();
+					break;
+				default:
+					json.skipValue();
+				}
+			}
+			json.endObject();
+		}
+		catch (IllegalStateException | NumberFormatException e) {
+			// unexpected structure of the document
+			throw new JSONException(e.getMessage());
+		}
+
+		return new RawConfigurationMetadata(origin, sources, items, hints);
+	}
+
+	private ConfigurationMetadataSource parseSource(com.google.gson.stream.JsonReader json) throws IOException {
+		ConfigurationMetadataSource source = new ConfigurationMetadataSource();
+		json.beginObject();
+		while (json.hasNext()) {
+			switch (json.nextName()) {
+			case "name":
+				source.setGroupId(nextString(json));
+				break;
+			case "type":
+				source.setType(nextString(json));
+				break;
+			case "description":
+				String description = nextString(json);
+				source.setDescription(description);
+				source.setShortDescription(this.descriptionExtractor.getShortDescription(description));
+				break;
+			case "sourceType":
+				source.setSourceType(nextString(json));
+				break;
+			case "sourceMethod":
+				source.setSourceMethod(nextString(json));
+				break;
+			default:
+				json.skipValue();
+			}
+		}
+		json.endObject();
+		required(source.getGroupId() != null, "name");
+		return source;
+	}
+
+	private ConfigurationMetadataItem parseItem(com.google.gson.stream.JsonReader json) throws IOException {
+		ConfigurationMetadataItem item = new ConfigurationMetadataItem();
+		Deprecation deprecation = null;
+		boolean deprecated = false;
+
+		json.beginObject();
+		while (json.hasNext()) {
+			switch (json.nextName()) {
+			case "name":
+				item.setId(nextString(json));
+				break;
+			case "type":
+				item.setType(nextString(json));
+				break;
+			case "description":
+				String description = nextString(json);
+				item.setDescription(description);
+				item.setShortDescription(this.descriptionExtractor.getShortDescription(description));
+				break;
+			case "defaultValue":
+				item.setDefaultValue(readItemValue(json));
+				break;
+			case "deprecation":
+				deprecation = parseDeprecation(json);
+				break;
+			case "deprecated":
+				deprecated = nextBoolean(json);
+				break;
+			case "sourceType":
+				item.setSourceType(nextString(json));
+				break;
+			case "sourceMethod":
+				item.setSourceMethod(nextString(json));
+				break;
+			default:
+				json.skipValue();
+			}
+		}
+		json.endObject();
+		required(item.getId() != null, "name");
+
+		if (deprecation == null && deprecated) {
+			deprecation = new Deprecation();
+		}
+		item.setDeprecation(deprecation);
+		return item;
+	}
+
+	private ConfigurationMetadataHint parseHint(com.google.gson.stream.JsonReader json) throws IOException {
+		ConfigurationMetadataHint hint = new ConfigurationMetadataHint();
+		json.beginObject();
+		while (json.hasNext()) {
+			switch (json.nextName()) {
+			case "name":
+				hint.setId(nextString(json));
+				break;
+			case "values":
+				json.beginArray();
+				while (json.hasNext()) {
+					hint.getValueHints().add(parseValueHint(json));
+				}
+				json.endArray();
+				break;
+			case "providers":
+				json.beginArray();
+				while (json.hasNext()) {
+					hint.getValueProviders().add(parseValueProvider(json));
+				}
+				json.endArray();
+				break;
+			default:
+				json.skipValue();
+			}
+		}
+		json.endObject();
+		required(hint.getId() != null, "name");
+		return hint;
+	}
+
+	private ValueHint parseValueHint(com.google.gson.stream.JsonReader json) throws IOException {
+		ValueHint valueHint = new ValueHint();
+		boolean hasValue = false;
+		json.beginObject();
+		while (json.hasNext()) {
+			switch (json.nextName()) {
+			case "value":
+				valueHint.setValue(readItemValue(json));
+				hasValue = true;
+				break;
+			case "description":
+				String description = nextString(json);
+				valueHint.setDescription(description);
+				valueHint.setShortDescription(this.descriptionExtractor.getShortDescription(description));
+				break;
+			default:
+				json.skipValue();
+			}
+		}
+		json.endObject();
+		required(hasValue, "value");
+		return valueHint;
+	}
+
+	private ValueProvider parseValueProvider(com.google.gson.stream.JsonReader json) throws IOException {
+		ValueProvider provider = new ValueProvider();
+		json.beginObject();
+		while (json.hasNext()) {
+			switch (json.nextName()) {
+			case "name":
+				provider.setName(nextString(json));
+				break;
+			case "parameters":
+				json.beginObject();
+				while (json.hasNext()) {
+					String key = json.nextName();
+					provider.getParameters().put(key, readItemValue(json));
+				}
+				json.endObject();
+				break;
+			default:
+				json.skipValue();
+			}
+		}
+		json.endObject();
+		required(provider.getName() != null, "name");
+		return provider;
+	}
+
+	private Deprecation parseDeprecation(com.google.gson.stream.JsonReader json) throws IOException {
+		Deprecation deprecation = new Deprecation();
+		String level = null;
+		json.beginObject();
+		while (json.hasNext()) {
+			switch (json.nextName()) {
+			case "level":
+				level = nextString(json);
+				break;
+			case "reason":
+				deprecation.setReason(nextString(json));
+				break;
+			case "replacement":
+				deprecation.setReplacement(nextString(json));
+				break;
+			default:
+				json.skipValue();
+			}
+		}
+		json.endObject();
+		deprecation.setLevel(parseDeprecationLevel(level));
+		return deprecation;
+	}
+
+	private Deprecation.Level parseDeprecationLevel(String value) {
+		if (value != null) {
+			try {
+				return Deprecation.Level.valueOf(value.toUpperCase(Locale.ENGLISH));
+			}
+			catch (IllegalArgumentException ex) {
+				// let's use the default
+			}
+		}
+		return Deprecation.Level.WARNING;
+	}
+
+	/**
+	 * Reads a value the same way as {@link JSONObject#optString(String, String)}: the string representation of
+	 * any non-null value, <code>null</code> for json <code>null</code>.
+	 */
+	private String nextString(com.google.gson.stream.JsonReader json) throws IOException {
+		Object value = readValue(json);
+		return value == JSONObject.NULL ? null : value.toString();
+	}
+
+	private boolean nextBoolean(com.google.gson.stream.JsonReader json) throws IOException {
+		Object value = readValue(json);
+		return Boolean.TRUE.equals(value) || (value instanceof String && "true".equalsIgnoreCase((String) value));
+	}
+
+	/**
+	 * Top-level arrays are turned into <code>Object[]</code>, like {@link JsonReader} does for
+	 * default values and hint values.
+	 */
+	private Object readItemValue(com.google.gson.stream.JsonReader json) throws IOException {
+		if (json.peek() == JsonToken.BEGIN_ARRAY) {
+			List<Object> content = new ArrayList<>();
+			json.beginArray();
+			while (json.hasNext()) {
+				content.add(readValue(json));
+			}
+			json.endArray();
+			return content.toArray();
+		}
+		return readValue(json);
+	}
+
+	private Object readValue(com.google.gson.stream.JsonReader json) throws IOException {
+		switch (json.peek()) {
+		case BEGIN_OBJECT:
+			JSONObject object = new JSONObject();
+			json.beginObject();
+			while (json.hasNext()) {
+				String key = json.nextName();
+				object.put(key, readValue(json));
+			}
+			json.endObject();
+			return object;
+		case BEGIN_ARRAY:
+			JSONArray array = new JSONArray();
+			json.beginArray();
+			while (json.hasNext()) {
+				array.put(readValue(json));
+			}
+			json.endArray();
+			return array;
+		case BOOLEAN:
+			return json.nextBoolean();
+		case NULL:
+			json.nextNull();
+			return JSONObject.NULL;
+		case NUMBER:
+			// same number types as the json tree would use (Integer, Long or Double)
+			return JSONObject.stringToValue(json.nextString());
+		default:
+			return json.nextString();
+		}
+	}
+
+	private void required(boolean present, String key) {
+		if (!present) {
+			throw new JSONException("JSONObject[\"" + key + "\"] not found.");
+		}
+	}
+
+}
@@ -61,6 +61,7 @@ import org.springframework.ide.vscode.boot.java.utils.RestrictedDefaultSymbolPro
 import org.springframework.ide.vscode.boot.java.utils.SpringSymbolIndex;
 import org.springframework.ide.vscode.boot.java.utils.SpringLiveChangeDetectionWatchdog;
 import org.springframework.ide.vscode.boot.java.utils.SpringLiveHoverWatchdog;
+import org.springframework.ide.vscode.boot.java.utils.SymbolCache;
 import org.springframework.ide.vscode.boot.java.value.ValueCompletionProcessor;
 import org.springframework.ide.vscode.boot.java.value.ValueHoverProvider;
 import org.springframework.ide.vscode.boot.java.value.ValuePropertyReferencesProvider;
@@ -116,7 +117,8 @@ public class BootJavaLanguageServerComponents implements LanguageServerComponent
 			BootLanguageServerParams serverParams,
 			SourceLinks sourceLinks,
 			CompilationUnitCache cuCache,
-			ProjectBasedPropertyIndexProvider adHocIndexProvider
+			ProjectBasedPropertyIndexProvider adHocIndexProvider,
+			SymbolCache symbolCache
 	) {
 		this.server = server;
 		this.serverParams = serverParams;
@@ -136,7 +138,7 @@ public class BootJavaLanguageServerComponents implements LanguageServerComponent
 		ReferencesHandler referencesHandler = createReferenceHandler(server, projectFinder);
 		documents.onReferences(referencesHandler);
 
-		indexer = createAnnotationIndexer(server, serverParams);
+		indexer = createAnnotationIndexer(server, serverParams, symbolCache);
 		documents.onDidSave(params -> {
 			TextDocument document = params.getDocument();
 			// Spring Boot LS get events from boot properties files as well, so filter them out
@@ -376,7 +378,7 @@ public class BootJavaLanguageServerComponents implements LanguageServerComponent
 		return new BootJavaHoverProvider(this, javaProjectFinder, providers, runningAppProvider);
 	}
 
-	protected SpringSymbolIndex createAnnotationIndexer(SimpleLanguageServer server, BootLanguageServerParams params) {
+	protected SpringSymbolIndex createAnnotationIndexer(SimpleLanguageServer server, BootLanguageServerParams params, SymbolCache symbolCache) {
 		AnnotationHierarchyAwareLookup<SymbolProvider> providers = new AnnotationHierarchyAwareLookup<>();
 		RequestMappingSymbolProvider requestMappingSymbolProvider = new RequestMappingSymbolProvider();
 		BeansSymbolProvider beansSymbolProvider = new BeansSymbolProvider();
@@ -419,7 +421,7 @@ public class BootJavaLanguageServerComponents implements LanguageServerComponent
 		providers.put(Annotations.REPOSITORY, dataRepositorySymbolProvider);
 		providers.put("", webfluxRouterSymbolProvider);
 
-		return new SpringSymbolIndex(server, params, providers);
+		return new SpringSymbolIndex(server, params, providers, symbolCache);
 	}
 
 	protected ReferencesHandler createReferenceHandler(SimpleLanguageServer server, JavaProjectFinder projectFinder) {
@@ -13,6 +13,7 @@ package org.springframework.ide.vscode.boot.java.autowired;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -250,29 +251,38 @@ public class AutowiredHoverProvider implements HoverProvider {
 
 	private static List<LiveBean> matchBeansByType(IJavaProject project, Collection<LiveBean> beans, String fqName, boolean allowOneMatchOnly) {
 		if (fqName != null) {
+			// the bean types are looked up in one batch rather than one by one while matching the beans
+			Map<String, IType> beanTypes = project.getIndex().findTypes(beans.stream()
+					.map(AutowiredHoverProvider::getBeanTypeName)
+					.filter(beanTypeName -> !beanTypeName.replace('$', '.').equals(fqName))
+					.collect(Collectors.toSet()));
 			if (allowOneMatchOnly) {
-					List<LiveBean> matches = beans.stream().filter(b -> AutowiredHoverProvider.isCompatibleBeanType(project, b, fqName))
+					List<LiveBean> matches = beans.stream().filter(b -> AutowiredHoverProvider.isCompatibleBeanType(project, beanTypes, b, fqName))
 							.limit(2).collect(Collectors.toList());
 					if (!matches.isEmpty()) {
 						return matches.size() == 1 ? matches : ImmutableList.of(LiveHoverUtils.CANT_MATCH_PROPER_BEAN);
 					}
 			} else {
-				return beans.stream().filter(b -> AutowiredHoverProvider.isCompatibleBeanType(project, b, fqName)).collect(Collectors.toList());
+				return beans.stream().filter(b -> AutowiredHoverProvider.isCompatibleBeanType(project, beanTypes, b, fqName)).collect(Collectors.toList());
 			}
 		}
 		return ImmutableList.of();
 	}
 
-	private static boolean isCompatibleBeanType(IJavaProject jp, LiveBean bean, String bindingQualifiedName) {
+	private static String getBeanTypeName(LiveBean bean) {
 		String rawLiveBeanFqName = bean.getType(true);
 		int idx = rawLiveBeanFqName.indexOf('<');
 		// Trim the generic parameters part if it's present
-		String liveBeanTypeFQName = idx < 0 ? rawLiveBeanFqName : rawLiveBeanFqName.substring(0, idx);
+		return idx < 0 ? rawLiveBeanFqName : rawLiveBeanFqName.substring(0, idx);
+	}
+
+	private static boolean isCompatibleBeanType(IJavaProject jp, Map<String, IType> beanTypes, LiveBean bean, String bindingQualifiedName) {
+		String liveBeanTypeFQName = getBeanTypeName(bean);
 		if (liveBeanTypeFQName != null) {
 			if (liveBeanTypeFQName.replace('$', '.').equals(bindingQualifiedName)) {
 				return true;
 			} else {
-				IType type = jp.getIndex().findType(liveBeanTypeFQName);
+				IType type = beanTypes.get(liveBeanTypeFQName);
 				String fqTypeName = bindingQualifiedName;
 				if (type != null) {
 					return jp.getIndex().allSuperTypesOf(type).map(IType::getFullyQualifiedName)
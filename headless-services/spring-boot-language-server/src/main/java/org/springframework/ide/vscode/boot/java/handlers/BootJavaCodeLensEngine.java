@@ -59,12 +59,13 @@ public class BootJavaCodeLensEngine implements CodeLensHandler {
 	}
 
 	private List<? extends CodeLens> provideCodeLenses(TextDocument document) {
-		return server.getCompilationUnitCache().withCompilationUnit(document, cu -> {
+		// code lenses only need the declarations, so they can be computed in parallel with other requests for the document
+		return server.getCompilationUnitCache().withCompilationUnitSnapshot(document, snapshot -> {
 
-			if (cu != null) {
+			if (snapshot != null) {
 				List<CodeLens> result = new ArrayList<>();
 				for (CodeLensProvider codeLensProvider : codelensProviders) {
-					codeLensProvider.provideCodeLenses(document, cu, result);
+					codeLensProvider.provideCodeLenses(document, snapshot, result);
 				}
 
 				if (result.size() > 0) {
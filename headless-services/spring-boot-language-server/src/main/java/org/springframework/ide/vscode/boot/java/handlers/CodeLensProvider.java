@@ -12,8 +12,8 @@ package org.springframework.ide.vscode.boot.java.handlers;
 
 import java.util.List;
 
-import org.eclipse.jdt.core.dom.CompilationUnit;
 import org.eclipse.lsp4j.CodeLens;
+import org.springframework.ide.vscode.boot.java.utils.CompilationUnitSnapshot;
 import org.springframework.ide.vscode.commons.util.text.TextDocument;
 
 /**
@@ -21,6 +21,6 @@ import org.springframework.ide.vscode.commons.util.text.TextDocument;
  */
 public interface CodeLensProvider {
 
-	public void provideCodeLenses(TextDocument document, CompilationUnit cu, List<CodeLens> resultAccumulator);
+	public void provideCodeLenses(TextDocument document, CompilationUnitSnapshot snapshot, List<CodeLens> resultAccumulator);
 
 }
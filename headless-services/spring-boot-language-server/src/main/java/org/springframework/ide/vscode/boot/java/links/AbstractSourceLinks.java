@@ -15,24 +15,19 @@ import java.net.URI;
 import java.net.URISyntaxException;
 import java.nio.file.Path;
 import java.util.Optional;
-import java.util.Stack;
-
-import org.eclipse.jdt.core.dom.ASTVisitor;
-import org.eclipse.jdt.core.dom.AbstractTypeDeclaration;
-import org.eclipse.jdt.core.dom.AnnotationTypeDeclaration;
-import org.eclipse.jdt.core.dom.CompilationUnit;
-import org.eclipse.jdt.core.dom.EnumDeclaration;
-import org.eclipse.jdt.core.dom.TypeDeclaration;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.ide.vscode.boot.java.utils.CompilationUnitCache;
+import org.springframework.ide.vscode.boot.java.utils.CompilationUnitSnapshot;
+import org.springframework.ide.vscode.boot.java.utils.CompilationUnitSnapshot.Declaration;
+import org.springframework.ide.vscode.boot.java.utils.CompilationUnitSnapshot.Kind;
 import org.springframework.ide.vscode.commons.java.IClasspath;
 import org.springframework.ide.vscode.commons.java.IClasspathUtil;
 import org.springframework.ide.vscode.commons.java.IJavaModuleData;
 import org.springframework.ide.vscode.commons.java.IJavaProject;
 import org.springframework.ide.vscode.commons.javadoc.TypeUrlProviderFromContainerUrl;
 import org.springframework.ide.vscode.commons.languageserver.java.JavaProjectFinder;
-import org.springframework.ide.vscode.commons.util.text.Region;
 
 /**
  * Base logic for {@link SourceLinks} independent of any client
@@ -96,28 +91,28 @@ public abstract class AbstractSourceLinks implements SourceLinks {
 	private String javaSourceLinkUrl(IJavaProject project, Path sourcePath, String fqName) {
 		Optional<String> linkOptional = sourceLinkForResourcePath(sourcePath);
 		if (linkOptional.isPresent()) {
-			Optional<String> positionLink = findCU(project, sourcePath.toUri()).map(cu -> positionLink(cu, fqName));
+			Optional<String> positionLink = findSnapshot(project, sourcePath.toUri()).map(snapshot -> positionLink(snapshot, fqName));
 			return positionLink.isPresent() ? linkOptional.get() + positionLink.get() : linkOptional.get();
 		}
 		return null;
 	}
 
-	abstract protected String positionLink(CompilationUnit cu, String fqName);
+	abstract protected String positionLink(CompilationUnitSnapshot snapshot, String fqName);
 
-	private Optional<CompilationUnit> findCU(IJavaProject project, URI uri) {
-		return cuCache == null ? Optional.empty() : cuCache.withCompilationUnit(project, uri, compilationUnit -> Optional.ofNullable(compilationUnit));
+	private Optional<CompilationUnitSnapshot> findSnapshot(IJavaProject project, URI uri) {
+		return cuCache == null ? Optional.empty() : cuCache.withCompilationUnitSnapshot(project, uri, snapshot -> Optional.ofNullable(snapshot));
 	}
 
 	abstract protected Optional<String> jarLinkUrl(IJavaProject project, String fqName, IJavaModuleData jarModuleData);
 
 	private Optional<String> jarSourceLinkUrl(IJavaProject project, String fqName, IJavaModuleData jarModuleData) {
 		return jarLinkUrl(project, fqName, jarModuleData).map(sourceUrl -> {
-			Optional<String> positionLink = findCUForFQNameFromJar(project, jarModuleData, fqName).map(cu -> positionLink(cu, fqName));
+			Optional<String> positionLink = findSnapshotForFQNameFromJar(project, jarModuleData, fqName).map(snapshot -> positionLink(snapshot, fqName));
 			return positionLink.isPresent() ? sourceUrl + positionLink.get() : sourceUrl;
 		});
 	}
 
-	private Optional<CompilationUnit> findCUForFQNameFromJar(IJavaProject project, IJavaModuleData jarModuleData, String fqName) {
+	private Optional<CompilationUnitSnapshot> findSnapshotForFQNameFromJar(IJavaProject project, IJavaModuleData jarModuleData, String fqName) {
 		return IClasspathUtil.sourceContainer(project.getClasspath(), jarModuleData.getContainer()).map(url -> {
 			try {
 				return TypeUrlProviderFromContainerUrl.JAR_SOURCE_URL_PROVIDER.url(url, fqName, jarModuleData.getModule());
@@ -131,68 +126,25 @@ public abstract class AbstractSourceLinks implements SourceLinks {
 			} catch (URISyntaxException e) {
 				throw new IllegalStateException(e);
 			}
-		}).map(sourcePath -> findCU(project, sourcePath).orElse(null));
+		}).map(sourcePath -> findSnapshot(project, sourcePath).orElse(null));
 	}
 
-	protected Region findTypeRegion(CompilationUnit cu, String fqName) {
-		if (cu == null) {
+	/**
+	 * Finds the declaration of the type with the given fully qualified name, nested types use '$' as separator
+	 */
+	protected Declaration findTypeDeclaration(CompilationUnitSnapshot snapshot, String fqName) {
+		if (snapshot == null) {
 			return null;
 		}
-		int[] values = new int[] {0, -1};
 		int lastDotIndex = fqName.lastIndexOf('.');
 		String packageName = fqName.substring(0, lastDotIndex);
 		String typeName = fqName.substring(lastDotIndex + 1);
-		if (packageName.equals(cu.getPackage().getName().getFullyQualifiedName())) {
-			Stack<String> visitedType = new Stack<>();
-			cu.accept(new ASTVisitor() {
-
-				private boolean visitDeclaration(AbstractTypeDeclaration node) {
-					visitedType.push(node.getName().getIdentifier());
-					if (values[1] < 0) {
-						if (String.join("$", visitedType.toArray(new String[visitedType.size()])).equals(typeName)) {
-							values[0] = node.getName().getStartPosition();
-							values[1] = node.getName().getLength();
-						}
-					}
-					return values[1] < 0;
-				}
-
-				@Override
-				public boolean visit(TypeDeclaration node) {
-					return visitDeclaration(node);
-				}
-
-				@Override
-				public boolean visit(AnnotationTypeDeclaration node) {
-					return visitDeclaration(node);
-				}
-
-				@Override
-				public boolean visit(EnumDeclaration node) {
-					return visitDeclaration(node);
-				}
-
-				@Override
-				public void endVisit(EnumDeclaration node) {
-					visitedType.pop();
-					super.endVisit(node);
-				}
-
-				@Override
-				public void endVisit(AnnotationTypeDeclaration node) {
-					visitedType.pop();
-					super.endVisit(node);
-				}
-
-				@Override
-				public void endVisit(TypeDeclaration node) {
-					visitedType.pop();
-					super.endVisit(node);
-				}
-
-			});
+		if (packageName.equals(snapshot.getPackageName())) {
+			return snapshot.findDeclaration(declaration ->
+					(declaration.getKind() == Kind.TYPE || declaration.getKind() == Kind.ANNOTATION_TYPE)
+					&& declaration.getDeclaringType().equals(typeName)).orElse(null);
 		}
-		return values[1] < 0 ? null : new Region(values[0], values[1]);
+		return null;
 	}
 
 }
@@ -15,14 +15,14 @@ import java.net.URLEncoder;
 import java.nio.file.Path;
 import java.util.Optional;
 
-import org.eclipse.jdt.core.dom.CompilationUnit;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.ide.vscode.boot.java.utils.CompilationUnitCache;
+import org.springframework.ide.vscode.boot.java.utils.CompilationUnitSnapshot;
+import org.springframework.ide.vscode.boot.java.utils.CompilationUnitSnapshot.Declaration;
 import org.springframework.ide.vscode.commons.java.IJavaModuleData;
 import org.springframework.ide.vscode.commons.java.IJavaProject;
 import org.springframework.ide.vscode.commons.languageserver.java.JavaProjectFinder;
-import org.springframework.ide.vscode.commons.util.text.Region;
 
 import com.google.common.base.Supplier;
 import com.google.common.base.Suppliers;
@@ -52,12 +52,12 @@ public class AtomSourceLinks extends AbstractSourceLinks {
 	}
 
 	@Override
-	protected String positionLink(CompilationUnit cu, String fqName) {
-		if (cu != null) {
-			Region region = findTypeRegion(cu, fqName);
-			if (region != null) {
-				int column = cu.getColumnNumber(region.getOffset());
-				int line = cu.getLineNumber(region.getOffset());
+	protected String positionLink(CompilationUnitSnapshot snapshot, String fqName) {
+		if (snapshot != null) {
+			Declaration type = findTypeDeclaration(snapshot, fqName);
+			if (type != null) {
+				int column = type.getNameRange().getStart().getCharacter();
+				int line = type.getNameRange().getStart().getLine() + 1;
 				StringBuilder sb = new StringBuilder();
 				sb.append("&line=");
 				sb.append(line);
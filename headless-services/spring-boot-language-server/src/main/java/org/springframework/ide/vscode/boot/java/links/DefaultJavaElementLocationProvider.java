@@ -13,20 +13,14 @@ package org.springframework.ide.vscode.boot.java.links;
 import java.net.URI;
 import java.net.URL;
 import java.util.Optional;
-import java.util.concurrent.atomic.AtomicReference;
 
-import org.eclipse.jdt.core.dom.ASTVisitor;
-import org.eclipse.jdt.core.dom.EnumConstantDeclaration;
-import org.eclipse.jdt.core.dom.EnumDeclaration;
-import org.eclipse.jdt.core.dom.MethodDeclaration;
-import org.eclipse.jdt.core.dom.SimpleName;
-import org.eclipse.jdt.core.dom.TypeDeclaration;
 import org.eclipse.lsp4j.Location;
 import org.eclipse.lsp4j.Position;
 import org.eclipse.lsp4j.Range;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.ide.vscode.boot.java.utils.CompilationUnitCache;
+import org.springframework.ide.vscode.boot.java.utils.CompilationUnitSnapshot.Declaration;
 import org.springframework.ide.vscode.commons.java.IField;
 import org.springframework.ide.vscode.commons.java.IJavaProject;
 import org.springframework.ide.vscode.commons.java.IMember;
@@ -58,73 +52,13 @@ public class DefaultJavaElementLocationProvider implements JavaElementLocationPr
 
 					try {
 						URI uri = url.get().toURI();
-						Range r = cuCache.withCompilationUnit(project, uri, (cu) -> {
-							AtomicReference<Range> range = new AtomicReference<>(null);
-							if (cu == null) {
+						Range r = cuCache.withCompilationUnitSnapshot(project, uri, (snapshot) -> {
+							if (snapshot == null) {
 								return new Range(new Position(0, 0), new Position(0, 0));
 							}
-							cu.accept(new ASTVisitor() {
-
-								private Range nameRange(SimpleName nameNode) {
-									int startOffset = nameNode.getStartPosition();
-									int endOffset = nameNode.getLength() + startOffset;
-
-									// Line -1 because for CU lines are starting from 1
-									return new Range(
-											new Position(cu.getLineNumber(startOffset) - 1, cu.getColumnNumber(startOffset)),
-											new Position(cu.getLineNumber(endOffset) - 1, cu.getColumnNumber(endOffset)));
-								}
-
-								@Override
-								public boolean visit(MethodDeclaration node) {
-									if (member instanceof IMethod) {
-										String bindingKey = node.resolveBinding().getKey();
-										if (matchMethodBindingKeys(memberBindingKey, bindingKey)) {
-											range.set(nameRange(node.getName()));
-											return false;
-										}
-									}
-									return true;
-								}
-
-								@Override
-								public boolean visit(EnumConstantDeclaration node) {
-									if (member instanceof IField) {
-										String bindingKey = node.resolveVariable().getKey();
-										if (memberBindingKey.equals(bindingKey)) {
-											range.set(nameRange(node.getName()));
-											return false;
-										}
-									}
-									return true;
-								}
-
-								@Override
-								public boolean visit(EnumDeclaration node) {
-									if (member instanceof IType) {
-										String bindingKey = node.resolveBinding().getKey();
-										if (memberBindingKey.equals(bindingKey)) {
-											range.set(nameRange(node.getName()));
-											return false;
-										}
-									}
-									return true;
-								}
-
-								@Override
-								public boolean visit(TypeDeclaration node) {
-									if (member instanceof IType) {
-										String bindingKey = node.resolveBinding().getKey();
-										if (memberBindingKey.equals(bindingKey)) {
-											range.set(nameRange(node.getName()));
-											return false;
-										}
-									}
-									return true;
-								}
-
-							});
-							return range.get();
+							return snapshot.findDeclaration(declaration -> matches(member, memberBindingKey, declaration))
+									.map(declaration -> declaration.getNameRange())
+									.orElse(null);
 						});
 						if (r == null) {
 							throw new IllegalStateException("Couldn't find " + member);
@@ -139,6 +73,24 @@ public class DefaultJavaElementLocationProvider implements JavaElementLocationPr
 		return loc;
 	}
 
+	private static boolean matches(IMember member, String memberBindingKey, Declaration declaration) {
+		String bindingKey = declaration.getBindingKey();
+		if (bindingKey == null) {
+			return false;
+		}
+
+		switch (declaration.getKind()) {
+		case METHOD:
+			return member instanceof IMethod && matchMethodBindingKeys(memberBindingKey, bindingKey);
+		case ENUM_CONSTANT:
+			return member instanceof IField && memberBindingKey.equals(bindingKey);
+		case TYPE:
+			return member instanceof IType && memberBindingKey.equals(bindingKey);
+		default:
+			return false;
+		}
+	}
+
 	private static boolean matchMethodBindingKeys(String key1, String key2) {
 		return removeReturnTypeFromMethodKeyBinding(key1).equals(removeReturnTypeFromMethodKeyBinding(key2));
 	}
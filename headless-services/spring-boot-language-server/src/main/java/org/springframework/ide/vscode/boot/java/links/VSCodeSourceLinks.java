@@ -13,12 +13,12 @@ package org.springframework.ide.vscode.boot.java.links;
 import java.nio.file.Path;
 import java.util.Optional;
 
-import org.eclipse.jdt.core.dom.CompilationUnit;
 import org.springframework.ide.vscode.boot.java.utils.CompilationUnitCache;
+import org.springframework.ide.vscode.boot.java.utils.CompilationUnitSnapshot;
+import org.springframework.ide.vscode.boot.java.utils.CompilationUnitSnapshot.Declaration;
 import org.springframework.ide.vscode.commons.java.IJavaModuleData;
 import org.springframework.ide.vscode.commons.java.IJavaProject;
 import org.springframework.ide.vscode.commons.languageserver.java.JavaProjectFinder;
-import org.springframework.ide.vscode.commons.util.text.Region;
 
 /**
  * VSCode specific source links implementation
@@ -38,12 +38,12 @@ public class VSCodeSourceLinks extends AbstractSourceLinks {
 	}
 
 	@Override
-	protected String positionLink(CompilationUnit cu, String fqName) {
-		if (cu != null) {
-			Region region = findTypeRegion(cu, fqName);
-			if (region != null) {
-				int column = cu.getColumnNumber(region.getOffset());
-				int line = cu.getLineNumber(region.getOffset());
+	protected String positionLink(CompilationUnitSnapshot snapshot, String fqName) {
+		if (snapshot != null) {
+			Declaration type = findTypeDeclaration(snapshot, fqName);
+			if (type != null) {
+				int column = type.getNameRange().getStart().getCharacter();
+				int line = type.getNameRange().getStart().getLine() + 1;
 				StringBuilder sb = new StringBuilder();
 				sb.append('#');
 				sb.append(line);
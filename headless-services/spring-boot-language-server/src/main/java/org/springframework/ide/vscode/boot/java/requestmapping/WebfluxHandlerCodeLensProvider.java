@@ -12,17 +12,15 @@ package org.springframework.ide.vscode.boot.java.requestmapping;
 
 import java.util.List;
 
-import org.eclipse.jdt.core.dom.ASTVisitor;
-import org.eclipse.jdt.core.dom.CompilationUnit;
-import org.eclipse.jdt.core.dom.IMethodBinding;
-import org.eclipse.jdt.core.dom.MethodDeclaration;
 import org.eclipse.lsp4j.CodeLens;
 import org.eclipse.lsp4j.Command;
 import org.springframework.ide.vscode.boot.java.BootJavaLanguageServerComponents;
 import org.springframework.ide.vscode.boot.java.handlers.CodeLensProvider;
 import org.springframework.ide.vscode.boot.java.handlers.SymbolAddOnInformation;
+import org.springframework.ide.vscode.boot.java.utils.CompilationUnitSnapshot;
+import org.springframework.ide.vscode.boot.java.utils.CompilationUnitSnapshot.Declaration;
+import org.springframework.ide.vscode.boot.java.utils.CompilationUnitSnapshot.Kind;
 import org.springframework.ide.vscode.boot.java.utils.SpringSymbolIndex;
-import org.springframework.ide.vscode.commons.util.BadLocationException;
 import org.springframework.ide.vscode.commons.util.text.TextDocument;
 
 /**
@@ -37,24 +35,19 @@ public class WebfluxHandlerCodeLensProvider implements CodeLensProvider {
 	}
 
 	@Override
-	public void provideCodeLenses(TextDocument document, CompilationUnit cu, List<CodeLens> resultAccumulator) {
-		cu.accept(new ASTVisitor() {
-			@Override
-			public boolean visit(MethodDeclaration node) {
-				provideCodeLens(node, document, resultAccumulator);
-				return super.visit(node);
+	public void provideCodeLenses(TextDocument document, CompilationUnitSnapshot snapshot, List<CodeLens> resultAccumulator) {
+		for (Declaration declaration : snapshot.getDeclarations()) {
+			if (declaration.getKind() == Kind.METHOD) {
+				provideCodeLens(declaration, document, resultAccumulator);
 			}
-		});
+		}
 	}
 
-	protected void provideCodeLens(MethodDeclaration node, TextDocument document, List<CodeLens> resultAccumulator) {
-		IMethodBinding methodBinding = node.resolveBinding();
-
-		if (methodBinding != null && methodBinding.getDeclaringClass() != null && methodBinding.getMethodDeclaration() != null
-				&& methodBinding.getDeclaringClass().getBinaryName() != null && methodBinding.getMethodDeclaration().toString() != null) {
+	protected void provideCodeLens(Declaration method, TextDocument document, List<CodeLens> resultAccumulator) {
+		if (method.getDeclaringClassBinaryName() != null && method.getMethodSignature() != null) {
 
-			final String handlerClass = methodBinding.getDeclaringClass().getBinaryName().trim();
-			final String handlerMethod = methodBinding.getMethodDeclaration().toString().trim();
+			final String handlerClass = method.getDeclaringClassBinaryName().trim();
+			final String handlerMethod = method.getMethodSignature().trim();
 
 			List<SymbolAddOnInformation> handlerInfos = this.springIndexer.getAllAdditionalInformation((addon) -> {
 				if (addon instanceof WebfluxHandlerInformation) {
@@ -67,29 +60,25 @@ public class WebfluxHandlerCodeLensProvider implements CodeLensProvider {
 
 			if (handlerInfos != null && handlerInfos.size() > 0) {
 				for (Object object : handlerInfos) {
-					try {
-						WebfluxHandlerInformation handlerInfo = (WebfluxHandlerInformation) object;
+					WebfluxHandlerInformation handlerInfo = (WebfluxHandlerInformation) object;
 
-						CodeLens codeLens = new CodeLens();
-						codeLens.setRange(document.toRange(node.getName().getStartPosition(), node.getName().getLength()));
+					CodeLens codeLens = new CodeLens();
+					codeLens.setRange(method.getNameRange());
 
-						String httpMethod = WebfluxUtils.getStringRep(handlerInfo.getHttpMethods(), string -> string);
-						String codeLensCommand = httpMethod != null ? httpMethod + " " : "";
+					String httpMethod = WebfluxUtils.getStringRep(handlerInfo.getHttpMethods(), string -> string);
+					String codeLensCommand = httpMethod != null ? httpMethod + " " : "";
 
-						codeLensCommand += handlerInfo.getPath();
+					codeLensCommand += handlerInfo.getPath();
 
-						String acceptType = WebfluxUtils.getStringRep(handlerInfo.getAcceptTypes(), WebfluxUtils::getMediaType);
-						codeLensCommand += acceptType != null ? " - Accept: " + acceptType : "";
+					String acceptType = WebfluxUtils.getStringRep(handlerInfo.getAcceptTypes(), WebfluxUtils::getMediaType);
+					codeLensCommand += acceptType != null ? " - Accept: " + acceptType : "";
 
-						String contentType = WebfluxUtils.getStringRep(handlerInfo.getContentTypes(), WebfluxUtils::getMediaType);
-						codeLensCommand += contentType != null ? " - Content-Type: " + contentType : "";
+					String contentType = WebfluxUtils.getStringRep(handlerInfo.getContentTypes(), WebfluxUtils::getMediaType);
+					codeLensCommand += contentType != null ? " - Content-Type: " + contentType : "";
 
-						codeLens.setCommand(new Command(codeLensCommand, null));
+					codeLens.setCommand(new Command(codeLensCommand, null));
 
-						resultAccumulator.add(codeLens);
-					} catch (BadLocationException e) {
-						e.printStackTrace();
-					}
+					resultAccumulator.add(codeLens);
 				}
 			}
 		}
@@ -10,31 +10,31 @@
  *******************************************************************************/
 package org.springframework.ide.vscode.boot.java.utils;
 
-import java.io.File;
 import java.net.URI;
-import java.util.HashSet;
-import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock.ReadLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock.WriteLock;
 import java.util.function.Function;
-import java.util.stream.Stream;
 
 import org.apache.commons.io.IOUtils;
-import org.eclipse.jdt.core.JavaCore;
-import org.eclipse.jdt.core.dom.AST;
 import org.eclipse.jdt.core.dom.ASTParser;
 import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.eclipse.lsp4j.TextDocumentIdentifier;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.ide.vscode.commons.java.IClasspath;
-import org.springframework.ide.vscode.commons.java.IClasspathUtil;
 import org.springframework.ide.vscode.commons.java.IJavaProject;
 import org.springframework.ide.vscode.commons.languageserver.java.JavaProjectFinder;
 import org.springframework.ide.vscode.commons.languageserver.java.ProjectObserver;
 import org.springframework.ide.vscode.commons.languageserver.util.SimpleTextDocumentService;
+import org.springframework.ide.vscode.commons.util.text.LanguageId;
 import org.springframework.ide.vscode.commons.util.text.TextDocument;
 
 import com.google.common.cache.Cache;
@@ -45,26 +45,61 @@ public final class CompilationUnitCache implements DocumentContentProvider {
 	private static final Logger logger = LoggerFactory.getLogger(CompilationUnitCache.class);
 
 	private static final long CU_ACCESS_EXPIRATION = 1;
+
+	/**
+	 * Upper bound for the cached ASTs, measured in characters of source code the ASTs have been
+	 * created from (the AST size grows roughly linear with the size of the source)
+	 */
+	public static final long CU_MAX_SOURCE_WEIGHT = 2_000_000;
+
+	/**
+	 * Upper bound for the cached snapshots, measured in declarations
+	 */
+	private static final long SNAPSHOT_MAX_DECLARATIONS = 200_000;
+
+	/**
+	 * Time without further changes to a document after which its AST gets parsed in the background
+	 */
+	public static final long PRE_PARSE_DELAY = 500;
+
 	private JavaProjectFinder projectFinder;
 	private ProjectObserver projectObserver;
 	private Cache<URI, CompilationUnit> uriToCu;
+	private Cache<URI, CompilationUnitSnapshot> uriToSnapshot;
 	private Cache<IJavaProject, Set<URI>> projectToDocs;
 	private ProjectObserver.Listener projectListener;
 	private SimpleTextDocumentService documents;
+	private ParserEnvironmentCache environments;
+
+	private ScheduledExecutorService preParseExecutor;
+	private ConcurrentMap<URI, ScheduledFuture<?>> pendingPreParses;
+	private long preParseDelay;
 
 	private ReadLock readLock;
 	private WriteLock writeLock;
 
 	public CompilationUnitCache(JavaProjectFinder projectFinder, SimpleTextDocumentService documents, ProjectObserver projectObserver) {
+		this(projectFinder, documents, projectObserver, CU_MAX_SOURCE_WEIGHT, PRE_PARSE_DELAY);
+	}
+
+	public CompilationUnitCache(JavaProjectFinder projectFinder, SimpleTextDocumentService documents, ProjectObserver projectObserver, long maxSourceWeight, long preParseDelay) {
 		this.projectFinder = projectFinder;
 		this.projectObserver = projectObserver;
 		this.documents = documents;
 		projectListener = ProjectObserver.onAny(this::invalidateProject);
+		environments = new ParserEnvironmentCache(projectObserver);
 
 		// PT 154618835 - Avoid retaining the CU in the cache as it consumes memory if it hasn't been
-		// accessed after some time
+		// accessed after some time, and keep the overall amount of cached ASTs bounded
 		uriToCu = CacheBuilder.newBuilder()
-				.expireAfterWrite(CU_ACCESS_EXPIRATION, TimeUnit.MINUTES)
+				.expireAfterAccess(CU_ACCESS_EXPIRATION, TimeUnit.MINUTES)
+				.maximumWeight(maxSourceWeight)
+				.weigher((URI uri, CompilationUnit cu) -> Math.max(1, cu.getLength()))
+				.build();
+		uriToSnapshot = CacheBuilder.newBuilder()
+				.expireAfterAccess(CU_ACCESS_EXPIRATION, TimeUnit.MINUTES)
+				.maximumWeight(SNAPSHOT_MAX_DECLARATIONS)
+				.weigher((URI uri, CompilationUnitSnapshot snapshot) -> Math.max(1, snapshot.getDeclarations().size()))
 				.build();
 		projectToDocs = CacheBuilder.newBuilder().build();
 
@@ -72,9 +107,23 @@ public final class CompilationUnitCache implements DocumentContentProvider {
 		readLock = lock.readLock();
 		writeLock = lock.writeLock();
 
+		pendingPreParses = new ConcurrentHashMap<>();
+		this.preParseDelay = preParseDelay;
+		preParseExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread t = new Thread(runnable, "Compilation Unit Pre-Parser");
+			t.setDaemon(true);
+			return t;
+		});
+
 		if (documents != null) {
-			documents.onDidChangeContent(doc -> invalidateCuForJavaFile(doc.getDocument().getId().getUri()));
-			documents.onDidClose(doc -> invalidateCuForJavaFile(doc.getId().getUri()));
+			documents.onDidChangeContent(doc -> {
+				invalidateCuForJavaFile(doc.getDocument().getId().getUri());
+				schedulePreParse(doc.getDocument());
+			});
+			documents.onDidClose(doc -> {
+				cancelPreParse(URI.create(doc.getId().getUri()));
+				invalidateCuForJavaFile(doc.getId().getUri());
+			});
 		}
 
 		if (this.projectObserver != null) {
@@ -86,6 +135,9 @@ public final class CompilationUnitCache implements DocumentContentProvider {
 		if (projectObserver != null) {
 			projectObserver.removeListener(projectListener);
 		}
+		environments.dispose();
+		preParseExecutor.shutdownNow();
+		pendingPreParses.clear();
 	}
 
 	/**
@@ -110,14 +162,7 @@ public final class CompilationUnitCache implements DocumentContentProvider {
 			CompilationUnit cu = null;
 
 			try {
-				cu = uriToCu.get(uri, () -> {
-					CompilationUnit cUnit = parse(uri.toString(), fetchContent(uri).toCharArray(), project);
-					projectToDocs.get(project, () -> new HashSet<>()).add(uri);
-					return cUnit;
-				});
-				if (cu != null) {
-					projectToDocs.get(project, () -> new HashSet<>()).add(uri);
-				}
+				cu = loadCompilationUnit(project, uri);
 			} catch (Exception e) {
 				logger.error("", e);
 			} finally {
@@ -139,43 +184,164 @@ public final class CompilationUnitCache implements DocumentContentProvider {
 		return requestor.apply(null);
 	}
 
+	/**
+	 * Same as {@link #withCompilationUnitSnapshot(IJavaProject, URI, Function)}, for the project of the document
+	 */
+	public <T> T withCompilationUnitSnapshot(TextDocument document, Function<CompilationUnitSnapshot, T> requestor) {
+		IJavaProject project = projectFinder.find(document.getId()).orElse(null);
+		URI uri = URI.create(document.getUri());
+		return withCompilationUnitSnapshot(project, uri, requestor);
+	}
+
+	/**
+	 * Read-only variant of {@link #withCompilationUnit(IJavaProject, URI, Function)} that passes an immutable
+	 * snapshot of the declarations of the compilation unit to the requestor.
+	 * <p>
+	 * The snapshot is created once per version of the compilation unit. Since it doesn't refer to any AST nodes
+	 * or bindings, the requestor runs without holding the lock on the AST, so any number of these requests can
+	 * run in parallel for the same document.
+	 */
+	public <T> T withCompilationUnitSnapshot(IJavaProject project, URI uri, Function<CompilationUnitSnapshot, T> requestor) {
+		CompilationUnitSnapshot snapshot = null;
+
+		if (project != null) {
+			readLock.lock();
+			try {
+				// the snapshot may outlive the AST it has been created from, no need to parse the source again in that case
+				snapshot = uriToSnapshot.getIfPresent(uri);
+				CompilationUnit cu = snapshot == null ? loadCompilationUnit(project, uri) : null;
+				if (cu != null) {
+					snapshot = uriToSnapshot.get(uri, () -> {
+						synchronized (cu.getAST()) {
+							return CompilationUnitSnapshot.create(cu);
+						}
+					});
+				}
+			} catch (Exception e) {
+				logger.error("", e);
+			} finally {
+				readLock.unlock();
+			}
+		}
+
+		return requestor.apply(snapshot);
+	}
+
+
+	/**
+	 * Needs to be called with the read lock being held
+	 */
+	private CompilationUnit loadCompilationUnit(IJavaProject project, URI uri) throws Exception {
+		CompilationUnit cu = uriToCu.get(uri, () -> parse(uri.toString(), fetchContent(uri).toCharArray(), environments.get(project)));
+		if (cu != null) {
+			// concurrent set, documents get registered by parallel requests holding the read lock only
+			projectToDocs.get(project, ConcurrentHashMap::newKeySet).add(uri);
+		}
+		return cu;
+	}
+
+	/**
+	 * Parses the latest version of the document in the background once the user stopped typing for
+	 * a moment, so that requests arriving afterwards find the AST already in the cache
+	 */
+	private void schedulePreParse(TextDocument document) {
+		if (!LanguageId.JAVA.equals(document.getLanguageId()) || preParseExecutor.isShutdown()) {
+			return;
+		}
+
+		URI uri = URI.create(document.getUri());
+		int version = document.getVersion();
+
+		try {
+			// the pre-parse removes itself when done, which has to wait until it got added here
+			pendingPreParses.compute(uri, (u, previous) -> {
+				if (previous != null) {
+					previous.cancel(false);
+				}
+
+				AtomicReference<ScheduledFuture<?>> preParse = new AtomicReference<>();
+				preParse.set(preParseExecutor.schedule(() -> {
+					try {
+						preParse(uri, version);
+					} finally {
+						pendingPreParses.remove(uri, preParse.get());
+					}
+				}, preParseDelay, TimeUnit.MILLISECONDS));
+				return preParse.get();
+			});
+		} catch (Exception e) {
+			// executor got shut down in the meantime
+			logger.debug("", e);
+		}
+	}
+
+	/**
+	 * Number of documents with a scheduled pre-parse that did not finish yet
+	 */
+	public int getPendingPreParses() {
+		return pendingPreParses.size();
+	}
+
+	private void cancelPreParse(URI uri) {
+		ScheduledFuture<?> pending = pendingPreParses.remove(uri);
+		if (pending != null) {
+			pending.cancel(false);
+		}
+	}
+
+	private void preParse(URI uri, int version) {
+		TextDocument document = documents.get(uri.toString());
+
+		// skip outdated requests, a more recent change has scheduled its own pre-parse already
+		if (document == null || document.getVersion() != version) {
+			return;
+		}
+
+		IJavaProject project = projectFinder.find(new TextDocumentIdentifier(uri.toString())).orElse(null);
+		if (project != null) {
+			readLock.lock();
+			try {
+				loadCompilationUnit(project, uri);
+			} catch (Exception e) {
+				logger.debug("", e);
+			} finally {
+				readLock.unlock();
+			}
+		}
+	}
 
 	private void invalidateCuForJavaFile(String uriStr) {
 		URI uri = URI.create(uriStr);
 		writeLock.lock();
 		try {
 			uriToCu.invalidate(uri);
+			uriToSnapshot.invalidate(uri);
 		} finally {
 			writeLock.unlock();
 		}
 	}
 
 	public static CompilationUnit parse(TextDocument document, IJavaProject project) throws Exception {
-		String[] classpathEntries = getClasspathEntries(project);
 		String docURI = document.getUri();
-		String unitName = docURI.substring(docURI.lastIndexOf("/"));
 		char[] source = document.get(0, document.getLength()).toCharArray();
-		return parse(source, docURI, unitName, classpathEntries);
+		return parse(docURI, source, ParserEnvironment.create(project));
 	}
 
 	public static CompilationUnit parse(String uri, char[] source, IJavaProject project) throws Exception {
-		String[] classpathEntries = getClasspathEntries(project);
-		String unitName = uri.substring(uri.lastIndexOf("/"));
-		return parse(source, uri, unitName, classpathEntries);
+		return parse(uri, source, ParserEnvironment.create(project));
 	}
 
 	public static CompilationUnit parse(char[] source, String docURI, String unitName, String[] classpathEntries) throws Exception {
-		ASTParser parser = ASTParser.newParser(AST.JLS11);
-		Map<String, String> options = JavaCore.getOptions();
-		JavaCore.setComplianceOptions(JavaCore.VERSION_11, options);
-		parser.setCompilerOptions(options);
-		parser.setKind(ASTParser.K_COMPILATION_UNIT);
-		parser.setStatementsRecovery(true);
-		parser.setBindingsRecovery(true);
-		parser.setResolveBindings(true);
-
-		String[] sourceEntries = new String[] {};
-		parser.setEnvironment(classpathEntries, sourceEntries, null, false);
+		return parse(source, unitName, new ParserEnvironment(classpathEntries));
+	}
+
+	private static CompilationUnit parse(String uri, char[] source, ParserEnvironment environment) throws Exception {
+		String unitName = uri.substring(uri.lastIndexOf("/"));
+		return parse(source, unitName, environment);
+	}
+
+	private static CompilationUnit parse(char[] source, String unitName, ParserEnvironment environment) throws Exception {
+		ASTParser parser = environment.createParser();
 
 		parser.setUnitName(unitName);
 		parser.setSource(source);
@@ -185,24 +351,13 @@ public final class CompilationUnitCache implements DocumentContentProvider {
 		return cu;
 	}
 
-	private static String[] getClasspathEntries(IJavaProject project) throws Exception {
-		if (project == null) {
-			return new String[0];
-		} else {
-			IClasspath classpath = project.getClasspath();
-			Stream<File> classpathEntries = IClasspathUtil.getAllBinaryRoots(classpath).stream();
-			return classpathEntries
-					.filter(file -> file.exists())
-					.map(file -> file.getAbsolutePath()).toArray(String[]::new);
-		}
-	}
-
 	private void invalidateProject(IJavaProject project) {
 		Set<URI> docUris = projectToDocs.getIfPresent(project);
 		if (docUris != null) {
 			writeLock.lock();
 			try {
 				uriToCu.invalidateAll(docUris);
+				uriToSnapshot.invalidateAll(docUris);
 				projectToDocs.invalidate(project);
 			} finally {
 				writeLock.unlock();
@@ -0,0 +1,260 @@
+/*******************************************************************************
+ * Copyright (c) 2019 Pivotal, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal, Inc. - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.vscode.boot.java.utils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Predicate;
+
+import org.eclipse.jdt.core.dom.ASTVisitor;
+import org.eclipse.jdt.core.dom.AbstractTypeDeclaration;
+import org.eclipse.jdt.core.dom.AnnotationTypeDeclaration;
+import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.eclipse.jdt.core.dom.EnumConstantDeclaration;
+import org.eclipse.jdt.core.dom.EnumDeclaration;
+import org.eclipse.jdt.core.dom.FieldDeclaration;
+import org.eclipse.jdt.core.dom.IBinding;
+import org.eclipse.jdt.core.dom.IMethodBinding;
+import org.eclipse.jdt.core.dom.ITypeBinding;
+import org.eclipse.jdt.core.dom.IVariableBinding;
+import org.eclipse.jdt.core.dom.MethodDeclaration;
+import org.eclipse.jdt.core.dom.SimpleName;
+import org.eclipse.jdt.core.dom.TypeDeclaration;
+import org.eclipse.jdt.core.dom.VariableDeclarationFragment;
+import org.eclipse.lsp4j.Position;
+import org.eclipse.lsp4j.Range;
+
+/**
+ * Immutable, detached summary of the declarations of a {@link CompilationUnit}, with
+ * bindings flattened to their keys and source positions converted to ranges.
+ * <p>
+ * Unlike the JDT AST itself, a snapshot doesn't refer to any AST nodes or bindings, so it
+ * can be used from any number of threads at the same time and can be kept beyond the
+ * scope of a {@link CompilationUnitCache} requestor.
+ */
+public class CompilationUnitSnapshot {
+
+	/**
+	 * {@link #TYPE} covers classes, interfaces and enums
+	 */
+	public static enum Kind {
+		TYPE, ANNOTATION_TYPE, METHOD, FIELD, ENUM_CONSTANT
+	}
+
+	public static class Declaration {
+
+		private final Kind kind;
+		private final String name;
+		private final String bindingKey;
+		private final String declaringType;
+		private final String declaringClassBinaryName;
+		private final String methodSignature;
+		private final int nameOffset;
+		private final int nameLength;
+		private final Range nameRange;
+
+		public Declaration(Kind kind, String name, String bindingKey, String declaringType, String declaringClassBinaryName,
+				String methodSignature, int nameOffset, int nameLength, Range nameRange) {
+			this.kind = kind;
+			this.name = name;
+			this.bindingKey = bindingKey;
+			this.declaringType = declaringType;
+			this.declaringClassBinaryName = declaringClassBinaryName;
+			this.methodSignature = methodSignature;
+			this.nameOffset = nameOffset;
+			this.nameLength = nameLength;
+			this.nameRange = nameRange;
+		}
+
+		public Kind getKind() {
+			return kind;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		/**
+		 * binding key of the declaration, or <code>null</code> if the binding could not be resolved
+		 */
+		public String getBindingKey() {
+			return bindingKey;
+		}
+
+		/**
+		 * the nested name of the enclosing type (using '$' as separator), or the nested name of the type itself for type declarations
+		 */
+		public String getDeclaringType() {
+			return declaringType;
+		}
+
+		/**
+		 * binary name of the class declaring a method, field or enum constant, or <code>null</code> for types
+		 * and if the binding could not be resolved
+		 */
+		public String getDeclaringClassBinaryName() {
+			return declaringClassBinaryName;
+		}
+
+		/**
+		 * the declaration of a method as printed by its binding, or <code>null</code> for other declarations
+		 * and if the binding could not be resolved
+		 */
+		public String getMethodSignature() {
+			return methodSignature;
+		}
+
+		public int getNameOffset() {
+			return nameOffset;
+		}
+
+		public int getNameLength() {
+			return nameLength;
+		}
+
+		public Range getNameRange() {
+			return nameRange;
+		}
+
+		@Override
+		public String toString() {
+			return kind + " " + declaringType + (kind == Kind.TYPE || kind == Kind.ANNOTATION_TYPE ? "" : "#" + name);
+		}
+	}
+
+	private final String packageName;
+	private final List<Declaration> declarations;
+
+	private CompilationUnitSnapshot(String packageName, List<Declaration> declarations) {
+		this.packageName = packageName;
+		this.declarations = Collections.unmodifiableList(declarations);
+	}
+
+	public String getPackageName() {
+		return packageName;
+	}
+
+	/**
+	 * All declarations of the compilation unit, in the order they appear in the source
+	 */
+	public List<Declaration> getDeclarations() {
+		return declarations;
+	}
+
+	public Optional<Declaration> findDeclaration(Predicate<Declaration> filter) {
+		return declarations.stream().filter(filter).findFirst();
+	}
+
+	/**
+	 * Creates a snapshot of the given compilation unit. This resolves bindings, so it needs to be
+	 * called with the AST being locked.
+	 */
+	public static CompilationUnitSnapshot create(CompilationUnit cu) {
+		List<Declaration> declarations = new ArrayList<>();
+		List<String> enclosingTypes = new ArrayList<>();
+
+		cu.accept(new ASTVisitor() {
+
+			@Override
+			public boolean visit(TypeDeclaration node) {
+				return visitType(Kind.TYPE, node);
+			}
+
+			@Override
+			public boolean visit(EnumDeclaration node) {
+				return visitType(Kind.TYPE, node);
+			}
+
+			@Override
+			public boolean visit(AnnotationTypeDeclaration node) {
+				return visitType(Kind.ANNOTATION_TYPE, node);
+			}
+
+			@Override
+			public void endVisit(TypeDeclaration node) {
+				endVisitType();
+			}
+
+			@Override
+			public void endVisit(EnumDeclaration node) {
+				endVisitType();
+			}
+
+			@Override
+			public void endVisit(AnnotationTypeDeclaration node) {
+				endVisitType();
+			}
+
+			@Override
+			public boolean visit(MethodDeclaration node) {
+				add(Kind.METHOD, node.getName(), node.resolveBinding());
+				return true;
+			}
+
+			@Override
+			public boolean visit(EnumConstantDeclaration node) {
+				add(Kind.ENUM_CONSTANT, node.getName(), node.resolveVariable());
+				return true;
+			}
+
+			@Override
+			public boolean visit(FieldDeclaration node) {
+				for (Object fragment : node.fragments()) {
+					VariableDeclarationFragment variable = (VariableDeclarationFragment) fragment;
+					add(Kind.FIELD, variable.getName(), variable.resolveBinding());
+				}
+				return true;
+			}
+
+			private boolean visitType(Kind kind, AbstractTypeDeclaration node) {
+				enclosingTypes.add(node.getName().getIdentifier());
+				add(kind, node.getName(), node.resolveBinding());
+				return true;
+			}
+
+			private void endVisitType() {
+				enclosingTypes.remove(enclosingTypes.size() - 1);
+			}
+
+			private void add(Kind kind, SimpleName nameNode, IBinding binding) {
+				String bindingKey = binding == null ? null : binding.getKey();
+				String declaringType = String.join("$", enclosingTypes);
+
+				ITypeBinding declaringClass = null;
+				String methodSignature = null;
+				if (binding instanceof IMethodBinding) {
+					IMethodBinding methodBinding = (IMethodBinding) binding;
+					declaringClass = methodBinding.getDeclaringClass();
+					methodSignature = methodBinding.getMethodDeclaration() == null ? null : methodBinding.getMethodDeclaration().toString();
+				} else if (binding instanceof IVariableBinding) {
+					declaringClass = ((IVariableBinding) binding).getDeclaringClass();
+				}
+				String declaringClassBinaryName = declaringClass == null ? null : declaringClass.getBinaryName();
+
+				int startOffset = nameNode.getStartPosition();
+				int endOffset = startOffset + nameNode.getLength();
+
+				// Line -1 because for CU lines are starting from 1
+				Range nameRange = new Range(
+						new Position(cu.getLineNumber(startOffset) - 1, cu.getColumnNumber(startOffset)),
+						new Position(cu.getLineNumber(endOffset) - 1, cu.getColumnNumber(endOffset)));
+
+				declarations.add(new Declaration(kind, nameNode.getIdentifier(), bindingKey, declaringType, declaringClassBinaryName, methodSignature, startOffset, nameNode.getLength(), nameRange));
+			}
+		});
+
+		String packageName = cu.getPackage() == null ? "" : cu.getPackage().getName().getFullyQualifiedName();
+		return new CompilationUnitSnapshot(packageName, declarations);
+	}
+
+}
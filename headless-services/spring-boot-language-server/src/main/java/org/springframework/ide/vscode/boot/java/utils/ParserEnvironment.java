@@ -0,0 +1,98 @@
+/*******************************************************************************
+ * Copyright (c) 2019 Pivotal, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal, Inc. - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.vscode.boot.java.utils;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.jdt.core.dom.AST;
+import org.eclipse.jdt.core.dom.ASTParser;
+import org.springframework.ide.vscode.commons.java.IClasspath;
+import org.springframework.ide.vscode.commons.java.IClasspathUtil;
+import org.springframework.ide.vscode.commons.java.IJavaProject;
+
+/**
+ * Everything that is needed to set up an {@link ASTParser} with binding resolution for a
+ * project: the resolved classpath entries and the compiler options. Computed once per project
+ * and shared by all parses until the project changes.
+ * <p>
+ * The name environment that resolves types from the classpath entries is created by the
+ * {@link ASTParser} for every parse, there is no public API to hand a prepared one to the parser.
+ */
+public class ParserEnvironment {
+
+	public static final ParserEnvironment EMPTY = new ParserEnvironment(new String[0]);
+
+	private static final Map<String, String> COMPILER_OPTIONS = createCompilerOptions();
+
+	private final String[] classpathEntries;
+
+	public ParserEnvironment(String[] classpathEntries) {
+		this.classpathEntries = classpathEntries;
+	}
+
+	/**
+	 * Creates the environment for the current classpath of the project, resolves the classpath on every call
+	 */
+	public static ParserEnvironment create(IJavaProject project) throws Exception {
+		String[] classpathEntries = resolveClasspathEntries(project);
+		return classpathEntries.length == 0 ? EMPTY : new ParserEnvironment(classpathEntries);
+	}
+
+	/**
+	 * The existing binary roots of the project classpath, in classpath order
+	 */
+	public static String[] resolveClasspathEntries(IJavaProject project) throws Exception {
+		if (project == null) {
+			return new String[0];
+		}
+
+		IClasspath classpath = project.getClasspath();
+		Stream<File> classpathEntries = IClasspathUtil.getAllBinaryRoots(classpath).stream();
+		return classpathEntries
+				.filter(file -> file.exists())
+				.map(file -> file.getAbsolutePath())
+				.toArray(String[]::new);
+	}
+
+	public String[] getClasspathEntries() {
+		return classpathEntries;
+	}
+
+	/**
+	 * Creates a new parser for compilation units with binding resolution against this environment.
+	 * Parsers reset their environment after creating ASTs, so every parse needs its own parser.
+	 */
+	public ASTParser createParser() {
+		ASTParser parser = ASTParser.newParser(AST.JLS11);
+		parser.setCompilerOptions(COMPILER_OPTIONS);
+		parser.setKind(ASTParser.K_COMPILATION_UNIT);
+		parser.setStatementsRecovery(true);
+		parser.setBindingsRecovery(true);
+		parser.setResolveBindings(true);
+		parser.setIgnoreMethodBodies(false);
+
+		String[] sourceEntries = new String[] {};
+		parser.setEnvironment(classpathEntries, sourceEntries, null, false);
+
+		return parser;
+	}
+
+	private static Map<String, String> createCompilerOptions() {
+		Map<String, String> options = JavaCore.getOptions();
+		JavaCore.setComplianceOptions(JavaCore.VERSION_11, options);
+		return Collections.unmodifiableMap(options);
+	}
+
+}
@@ -0,0 +1,60 @@
+/*******************************************************************************
+ * Copyright (c) 2019 Pivotal, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal, Inc. - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.vscode.boot.java.utils;
+
+import org.springframework.ide.vscode.commons.java.IJavaProject;
+import org.springframework.ide.vscode.commons.languageserver.java.ProjectObserver;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * Keeps the {@link ParserEnvironment} per project, so that parsing a single file does not need to
+ * resolve the project classpath again. Environments are dropped whenever the project changes, so that
+ * the classpath entries are resolved again, including jars that did not exist before.
+ */
+public class ParserEnvironmentCache {
+
+	private final ProjectObserver projectObserver;
+	private final ProjectObserver.Listener projectListener;
+	private final Cache<IJavaProject, ParserEnvironment> environments;
+
+	public ParserEnvironmentCache(ProjectObserver projectObserver) {
+		this.projectObserver = projectObserver;
+		this.environments = CacheBuilder.newBuilder().build();
+		this.projectListener = ProjectObserver.onAny(this::invalidate);
+
+		if (this.projectObserver != null) {
+			this.projectObserver.addListener(projectListener);
+		}
+	}
+
+	public ParserEnvironment get(IJavaProject project) throws Exception {
+		if (project == null) {
+			return ParserEnvironment.EMPTY;
+		}
+		return environments.get(project, () -> ParserEnvironment.create(project));
+	}
+
+	public void invalidate(IJavaProject project) {
+		if (project != null) {
+			environments.invalidate(project);
+		}
+	}
+
+	public void dispose() {
+		if (projectObserver != null) {
+			projectObserver.removeListener(projectListener);
+		}
+		environments.invalidateAll();
+	}
+
+}
@@ -10,6 +10,7 @@
  *******************************************************************************/
 package org.springframework.ide.vscode.boot.java.utils;
 
+import org.eclipse.core.runtime.IProgressMonitor;
 import org.springframework.ide.vscode.commons.java.IJavaProject;
 
 /**
@@ -21,7 +22,9 @@ public interface SpringIndexer {
 	boolean isInterestedIn(String docURI);
 
 	void initializeProject(IJavaProject project) throws Exception;
-	void updateFile(IJavaProject project, String docURI, String content) throws Exception;
-
+	void updateFile(IJavaProject project, String docURI, String content, IProgressMonitor monitor) throws Exception;
+	void updateFiles(IJavaProject project, String[] docURIs, IProgressMonitor monitor) throws Exception;
+	void removeFiles(IJavaProject project, String[] docURIs) throws Exception;
+	void removeProject(IJavaProject project) throws Exception;
 
 }
@@ -11,21 +11,43 @@
 package org.springframework.ide.vscode.boot.java.utils;
 
 import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
 
-import org.eclipse.jdt.core.JavaCore;
-import org.eclipse.jdt.core.dom.AST;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.jdt.core.dom.ASTParser;
 import org.eclipse.jdt.core.dom.ASTVisitor;
 import org.eclipse.jdt.core.dom.Annotation;
+import org.eclipse.jdt.core.dom.AnnotationTypeDeclaration;
 import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.eclipse.jdt.core.dom.EnumDeclaration;
 import org.eclipse.jdt.core.dom.FileASTRequestor;
 import org.eclipse.jdt.core.dom.ITypeBinding;
 import org.eclipse.jdt.core.dom.MarkerAnnotation;
@@ -40,12 +62,19 @@ import org.springframework.ide.vscode.boot.java.annotations.AnnotationHierarchie
 import org.springframework.ide.vscode.boot.java.annotations.AnnotationHierarchyAwareLookup;
 import org.springframework.ide.vscode.boot.java.handlers.EnhancedSymbolInformation;
 import org.springframework.ide.vscode.boot.java.handlers.SymbolProvider;
-import org.springframework.ide.vscode.commons.java.IClasspath;
 import org.springframework.ide.vscode.commons.java.IClasspathUtil;
 import org.springframework.ide.vscode.commons.java.IJavaProject;
 import org.springframework.ide.vscode.commons.util.UriUtil;
 import org.springframework.ide.vscode.commons.util.text.TextDocument;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
 /**
  * @author Martin Lippert
  */
@@ -53,12 +82,95 @@ public class SpringIndexerJava implements SpringIndexer {
 
 	private static final Logger log = LoggerFactory.getLogger(SpringIndexerJava.class);
 
+	// whenever the implementation of the indexer changes in a way that the stored data in the cache is no longer valid,
+	// we need to change the generation - this will result in a re-indexing due to no up-to-date cache data being found
+	private static final String GENERATION = "GEN-2";
+
+	// projects with fewer files than this are scanned in one go, even if more scan workers are configured
+	public static final int DEFAULT_MIN_FILES_PER_BATCH = 100;
+
+	// enough for the jars of the classpaths of a large workspace
+	private static final int MAX_JAR_FINGERPRINTS = 10_000;
+
 	private final SymbolHandler symbolHandler;
 	private final AnnotationHierarchyAwareLookup<SymbolProvider> symbolProviders;
+	private final SymbolCache cache;
+	private final ParserEnvironmentCache environments;
+
+	// the cache entries of the initialized projects by location, kept up to date with file updates, so that
+	// the symbol cache can be written again after an update without scanning the whole project
+	private final ConcurrentMap<URI, ProjectCacheEntries> projectCacheEntries;
+
+	// fingerprints of the jars on the classpath by path, replaced when size or modification time of the jar change
+	private final Cache<String, JarFingerprint> jarFingerprints;
 
-	public SpringIndexerJava(SymbolHandler symbolHandler, AnnotationHierarchyAwareLookup<SymbolProvider> symbolProviders) {
+	private int scanWorkers = 1;
+	private int minFilesPerBatch = DEFAULT_MIN_FILES_PER_BATCH;
+
+	// shared by all project scans, created when the first project is scanned in parallel
+	private ExecutorService scanExecutor;
+
+	public SpringIndexerJava(SymbolHandler symbolHandler, AnnotationHierarchyAwareLookup<SymbolProvider> symbolProviders, SymbolCache cache, ParserEnvironmentCache environments) {
 		this.symbolHandler = symbolHandler;
 		this.symbolProviders = symbolProviders;
+		this.cache = cache;
+		this.environments = environments;
+		this.projectCacheEntries = new ConcurrentHashMap<>();
+		this.jarFingerprints = CacheBuilder.newBuilder().maximumSize(MAX_JAR_FINGERPRINTS).build();
+	}
+
+	/**
+	 * Sets the number of threads that are used to parse the source files of a project
+	 * in parallel when the project gets scanned as a whole. A value of zero or less
+	 * uses as many threads as processors are available.
+	 */
+	public synchronized void setScanWorkers(int scanWorkers) {
+		int workers = scanWorkers > 0 ? scanWorkers : Runtime.getRuntime().availableProcessors();
+		if (workers != this.scanWorkers) {
+			this.scanWorkers = workers;
+
+			// scans that are running keep the old threads until they are done
+			if (scanExecutor != null) {
+				scanExecutor.shutdown();
+				scanExecutor = null;
+			}
+		}
+	}
+
+	public synchronized int getScanWorkers() {
+		return scanWorkers;
+	}
+
+	/**
+	 * Sets the minimum number of files that are parsed by one of the scan workers. Projects with
+	 * fewer files than twice this number are scanned by a single worker.
+	 */
+	public synchronized void setMinFilesPerBatch(int minFilesPerBatch) {
+		this.minFilesPerBatch = Math.max(1, minFilesPerBatch);
+	}
+
+	public synchronized int getMinFilesPerBatch() {
+		return minFilesPerBatch;
+	}
+
+	/**
+	 * Stops the threads that scan projects in parallel.
+	 */
+	public synchronized void shutdown() {
+		if (scanExecutor != null) {
+			scanExecutor.shutdownNow();
+			scanExecutor = null;
+		}
+	}
+
+	private synchronized ExecutorService getScanExecutor() {
+		if (scanExecutor == null) {
+			scanExecutor = Executors.newFixedThreadPool(scanWorkers, new ThreadFactoryBuilder()
+					.setNameFormat("spring-indexer-java-%d")
+					.setDaemon(true)
+					.build());
+		}
+		return scanExecutor;
 	}
 
 	@Override
@@ -79,87 +191,240 @@ public class SpringIndexerJava implements SpringIndexer {
 				.map(path -> path.toAbsolutePath().toString())
 				.collect(Collectors.toList());
 
-		scanProject(project, (String[]) files.toArray(new String[files.size()]));
+		// the project is (re-)initialized, so the classpath might have changed
+		environments.invalidate(project);
+		ParserEnvironment environment = environments.get(project);
+
+		SymbolCacheKey cacheKey = getCacheKey(project, environment.getClasspathEntries());
+		Map<String, SymbolCacheEntry> cachedEntries = this.cache.retrieve(cacheKey);
+
+		Map<String, String> contentHashes = new HashMap<>();
+		for (String file : files) {
+			contentHashes.put(file, getContentHash(file));
+		}
+
+		ProjectCacheEntries entries = new ProjectCacheEntries(cacheKey);
+		Map<String, String> filesToScan = new LinkedHashMap<>();
+
+		for (String file : files) {
+			String contentHash = contentHashes.get(file);
+			SymbolCacheEntry cachedEntry = cachedEntries.get(file);
+
+			if (cachedEntry != null && contentHash != null && contentHash.equals(cachedEntry.getContentHash())
+					&& isUpToDate(cachedEntry.getDependencies(), contentHashes)) {
+				String docURI = UriUtil.toUri(new File(file)).toString();
+				for (EnhancedSymbolInformation enhancedSymbol : cachedEntry.getSymbols()) {
+					symbolHandler.addSymbol(project, docURI, enhancedSymbol);
+				}
+				entries.put(cachedEntry);
+			}
+			else {
+				filesToScan.put(file, contentHash);
+			}
+		}
+
+		log.info("scan java files for symbols for project: {} - cached files: {} - files to scan: {}", project.getElementName(), entries.size(), filesToScan.size());
+
+		if (!filesToScan.isEmpty()) {
+			Map<String, ScannedFile> scannedFiles = scanProject(project, (String[]) filesToScan.keySet().toArray(new String[filesToScan.size()]), environment);
+
+			// do not store incomplete results in the cache
+			if (scannedFiles == null) {
+				projectCacheEntries.remove(project.getLocationUri());
+				return;
+			}
+
+			entries.update(filesToScan, scannedFiles);
+		}
+
+		projectCacheEntries.put(project.getLocationUri(), entries);
+
+		if (!filesToScan.isEmpty() || entries.size() != cachedEntries.size()) {
+			this.cache.store(cacheKey, entries.getAll());
+		}
+	}
+
+	@Override
+	public void updateFile(IJavaProject project, String docURI, String content, IProgressMonitor monitor) throws Exception {
+		ScannedFile scannedFile = new ScannedFile();
+		scanFile(project, docURI, content, environments.get(project), scannedFile, monitor);
+
+		String file = new File(new URI(docURI)).getAbsolutePath();
+		String contentHash = Hashing.sha256().hashBytes(content.getBytes(StandardCharsets.UTF_8)).toString();
+		updateCache(project, Collections.singletonMap(file, contentHash), ImmutableMap.of(file, scannedFile));
+	}
+
+
+	@Override
+	public void updateFiles(IJavaProject project, String[] docURIs, IProgressMonitor monitor) throws Exception {
+		String[] files = new String[docURIs.length];
+		for (int i = 0; i < docURIs.length; i++) {
+			files[i] = new File(new URI(docURIs[i])).getAbsolutePath();
+		}
+
+		Map<String, String> contentHashes = new HashMap<>();
+		for (String file : files) {
+			contentHashes.put(file, getContentHash(file));
+		}
+
+		Map<String, ScannedFile> scannedFiles = new HashMap<>();
+		scanFiles(project, environments.get(project), files, scannedFiles, monitor);
+		updateCache(project, contentHashes, scannedFiles);
 	}
 
 	@Override
-	public void updateFile(IJavaProject project, String docURI, String content) throws Exception {
-		String[] classpathEntries = getClasspathEntries(project);
-		scanFile(project, docURI, content, classpathEntries);
+	public void removeFiles(IJavaProject project, String[] docURIs) throws Exception {
+		ProjectCacheEntries entries = projectCacheEntries.get(project.getLocationUri());
+		if (entries != null) {
+			for (String docURI : docURIs) {
+				entries.remove(new File(new URI(docURI)).getAbsolutePath());
+			}
+			this.cache.store(entries.getCacheKey(), entries.getAll());
+		}
+	}
+
+	@Override
+	public void removeProject(IJavaProject project) throws Exception {
+		// the symbol cache of the project is kept, the project might just be closed and opened again later
+		projectCacheEntries.remove(project.getLocationUri());
+	}
+
+	private void updateCache(IJavaProject project, Map<String, String> contentHashes, Map<String, ScannedFile> scannedFiles) {
+		ProjectCacheEntries entries = projectCacheEntries.get(project.getLocationUri());
+		if (entries != null) {
+			entries.update(contentHashes, scannedFiles);
+			this.cache.store(entries.getCacheKey(), entries.getAll());
+		}
+	}
+
+	private static boolean isUpToDate(Map<String, String> dependencies, Map<String, String> contentHashes) {
+		for (Map.Entry<String, String> dependency : dependencies.entrySet()) {
+			String contentHash = contentHashes.get(dependency.getKey());
+			if (contentHash == null || !contentHash.equals(dependency.getValue())) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private Map<String, ScannedFile> scanProject(IJavaProject project, String[] files, ParserEnvironment environment) {
+		int minFilesPerBatch = getMinFilesPerBatch();
+		int workers = Math.min(getScanWorkers(), files.length / minFilesPerBatch);
+		if (workers <= 1) {
+			try {
+				Map<String, ScannedFile> result = new HashMap<>();
+				scanFiles(project, environment, files, result, null);
+				return result;
+			}
+			catch (Exception e) {
+				log.error("error parsing all Java source files from project: " + project.getElementName(), e);
+				return null;
+			}
+		}
+		else {
+			return scanProjectInParallel(project, files, environment, workers, minFilesPerBatch);
+		}
 	}
 
+	private Map<String, ScannedFile> scanProjectInParallel(IJavaProject project, String[] files, ParserEnvironment environment, int workers, int minFilesPerBatch) {
+		long start = System.currentTimeMillis();
+
+		// use a few more batches than workers, so that workers that finish early can pick up remaining work
+		int batchSize = Math.max(minFilesPerBatch, (files.length + workers * 4 - 1) / (workers * 4));
 
-	private void scanProject(IJavaProject project, String[] files) {
+		ExecutorService executor = getScanExecutor();
+		List<Future<Map<String, ScannedFile>>> batches = new ArrayList<>();
 		try {
-			ASTParser parser = ASTParser.newParser(AST.JLS11);
-			String[] classpathEntries = getClasspathEntries(project);
 
-			scanFiles(project, parser, files, classpathEntries);
+			for (int i = 0; i < files.length; i += batchSize) {
+				String[] batch = Arrays.copyOfRange(files, i, Math.min(i + batchSize, files.length));
+
+				batches.add(executor.submit(() -> {
+					Map<String, ScannedFile> batchResult = new HashMap<>();
+					scanFiles(project, environment, batch, batchResult, null);
+					return batchResult;
+				}));
+			}
+
+			Map<String, ScannedFile> result = new HashMap<>();
+			for (Future<Map<String, ScannedFile>> batch : batches) {
+				result.putAll(batch.get());
+			}
+
+			log.info("parallel scan of project {} with {} files in {} batches on {} workers took {}ms", project.getElementName(), files.length, batches.size(), workers, System.currentTimeMillis() - start);
+			return result;
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return null;
 		}
 		catch (Exception e) {
 			log.error("error parsing all Java source files from project: " + project.getElementName(), e);
+			return null;
+		}
+		finally {
+			// batches of a failed scan don't need to continue
+			for (Future<Map<String, ScannedFile>> batch : batches) {
+				batch.cancel(true);
+			}
 		}
 	}
 
-	private void scanFile(IJavaProject project, String docURI, String content, String[] classpathEntries) throws Exception {
-		ASTParser parser = ASTParser.newParser(AST.JLS11);
-		Map<String, String> options = JavaCore.getOptions();
-		JavaCore.setComplianceOptions(JavaCore.VERSION_11, options);
-		parser.setCompilerOptions(options);
-		parser.setKind(ASTParser.K_COMPILATION_UNIT);
-		parser.setStatementsRecovery(true);
-		parser.setBindingsRecovery(true);
-		parser.setResolveBindings(true);
-		parser.setIgnoreMethodBodies(false);
-
-		String[] sourceEntries = new String[] {};
-		parser.setEnvironment(classpathEntries, sourceEntries, null, false);
+	private void scanFile(IJavaProject project, String docURI, String content, ParserEnvironment environment, ScannedFile scannedFile, IProgressMonitor monitor) throws Exception {
+		ASTParser parser = environment.createParser();
 
 		String unitName = docURI.substring(docURI.lastIndexOf("/"));
 		parser.setUnitName(unitName);
 		parser.setSource(content.toCharArray());
 
-		CompilationUnit cu = (CompilationUnit) parser.createAST(null);
+		CompilationUnit cu = (CompilationUnit) parser.createAST(monitor);
+
+		if (monitor != null && monitor.isCanceled()) {
+			throw new OperationCanceledException();
+		}
 
 		if (cu != null) {
 			AtomicReference<TextDocument> docRef = new AtomicReference<>();
-			scanAST(project, cu, docURI, docRef, content);
+			scanAST(project, cu, docURI, docRef, content, scannedFile);
 		}
 	}
 
-	private void scanFiles(IJavaProject project, ASTParser parser, String[] javaFiles, String[] classpathEntries) throws Exception {
-
-		Map<String, String> options = JavaCore.getOptions();
-		JavaCore.setComplianceOptions(JavaCore.VERSION_11, options);
-		parser.setCompilerOptions(options);
-		parser.setKind(ASTParser.K_COMPILATION_UNIT);
-		parser.setStatementsRecovery(true);
-		parser.setBindingsRecovery(true);
-		parser.setResolveBindings(true);
-		parser.setIgnoreMethodBodies(false);
-
-		String[] sourceEntries = new String[] {};
-		parser.setEnvironment(classpathEntries, sourceEntries, null, false);
+	private void scanFiles(IJavaProject project, ParserEnvironment environment, String[] javaFiles, Map<String, ScannedFile> scannedFiles, IProgressMonitor monitor) throws Exception {
+		// every scan gets its own parser and therefore its own name environment
+		ASTParser parser = environment.createParser();
 
 		FileASTRequestor requestor = new FileASTRequestor() {
 			@Override
 			public void acceptAST(String sourceFilePath, CompilationUnit cu) {
+				if (monitor != null && monitor.isCanceled()) {
+					throw new OperationCanceledException();
+				}
+
 				String docURI = UriUtil.toUri(new File(sourceFilePath)).toString();
 				AtomicReference<TextDocument> docRef = new AtomicReference<>();
-				scanAST(project, cu, docURI, docRef, null);
+
+				// remember the symbols and types per file, so that they can be stored in the symbol cache
+				ScannedFile scannedFile = scannedFiles.computeIfAbsent(sourceFilePath, f -> new ScannedFile());
+				scanAST(project, cu, docURI, docRef, null, scannedFile);
 			}
 		};
 
-		parser.createASTs(javaFiles, null, new String[0], requestor, null);
+		parser.createASTs(javaFiles, null, new String[0], requestor, monitor);
 	}
 
-	private void scanAST(final IJavaProject project, final CompilationUnit cu, final String docURI, AtomicReference<TextDocument> docRef, final String content) {
+	private void scanAST(final IJavaProject project, final CompilationUnit cu, final String docURI, AtomicReference<TextDocument> docRef, final String content, final ScannedFile scannedFile) {
+		SymbolHandler handler = (symbolProject, symbolDocURI, enhancedSymbol) -> {
+			scannedFile.symbols.add(enhancedSymbol);
+			symbolHandler.addSymbol(symbolProject, symbolDocURI, enhancedSymbol);
+		};
+
 		cu.accept(new ASTVisitor() {
 
 			@Override
 			public boolean visit(TypeDeclaration node) {
 				try {
-					extractSymbolInformation(project, node, docURI, docRef, content);
+					scannedFile.addTypeDeclaration(node.resolveBinding());
+					extractSymbolInformation(project, node, docURI, docRef, content, handler);
 				}
 				catch (Exception e) {
 					log.error("error extracting symbol information in project '" + project.getElementName() + "' - for docURI '" + docURI + "' - on node: " + node.toString(), e);
@@ -167,10 +432,22 @@ public class SpringIndexerJava implements SpringIndexer {
 				return super.visit(node);
 			}
 
+			@Override
+			public boolean visit(AnnotationTypeDeclaration node) {
+				scannedFile.addTypeDeclaration(node.resolveBinding());
+				return super.visit(node);
+			}
+
+			@Override
+			public boolean visit(EnumDeclaration node) {
+				scannedFile.addTypeDeclaration(node.resolveBinding());
+				return super.visit(node);
+			}
+
 			@Override
 			public boolean visit(MethodDeclaration node) {
 				try {
-					extractSymbolInformation(project, node, docURI, docRef, content);
+					extractSymbolInformation(project, node, docURI, docRef, content, handler);
 				}
 				catch (Exception e) {
 					log.error("error extracting symbol information in project '" + project.getElementName() + "' - for docURI '" + docURI + "' - on node: " + node.toString(), e);
@@ -181,7 +458,8 @@ public class SpringIndexerJava implements SpringIndexer {
 			@Override
 			public boolean visit(SingleMemberAnnotation node) {
 				try {
-					extractSymbolInformation(project, node, docURI, docRef, content);
+					scannedFile.addAnnotation(node.resolveTypeBinding());
+					extractSymbolInformation(project, node, docURI, docRef, content, handler);
 				}
 				catch (Exception e) {
 					log.error("error extracting symbol information in project '" + project.getElementName() + "' - for docURI '" + docURI + "' - on node: " + node.toString(), e);
@@ -193,7 +471,8 @@ public class SpringIndexerJava implements SpringIndexer {
 			@Override
 			public boolean visit(NormalAnnotation node) {
 				try {
-					extractSymbolInformation(project, node, docURI, docRef, content);
+					scannedFile.addAnnotation(node.resolveTypeBinding());
+					extractSymbolInformation(project, node, docURI, docRef, content, handler);
 				}
 				catch (Exception e) {
 					log.error("error extracting symbol information in project '" + project.getElementName() + "' - for docURI '" + docURI + "' - on node: " + node.toString(), e);
@@ -205,7 +484,8 @@ public class SpringIndexerJava implements SpringIndexer {
 			@Override
 			public boolean visit(MarkerAnnotation node) {
 				try {
-					extractSymbolInformation(project, node, docURI, docRef, content);
+					scannedFile.addAnnotation(node.resolveTypeBinding());
+					extractSymbolInformation(project, node, docURI, docRef, content, handler);
 				}
 				catch (Exception e) {
 					log.error("error extracting symbol information in project '" + project.getElementName() + "' - for docURI '" + docURI + "' - on node: " + node.toString(), e);
@@ -216,7 +496,7 @@ public class SpringIndexerJava implements SpringIndexer {
 		});
 	}
 
-	private void extractSymbolInformation(IJavaProject project, TypeDeclaration typeDeclaration, String docURI, AtomicReference<TextDocument> docRef, String content) throws Exception {
+	private void extractSymbolInformation(IJavaProject project, TypeDeclaration typeDeclaration, String docURI, AtomicReference<TextDocument> docRef, String content, SymbolHandler handler) throws Exception {
 		Collection<SymbolProvider> providers = symbolProviders.getAll();
 		if (!providers.isEmpty()) {
 			TextDocument doc = DocumentUtils.getTempTextDocument(docURI, docRef, content);
@@ -224,14 +504,14 @@ public class SpringIndexerJava implements SpringIndexer {
 				Collection<EnhancedSymbolInformation> sbls = provider.getSymbols(typeDeclaration, doc);
 				if (sbls != null) {
 					sbls.forEach(enhancedSymbol -> {
-						symbolHandler.addSymbol(project, docURI, enhancedSymbol);
+						handler.addSymbol(project, docURI, enhancedSymbol);
 					});
 				}
 			}
 		}
 	}
 
-	private void extractSymbolInformation(IJavaProject project, MethodDeclaration methodDeclaration, String docURI, AtomicReference<TextDocument> docRef, String content) throws Exception {
+	private void extractSymbolInformation(IJavaProject project, MethodDeclaration methodDeclaration, String docURI, AtomicReference<TextDocument> docRef, String content, SymbolHandler handler) throws Exception {
 		Collection<SymbolProvider> providers = symbolProviders.getAll();
 		if (!providers.isEmpty()) {
 			TextDocument doc = DocumentUtils.getTempTextDocument(docURI, docRef, content);
@@ -239,14 +519,14 @@ public class SpringIndexerJava implements SpringIndexer {
 				Collection<EnhancedSymbolInformation> sbls = provider.getSymbols(methodDeclaration, doc);
 				if (sbls != null) {
 					sbls.forEach(enhancedSymbol -> {
-						symbolHandler.addSymbol(project, docURI, enhancedSymbol);
+						handler.addSymbol(project, docURI, enhancedSymbol);
 					});
 				}
 			}
 		}
 	}
 
-	private void extractSymbolInformation(IJavaProject project, Annotation node, String docURI, AtomicReference<TextDocument> docRef, String content) throws Exception {
+	private void extractSymbolInformation(IJavaProject project, Annotation node, String docURI, AtomicReference<TextDocument> docRef, String content, SymbolHandler handler) throws Exception {
 		ITypeBinding typeBinding = node.resolveTypeBinding();
 
 		if (typeBinding != null) {
@@ -258,14 +538,14 @@ public class SpringIndexerJava implements SpringIndexer {
 					Collection<EnhancedSymbolInformation> sbls = provider.getSymbols(node, typeBinding, metaAnnotations, doc);
 					if (sbls != null) {
 						sbls.forEach(enhancedSymbol -> {
-							symbolHandler.addSymbol(project, docURI, enhancedSymbol);
+							handler.addSymbol(project, docURI, enhancedSymbol);
 						});
 					}
 				}
 			} else {
 				SymbolInformation symbol = provideDefaultSymbol(project, node, docURI, docRef, content);
 				if (symbol != null) {
-					symbolHandler.addSymbol(project, docURI, new EnhancedSymbolInformation(symbol, null));
+					handler.addSymbol(project, docURI, new EnhancedSymbolInformation(symbol, null));
 				}
 			}
 		}
@@ -289,13 +569,242 @@ public class SpringIndexerJava implements SpringIndexer {
 		return null;
 	}
 
-	private String[] getClasspathEntries(IJavaProject project) throws Exception {
-		IClasspath classpath = project.getClasspath();
-		Stream<File> classpathEntries = IClasspathUtil.getAllBinaryRoots(classpath).stream();
-		return classpathEntries
-				.filter(file -> file.exists())
-				.map(file -> file.getAbsolutePath())
-				.toArray(String[]::new);
+	private SymbolCacheKey getCacheKey(IJavaProject project, String[] classpathEntries) {
+		// the output folders of the project contain the compiled source files of the project, changes to them
+		// are covered by the content hashes of the source files and their dependencies
+		Set<File> outputFolders = IClasspathUtil.getOutputFolders(project.getClasspath())
+				.map(folder -> canonicalFile(folder))
+				.collect(Collectors.toSet());
+
+		StringBuilder classpathFingerprint = new StringBuilder();
+		Arrays.stream(classpathEntries)
+			.sorted()
+			.forEach(entry -> {
+				File file = new File(entry);
+				if (!outputFolders.contains(canonicalFile(file))) {
+					classpathFingerprint.append(entry).append(':').append(getFingerprint(file)).append(';');
+				}
+			});
+
+		String classpathHash = Hashing.sha256().hashUnencodedChars(classpathFingerprint).toString();
+		return new SymbolCacheKey("java-" + project.getElementName() + "-" + project.getLocationUri(), GENERATION + "-" + classpathHash);
+	}
+
+	private String getFingerprint(File classpathEntry) {
+		if (classpathEntry.isFile()) {
+			String path = classpathEntry.getAbsolutePath();
+			long length = classpathEntry.length();
+			long lastModified = classpathEntry.lastModified();
+
+			JarFingerprint fingerprint = jarFingerprints.getIfPresent(path);
+			if (fingerprint == null || !fingerprint.isUpToDate(length, lastModified)) {
+				fingerprint = new JarFingerprint(length, lastModified, getJarFingerprint(classpathEntry));
+				jarFingerprints.put(path, fingerprint);
+			}
+			return fingerprint.getFingerprint();
+		}
+		else if (classpathEntry.isDirectory()) {
+			return getFolderFingerprint(classpathEntry);
+		}
+		return "";
+	}
+
+	/**
+	 * The central directory of a jar lists name, size, and checksum of all entries, which is enough to
+	 * tell whether the content of the jar changed without reading the whole jar.
+	 */
+	private String getJarFingerprint(File jar) {
+		Hasher hasher = Hashing.sha256().newHasher();
+		try (ZipFile zipFile = new ZipFile(jar)) {
+			Enumeration<? extends ZipEntry> entries = zipFile.entries();
+			while (entries.hasMoreElements()) {
+				ZipEntry entry = entries.nextElement();
+				hasher.putUnencodedChars(entry.getName()).putLong(entry.getCrc()).putLong(entry.getSize());
+			}
+			return hasher.hash().toString();
+		}
+		catch (IOException e) {
+			log.error("error computing fingerprint for classpath entry: " + jar, e);
+			return jar.length() + ":" + jar.lastModified();
+		}
+	}
+
+	/**
+	 * The modification time of a folder does not change when files in nested folders change,
+	 * so all files in the folder are taken into account.
+	 */
+	private String getFolderFingerprint(File folder) {
+		Path folderPath = folder.toPath();
+		Hasher hasher = Hashing.sha256().newHasher();
+		try (Stream<Path> files = Files.walk(folderPath)) {
+			files.filter(Files::isRegularFile).sorted().forEach(path -> {
+				File file = path.toFile();
+				hasher.putUnencodedChars(folderPath.relativize(path).toString()).putLong(file.length()).putLong(file.lastModified());
+			});
+			return hasher.hash().toString();
+		}
+		catch (IOException e) {
+			log.error("error computing fingerprint for classpath entry: " + folder, e);
+			return Long.toString(folder.lastModified());
+		}
+	}
+
+	private static File canonicalFile(File file) {
+		try {
+			return file.getCanonicalFile();
+		}
+		catch (IOException e) {
+			return file.getAbsoluteFile();
+		}
+	}
+
+	private String getContentHash(String file) {
+		try {
+			return Hashing.sha256().hashBytes(Files.readAllBytes(Paths.get(file))).toString();
+		}
+		catch (IOException e) {
+			log.error("error computing content hash for file: " + file, e);
+			return null;
+		}
+	}
+
+	/**
+	 * Symbols of a file from a scan, together with the types the file declares and the types
+	 * the symbols might depend on
+	 */
+	private static class ScannedFile {
+
+		private final List<EnhancedSymbolInformation> symbols = new ArrayList<>();
+		private final List<String> declaredTypes = new ArrayList<>();
+		private final Set<String> referencedTypes = new HashSet<>();
+		private final Set<String> annotationTypes = new HashSet<>();
+
+		public void addTypeDeclaration(ITypeBinding type) {
+			if (type != null) {
+				declaredTypes.add(type.getErasure().getQualifiedName());
+				addReferencedType(type.getSuperclass());
+				for (ITypeBinding superInterface : type.getInterfaces()) {
+					addReferencedType(superInterface);
+				}
+			}
+		}
+
+		public void addAnnotation(ITypeBinding annotationType) {
+			// symbols of annotations depend on the whole hierarchy of meta-annotations
+			if (annotationType != null && annotationTypes.add(annotationType.getQualifiedName())) {
+				referencedTypes.addAll(AnnotationHierarchies.getTransitiveSuperAnnotations(annotationType));
+			}
+		}
+
+		private void addReferencedType(ITypeBinding type) {
+			if (type != null) {
+				referencedTypes.add(type.getErasure().getQualifiedName());
+			}
+		}
+	}
+
+	/**
+	 * Fingerprint of the content of a jar, together with the size and modification time of the jar it was computed for
+	 */
+	private static class JarFingerprint {
+
+		private final long length;
+		private final long lastModified;
+		private final String fingerprint;
+
+		public JarFingerprint(long length, long lastModified, String fingerprint) {
+			this.length = length;
+			this.lastModified = lastModified;
+			this.fingerprint = fingerprint;
+		}
+
+		public boolean isUpToDate(long length, long lastModified) {
+			return this.length == length && this.lastModified == lastModified;
+		}
+
+		public String getFingerprint() {
+			return fingerprint;
+		}
+	}
+
+	/**
+	 * The symbol cache entries of all files of a project
+	 */
+	private static class ProjectCacheEntries {
+
+		private final SymbolCacheKey cacheKey;
+		private final Map<String, SymbolCacheEntry> entries;
+
+		public ProjectCacheEntries(SymbolCacheKey cacheKey) {
+			this.cacheKey = cacheKey;
+			this.entries = new HashMap<>();
+		}
+
+		public SymbolCacheKey getCacheKey() {
+			return cacheKey;
+		}
+
+		public synchronized int size() {
+			return entries.size();
+		}
+
+		public synchronized List<SymbolCacheEntry> getAll() {
+			return ImmutableList.copyOf(entries.values());
+		}
+
+		public synchronized void put(SymbolCacheEntry entry) {
+			entries.put(entry.getFile(), entry);
+		}
+
+		public synchronized void remove(String file) {
+			entries.remove(file);
+		}
+
+		/**
+		 * Replaces the entries of the scanned files, the dependencies of the scanned files are resolved
+		 * to the files of the project that declare the referenced types.
+		 */
+		public synchronized void update(Map<String, String> contentHashes, Map<String, ScannedFile> scannedFiles) {
+			Map<String, String> declaringFiles = new HashMap<>();
+			for (SymbolCacheEntry entry : entries.values()) {
+				if (!contentHashes.containsKey(entry.getFile())) {
+					for (String type : entry.getDeclaredTypes()) {
+						declaringFiles.put(type, entry.getFile());
+					}
+				}
+			}
+			for (String file : contentHashes.keySet()) {
+				ScannedFile scannedFile = scannedFiles.get(file);
+				if (scannedFile != null) {
+					for (String type : scannedFile.declaredTypes) {
+						declaringFiles.put(type, file);
+					}
+				}
+			}
+
+			for (Map.Entry<String, String> fileHash : contentHashes.entrySet()) {
+				String file = fileHash.getKey();
+				ScannedFile scannedFile = scannedFiles.getOrDefault(file, new ScannedFile());
+
+				Map<String, String> dependencies = new TreeMap<>();
+				for (String type : scannedFile.referencedTypes) {
+					String declaringFile = declaringFiles.get(type);
+					if (declaringFile != null && !declaringFile.equals(file)) {
+						dependencies.put(declaringFile, getContentHash(declaringFile, contentHashes));
+					}
+				}
+
+				entries.put(file, new SymbolCacheEntry(file, fileHash.getValue(), scannedFile.symbols, scannedFile.declaredTypes, dependencies));
+			}
+		}
+
+		private String getContentHash(String file, Map<String, String> contentHashes) {
+			if (contentHashes.containsKey(file)) {
+				return contentHashes.get(file);
+			}
+			SymbolCacheEntry entry = entries.get(file);
+			return entry != null ? entry.getContentHash() : null;
+		}
 	}
 
 }
@@ -11,6 +11,7 @@
 package org.springframework.ide.vscode.boot.java.utils;
 
 import java.io.File;
+import java.net.URI;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.List;
@@ -19,6 +20,7 @@ import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 
 import org.apache.commons.io.FileUtils;
+import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.lsp4xml.dom.DOMDocument;
 import org.eclipse.lsp4xml.dom.DOMNode;
 import org.eclipse.lsp4xml.dom.DOMParser;
@@ -65,10 +67,25 @@ public class SpringIndexerXML implements SpringIndexer {
 	}
 
 	@Override
-	public void updateFile(IJavaProject project, String docURI, String content) throws Exception {
+	public void updateFile(IJavaProject project, String docURI, String content, IProgressMonitor monitor) throws Exception {
 		scanFile(project, content, docURI);
 	}
 
+	@Override
+	public void updateFiles(IJavaProject project, String[] docURIs, IProgressMonitor monitor) throws Exception {
+		for (String docURI : docURIs) {
+			scanFile(project, new File(new URI(docURI)).getAbsolutePath());
+		}
+	}
+
+	@Override
+	public void removeFiles(IJavaProject project, String[] docURIs) throws Exception {
+	}
+
+	@Override
+	public void removeProject(IJavaProject project) throws Exception {
+	}
+
 	private void scanProject(IJavaProject project, String[] files) {
 		for (String file : files) {
 			scanFile(project, file);
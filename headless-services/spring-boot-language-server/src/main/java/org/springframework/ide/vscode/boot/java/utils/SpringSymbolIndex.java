@@ -17,19 +17,28 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.TreeMap;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
-import java.util.concurrent.ExecutorService;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
-import org.apache.commons.io.FileUtils;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.lsp4j.SymbolInformation;
 import org.eclipse.lsp4j.TextDocumentIdentifier;
 import org.slf4j.Logger;
@@ -47,7 +56,6 @@ import org.springframework.ide.vscode.commons.languageserver.java.ProjectObserve
 import org.springframework.ide.vscode.commons.languageserver.util.SimpleLanguageServer;
 import org.springframework.ide.vscode.commons.languageserver.util.SimpleWorkspaceService;
 import org.springframework.ide.vscode.commons.util.Futures;
-import org.springframework.ide.vscode.commons.util.StringUtil;
 
 /**
  * @author Martin Lippert
@@ -58,20 +66,35 @@ public class SpringSymbolIndex {
 
 	private static final int MAX_NUMBER_OF_SYMBOLS_IN_RESPONSE = 50;
 
+	public static final long DEFAULT_UPDATE_DELAY = 100;
+	public static final long DEFAULT_MAX_UPDATE_DELAY = 1000;
+
 	private final SimpleLanguageServer server;
 	private final BootLanguageServerParams params;
 	private final JavaProjectFinder projectFinder;
 
-	private final List<SymbolInformation> symbols;
-	private final List<SymbolAddOnInformation> addonInformation;
-
+	// symbols and additional information are stored per document, documents are tracked per project,
+	// so that replacing or removing the symbols of a document or project only touches the affected entries
 	private final ConcurrentMap<String, List<SymbolInformation>> symbolsByDoc;
 	private final ConcurrentMap<String, List<SymbolAddOnInformation>> addonInformationByDoc;
-
-	private final ConcurrentMap<String, List<SymbolInformation>> symbolsByProject;
-	private final ConcurrentMap<String, List<SymbolAddOnInformation>> addonInformationByProject;
-
-	private final ExecutorService updateQueue;
+	private final ConcurrentMap<String, Set<String>> docsByProject;
+
+	// search index for all symbols, the documents that changed are updated in the index by the next query
+	private final SymbolSearchIndex searchIndex;
+	private final Set<String> changedDocs;
+
+	// snapshot of all additional information for readers, re-created lazily after modifications
+	private final AtomicLong modificationCount;
+	private volatile Snapshot<SymbolAddOnInformation> addonInformationSnapshot;
+
+	private final ScheduledExecutorService updateQueue;
+	private final ConcurrentMap<String, PendingUpdate> pendingUpdates;
+	private final ConcurrentMap<String, PendingUpdate> runningUpdates;
+	private final AtomicBoolean updateScheduled;
+	private ScheduledFuture<?> scheduledUpdate;
+	private long updateDelay = DEFAULT_UPDATE_DELAY;
+	private long maxUpdateDelay = DEFAULT_MAX_UPDATE_DELAY;
+	private long firstPendingUpdate;
 	private SpringIndexer[] indexer;
 
 	private static final Logger log = LoggerFactory.getLogger(SpringSymbolIndex.class);
@@ -111,18 +134,18 @@ public class SpringSymbolIndex {
 		return params.projectObserver;
 	}
 
-	public SpringSymbolIndex(SimpleLanguageServer server, BootLanguageServerParams params, AnnotationHierarchyAwareLookup<SymbolProvider> specificProviders) {
+	public SpringSymbolIndex(SimpleLanguageServer server, BootLanguageServerParams params, AnnotationHierarchyAwareLookup<SymbolProvider> specificProviders, SymbolCache symbolCache) {
 		log.debug("Creating {}", this);
 		this.server = server;
 		this.params = params;
 		this.projectFinder = params.projectFinder;
 
-		this.symbols = new ArrayList<>();
 		this.symbolsByDoc = new ConcurrentHashMap<>();
-		this.symbolsByProject = new ConcurrentHashMap<>();
-		this.addonInformation = new ArrayList<>();
 		this.addonInformationByDoc = new ConcurrentHashMap<>();
-		this.addonInformationByProject = new ConcurrentHashMap<>();
+		this.docsByProject = new ConcurrentHashMap<>();
+		this.searchIndex = new SymbolSearchIndex();
+		this.changedDocs = ConcurrentHashMap.newKeySet();
+		this.modificationCount = new AtomicLong();
 
 		SymbolHandler handler = new SymbolHandler() {
 			@Override
@@ -134,11 +157,14 @@ public class SpringSymbolIndex {
 		Map<String, SpringIndexerXMLNamespaceHandler> namespaceHandler = new HashMap<>();
 		namespaceHandler.put("http://www.springframework.org/schema/beans", new SpringIndexerXMLNamespaceHandlerBeans());
 		springIndexerXML = new SpringIndexerXML(handler, namespaceHandler);
-		springIndexerJava = new SpringIndexerJava(handler, specificProviders);
+		springIndexerJava = new SpringIndexerJava(handler, specificProviders, symbolCache, new ParserEnvironmentCache(getProjectObserver()));
 
 		this.indexer = new SpringIndexer[] {springIndexerJava};
 
-		this.updateQueue = Executors.newSingleThreadExecutor();
+		this.updateQueue = Executors.newSingleThreadScheduledExecutor();
+		this.pendingUpdates = new ConcurrentHashMap<>();
+		this.runningUpdates = new ConcurrentHashMap<>();
+		this.updateScheduled = new AtomicBoolean(false);
 
 		getWorkspaceService().onDidChangeWorkspaceFolders(evt -> {
 			log.debug("workspace roots have changed event arrived - added: " + evt.getEvent().getAdded() + " - removed: " + evt.getEvent().getRemoved());
@@ -196,6 +222,26 @@ public class SpringSymbolIndex {
 		}
 	}
 
+	/**
+	 * Configures the number of threads used to parse Java source files in parallel
+	 * when a project is scanned as a whole, and the minimum number of files per thread.
+	 */
+	public void configureScanWorkers(int scanWorkers, int minFilesPerBatch) {
+		springIndexerJava.setScanWorkers(scanWorkers);
+		springIndexerJava.setMinFilesPerBatch(minFilesPerBatch);
+	}
+
+	/**
+	 * Configures how long document updates are delayed (in milliseconds), so that updates that arrive in
+	 * quick succession, e.g. saving several files or switching branches, are processed together. Every
+	 * new update restarts the delay, but the updates are processed at the latest once the first of them
+	 * waited for the maximum delay.
+	 */
+	public synchronized void configureUpdateDelay(long updateDelay, long maxUpdateDelay) {
+		this.updateDelay = Math.max(0, updateDelay);
+		this.maxUpdateDelay = Math.max(this.updateDelay, maxUpdateDelay);
+	}
+
 	public void shutdown() {
 		try {
 			synchronized(this) {
@@ -203,6 +249,8 @@ public class SpringSymbolIndex {
 					updateQueue.shutdownNow();
 				}
 
+				springIndexerJava.shutdown();
+
 				if (getProjectObserver() != null) {
 					getProjectObserver().removeListener(projectListener);
 				}
@@ -258,31 +306,15 @@ public class SpringSymbolIndex {
 	}
 
 	public CompletableFuture<Void> createDocument(String docURI) {
-		synchronized(this) {
-			List<CompletableFuture<Void>> futures = new ArrayList<>();
-
-			for (SpringIndexer indexer : this.indexer) {
-				if (indexer.isInterestedIn(docURI)) {
-					Optional<IJavaProject> maybeProject = projectFinder.find(new TextDocumentIdentifier(docURI));
-
-					if (maybeProject.isPresent()) {
-						try {
-							String content = FileUtils.readFileToString(new File(new URI(docURI)));
-							UpdateItem updateItem = new UpdateItem(maybeProject.get(), docURI, content, indexer);
-							futures.add(CompletableFuture.runAsync(updateItem, this.updateQueue));
-						}
-						catch (Exception e) {
-							log.error("", e);
-							futures.add(Futures.error(e));
-						}
-					}
-				}
-			}
-
-			return CompletableFuture.allOf((CompletableFuture[]) futures.toArray(new CompletableFuture[futures.size()]));
-		}
+		return updateDocument(docURI, null);
 	}
 
+	/**
+	 * Schedules an update of the symbols for the given document. If content is <code>null</code>,
+	 * the content of the document is read from disc when the update is processed. The update is processed
+	 * after the configured delay, updates of the same document that are not yet processed are replaced by the
+	 * newer update and a running update of the same document is cancelled.
+	 */
 	public CompletableFuture<Void> updateDocument(String docURI, String content) {
 		synchronized(this) {
 			List<CompletableFuture<Void>> futures = new ArrayList<>();
@@ -291,17 +323,9 @@ public class SpringSymbolIndex {
 				if (indexer.isInterestedIn(docURI)) {
 					Optional<IJavaProject> maybeProject = projectFinder.find(new TextDocumentIdentifier(docURI));
 					if (maybeProject.isPresent()) {
-						try {
-							if (content == null) {
-								content = FileUtils.readFileToString(new File(new URI(docURI)));
-							}
-
-							UpdateItem updateItem = new UpdateItem(maybeProject.get(), docURI, content, indexer);
-							futures.add(CompletableFuture.runAsync(updateItem, this.updateQueue));
-						}
-						catch (Exception e) {
-							log.error("{}", e);
-						}
+						PendingUpdate update = new PendingUpdate(maybeProject.get(), docURI, content, indexer);
+						scheduleUpdate(update);
+						futures.add(update.future);
 					}
 				}
 			}
@@ -312,6 +336,17 @@ public class SpringSymbolIndex {
 	public CompletableFuture<Void> deleteDocument(String deletedDocURI) {
 		synchronized(this) {
 			try {
+				// a pending or running update of the document is obsolete now
+				PendingUpdate pendingUpdate = pendingUpdates.remove(deletedDocURI);
+				if (pendingUpdate != null) {
+					pendingUpdate.cancel();
+					pendingUpdate.future.complete(null);
+				}
+				PendingUpdate runningUpdate = runningUpdates.get(deletedDocURI);
+				if (runningUpdate != null) {
+					runningUpdate.cancel();
+				}
+
 				Optional<IJavaProject> maybeProject = projectFinder.find(new TextDocumentIdentifier(deletedDocURI));
 				if (maybeProject.isPresent()) {
 					DeleteItem deleteItem = new DeleteItem(maybeProject.get(), deletedDocURI);
@@ -327,25 +362,23 @@ public class SpringSymbolIndex {
 		return null;
 	}
 
+	/**
+	 * Returns the symbols matching the query, ordered by document URI and by their position in the
+	 * document, so that a truncated result contains the same symbols every time.
+	 */
 	public List<SymbolInformation> getAllSymbols(String query) {
+		SymbolSearchIndex searchIndex = getSearchIndex();
 		if (query != null && query.length() > 0) {
-			synchronized(this.symbols) {
-				return searchMatchingSymbols(this.symbols, query, MAX_NUMBER_OF_SYMBOLS_IN_RESPONSE);
-			}
+			return searchMatchingSymbols(searchIndex, query, MAX_NUMBER_OF_SYMBOLS_IN_RESPONSE);
 		} else {
-			synchronized(this.symbols) {
-				List<SymbolInformation> subList = this.symbols.subList(0, Math.min(MAX_NUMBER_OF_SYMBOLS_IN_RESPONSE, this.symbols.size()));
-				return new ArrayList<SymbolInformation>(subList);
-			}
+			return searchIndex.getSymbols(MAX_NUMBER_OF_SYMBOLS_IN_RESPONSE);
 		}
 	}
 
 	public List<? extends SymbolInformation> getSymbols(String docURI) {
 		List<SymbolInformation> docSymbols = this.symbolsByDoc.get(docURI);
 		if (docSymbols != null) {
-			synchronized(docSymbols) {
-				return new ArrayList<SymbolInformation>(docSymbols);
-			}
+			return new ArrayList<SymbolInformation>(docSymbols);
 		}
 		else {
 			return Collections.emptyList();
@@ -354,9 +387,7 @@ public class SpringSymbolIndex {
 
 	public List<SymbolAddOnInformation> getAllAdditionalInformation(Predicate<SymbolAddOnInformation> filter) {
 		if (filter != null) {
-			synchronized(addonInformation) {
-				return addonInformation.stream().filter(filter).collect(Collectors.toList());
-			}
+			return getAddonInformationSnapshot().stream().filter(filter).collect(Collectors.toList());
 		}
 		else {
 			return Collections.emptyList();
@@ -367,9 +398,7 @@ public class SpringSymbolIndex {
 		List<SymbolAddOnInformation> info = this.addonInformationByDoc.get(docURI);
 
 		if (info != null) {
-			synchronized(info) {
-				return new ArrayList<>(info);
-			}
+			return new ArrayList<>(info);
 		}
 		else {
 			return Collections.emptyList();
@@ -379,17 +408,21 @@ public class SpringSymbolIndex {
 	/**
 	 * inserts a noop operation into the worker/update quene, which allows invokers to use the
 	 * returned future to wait for the queue items in the queue to be completed which got inserted before
-	 * this noop.
+	 * this noop. Document updates that are delayed are waited for as well.
 	 */
 	public CompletableFuture<Void> waitOperation() {
-		return CompletableFuture.runAsync(new Runnable() {
+		CompletableFuture<?>[] delayedUpdates = pendingUpdates.values().stream()
+				.map(update -> update.future)
+				.toArray(CompletableFuture[]::new);
+
+		return CompletableFuture.allOf(delayedUpdates).thenCompose(done -> CompletableFuture.runAsync(new Runnable() {
 			@Override
 			public void run() {
 			}
-		}, this.updateQueue);
+		}, this.updateQueue));
 	}
 
-	private List<SymbolInformation> searchMatchingSymbols(List<SymbolInformation> allsymbols, String query, int maxNumberOfSymbolsInResponse) {
+	private List<SymbolInformation> searchMatchingSymbols(SymbolSearchIndex searchIndex, String query, int maxNumberOfSymbolsInResponse) {
 		long limit = maxNumberOfSymbolsInResponse;
 		String locationPrefix = "";
 
@@ -411,14 +444,7 @@ public class SpringSymbolIndex {
 			query = query.substring(1);
 		}
 
-		String finalQuery = query;
-		String finalLocationPrefix = locationPrefix;
-
-		return allsymbols.stream()
-				.filter(symbol -> symbol.getLocation().getUri().startsWith(finalLocationPrefix))
-				.filter(symbol -> StringUtil.containsCharactersCaseInsensitive(symbol.getName(), finalQuery))
-				.limit(limit)
-				.collect(Collectors.toList());
+		return searchIndex.search(locationPrefix, query, limit);
 	}
 
 
@@ -453,25 +479,171 @@ public class SpringSymbolIndex {
 		}
 	}
 
-	private class UpdateItem implements Runnable {
+	/**
+	 * Adds the update to the pending updates, replacing a pending update of the same document, and cancels
+	 * a running update of the document. The update item gets scheduled with the configured delay, which
+	 * restarts as long as the item did not start yet, up to the maximum delay since the first pending update.
+	 * Called while holding the lock of the index.
+	 */
+	private void scheduleUpdate(PendingUpdate update) {
+		PendingUpdate replacedUpdate = pendingUpdates.put(update.docURI, update);
+		if (replacedUpdate != null) {
+			// whoever waits for the replaced update gets notified when the newer version got processed
+			replacedUpdate.cancel();
+			update.future.whenComplete((result, error) -> replacedUpdate.future.complete(null));
+		}
 
+		PendingUpdate runningUpdate = runningUpdates.get(update.docURI);
+		if (runningUpdate != null) {
+			runningUpdate.cancel();
+		}
+
+		long now = System.currentTimeMillis();
+		if (updateScheduled.compareAndSet(false, true)) {
+			firstPendingUpdate = now;
+			scheduledUpdate = this.updateQueue.schedule(new UpdateItem(), updateDelay, TimeUnit.MILLISECONDS);
+		}
+		else if (scheduledUpdate != null && scheduledUpdate.cancel(false)) {
+			// a steady stream of changes must not hold back the updates forever
+			long delay = Math.min(updateDelay, Math.max(0, firstPendingUpdate + maxUpdateDelay - now));
+			scheduledUpdate = this.updateQueue.schedule(new UpdateItem(), delay, TimeUnit.MILLISECONDS);
+		}
+	}
+
+	private static class PendingUpdate {
+
+		private final IJavaProject project;
 		private final String docURI;
 		private final String content;
-		private final IJavaProject project;
 		private final SpringIndexer indexer;
+		private final CompletableFuture<Void> future;
+		private final IProgressMonitor monitor;
 
-		public UpdateItem(IJavaProject project, String docURI, String content, SpringIndexer indexer) {
+		public PendingUpdate(IJavaProject project, String docURI, String content, SpringIndexer indexer) {
 			this.project = project;
 			this.docURI = docURI;
 			this.content = content;
 			this.indexer = indexer;
+			this.future = new CompletableFuture<>();
+			this.monitor = new NullProgressMonitor();
+		}
+
+		/**
+		 * A newer version of the document arrived, so the work for this version can be stopped
+		 */
+		public void cancel() {
+			monitor.setCanceled(true);
 		}
 
+		public boolean isCanceled() {
+			return monitor.isCanceled();
+		}
+	}
+
+	/**
+	 * Processes all pending updates at once. Updates that got scheduled while this item was waiting in
+	 * the queue are collapsed per document, and documents that need to be read from disc are passed to the
+	 * indexer in one batch per project. Updates that get replaced by a newer version while this item runs
+	 * are cancelled.
+	 */
+	private class UpdateItem implements Runnable {
+
 		@Override
 		public void run() {
+			updateScheduled.set(false);
+
+			List<PendingUpdate> updates = new ArrayList<>();
+			for (String docURI : pendingUpdates.keySet()) {
+				PendingUpdate update = pendingUpdates.remove(docURI);
+				if (update != null) {
+					runningUpdates.put(docURI, update);
+					updates.add(update);
+				}
+			}
+
 			try {
-				removeSymbolsByDoc(project, docURI);
-				indexer.updateFile(project, docURI, content);
+				Map<SpringIndexer, Map<IJavaProject, List<PendingUpdate>>> updatesFromDisc = new LinkedHashMap<>();
+
+				for (PendingUpdate update : updates) {
+					if (update.isCanceled()) {
+						continue;
+					}
+					else if (update.content != null) {
+						updateFile(update);
+					}
+					else if (!existsOnDisc(update.docURI)) {
+						removeFile(update);
+					}
+					else {
+						updatesFromDisc
+							.computeIfAbsent(update.indexer, indexer -> new LinkedHashMap<>())
+							.computeIfAbsent(update.project, project -> new ArrayList<>())
+							.add(update);
+					}
+				}
+
+				for (Map.Entry<SpringIndexer, Map<IJavaProject, List<PendingUpdate>>> indexerUpdates : updatesFromDisc.entrySet()) {
+					for (Map.Entry<IJavaProject, List<PendingUpdate>> projectUpdates : indexerUpdates.getValue().entrySet()) {
+						updateFiles(indexerUpdates.getKey(), projectUpdates.getKey(), projectUpdates.getValue());
+					}
+				}
+			}
+			finally {
+				for (PendingUpdate update : updates) {
+					runningUpdates.remove(update.docURI, update);
+					update.future.complete(null);
+				}
+			}
+		}
+
+		private boolean existsOnDisc(String docURI) {
+			try {
+				return new File(new URI(docURI)).isFile();
+			} catch (Exception e) {
+				log.error("{}", e);
+				return false;
+			}
+		}
+
+		private void updateFile(PendingUpdate update) {
+			try {
+				removeSymbolsByDoc(update.project, update.docURI);
+				update.indexer.updateFile(update.project, update.docURI, update.content, update.monitor);
+			} catch (OperationCanceledException e) {
+				log.debug("update of {} cancelled", update.docURI);
+			} catch (Exception e) {
+				log.error("{}", e);
+			}
+		}
+
+		private void removeFile(PendingUpdate update) {
+			try {
+				removeSymbolsByDoc(update.project, update.docURI);
+				update.indexer.removeFiles(update.project, new String[] {update.docURI});
+			} catch (Exception e) {
+				log.error("{}", e);
+			}
+		}
+
+		private void updateFiles(SpringIndexer indexer, IJavaProject project, List<PendingUpdate> updates) {
+			String[] docURIs = new String[updates.size()];
+			for (int i = 0; i < docURIs.length; i++) {
+				docURIs[i] = updates.get(i).docURI;
+				removeSymbolsByDoc(project, docURIs[i]);
+			}
+
+			// the batch is only stopped when all of its documents got newer versions
+			IProgressMonitor monitor = new NullProgressMonitor() {
+				@Override
+				public boolean isCanceled() {
+					return updates.stream().allMatch(PendingUpdate::isCanceled);
+				}
+			};
+
+			try {
+				indexer.updateFiles(project, docURIs, monitor);
+			} catch (OperationCanceledException e) {
+				log.debug("update of {} documents cancelled", docURIs.length);
 			} catch (Exception e) {
 				log.error("{}", e);
 			}
@@ -492,6 +664,12 @@ public class SpringSymbolIndex {
 		public void run() {
 			try {
 				removeSymbolsByDoc(project, docURI);
+
+				for (SpringIndexer indexer : SpringSymbolIndex.this.indexer) {
+					if (indexer.isInterestedIn(docURI)) {
+						indexer.removeFiles(project, new String[] {docURI});
+					}
+				}
 			} catch (Exception e) {
 				log.error("{}", e);
 			}
@@ -511,6 +689,9 @@ public class SpringSymbolIndex {
 		public void run() {
 			log.debug("{} starting...", this);
 			try {
+				for (SpringIndexer indexer : SpringSymbolIndex.this.indexer) {
+					indexer.removeProject(project);
+				}
 				removeSymbolsByProject(project);
 				log.debug("{} completed", this);
 			} catch (Throwable e) {
@@ -521,77 +702,29 @@ public class SpringSymbolIndex {
 	}
 
 	private void addSymbol(IJavaProject project, String docURI, EnhancedSymbolInformation enhancedSymbol) {
-		synchronized(this.symbols) {
-			symbols.add(enhancedSymbol.getSymbol());
-		}
-
-		List<SymbolInformation> docSymbols = symbolsByDoc.computeIfAbsent(docURI, s -> new ArrayList<SymbolInformation>());
-		synchronized(docSymbols) {
-			docSymbols.add(enhancedSymbol.getSymbol());
-		}
-
-		List<SymbolInformation> projectSymbols = symbolsByProject.computeIfAbsent(project.getElementName(), s -> new ArrayList<SymbolInformation>());
-		synchronized(projectSymbols) {
-			projectSymbols.add(enhancedSymbol.getSymbol());
-		}
+		symbolsByDoc.computeIfAbsent(docURI, s -> new CopyOnWriteArrayList<>()).add(enhancedSymbol.getSymbol());
 
 		if (enhancedSymbol.getAdditionalInformation() != null) {
-			synchronized(addonInformation) {
-				addonInformation.addAll(Arrays.asList(enhancedSymbol.getAdditionalInformation()));
-			}
+			addonInformationByDoc.computeIfAbsent(docURI, s -> new CopyOnWriteArrayList<>()).addAll(Arrays.asList(enhancedSymbol.getAdditionalInformation()));
+		}
 
-			List<SymbolAddOnInformation> infoByDoc = addonInformationByDoc.computeIfAbsent(docURI, s -> new ArrayList<SymbolAddOnInformation>());
-			synchronized(infoByDoc) {
-				infoByDoc.addAll(Arrays.asList(enhancedSymbol.getAdditionalInformation()));
-			}
+		docsByProject.computeIfAbsent(project.getElementName(), s -> ConcurrentHashMap.newKeySet()).add(docURI);
 
-			List<SymbolAddOnInformation> infoByProject = addonInformationByProject.computeIfAbsent(project.getElementName(), s -> new ArrayList<SymbolAddOnInformation>());
-			synchronized(infoByProject) {
-				infoByProject.addAll(Arrays.asList(enhancedSymbol.getAdditionalInformation()));
-			}
-		}
+		changedDocs.add(docURI);
+		modificationCount.incrementAndGet();
 	}
 
 	private void removeSymbolsByDoc(IJavaProject project, String docURI) {
-		List<SymbolInformation> oldSymbols = symbolsByDoc.remove(docURI);
-		if (oldSymbols != null) {
-
-			List<SymbolInformation> copy = null;
-			synchronized(oldSymbols) {
-				copy = new ArrayList<>(oldSymbols);
-			}
-
-			synchronized(this.symbols) {
-				this.symbols.removeAll(copy);
-			}
+		symbolsByDoc.remove(docURI);
+		addonInformationByDoc.remove(docURI);
 
-			List<SymbolInformation> projectSymbols = symbolsByProject.get(project.getElementName());
-			if (projectSymbols != null) {
-				synchronized(projectSymbols) {
-					projectSymbols.removeAll(copy);
-				}
-			}
+		Set<String> projectDocs = docsByProject.get(project.getElementName());
+		if (projectDocs != null) {
+			projectDocs.remove(docURI);
 		}
 
-		List<SymbolAddOnInformation> oldAddOnInformation = addonInformationByDoc.remove(docURI);
-		if (oldAddOnInformation != null) {
-
-			List<SymbolAddOnInformation> copy = null;
-			synchronized(oldAddOnInformation) {
-				copy = new ArrayList<>(oldAddOnInformation);
-			}
-
-			synchronized(addonInformation) {
-				addonInformation.removeAll(copy);
-			}
-
-			List<SymbolAddOnInformation> projectAddOns = addonInformationByProject.get(project.getElementName());
-			if (projectAddOns != null) {
-				synchronized(projectAddOns) {
-					projectAddOns.removeAll(copy);
-				}
-			}
-		}
+		changedDocs.add(docURI);
+		modificationCount.incrementAndGet();
 	}
 
 	private void removeSymbolsByProject(IJavaProject project) {
@@ -599,61 +732,65 @@ public class SpringSymbolIndex {
 		if (project.getElementName() == null) {
 			return;
 		}
-		List<SymbolInformation> oldSymbols = symbolsByProject.remove(project.getElementName());
-		if (oldSymbols != null) {
-
-			List<SymbolInformation> copy = null;
-			synchronized(oldSymbols) {
-				copy = new ArrayList<>(oldSymbols);
-			}
 
-			synchronized(this.symbols) {
-				symbols.removeAll(copy);
+		Set<String> projectDocs = docsByProject.remove(project.getElementName());
+		if (projectDocs != null) {
+			for (String docURI : projectDocs) {
+				symbolsByDoc.remove(docURI);
+				addonInformationByDoc.remove(docURI);
+				changedDocs.add(docURI);
 			}
+		}
 
-			Set<String> keySet = symbolsByDoc.keySet();
-			Iterator<String> docIter = keySet.iterator();
-			while (docIter.hasNext()) {
-				String docURI = docIter.next();
-				List<SymbolInformation> docSymbols = symbolsByDoc.get(docURI);
-				synchronized(docSymbols) {
-					docSymbols.removeAll(copy);
+		modificationCount.incrementAndGet();
+	}
 
-					if (docSymbols.isEmpty()) {
-						docIter.remove();
-					}
-				}
+	private SymbolSearchIndex getSearchIndex() {
+		// documents are marked as changed after their symbols got modified and unmarked before they are read
+		// here, so that a modification while the index is updated is applied by the next query
+		synchronized (searchIndex) {
+			Iterator<String> docs = changedDocs.iterator();
+			while (docs.hasNext()) {
+				String docURI = docs.next();
+				docs.remove();
+				searchIndex.update(docURI, symbolsByDoc.get(docURI));
 			}
 		}
+		return searchIndex;
+	}
 
-		List<SymbolAddOnInformation> oldAddInInformation = addonInformationByProject.remove(project.getElementName());
-		if (oldAddInInformation != null) {
+	private List<SymbolAddOnInformation> getAddonInformationSnapshot() {
+		Snapshot<SymbolAddOnInformation> snapshot = this.addonInformationSnapshot;
+		long version = modificationCount.get();
 
-			List<SymbolAddOnInformation> copy = null;
-			synchronized(oldAddInInformation) {
-				copy = new ArrayList<>(oldAddInInformation);
-			}
+		if (snapshot == null || snapshot.version != version) {
+			snapshot = new Snapshot<>(version, addonInformationByDoc);
+			this.addonInformationSnapshot = snapshot;
+		}
 
-			synchronized(this.addonInformation) {
-				addonInformation.removeAll(copy);
-			}
+		return snapshot.items;
+	}
 
-			Set<String> keySet = addonInformationByDoc.keySet();
-			Iterator<String> docIter = keySet.iterator();
-			while (docIter.hasNext()) {
-				String docURI = docIter.next();
-				List<SymbolAddOnInformation> docAddons = addonInformationByDoc.get(docURI);
+	/**
+	 * Immutable copy of all elements of the index at a given modification count. If the index is modified
+	 * while the snapshot is created, the snapshot gets the old modification count and will be re-created
+	 * by the next reader. Elements are ordered by document, so that every snapshot of the same elements
+	 * has the same order.
+	 */
+	private static class Snapshot<T> {
 
-				synchronized(docAddons) {
-					docAddons.removeAll(copy);
+		private final long version;
+		private final List<T> items;
 
-					if (docAddons.isEmpty()) {
-						docIter.remove();
-					}
-				}
+		public Snapshot(long version, Map<String, List<T>> itemsByDoc) {
+			this.version = version;
+
+			List<T> allItems = new ArrayList<>();
+			for (List<T> docItems : new TreeMap<>(itemsByDoc).values()) {
+				allItems.addAll(docItems);
 			}
+			this.items = Collections.unmodifiableList(allItems);
 		}
-
 	}
 
 }
@@ -0,0 +1,49 @@
+/*******************************************************************************
+ * Copyright (c) 2019 Pivotal, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal, Inc. - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.vscode.boot.java.utils;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Persistent store for symbols computed by a {@link SpringIndexer}, used to avoid
+ * re-parsing unchanged files when a project gets indexed again (e.g. on startup).
+ */
+public interface SymbolCache {
+
+	SymbolCache NULL = new SymbolCache() {
+
+		@Override
+		public Map<String, SymbolCacheEntry> retrieve(SymbolCacheKey cacheKey) {
+			return Collections.emptyMap();
+		}
+
+		@Override
+		public void store(SymbolCacheKey cacheKey, Collection<SymbolCacheEntry> entries) {
+		}
+
+		@Override
+		public void remove(SymbolCacheKey cacheKey) {
+		}
+	};
+
+	/**
+	 * Returns the cached entries for the given key, mapped by file. Returns an empty map
+	 * if nothing is cached for the key or if the cached data is out of date.
+	 */
+	Map<String, SymbolCacheEntry> retrieve(SymbolCacheKey cacheKey);
+
+	void store(SymbolCacheKey cacheKey, Collection<SymbolCacheEntry> entries);
+
+	void remove(SymbolCacheKey cacheKey);
+
+}
@@ -0,0 +1,71 @@
+/*******************************************************************************
+ * Copyright (c) 2019 Pivotal, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal, Inc. - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.vscode.boot.java.utils;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.ide.vscode.boot.java.handlers.EnhancedSymbolInformation;
+
+/**
+ * Cached symbols of a single file, together with the hash of the file content
+ * they got computed from. Symbols can also depend on types declared in other files
+ * of the project (e.g. annotations with meta-annotations), so the hashes of those
+ * files are recorded as well.
+ */
+public class SymbolCacheEntry {
+
+	private final String file;
+	private final String contentHash;
+	private final List<EnhancedSymbolInformation> symbols;
+	private final List<String> declaredTypes;
+	private final Map<String, String> dependencies;
+
+	public SymbolCacheEntry(String file, String contentHash, List<EnhancedSymbolInformation> symbols) {
+		this(file, contentHash, symbols, Collections.emptyList(), Collections.emptyMap());
+	}
+
+	public SymbolCacheEntry(String file, String contentHash, List<EnhancedSymbolInformation> symbols, List<String> declaredTypes, Map<String, String> dependencies) {
+		this.file = file;
+		this.contentHash = contentHash;
+		this.symbols = symbols;
+		this.declaredTypes = declaredTypes;
+		this.dependencies = dependencies;
+	}
+
+	public String getFile() {
+		return file;
+	}
+
+	public String getContentHash() {
+		return contentHash;
+	}
+
+	public List<EnhancedSymbolInformation> getSymbols() {
+		return symbols;
+	}
+
+	/**
+	 * Fully qualified names of the types that are declared in the file
+	 */
+	public List<String> getDeclaredTypes() {
+		return declaredTypes != null ? declaredTypes : Collections.emptyList();
+	}
+
+	/**
+	 * Content hashes of the other files of the project that the symbols depend on, mapped by file
+	 */
+	public Map<String, String> getDependencies() {
+		return dependencies != null ? dependencies : Collections.emptyMap();
+	}
+
+}
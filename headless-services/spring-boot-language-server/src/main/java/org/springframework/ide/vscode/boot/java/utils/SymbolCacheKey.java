@@ -0,0 +1,72 @@
+/*******************************************************************************
+ * Copyright (c) 2019 Pivotal, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal, Inc. - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.vscode.boot.java.utils;
+
+/**
+ * Identifies a set of cached symbols. The primary identifier names the cache slot
+ * (e.g. indexer and project), the secondary identifier captures everything that
+ * invalidates the cached data as a whole (e.g. the classpath).
+ */
+public class SymbolCacheKey {
+
+	private final String primaryIdentifier;
+	private final String secondaryIdentifier;
+
+	public SymbolCacheKey(String primaryIdentifier, String secondaryIdentifier) {
+		this.primaryIdentifier = primaryIdentifier;
+		this.secondaryIdentifier = secondaryIdentifier;
+	}
+
+	public String getPrimaryIdentifier() {
+		return primaryIdentifier;
+	}
+
+	public String getSecondaryIdentifier() {
+		return secondaryIdentifier;
+	}
+
+	@Override
+	public int hashCode() {
+		final int prime = 31;
+		int result = 1;
+		result = prime * result + ((primaryIdentifier == null) ? 0 : primaryIdentifier.hashCode());
+		result = prime * result + ((secondaryIdentifier == null) ? 0 : secondaryIdentifier.hashCode());
+		return result;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		SymbolCacheKey other = (SymbolCacheKey) obj;
+		if (primaryIdentifier == null) {
+			if (other.primaryIdentifier != null)
+				return false;
+		} else if (!primaryIdentifier.equals(other.primaryIdentifier))
+			return false;
+		if (secondaryIdentifier == null) {
+			if (other.secondaryIdentifier != null)
+				return false;
+		} else if (!secondaryIdentifier.equals(other.secondaryIdentifier))
+			return false;
+		return true;
+	}
+
+	@Override
+	public String toString() {
+		return primaryIdentifier + "-" + secondaryIdentifier;
+	}
+
+}
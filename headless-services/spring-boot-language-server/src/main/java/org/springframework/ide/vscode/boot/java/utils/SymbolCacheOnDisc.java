@@ -0,0 +1,190 @@
+/*******************************************************************************
+ * Copyright (c) 2019 Pivotal, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal, Inc. - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.vscode.boot.java.utils;
+
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ide.vscode.boot.java.handlers.SymbolAddOnInformation;
+
+import com.google.common.hash.Hashing;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonDeserializationContext;
+import com.google.gson.JsonDeserializer;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonSerializationContext;
+import com.google.gson.JsonSerializer;
+
+/**
+ * {@link SymbolCache} that persists the symbols as JSON files in a local folder,
+ * one file per primary identifier of the cache key.
+ */
+public class SymbolCacheOnDisc implements SymbolCache {
+
+	/**
+	 * Version of the cache file format, needs to be increased whenever the format or
+	 * the content of the symbols changes in an incompatible way.
+	 */
+	private static final int CACHE_FORMAT_VERSION = 2;
+
+	private static final Logger log = LoggerFactory.getLogger(SymbolCacheOnDisc.class);
+
+	private final File cacheDirectory;
+	private final Gson gson;
+
+	public SymbolCacheOnDisc(File cacheDirectory) {
+		this.cacheDirectory = cacheDirectory;
+		this.gson = new GsonBuilder()
+				.registerTypeAdapter(SymbolAddOnInformation.class, new SymbolAddOnInformationAdapter())
+				.create();
+	}
+
+	@Override
+	public synchronized Map<String, SymbolCacheEntry> retrieve(SymbolCacheKey cacheKey) {
+		File file = getCacheFile(cacheKey);
+		if (file.exists()) {
+			FileReader reader = null;
+			try {
+				reader = new FileReader(file);
+				CacheStore store = gson.fromJson(reader, CacheStore.class);
+
+				if (store != null && store.version == CACHE_FORMAT_VERSION
+						&& cacheKey.getSecondaryIdentifier().equals(store.secondaryIdentifier)
+						&& store.entries != null) {
+
+					Map<String, SymbolCacheEntry> result = new HashMap<>();
+					for (SymbolCacheEntry entry : store.entries) {
+						result.put(entry.getFile(), entry);
+					}
+					return result;
+				}
+			} catch (Throwable e) {
+				log.error("Failed to read symbol cache from " + file, e);
+			} finally {
+				if (reader != null) {
+					try {
+						reader.close();
+					} catch (IOException e) {
+						log.error("Failed to close file reader for file: " + file, e);
+					}
+				}
+			}
+		}
+		return Collections.emptyMap();
+	}
+
+	@Override
+	public synchronized void store(SymbolCacheKey cacheKey, Collection<SymbolCacheEntry> entries) {
+		File file = getCacheFile(cacheKey);
+		File tempFile = new File(file.getParentFile(), file.getName() + ".tmp");
+
+		CacheStore store = new CacheStore(CACHE_FORMAT_VERSION, cacheKey.getSecondaryIdentifier(), new ArrayList<>(entries));
+
+		FileWriter writer = null;
+		try {
+			Files.createDirectories(cacheDirectory.toPath());
+			writer = new FileWriter(tempFile);
+			gson.toJson(store, writer);
+			writer.close();
+			writer = null;
+
+			// replace the old cache file in one step, so that readers never see a half-written file
+			Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (IOException e) {
+			log.error("Failed to write symbol cache to " + file, e);
+		} finally {
+			if (writer != null) {
+				try {
+					writer.close();
+				} catch (IOException e) {
+					log.error("Failed to close file writer for file: " + tempFile, e);
+				}
+			}
+			tempFile.delete();
+		}
+	}
+
+	@Override
+	public synchronized void remove(SymbolCacheKey cacheKey) {
+		File file = getCacheFile(cacheKey);
+		if (file.exists()) {
+			file.delete();
+		}
+	}
+
+	private File getCacheFile(SymbolCacheKey cacheKey) {
+		// the primary identifier contains project names, so better use a hash as file name
+		String fileName = Hashing.sha256().hashUnencodedChars(cacheKey.getPrimaryIdentifier()).toString();
+		return new File(cacheDirectory, fileName + ".json");
+	}
+
+	/**
+	 * Content of a single cache file
+	 */
+	private static class CacheStore {
+
+		private final int version;
+		private final String secondaryIdentifier;
+		private final List<SymbolCacheEntry> entries;
+
+		public CacheStore(int version, String secondaryIdentifier, List<SymbolCacheEntry> entries) {
+			this.version = version;
+			this.secondaryIdentifier = secondaryIdentifier;
+			this.entries = entries;
+		}
+	}
+
+	/**
+	 * Additional symbol information comes in various flavors, so the concrete type is stored alongside the data
+	 */
+	private static class SymbolAddOnInformationAdapter implements JsonSerializer<SymbolAddOnInformation>, JsonDeserializer<SymbolAddOnInformation> {
+
+		private static final String TYPE = "type";
+		private static final String DATA = "data";
+
+		@Override
+		public JsonElement serialize(SymbolAddOnInformation src, Type typeOfSrc, JsonSerializationContext context) {
+			JsonObject result = new JsonObject();
+			result.addProperty(TYPE, src.getClass().getName());
+			result.add(DATA, context.serialize(src, src.getClass()));
+			return result;
+		}
+
+		@Override
+		public SymbolAddOnInformation deserialize(JsonElement json, Type typeOfT, JsonDeserializationContext context) throws JsonParseException {
+			JsonObject object = json.getAsJsonObject();
+			String type = object.get(TYPE).getAsString();
+			try {
+				Class<?> clazz = Class.forName(type);
+				return context.deserialize(object.get(DATA), clazz);
+			} catch (ClassNotFoundException e) {
+				throw new JsonParseException("Unknown symbol add-on information type: " + type, e);
+			}
+		}
+	}
+
+}
@@ -0,0 +1,151 @@
+/*******************************************************************************
+ * Copyright (c) 2019 Pivotal, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal, Inc. - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.vscode.boot.java.utils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+import org.eclipse.lsp4j.SymbolInformation;
+import org.springframework.ide.vscode.commons.util.StringUtil;
+
+/**
+ * Search index for symbols, grouped by document.
+ * <p>
+ * Documents are kept ordered by URI, so that all documents sharing a location prefix form one
+ * contiguous range. Every document keeps the lower case names of its symbols together with a mask
+ * of the characters they contain, so that a query skips documents and symbols that don't contain
+ * all characters of the query before comparing names.
+ * <p>
+ * The symbols of a document are replaced as a whole, which only touches the entry of that document.
+ * Searches run concurrently with updates and see every document either before or after its update.
+ */
+public class SymbolSearchIndex {
+
+	private final ConcurrentNavigableMap<String, DocumentSymbols> documents;
+
+	public SymbolSearchIndex() {
+		this.documents = new ConcurrentSkipListMap<>();
+	}
+
+	public SymbolSearchIndex(Map<String, ? extends List<SymbolInformation>> symbolsByDoc) {
+		this();
+		for (Map.Entry<String, ? extends List<SymbolInformation>> doc : symbolsByDoc.entrySet()) {
+			update(doc.getKey(), doc.getValue());
+		}
+	}
+
+	/**
+	 * Replaces the symbols of the given document, no symbols remove the document from the index.
+	 */
+	public void update(String docURI, List<SymbolInformation> symbols) {
+		if (symbols == null || symbols.isEmpty()) {
+			documents.remove(docURI);
+		}
+		else {
+			documents.put(docURI, new DocumentSymbols(symbols));
+		}
+	}
+
+	public void remove(String docURI) {
+		documents.remove(docURI);
+	}
+
+	/**
+	 * All symbols of the index, ordered by document
+	 */
+	public List<SymbolInformation> getSymbols() {
+		return getSymbols(Long.MAX_VALUE);
+	}
+
+	/**
+	 * The first symbols of the index, ordered by document
+	 */
+	public List<SymbolInformation> getSymbols(long limit) {
+		return search("", "", limit);
+	}
+
+	/**
+	 * Finds the symbols in documents whose URI starts with the given location prefix and whose
+	 * name contains the characters of the query in the same order (case insensitive), see
+	 * {@link StringUtil#containsCharactersCaseInsensitive(String, String)}.
+	 */
+	public List<SymbolInformation> search(String locationPrefix, String query, long limit) {
+		if (limit <= 0) {
+			return Collections.emptyList();
+		}
+
+		char[] queryChars = query.toLowerCase().toCharArray();
+		long queryMask = mask(queryChars);
+
+		List<SymbolInformation> result = new ArrayList<>();
+		for (Map.Entry<String, DocumentSymbols> doc : documents.tailMap(locationPrefix).entrySet()) {
+			if (!doc.getKey().startsWith(locationPrefix)) {
+				break;
+			}
+
+			DocumentSymbols symbols = doc.getValue();
+			if ((symbols.mask & queryMask) != queryMask) {
+				continue;
+			}
+
+			for (int i = 0; i < symbols.symbols.length; i++) {
+				if ((symbols.masks[i] & queryMask) == queryMask && StringUtil.containsCharacters(symbols.lowerCaseNames[i], queryChars)) {
+					result.add(symbols.symbols[i]);
+					if (result.size() >= limit) {
+						return result;
+					}
+				}
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * One bit per character (modulo 64), a name can only contain the query if its mask contains the mask of the query
+	 */
+	private static long mask(char[] chars) {
+		long mask = 0;
+		for (char c : chars) {
+			mask |= 1L << (c & 63);
+		}
+		return mask;
+	}
+
+	/**
+	 * Immutable copy of the symbols of a document
+	 */
+	private static class DocumentSymbols {
+
+		private final SymbolInformation[] symbols;
+		private final char[][] lowerCaseNames;
+		private final long[] masks;
+		private final long mask;
+
+		public DocumentSymbols(List<SymbolInformation> symbols) {
+			this.symbols = symbols.toArray(new SymbolInformation[symbols.size()]);
+			this.lowerCaseNames = new char[this.symbols.length][];
+			this.masks = new long[this.symbols.length];
+
+			long mask = 0;
+			for (int i = 0; i < this.symbols.length; i++) {
+				lowerCaseNames[i] = this.symbols[i].getName().toLowerCase().toCharArray();
+				masks[i] = mask(lowerCaseNames[i]);
+				mask |= masks[i];
+			}
+			this.mask = mask;
+		}
+	}
+
+}
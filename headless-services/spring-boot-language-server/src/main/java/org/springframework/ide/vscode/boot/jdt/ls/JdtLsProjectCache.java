@@ -31,6 +31,7 @@ import org.springframework.ide.vscode.commons.java.IJavadocProvider;
 import org.springframework.ide.vscode.commons.java.JavaProject;
 import org.springframework.ide.vscode.commons.java.JdtLsJavaProject;
 import org.springframework.ide.vscode.commons.javadoc.JdtLsJavadocProvider;
+import org.springframework.ide.vscode.commons.jdtls.JdtLsTypeStore;
 import org.springframework.ide.vscode.commons.languageserver.java.ls.ClasspathListener;
 import org.springframework.ide.vscode.commons.languageserver.util.SimpleLanguageServer;
 import org.springframework.ide.vscode.commons.protocol.java.Classpath.CPE;
@@ -47,6 +48,7 @@ public class JdtLsProjectCache implements InitializableJavaProjectsService {
 
 	private SimpleLanguageServer server;
 	private Map<String, IJavaProject> table = new HashMap<String, IJavaProject>();
+	private Map<String, JdtLsTypeStore> typeStores = new HashMap<>();
 	private Logger log = LoggerFactory.getLogger(JdtLsProjectCache.class);
 	private List<Listener> listeners = new ArrayList<>();
 
@@ -191,26 +193,41 @@ public class JdtLsProjectCache implements InitializableJavaProjectsService {
 						synchronized (table) {
 							String uri = UriUtil.normalize(event.projectUri);
 							log.debug("uri = {}", uri);
-							if (event.deleted) {
+							if (event.changedTypes != null) {
+								// the types may be on the classpath of other projects as well
+								for (JdtLsTypeStore typeStore : typeStores.values()) {
+									typeStore.typesChanged(event.changedTypes);
+								}
+							} else if (event.deleted) {
 								log.debug("event.deleted = true");
+								typeStores.remove(uri);
 								IJavaProject deleted = table.remove(uri);
 								if (deleted!=null) {
 									log.debug("removed from table = true");
 									notifyDelete(deleted);
+									dispose(deleted);
 								} else {
 									log.warn("Deleted project not removed because uri {} not found in {}", uri, table.keySet());
 								}
+							} else if (event.classpath == null) {
+								log.warn("Ignoring classpath event without classpath for {}", uri);
 							} else {
 								log.debug("deleted = false");
 								URI projectUri = new URI(uri);
 								ClasspathData classpath = new ClasspathData(event.name, event.classpath.getEntries());
 								IJavaProject newProject = IS_JANDEX_INDEX
 										? new JavaProject(getFileObserver(), projectUri, classpath,
-												JdtLsProjectCache.this)
-										: new JdtLsJavaProject(server.getClient(), projectUri, classpath);
+												JdtLsProjectCache.this, server.getProgressService())
+										: new JdtLsJavaProject(server.getClient(), projectUri, classpath, getTypeStore(uri, event.classpath.getEntries()));
+								if (IS_JANDEX_INDEX) {
+									// starts indexing the classpath in the background, before the first request needs it
+									newProject.getIndex();
+								}
 								IJavaProject oldProject = table.put(uri, newProject);
 								if (oldProject != null) {
 									notifyChanged(newProject);
+									// stops indexing the outdated classpath in the background
+									dispose(oldProject);
 								} else {
 									notifyCreated(newProject);
 								}
@@ -232,6 +249,26 @@ public class JdtLsProjectCache implements InitializableJavaProjectsService {
 		});
 	}
 
+	private static void dispose(IJavaProject project) {
+		if (project instanceof Disposable) {
+			((Disposable) project).dispose();
+		}
+	}
+
+	/**
+	 * Type data store of the project, which is kept across classpath changes
+	 */
+	private JdtLsTypeStore getTypeStore(String uri, List<CPE> classpath) {
+		JdtLsTypeStore typeStore = typeStores.get(uri);
+		if (typeStore == null) {
+			typeStore = new JdtLsTypeStore();
+			typeStores.put(uri, typeStore);
+		} else {
+			typeStore.classpathChanged(classpath);
+		}
+		return typeStore;
+	}
+
 	@Override
 	public Collection<? extends IJavaProject> all() {
 		return table.values();
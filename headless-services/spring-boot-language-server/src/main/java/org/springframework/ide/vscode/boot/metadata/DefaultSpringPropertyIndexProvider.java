@@ -14,6 +14,7 @@ package org.springframework.ide.vscode.boot.metadata;
 import java.util.Optional;
 
 import org.eclipse.lsp4j.TextDocumentIdentifier;
+import org.springframework.ide.vscode.boot.configurationmetadata.ConfigurationMetadataCache;
 import org.springframework.ide.vscode.commons.java.IJavaProject;
 import org.springframework.ide.vscode.commons.languageserver.ProgressService;
 import org.springframework.ide.vscode.commons.languageserver.java.JavaProjectFinder;
@@ -54,6 +55,10 @@ public class DefaultSpringPropertyIndexProvider implements SpringPropertyIndexPr
 		this.progressService = progressService;
 	}
 
+	public void setMetadataCache(ConfigurationMetadataCache metadataCache) {
+		this.indexManager.setMetadataCache(metadataCache);
+	}
+
 	@Override
 	public void onChange(Runnable changeHandler) {
 		this.changeHandler = changeHandler;
@@ -11,16 +11,19 @@
 
 package org.springframework.ide.vscode.boot.metadata;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Arrays;
+import java.util.List;
 import java.util.jar.JarFile;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.zip.ZipEntry;
 
+import org.springframework.ide.vscode.boot.configurationmetadata.ConfigurationMetadataCache;
 import org.springframework.ide.vscode.boot.configurationmetadata.ConfigurationMetadataRepository;
 import org.springframework.ide.vscode.boot.configurationmetadata.ConfigurationMetadataRepositoryJsonBuilder;
 import org.springframework.ide.vscode.commons.java.IClasspath;
@@ -53,17 +56,22 @@ public class PropertiesLoader {
 
 	private ConfigurationMetadataRepositoryJsonBuilder builder = ConfigurationMetadataRepositoryJsonBuilder.create();
 
+	private final ConfigurationMetadataCache cache;
+
+	public PropertiesLoader() {
+		this(null);
+	}
+
+	/**
+	 * @param cache persistent cache for the metadata of individual jars and metadata files, may be <code>null</code>
+	 */
+	public PropertiesLoader(ConfigurationMetadataCache cache) {
+		this.cache = cache;
+	}
+
 	public ConfigurationMetadataRepository load(IClasspath classPath) {
 		try {
-			IClasspathUtil.getBinaryRoots(classPath, (cpe) -> !cpe.isSystem()).forEach(fileEntry -> {
-				if (fileEntry.exists()) {
-					if (fileEntry.isDirectory()) {
-						loadFromOutputFolder(fileEntry.toPath());
-					} else {
-						loadFromJar(fileEntry.toPath());
-					}
-				}
-			});
+			return load(IClasspathUtil.getBinaryRoots(classPath, (cpe) -> !cpe.isSystem()));
 		} catch (Exception e) {
     		LOG.log(Level.SEVERE, "Failed to retrieve classpath", e);
 		}
@@ -71,6 +79,43 @@ public class PropertiesLoader {
 		return repository;
 	}
 
+	/**
+	 * Loads the metadata of the given jars and output folders
+	 */
+	public ConfigurationMetadataRepository load(List<File> classpathEntries) {
+		classpathEntries.forEach(fileEntry -> {
+			if (fileEntry.exists()) {
+				if (fileEntry.isDirectory()) {
+					loadFromOutputFolder(fileEntry.toPath());
+				} else {
+					loadFromJar(fileEntry.toPath());
+				}
+			}
+		});
+		ConfigurationMetadataRepository repository = builder.build();
+		return repository;
+	}
+
+	/**
+	 * Whether all the hints loaded so far refer to properties that have been loaded as well, i.e.
+	 * the loaded metadata doesn't contribute anything to properties defined elsewhere.
+	 */
+	public boolean isSelfContained() {
+		return builder.isSelfContained();
+	}
+
+	/**
+	 * Whether the given output folder contains any Spring Boot configuration metadata
+	 */
+	public static boolean hasMetadata(File outputFolder) {
+		for (String mdLoc : PROJECT_META_DATA_LOCATIONS) {
+			if (new File(outputFolder, mdLoc).isFile()) {
+				return true;
+			}
+		}
+		return false;
+	}
+
 	private void loadFromOutputFolder(Path outputFolderPath) {
 		if (outputFolderPath != null && Files.exists(outputFolderPath)) {
 			Arrays.stream(PROJECT_META_DATA_LOCATIONS).forEach(mdLoc -> {
@@ -81,62 +126,53 @@ public class PropertiesLoader {
 
 	private void loadFromJsonFile(Path mdf) {
 		if (Files.exists(mdf)) {
-			InputStream is = null;
 			try {
-				is = Files.newInputStream(mdf);
-				loadFromInputStream(mdf, is);
+				builder.withCachedResources(cache, mdf, (b) -> {
+					try (InputStream is = Files.newInputStream(mdf)) {
+						loadFromInputStream(mdf, is);
+					}
+				});
 			} catch (Exception e) {
 				LOG.log(Level.SEVERE, "Error loading file '" + mdf + "'", e);
-			} finally {
-				if (is!=null) {
-					try {
-						is.close();
-					} catch (IOException e) {
-						//ignore
-					}
-				}
 			}
 		}
 	}
 
 	private void loadFromJar(Path f) {
-		JarFile jarFile = null;
 		try {
-			jarFile = new JarFile(f.toFile());
-			//jarDump(jarFile);
-			for (String loc : JAR_META_DATA_LOCATIONS) {
-				ZipEntry e = jarFile.getEntry(loc);
-				if (e!=null) {
-					loadFrom(jarFile, e);
+			builder.withCachedResources(cache, f, (b) -> {
+				Exception failure = null;
+				try (JarFile jarFile = new JarFile(f.toFile())) {
+					//jarDump(jarFile);
+					for (String loc : JAR_META_DATA_LOCATIONS) {
+						ZipEntry e = jarFile.getEntry(loc);
+						if (e!=null) {
+							// a broken entry shouldn't prevent the other entries from being loaded
+							try {
+								loadFrom(jarFile, e);
+							} catch (Exception ex) {
+								if (failure == null) {
+									failure = ex;
+								} else {
+									failure.addSuppressed(ex);
+								}
+							}
+						}
+					}
 				}
-			}
+				if (failure != null) {
+					// rethrown so that the incomplete metadata of this jar doesn't get cached
+					throw failure;
+				}
+			});
 		} catch (Throwable e) {
 			LOG.log(Level.SEVERE, "Error loading JAR file", e);
-		} finally {
-			if (jarFile!=null) {
-				try {
-					jarFile.close();
-				} catch (IOException e) {
-				}
-			}
 		}
 	}
 
-
-	private void loadFrom(JarFile jarFile, ZipEntry ze) {
-		InputStream is = null;
-		try {
-			is = jarFile.getInputStream(ze);
+	private void loadFrom(JarFile jarFile, ZipEntry ze) throws IOException {
+		try (InputStream is = jarFile.getInputStream(ze)) {
 			loadFromInputStream(jarFile.getName()+"["+ze.getName()+"]", is);
-		} catch (Throwable e) {
-			LOG.log(Level.SEVERE, "Error loading JAR file", e);
-		} finally {
-			if (is!=null) {
-				try {
-					is.close();
-				} catch (IOException e) {
-				}
-			}
 		}
 	}
 
@@ -35,6 +35,9 @@ import com.google.common.collect.ImmutableList.Builder;
  *
  * {@link ConfigurationMetadataProperty} but augmented with information
  * about {@link ConfigurationMetadataSource}s that declare the property.
+ * <p>
+ * Property infos shared between the indexes of several projects are frozen,
+ * trying to modify them fails with an {@link IllegalStateException}.
  *
  * @author Kris De Volder
  */
@@ -76,6 +79,7 @@ public class PropertyInfo {
 	private ImmutableList<ValueHint> keyHints;
 	private ValueProviderStrategy valueProvider;
 	private ValueProviderStrategy keyProvider;
+	private boolean frozen;
 
 	public PropertyInfo(String id, String type, String name,
 			Object defaultValue, String description,
@@ -174,8 +178,12 @@ public class PropertyInfo {
 		return "PropertyInfo("+getId()+")";
 	}
 	public void addSource(ConfigurationMetadataSource source) {
+		checkNotFrozen();
 		if (sources==null) {
 			sources = new ArrayList<PropertySource>();
+		} else if (sources instanceof ImmutableList) {
+			// copied from a frozen property info
+			sources = new ArrayList<PropertySource>(sources);
 		}
 		sources.add(new PropertySource(source));
 	}
@@ -188,11 +196,13 @@ public class PropertyInfo {
 	}
 
 	public PropertyInfo setDescription(String description) {
+		checkNotFrozen();
 		this.description = description;
 		return this;
 	}
 
 	public void setDeprecation(Deprecation d) {
+		checkNotFrozen();
 		this.deprecation = d;
 	}
 
@@ -214,15 +224,38 @@ public class PropertyInfo {
 
 
 	public void addValueHints(List<ValueHint> hints) {
+		checkNotFrozen();
 		Builder<ValueHint> builder = ImmutableList.builder();
 		builder.addAll(valueHints);
 		builder.addAll(hints);
 		valueHints = builder.build();
 	}
 	public void addKeyHints(List<ValueHint> hints) {
+		checkNotFrozen();
 		Builder<ValueHint> builder = ImmutableList.builder();
 		builder.addAll(keyHints);
 		builder.addAll(hints);
 		keyHints = builder.build();
 	}
+
+	/**
+	 * Prevents any further modification of this property info, e.g. because it is shared between
+	 * the indexes of several projects.
+	 */
+	void freeze() {
+		if (sources!=null) {
+			sources = ImmutableList.copyOf(sources);
+		}
+		frozen = true;
+	}
+
+	public boolean isFrozen() {
+		return frozen;
+	}
+
+	private void checkNotFrozen() {
+		if (frozen) {
+			throw new IllegalStateException("Shared property info can't be modified: "+id);
+		}
+	}
 }
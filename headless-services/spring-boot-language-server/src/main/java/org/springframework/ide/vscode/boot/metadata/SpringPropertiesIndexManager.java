@@ -10,10 +10,19 @@
  *******************************************************************************/
 package org.springframework.ide.vscode.boot.metadata;
 
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ExecutionException;
 
+import org.springframework.ide.vscode.boot.configurationmetadata.ConfigurationMetadataCache;
+import org.springframework.ide.vscode.boot.configurationmetadata.ConfigurationMetadataRepository;
 import org.springframework.ide.vscode.boot.metadata.util.Listener;
 import org.springframework.ide.vscode.boot.metadata.util.ListenerManager;
+import org.springframework.ide.vscode.commons.java.IClasspath;
+import org.springframework.ide.vscode.commons.java.IClasspathUtil;
 import org.springframework.ide.vscode.commons.java.IJavaProject;
 import org.springframework.ide.vscode.commons.languageserver.ProgressService;
 import org.springframework.ide.vscode.commons.languageserver.java.ProjectObserver;
@@ -29,18 +38,53 @@ import com.google.common.collect.ImmutableList;
  * file all make use of a per-project index of spring properties metadata extracted
  * from project's classpath. This Index manager is responsible for keeping at most
  * one index per-project and to keep the index up-to-date.
+ * <p>
+ * Projects with the same jars on their classpath share the index of the metadata
+ * from these jars. Projects with metadata in their own output folders get an index
+ * that adds the properties of that metadata on top of the shared index, without
+ * copying the shared index.
  *
  * @author Kris De Volder
  */
 public class SpringPropertiesIndexManager extends ListenerManager<Listener<SpringPropertiesIndexManager>> {
 
+	/**
+	 * Index for the metadata of a specific set of jars, together with the number of projects using it
+	 */
+	private static class SharedIndex {
+		final SpringPropertyIndex index;
+		int references = 0;
+
+		SharedIndex(SpringPropertyIndex index) {
+			this.index = index;
+		}
+	}
+
+	/**
+	 * Shared index used by a project, together with the index of the project built on top of it
+	 */
+	private static class Acquisition {
+		final List<String> key;
+		final SpringPropertyIndex index;
+
+		Acquisition(List<String> key, SpringPropertyIndex index) {
+			this.key = key;
+			this.index = index;
+		}
+	}
+
 	private Cache<IJavaProject, SpringPropertyIndex> indexes;
 	private final ValueProviderRegistry valueProviders;
 	private static int progressIdCt = 0;
+	private ConfigurationMetadataCache metadataCache;
+
+	private final Map<List<String>, SharedIndex> sharedIndexes = new HashMap<>();
+	private final Map<IJavaProject, Acquisition> acquisitions = new HashMap<>();
 
 	public SpringPropertiesIndexManager(ValueProviderRegistry valueProviders, ProjectObserver projectObserver, FileObserver fileObserver) {
 		this.valueProviders = valueProviders;
 		this.indexes = CacheBuilder.newBuilder()
+				.removalListener(notification -> release((IJavaProject) notification.getKey(), (SpringPropertyIndex) notification.getValue()))
 				.build();
 		if (projectObserver != null) {
 			projectObserver.addListener(ProjectObserver.onAny(project -> indexes.invalidate(project)));
@@ -69,7 +113,7 @@ public class SpringPropertiesIndexManager extends ListenerManager<Listener<Sprin
 			progressService.progressEvent(progressId, "Indexing Spring Boot Properties...");
 		}
 
-		SpringPropertyIndex index = new SpringPropertyIndex(valueProviders, project.getClasspath());
+		SpringPropertyIndex index = createIndex(project);
 
 		if (progressService != null) {
 			progressService.progressEvent(progressId, null);
@@ -81,6 +125,110 @@ public class SpringPropertiesIndexManager extends ListenerManager<Listener<Sprin
 		return index;
 	}
 
+	private SpringPropertyIndex createIndex(IJavaProject project) {
+		IClasspath classpath = project.getClasspath();
+		if (classpath == null) {
+			return new SpringPropertyIndex(valueProviders, null, metadataCache);
+		}
+
+		List<File> jars = new ArrayList<>();
+		List<File> outputFolders = new ArrayList<>();
+		for (File entry : IClasspathUtil.getBinaryRoots(classpath, (cpe) -> !cpe.isSystem())) {
+			if (entry.isFile()) {
+				jars.add(entry);
+			} else if (entry.isDirectory() && PropertiesLoader.hasMetadata(entry)) {
+				outputFolders.add(entry);
+			}
+		}
+
+		ConfigurationMetadataRepository ownMetadata = null;
+		if (!outputFolders.isEmpty()) {
+			PropertiesLoader loader = new PropertiesLoader(metadataCache);
+			ownMetadata = loader.load(outputFolders);
+			if (!loader.isSelfContained()) {
+				// project metadata contributes hints to properties from jars, these can't be shared
+				return new SpringPropertyIndex(valueProviders, classpath, metadataCache);
+			}
+		}
+
+		SpringPropertyIndex index = acquire(project, jars, ownMetadata);
+		if (index == null) {
+			// project metadata redefines properties from jars, these can't be shared
+			return new SpringPropertyIndex(valueProviders, classpath, metadataCache);
+		}
+		return index;
+	}
+
+	/**
+	 * The index of the given project, built on top of the shared index for the given jars. Returns <code>null</code>
+	 * if the project metadata redefines properties from the jars.
+	 */
+	private synchronized SpringPropertyIndex acquire(IJavaProject project, List<File> jars, ConfigurationMetadataRepository ownMetadata) {
+		// in case the removal of an outdated index for the project hasn't been processed yet
+		release(project, null);
+
+		List<String> key = new ArrayList<>(jars.size());
+		for (File jar : jars) {
+			key.add(jar.getAbsolutePath() + "|" + jar.length() + "|" + jar.lastModified());
+		}
+
+		SharedIndex shared = sharedIndexes.get(key);
+		if (shared == null) {
+			shared = new SharedIndex(SpringPropertyIndex.createShared(valueProviders, new PropertiesLoader(metadataCache).load(jars)));
+			sharedIndexes.put(key, shared);
+		} else {
+			Log.info("Reusing Spring Boot Properties index for the classpath of "+project.getElementName());
+		}
+
+		SpringPropertyIndex index = shared.index;
+		if (ownMetadata != null) {
+			for (String id : ownMetadata.getAllProperties().keySet()) {
+				if (shared.index.get(id) != null) {
+					if (shared.references <= 0) {
+						sharedIndexes.remove(key);
+					}
+					return null;
+				}
+			}
+			index = SpringPropertyIndex.overlay(shared.index, valueProviders, ownMetadata);
+		}
+
+		shared.references++;
+		acquisitions.put(project, new Acquisition(key, index));
+		return index;
+	}
+
+	/**
+	 * Releases the shared index used by the given index of the project. Releasing an index that has been
+	 * released already or that has been replaced by a newer index of the project does nothing. A
+	 * <code>null</code> index releases whatever index the project uses.
+	 */
+	private synchronized void release(IJavaProject project, SpringPropertyIndex index) {
+		Acquisition acquisition = acquisitions.get(project);
+		if (acquisition != null && (index == null || acquisition.index == index)) {
+			acquisitions.remove(project);
+			SharedIndex shared = sharedIndexes.get(acquisition.key);
+			if (shared != null && --shared.references <= 0) {
+				sharedIndexes.remove(acquisition.key);
+			}
+		}
+	}
+
+	/**
+	 * Number of shared indexes that are currently used by any project
+	 */
+	synchronized int getSharedIndexCount() {
+		return sharedIndexes.size();
+	}
+
+	/**
+	 * Persistent cache for the metadata of individual classpath entries, so that indexing a project only
+	 * parses the metadata of jars and output folders that changed since they got cached.
+	 */
+	public void setMetadataCache(ConfigurationMetadataCache metadataCache) {
+		this.metadataCache = metadataCache;
+	}
+
 	public synchronized void clear() {
 		if (indexes!=null) {
 			indexes.invalidateAll();
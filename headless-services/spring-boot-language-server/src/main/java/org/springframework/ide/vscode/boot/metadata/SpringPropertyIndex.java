@@ -13,6 +13,7 @@ package org.springframework.ide.vscode.boot.metadata;
 import java.util.Collection;
 import java.util.List;
 
+import org.springframework.ide.vscode.boot.configurationmetadata.ConfigurationMetadataCache;
 import org.springframework.ide.vscode.boot.configurationmetadata.ConfigurationMetadataGroup;
 import org.springframework.ide.vscode.boot.configurationmetadata.ConfigurationMetadataProperty;
 import org.springframework.ide.vscode.boot.configurationmetadata.ConfigurationMetadataRepository;
@@ -23,39 +24,71 @@ import org.springframework.ide.vscode.commons.util.StringUtil;
 
 public class SpringPropertyIndex extends FuzzyMap<PropertyInfo> {
 
-	public static final FuzzyMap<PropertyInfo> EMPTY_INDEX = new SpringPropertyIndex(null, null);
+	public static final FuzzyMap<PropertyInfo> EMPTY_INDEX = new SpringPropertyIndex(null, (IClasspath) null);
 
 	private ValueProviderRegistry valueProviders;
 
 	public SpringPropertyIndex(ValueProviderRegistry valueProviders, IClasspath projectPath) {
+		this(valueProviders, projectPath, null);
+	}
+
+	public SpringPropertyIndex(ValueProviderRegistry valueProviders, IClasspath projectPath, ConfigurationMetadataCache metadataCache) {
 		this.valueProviders = valueProviders;
 		if (projectPath!=null) {
-//			try {
-				PropertiesLoader loader = new PropertiesLoader();
-				ConfigurationMetadataRepository metadata = loader.load(projectPath);
-				//^^^ Should be done in bg? It seems fast enough for now.
-
-				Collection<ConfigurationMetadataProperty> allEntries = metadata.getAllProperties().values();
-				for (ConfigurationMetadataProperty item : allEntries) {
-					add(new PropertyInfo(valueProviders, item));
-				}
+			PropertiesLoader loader = new PropertiesLoader(metadataCache);
+			ConfigurationMetadataRepository metadata = loader.load(projectPath);
+			//^^^ Should be done in bg? It seems fast enough for now.
+			addAll(metadata);
+		}
+	}
 
-				for (ConfigurationMetadataGroup group : metadata.getAllGroups().values()) {
-					for (ConfigurationMetadataSource source : group.getSources().values()) {
-						for (ConfigurationMetadataProperty prop : source.getProperties().values()) {
-							PropertyInfo info = get(prop.getId());
-							info.addSource(source);
-						}
-					}
-				}
+	private SpringPropertyIndex(ValueProviderRegistry valueProviders, SpringPropertyIndex base) {
+		super(base);
+		this.valueProviders = valueProviders;
+	}
 
-	//			System.out.println(">>> spring properties metadata loaded "+this.size()+" items===");
-	//			dumpAsTestData();
-	//			System.out.println(">>> spring properties metadata loaded "+this.size()+" items===");
-//			} catch (Exception e) {
-//				LOG.log
-//			}
+	/**
+	 * Index of the properties defined by the given metadata, to be shared between projects. The
+	 * property infos of the index are frozen, so that no project can modify them.
+	 */
+	static SpringPropertyIndex createShared(ValueProviderRegistry valueProviders, ConfigurationMetadataRepository metadata) {
+		SpringPropertyIndex index = new SpringPropertyIndex(valueProviders, (SpringPropertyIndex) null);
+		index.addAll(metadata);
+		for (PropertyInfo info : index) {
+			info.freeze();
 		}
+		return index;
+	}
+
+	/**
+	 * Index of the properties of the base index plus the properties defined by the given metadata. The
+	 * base index is neither copied nor modified, so the metadata must neither define properties of the
+	 * base index again nor contribute hints to them.
+	 */
+	static SpringPropertyIndex overlay(SpringPropertyIndex base, ValueProviderRegistry valueProviders, ConfigurationMetadataRepository metadata) {
+		SpringPropertyIndex index = new SpringPropertyIndex(valueProviders, base);
+		index.addAll(metadata);
+		return index;
+	}
+
+	private void addAll(ConfigurationMetadataRepository metadata) {
+		Collection<ConfigurationMetadataProperty> allEntries = metadata.getAllProperties().values();
+		for (ConfigurationMetadataProperty item : allEntries) {
+			add(new PropertyInfo(valueProviders, item));
+		}
+
+		for (ConfigurationMetadataGroup group : metadata.getAllGroups().values()) {
+			for (ConfigurationMetadataSource source : group.getSources().values()) {
+				for (ConfigurationMetadataProperty prop : source.getProperties().values()) {
+					PropertyInfo info = get(prop.getId());
+					info.addSource(source);
+				}
+			}
+		}
+
+//		System.out.println(">>> spring properties metadata loaded "+this.size()+" items===");
+//		dumpAsTestData();
+//		System.out.println(">>> spring properties metadata loaded "+this.size()+" items===");
 	}
 
 	public void add(ConfigurationMetadataProperty propertyInfo) {
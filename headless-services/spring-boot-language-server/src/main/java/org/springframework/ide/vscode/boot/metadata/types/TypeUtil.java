@@ -718,12 +718,36 @@ public class TypeUtil {
 								Renderables.lazy(() -> PropertyDocUtils.documentJavaElement(sourceLinks, project, m)), deprecation));
 					}
 				});
+				prefetchTypes(properties.stream().map(TypedProperty::getType));
 				return properties;
 			}
 		}
 		return null;
 	}
 
+	/**
+	 * Looks up the non-atomic property types and their type parameters in one batch, as they are looked up right
+	 * after the properties are determined, e.g. to check whether they are enums.
+	 */
+	private void prefetchTypes(Stream<Type> types) {
+		try {
+			if (javaProject!=null) {
+				Set<String> fqNames = types
+						.filter(type -> type != null)
+						.flatMap(type -> type.isGeneric() ? Stream.concat(Stream.of(type), Arrays.stream(type.getParams())) : Stream.of(type))
+						.map(Type::getErasure)
+						.filter(typeName -> typeName != null && !ATOMIC_TYPES.contains(typeName))
+						.map(TypeUtil::switchInnerTypeSeparator)
+						.collect(Collectors.toSet());
+				if (!fqNames.isEmpty()) {
+					javaProject.getIndex().findTypes(fqNames);
+				}
+			}
+		} catch (Exception e) {
+			log.error("", e);
+		}
+	}
+
 	/**
 	 * Registers a strategy for providing value hints with a given typeName.
 	 */
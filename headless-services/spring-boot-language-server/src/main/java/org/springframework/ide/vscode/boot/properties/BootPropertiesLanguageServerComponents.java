@@ -43,6 +43,7 @@ import org.springframework.ide.vscode.commons.yaml.completion.YamlCompletionEngi
 import org.springframework.ide.vscode.commons.yaml.completion.YamlCompletionEngineOptions;
 import org.springframework.ide.vscode.commons.yaml.hover.YamlHoverInfoProvider;
 import org.springframework.ide.vscode.commons.yaml.structure.YamlStructureProvider;
+import org.springframework.ide.vscode.java.properties.parser.PropertiesAstCache;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
@@ -82,6 +83,7 @@ public class BootPropertiesLanguageServerComponents implements LanguageServerCom
 	private SpringPropertiesReconcileEngine propertiesReconciler;
 	private ApplicationYamlReconcileEngine ymlReconciler;
 	private SourceLinks sourceLinks;
+	private PropertiesAstCache propertiesAsts;
 
 	public BootPropertiesLanguageServerComponents(
 			SimpleLanguageServer server,
@@ -90,7 +92,8 @@ public class BootPropertiesLanguageServerComponents implements LanguageServerCom
 			YamlASTProvider parser,
 			YamlStructureProvider yamlStructureProvider,
 			YamlAssistContextProvider yamlAssistContextProvider,
-			SourceLinks sourceLinks) {
+			SourceLinks sourceLinks,
+			PropertiesAstCache propertiesAsts) {
 		this.server = server;
 		this.parser = parser;
 		this.indexProvider = serverParams.indexProvider;
@@ -100,12 +103,13 @@ public class BootPropertiesLanguageServerComponents implements LanguageServerCom
 		this.yamlStructureProvider = yamlStructureProvider;
 		this.yamlAssistContextProvider = yamlAssistContextProvider;
 		this.sourceLinks = sourceLinks;
+		this.propertiesAsts = propertiesAsts;
 
 		server.getClientCapabilities().thenAccept(clientCapabilities -> {
 			CommonQuickfixes commonQuickfixes = new CommonQuickfixes(server.getQuickfixRegistry(), javaProjectFinder,
 					clientCapabilities);
 			this.propertiesReconciler = new SpringPropertiesReconcileEngine(indexProvider,
-					typeUtilProvider, new AppPropertiesQuickFixes(server.getQuickfixRegistry(), commonQuickfixes), sourceLinks);
+					typeUtilProvider, new AppPropertiesQuickFixes(server.getQuickfixRegistry(), commonQuickfixes), sourceLinks, propertiesAsts);
 			this.ymlReconciler = new ApplicationYamlReconcileEngine(parser, indexProvider, typeUtilProvider,
 					new AppYamlQuickfixes(server.getQuickfixRegistry(), server.getTextDocumentService(),
 							yamlStructureProvider, commonQuickfixes), sourceLinks);
@@ -128,7 +132,7 @@ public class BootPropertiesLanguageServerComponents implements LanguageServerCom
 
 	@Override
 	public ICompletionEngine getCompletionEngine() {
-		ICompletionEngine propertiesCompletions = new SpringPropertiesCompletionEngine(indexProvider, typeUtilProvider, javaProjectFinder, sourceLinks);
+		ICompletionEngine propertiesCompletions = new SpringPropertiesCompletionEngine(indexProvider, typeUtilProvider, javaProjectFinder, sourceLinks, propertiesAsts);
 		ICompletionEngine yamlCompletions = new YamlCompletionEngine(yamlStructureProvider, yamlAssistContextProvider, COMPLETION_OPTIONS);
 		return (TextDocument document, int offset) -> {
 			String uri = document.getUri();
@@ -149,7 +153,7 @@ public class BootPropertiesLanguageServerComponents implements LanguageServerCom
 
 	@Override
 	public HoverHandler getHoverProvider() {
-		HoverInfoProvider propertiesHovers = new PropertiesHoverInfoProvider(indexProvider, typeUtilProvider, javaProjectFinder, sourceLinks);
+		HoverInfoProvider propertiesHovers = new PropertiesHoverInfoProvider(indexProvider, typeUtilProvider, javaProjectFinder, sourceLinks, propertiesAsts);
 		HoverInfoProvider ymlHovers = new YamlHoverInfoProvider(parser, yamlStructureProvider, yamlAssistContextProvider);
 
 		HoverInfoProvider combined = (IDocument document, int offset) -> {
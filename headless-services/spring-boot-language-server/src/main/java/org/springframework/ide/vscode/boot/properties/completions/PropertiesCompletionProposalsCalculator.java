@@ -54,11 +54,19 @@ import org.springframework.ide.vscode.java.properties.parser.PropertiesAst.Empty
 import org.springframework.ide.vscode.java.properties.parser.PropertiesAst.Key;
 import org.springframework.ide.vscode.java.properties.parser.PropertiesAst.Node;
 import org.springframework.ide.vscode.java.properties.parser.PropertiesAst.Value;
+import org.springframework.ide.vscode.java.properties.parser.PropertiesAstCache;
 
 import com.google.common.collect.ImmutableList;
 
 public class PropertiesCompletionProposalsCalculator {
 
+	/**
+	 * Upper bound for the number of fuzzy matches turned into proposals. This needs to stay well above
+	 * the number of completions sent to the client, so that the client still gets told when the list
+	 * of completions is incomplete.
+	 */
+	private static final int MAX_FUZZY_MATCHES = 500;
+
 	private static final PrefixFinder valuePrefixFinder = new PrefixFinder() {
 		@Override
 		protected boolean isPrefixChar(char c) {
@@ -111,23 +119,29 @@ public class PropertiesCompletionProposalsCalculator {
 	private IDocument doc;
 	private int offset;
 	private boolean preferLowerCaseEnums;
-	private AntlrParser parser;
+	private PropertiesAstCache asts;
+	private PropertySearchSessions searchSessions;
 
 	public PropertiesCompletionProposalsCalculator(FuzzyMap<PropertyInfo> index, TypeUtil typeUtil, PropertyCompletionFactory completionFactory, IDocument doc, int offset, boolean preferLowerCaseEnums) {
+		this(index, typeUtil, completionFactory, doc, offset, preferLowerCaseEnums, null, new PropertiesAstCache(new AntlrParser()));
+	}
+
+	public PropertiesCompletionProposalsCalculator(FuzzyMap<PropertyInfo> index, TypeUtil typeUtil, PropertyCompletionFactory completionFactory, IDocument doc, int offset, boolean preferLowerCaseEnums, PropertySearchSessions searchSessions, PropertiesAstCache asts) {
+		this.searchSessions = searchSessions;
 		this.index = index;
 		this.typeUtil = typeUtil;
 		this.completionFactory = completionFactory;
 		this.doc = doc;
 		this.offset = offset;
 		this.preferLowerCaseEnums = preferLowerCaseEnums;
-		this.parser = new AntlrParser();
+		this.asts = asts;
 	}
 
 	/**
 	 * Create completions proposals in the context of a properties text editor.
 	 */
 	public Collection<ICompletionProposal> calculate() throws BadLocationException {
-		ParseResults parseResults = parser.parse(doc.get());
+		ParseResults parseResults = asts.getParseResults(doc);
 		Node node = parseResults.ast.findNode(offset);
 		if (node instanceof Value) {
 			return getValueCompletions((Value)node);
@@ -316,8 +330,11 @@ public class PropertiesCompletionProposalsCalculator {
 	}
 
 	private List<Match<PropertyInfo>> findMatches(String prefix) {
-		List<Match<PropertyInfo>> matches = index.find(camelCaseToHyphens(prefix));
-		return matches;
+		String pattern = camelCaseToHyphens(prefix);
+		if (searchSessions != null) {
+			return searchSessions.find(doc, index, pattern, MAX_FUZZY_MATCHES);
+		}
+		return index.find(pattern, MAX_FUZZY_MATCHES);
 	}
 
 	private Collection<ICompletionProposal> getPropertyCompletions() throws BadLocationException {
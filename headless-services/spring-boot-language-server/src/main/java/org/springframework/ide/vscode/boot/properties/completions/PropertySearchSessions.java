@@ -0,0 +1,50 @@
+/*******************************************************************************
+ * Copyright (c) 2019 Pivotal, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal, Inc. - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.vscode.boot.properties.completions;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.ide.vscode.boot.metadata.PropertyInfo;
+import org.springframework.ide.vscode.commons.util.FuzzyMap;
+import org.springframework.ide.vscode.commons.util.FuzzyMap.Match;
+import org.springframework.ide.vscode.commons.util.FuzzyMap.Search;
+import org.springframework.ide.vscode.commons.util.text.IDocument;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * Remembers the last property search per document, so that successive completion requests while
+ * typing (e.g. 'spring.datasource.h' followed by 'spring.datasource.hi') only have to look at the
+ * properties that matched the previous, shorter, prefix.
+ * <p>
+ * A remembered search is only reused for the same index it has been done on, so changes to the
+ * properties index of a project automatically invalidate it.
+ */
+public class PropertySearchSessions {
+
+	private final Cache<String, Search<PropertyInfo>> lastSearches = CacheBuilder.newBuilder()
+			.expireAfterAccess(1, TimeUnit.MINUTES)
+			.build();
+
+	public List<Match<PropertyInfo>> find(IDocument doc, FuzzyMap<PropertyInfo> index, String pattern, int limit) {
+		String uri = doc.getUri();
+		if (uri == null) {
+			return index.find(pattern, limit);
+		}
+
+		Search<PropertyInfo> search = index.search(pattern, lastSearches.getIfPresent(uri));
+		lastSearches.put(uri, search);
+		return search.getBest(limit);
+	}
+
+}
@@ -22,6 +22,7 @@ import org.springframework.ide.vscode.commons.languageserver.completion.IComplet
 import org.springframework.ide.vscode.commons.languageserver.java.JavaProjectFinder;
 import org.springframework.ide.vscode.commons.util.BadLocationException;
 import org.springframework.ide.vscode.commons.util.text.TextDocument;;
+import org.springframework.ide.vscode.java.properties.parser.PropertiesAstCache;
 
 /**
  * @author Kris De Volder
@@ -34,16 +35,19 @@ public class SpringPropertiesCompletionEngine implements ICompletionEngine {
 	private TypeUtilProvider typeUtilProvider;
 	private PropertyCompletionFactory completionFactory = null;
 	private SourceLinks sourceLinks;
+	private final PropertySearchSessions searchSessions = new PropertySearchSessions();
+	private PropertiesAstCache asts;
 
 	/**
 	 * Constructor used in 'production'. Wires up stuff properly for running inside a normal
 	 * Eclipse runtime.
 	 */
-	public SpringPropertiesCompletionEngine(SpringPropertyIndexProvider indexProvider, TypeUtilProvider typeUtilProvider, JavaProjectFinder projectFinder, SourceLinks sourceLinks) {
+	public SpringPropertiesCompletionEngine(SpringPropertyIndexProvider indexProvider, TypeUtilProvider typeUtilProvider, JavaProjectFinder projectFinder, SourceLinks sourceLinks, PropertiesAstCache asts) {
 		this.indexProvider = indexProvider;
 		this.typeUtilProvider = typeUtilProvider;
 		this.completionFactory = new PropertyCompletionFactory();
 		this.sourceLinks = sourceLinks;
+		this.asts = asts;
 	}
 
 	/**
@@ -52,7 +56,7 @@ public class SpringPropertiesCompletionEngine implements ICompletionEngine {
 	@Override
 	public Collection<ICompletionProposal> getCompletions(TextDocument doc, int offset) throws BadLocationException {
 		return new PropertiesCompletionProposalsCalculator(indexProvider.getIndex(doc),
-				typeUtilProvider.getTypeUtil(sourceLinks, doc), completionFactory, doc, offset, preferLowerCaseEnums).calculate();
+				typeUtilProvider.getTypeUtil(sourceLinks, doc), completionFactory, doc, offset, preferLowerCaseEnums, searchSessions, asts).calculate();
 	}
 
 	public boolean getPreferLowerCaseEnums() {
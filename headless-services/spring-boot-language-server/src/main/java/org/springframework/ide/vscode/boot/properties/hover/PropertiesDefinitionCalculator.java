@@ -12,6 +12,7 @@ package org.springframework.ide.vscode.boot.properties.hover;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -64,10 +65,14 @@ public class PropertiesDefinitionCalculator {
 		List<PropertySource> sources = property.getSources();
 		ImmutableList.Builder<IMember> elements = ImmutableList.builder();
 		if (sources != null) {
+			Map<String, IType> types = project.getIndex().findTypes(sources.stream()
+					.map(PropertySource::getSourceType)
+					.filter(Objects::nonNull)
+					.collect(Collectors.toSet()));
 			for (PropertySource source : sources) {
 				String typeName = source.getSourceType();
 				if (typeName!=null) {
-					IType type = project.getIndex().findType(typeName);
+					IType type = types.get(typeName);
 					IMethod method = null;
 					if (type!=null) {
 						String methodSig = source.getSourceMethod();
@@ -36,6 +36,7 @@ import org.springframework.ide.vscode.commons.util.text.IRegion;
 import org.springframework.ide.vscode.java.properties.parser.PropertiesAst.Key;
 import org.springframework.ide.vscode.java.properties.parser.PropertiesAst.Node;
 import org.springframework.ide.vscode.java.properties.parser.PropertiesAst.Value;
+import org.springframework.ide.vscode.java.properties.parser.PropertiesAstCache;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableList.Builder;
@@ -47,8 +48,8 @@ class PropertiesHoverCalculator {
 
 	private PropertyFinder propertyFinder;
 
-	PropertiesHoverCalculator(FuzzyMap<PropertyInfo> index, TypeUtil typeUtil, IDocument doc, int offset) {
-		this.propertyFinder = new PropertyFinder(index, typeUtil, doc, offset);
+	PropertiesHoverCalculator(FuzzyMap<PropertyInfo> index, TypeUtil typeUtil, PropertiesAstCache asts, IDocument doc, int offset) {
+		this.propertyFinder = new PropertyFinder(index, typeUtil, asts, doc, offset);
 	}
 
 	Tuple2<Renderable, IRegion> calculate() {
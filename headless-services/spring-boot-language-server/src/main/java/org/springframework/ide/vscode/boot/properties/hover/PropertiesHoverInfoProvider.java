@@ -19,6 +19,7 @@ import org.springframework.ide.vscode.commons.languageserver.java.JavaProjectFin
 import org.springframework.ide.vscode.commons.util.Renderable;
 import org.springframework.ide.vscode.commons.util.text.IDocument;
 import org.springframework.ide.vscode.commons.util.text.IRegion;
+import org.springframework.ide.vscode.java.properties.parser.PropertiesAstCache;
 
 import reactor.util.function.Tuple2;
 
@@ -28,17 +29,19 @@ public class PropertiesHoverInfoProvider implements HoverInfoProvider {
 	private TypeUtilProvider typeUtilProvider;
 	private JavaProjectFinder projectFinder;
 	private SourceLinks sourceLinks;
+	private PropertiesAstCache asts;
 
-	public PropertiesHoverInfoProvider(SpringPropertyIndexProvider indexProvider, TypeUtilProvider typeUtilProvider, JavaProjectFinder projectFinder, SourceLinks sourceLinks) {
+	public PropertiesHoverInfoProvider(SpringPropertyIndexProvider indexProvider, TypeUtilProvider typeUtilProvider, JavaProjectFinder projectFinder, SourceLinks sourceLinks, PropertiesAstCache asts) {
 		this.indexProvider = indexProvider;
 		this.typeUtilProvider = typeUtilProvider;
 		this.projectFinder = projectFinder;
 		this.sourceLinks = sourceLinks;
+		this.asts = asts;
 	}
 
 	@Override
 	public Tuple2<Renderable, IRegion> getHoverInfo(IDocument document, int offset) throws Exception {
 		return new PropertiesHoverCalculator(indexProvider.getIndex(document),
-					typeUtilProvider.getTypeUtil(sourceLinks, document), document, offset).calculate();
+					typeUtilProvider.getTypeUtil(sourceLinks, document), asts, document, offset).calculate();
 	}
 }
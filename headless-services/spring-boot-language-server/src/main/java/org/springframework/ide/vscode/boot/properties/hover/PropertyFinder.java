@@ -17,9 +17,9 @@ import org.springframework.ide.vscode.commons.util.BadLocationException;
 import org.springframework.ide.vscode.commons.util.FuzzyMap;
 import org.springframework.ide.vscode.commons.util.text.DocumentRegion;
 import org.springframework.ide.vscode.commons.util.text.IDocument;
-import org.springframework.ide.vscode.java.properties.antlr.parser.AntlrParser;
 import org.springframework.ide.vscode.java.properties.parser.ParseResults;
 import org.springframework.ide.vscode.java.properties.parser.PropertiesAst.Node;
+import org.springframework.ide.vscode.java.properties.parser.PropertiesAstCache;
 
 public class PropertyFinder {
 
@@ -27,18 +27,18 @@ public class PropertyFinder {
 	final TypeUtil typeUtil;
 	final IDocument doc;
 	final int offset;
-	final AntlrParser parser;
+	final PropertiesAstCache asts;
 
-	public PropertyFinder(FuzzyMap<PropertyInfo> index, TypeUtil typeUtil, IDocument doc, int offset) {
+	public PropertyFinder(FuzzyMap<PropertyInfo> index, TypeUtil typeUtil, PropertiesAstCache asts, IDocument doc, int offset) {
 		this.index = index;
 		this.typeUtil = typeUtil;
 		this.doc = doc;
 		this.offset = offset;
-		this.parser = new AntlrParser();
+		this.asts = asts;
 	}
 
 	public Node findNode() {
-		ParseResults parseResults = parser.parse(doc.get());
+		ParseResults parseResults = asts.getParseResults(doc);
 		return parseResults.ast.findNode(offset);
 	}
 
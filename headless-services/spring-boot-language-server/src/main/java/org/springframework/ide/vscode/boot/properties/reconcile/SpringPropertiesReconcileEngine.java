@@ -44,11 +44,10 @@ import org.springframework.ide.vscode.commons.util.ValueParseException;
 import org.springframework.ide.vscode.commons.util.ValueParser;
 import org.springframework.ide.vscode.commons.util.text.DocumentRegion;
 import org.springframework.ide.vscode.commons.util.text.IDocument;
-import org.springframework.ide.vscode.java.properties.antlr.parser.AntlrParser;
 import org.springframework.ide.vscode.java.properties.parser.ParseResults;
-import org.springframework.ide.vscode.java.properties.parser.Parser;
 import org.springframework.ide.vscode.java.properties.parser.PropertiesAst.KeyValuePair;
 import org.springframework.ide.vscode.java.properties.parser.PropertiesAst.Node;
+import org.springframework.ide.vscode.java.properties.parser.PropertiesAstCache;
 import org.springframework.ide.vscode.java.properties.parser.PropertiesFileEscapes;
 
 /**
@@ -77,15 +76,16 @@ public class SpringPropertiesReconcileEngine implements IReconcileEngine {
 
 	private SpringPropertyIndexProvider fIndexProvider;
 	private TypeUtilProvider typeUtilProvider;
-	private Parser parser = new AntlrParser();
+	private PropertiesAstCache asts;
 	private AppPropertiesQuickFixes quickFixes;
 	private SourceLinks sourceLinks;
 
-	public SpringPropertiesReconcileEngine(SpringPropertyIndexProvider provider, TypeUtilProvider typeUtilProvider, AppPropertiesQuickFixes quickFixes, SourceLinks sourceLinks) {
+	public SpringPropertiesReconcileEngine(SpringPropertyIndexProvider provider, TypeUtilProvider typeUtilProvider, AppPropertiesQuickFixes quickFixes, SourceLinks sourceLinks, PropertiesAstCache asts) {
 		this.fIndexProvider = provider;
 		this.typeUtilProvider = typeUtilProvider;
 		this.quickFixes = quickFixes;
 		this.sourceLinks = sourceLinks;
+		this.asts = asts;
 	}
 
 	@Override
@@ -93,7 +93,7 @@ public class SpringPropertiesReconcileEngine implements IReconcileEngine {
 		FuzzyMap<PropertyInfo> index = fIndexProvider.getIndex(doc);
 		problemCollector.beginCollecting();
 		try {
-			ParseResults results = parser.parse(doc.get());
+			ParseResults results = asts.getParseResults(doc);
 			DuplicateNameChecker duplicateNameChecker = new DuplicateNameChecker(problemCollector);
 
 			results.syntaxErrors.forEach(syntaxError -> {
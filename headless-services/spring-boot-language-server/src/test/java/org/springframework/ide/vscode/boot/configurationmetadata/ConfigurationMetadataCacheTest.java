@@ -0,0 +1,85 @@
+/*******************************************************************************
+ * Copyright (c) 2019 Pivotal, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal, Inc. - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.vscode.boot.configurationmetadata;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ConfigurationMetadataCacheTest {
+
+	@Rule
+	public TemporaryFolder tempFolder = new TemporaryFolder();
+
+	@Test
+	public void bigNumbersRestored() throws Exception {
+		Path file = tempFolder.newFile("metadata.json").toPath();
+		ConfigurationMetadataCache cache = new ConfigurationMetadataCache(tempFolder.newFolder());
+
+		cache.store(file, Collections.singletonList(metadata(
+				item("my.big-integer", new BigInteger("123456789012345678901234567890")),
+				item("my.big-decimal", new BigDecimal("1234567890.12345678901234567890")))));
+
+		List<RawConfigurationMetadata> restored = cache.retrieve(file);
+		assertNotNull(restored);
+		List<ConfigurationMetadataItem> items = restored.get(0).getItems();
+		assertEquals(new BigInteger("123456789012345678901234567890"), items.get(0).getDefaultValue());
+		assertEquals(new BigDecimal("1234567890.12345678901234567890"), items.get(1).getDefaultValue());
+	}
+
+	@Test
+	public void leastRecentlyUsedFilesEvicted() throws Exception {
+		Path file = tempFolder.newFile("metadata.json").toPath();
+		File cacheDir = tempFolder.newFolder();
+
+		File oldTempFile = new File(cacheDir, "old.bin.tmp");
+		assertTrue(oldTempFile.createNewFile());
+		assertTrue(oldTempFile.setLastModified(System.currentTimeMillis() - 2 * 60 * 60 * 1000));
+		File recentTempFile = new File(cacheDir, "recent.bin.tmp");
+		assertTrue(recentTempFile.createNewFile());
+
+		// cache files exceeding the maximum size are deleted right away
+		ConfigurationMetadataCache cache = new ConfigurationMetadataCache(cacheDir, 1);
+		cache.store(file, Collections.singletonList(metadata(item("my.property", "value"))));
+		assertNull(cache.retrieve(file));
+
+		// temporary files might still be written by another language server unless they are old
+		assertFalse(oldTempFile.exists());
+		assertTrue(recentTempFile.exists());
+		assertEquals(1, cacheDir.list().length);
+	}
+
+	private static RawConfigurationMetadata metadata(ConfigurationMetadataItem... items) {
+		return new RawConfigurationMetadata("test", Collections.emptyList(), Arrays.asList(items), Collections.emptyList());
+	}
+
+	private static ConfigurationMetadataItem item(String id, Object defaultValue) {
+		ConfigurationMetadataItem item = new ConfigurationMetadataItem();
+		item.setId(id);
+		item.setDefaultValue(defaultValue);
+		return item;
+	}
+
+}
@@ -0,0 +1,122 @@
+/*******************************************************************************
+ * Copyright (c) 2019 Pivotal, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal, Inc. - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.vscode.boot.configurationmetadata;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+
+import org.junit.Test;
+import org.springframework.ide.eclipse.org.json.JSONException;
+
+/**
+ * Checks that the streaming metadata reader produces the same metadata as the json tree based one.
+ */
+public class StreamingJsonReaderTest {
+
+	@Test
+	public void sameMetadataAsJsonTreeReader() throws Exception {
+		String json = "{\n" +
+				"  \"groups\": [\n" +
+				"    {\"name\": \"server\", \"type\": \"org.test.ServerProperties\", \"sourceType\": \"org.test.ServerProperties\",\n" +
+				"     \"description\": \"Server properties. Used for the embedded server.\"}\n" +
+				"  ],\n" +
+				"  \"properties\": [\n" +
+				"    {\"name\": \"server.port\", \"type\": \"java.lang.Integer\", \"sourceType\": \"org.test.ServerProperties\",\n" +
+				"     \"defaultValue\": 8080, \"unknown\": {\"nested\": [1, 2]}},\n" +
+				"    {\"name\": \"my.big\", \"type\": \"java.lang.Long\", \"defaultValue\": 12345678901},\n" +
+				"    {\"name\": \"my.ratio\", \"type\": \"java.lang.Double\", \"defaultValue\": 0.75},\n" +
+				"    {\"name\": \"my.list\", \"type\": \"java.util.List<java.lang.String>\", \"defaultValue\": [\"a\", 1, true, null]},\n" +
+				"    {\"name\": \"my.old\", \"deprecated\": true},\n" +
+				"    {\"name\": \"my.older\", \"deprecation\": {\"level\": \"error\", \"reason\": \"Gone.\", \"replacement\": \"my.new\"}}\n" +
+				"  ],\n" +
+				"  \"hints\": [\n" +
+				"    {\"name\": \"my.list\", \"values\": [{\"value\": \"a\", \"description\": \"The a. Not the b.\"}, {\"value\": [1, 2]}],\n" +
+				"     \"providers\": [{\"name\": \"class-reference\", \"parameters\": {\"target\": \"java.lang.Runnable\", \"concrete\": true}}]}\n" +
+				"  ]\n" +
+				"}";
+
+		assertEquals(dump(treeRead(json)), dump(streamingRead(json)));
+	}
+
+	@Test
+	public void emptyDocument() throws Exception {
+		assertEquals(dump(treeRead("{}")), dump(streamingRead("{}")));
+	}
+
+	@Test
+	public void missingNameIsInvalid() throws Exception {
+		try {
+			streamingRead("{\"properties\": [{\"type\": \"java.lang.String\"}]}");
+			fail("Expected JSONException");
+		} catch (JSONException e) {
+			// expected
+		}
+	}
+
+	private RawConfigurationMetadata treeRead(String json) throws Exception {
+		return new JsonReader().read("test", new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)), StandardCharsets.UTF_8);
+	}
+
+	private RawConfigurationMetadata streamingRead(String json) throws Exception {
+		return new StreamingJsonReader().read("test", new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)), StandardCharsets.UTF_8);
+	}
+
+	private String dump(RawConfigurationMetadata metadata) {
+		StringBuilder buf = new StringBuilder();
+		for (ConfigurationMetadataSource source : metadata.getSources()) {
+			buf.append("source ").append(source.getGroupId()).append(" ").append(source.getType())
+				.append(" ").append(source.getSourceType()).append(" ").append(source.getSourceMethod())
+				.append(" ").append(source.getDescription()).append(" / ").append(source.getShortDescription()).append("\n");
+		}
+		for (ConfigurationMetadataItem item : metadata.getItems()) {
+			buf.append("item ").append(item.getId()).append(" ").append(item.getName()).append(" ").append(item.getType())
+				.append(" ").append(dumpValue(item.getDefaultValue()))
+				.append(" ").append(item.getSourceType()).append(" ").append(item.getSourceMethod());
+			Deprecation deprecation = item.getDeprecation();
+			if (deprecation != null) {
+				buf.append(" deprecated ").append(deprecation.getLevel()).append(" ").append(deprecation.getReason())
+					.append(" ").append(deprecation.getReplacement());
+			}
+			buf.append("\n");
+		}
+		for (ConfigurationMetadataHint hint : metadata.getHints()) {
+			buf.append("hint ").append(hint.getId()).append("\n");
+			for (ValueHint valueHint : hint.getValueHints()) {
+				buf.append("  value ").append(dumpValue(valueHint.getValue())).append(" ").append(valueHint.getDescription())
+					.append(" / ").append(valueHint.getShortDescription()).append("\n");
+			}
+			for (ValueProvider provider : hint.getValueProviders()) {
+				buf.append("  provider ").append(provider.getName()).append("\n");
+				for (Map.Entry<String, Object> parameter : provider.getParameters().entrySet()) {
+					buf.append("    ").append(parameter.getKey()).append("=").append(dumpValue(parameter.getValue())).append("\n");
+				}
+			}
+		}
+		return buf.toString();
+	}
+
+	private String dumpValue(Object value) {
+		if (value instanceof Object[]) {
+			StringBuilder buf = new StringBuilder("[");
+			for (Object element : (Object[]) value) {
+				buf.append(dumpValue(element)).append(",");
+			}
+			return buf.append("]").toString();
+		}
+		return value == null ? "null" : value.getClass().getSimpleName() + ":" + value;
+	}
+
+}
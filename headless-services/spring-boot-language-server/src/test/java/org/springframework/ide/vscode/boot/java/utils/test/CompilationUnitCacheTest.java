@@ -10,6 +10,7 @@
  *******************************************************************************/
 package org.springframework.ide.vscode.boot.java.utils.test;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
@@ -38,7 +39,11 @@ import org.springframework.ide.vscode.boot.java.handlers.RunningAppProvider;
 import org.springframework.ide.vscode.boot.java.links.SourceLinkFactory;
 import org.springframework.ide.vscode.boot.java.links.SourceLinks;
 import org.springframework.ide.vscode.boot.java.utils.CompilationUnitCache;
+import org.springframework.ide.vscode.boot.java.utils.CompilationUnitSnapshot;
+import org.springframework.ide.vscode.boot.java.utils.CompilationUnitSnapshot.Declaration;
+import org.springframework.ide.vscode.boot.java.utils.CompilationUnitSnapshot.Kind;
 import org.springframework.ide.vscode.boot.metadata.ValueProviderRegistry;
+import org.springframework.ide.vscode.commons.java.IJavaProject;
 import org.springframework.ide.vscode.commons.languageserver.java.JavaProjectFinder;
 import org.springframework.ide.vscode.commons.languageserver.util.SimpleLanguageServer;
 import org.springframework.ide.vscode.commons.languageserver.util.SimpleTextDocumentService;
@@ -70,6 +75,9 @@ public class CompilationUnitCacheTest {
 	@Autowired
 	private MockProjectObserver projectObserver;
 
+	@Autowired
+	private JavaProjectFinder projectFinder;
+
 	@Import(AdHocPropertyHarnessTestConf.class)
 	@Configuration static class TestConf {
 
@@ -142,6 +150,84 @@ public class CompilationUnitCacheTest {
 		return serverInit.getComponents().get(BootJavaLanguageServerComponents.class).getCompilationUnitCache().withCompilationUnit(doc, cu -> cu);
 	}
 
+	private CompilationUnitSnapshot getSnapshot(TextDocument doc) {
+		harness.getServer().getAsync().waitForAll();
+		return serverInit.getComponents().get(BootJavaLanguageServerComponents.class).getCompilationUnitCache()
+				.withCompilationUnitSnapshot(projectFinder.find(doc.getId()).orElse(null), URI.create(doc.getUri()), snapshot -> snapshot);
+	}
+
+	@Test
+	public void cu_snapshot_cached_and_invalidated_by_doc_change() throws Exception {
+		harness.useProject(ProjectsHarness.dummyProject());
+		harness.intialize(null);
+
+		TextDocument doc = new TextDocument(harness.createTempUri(null), LanguageId.JAVA, 0, "package my.pack;\n" +
+				"\n" +
+				"public class SomeClass {\n" +
+				"	private String someField;\n" +
+				"	public void someMethod() {}\n" +
+				"}\n");
+
+		harness.newEditorFromFileUri(doc.getUri(), doc.getLanguageId());
+		CompilationUnitSnapshot snapshot = getSnapshot(doc);
+		assertNotNull(snapshot);
+		assertEquals("my.pack", snapshot.getPackageName());
+		assertEquals(3, snapshot.getDeclarations().size());
+
+		Declaration type = snapshot.getDeclarations().get(0);
+		assertEquals(Kind.TYPE, type.getKind());
+		assertEquals("SomeClass", type.getName());
+		assertEquals(2, type.getNameRange().getStart().getLine());
+		assertEquals(13, type.getNameRange().getStart().getCharacter());
+
+		Declaration field = snapshot.getDeclarations().get(1);
+		assertEquals(Kind.FIELD, field.getKind());
+		assertEquals("someField", field.getName());
+		assertEquals("SomeClass", field.getDeclaringType());
+
+		Declaration method = snapshot.getDeclarations().get(2);
+		assertEquals(Kind.METHOD, method.getKind());
+		assertEquals("someMethod", method.getName());
+		assertNotNull(method.getBindingKey());
+		assertEquals("my.pack.SomeClass", method.getDeclaringClassBinaryName());
+		assertTrue(method.getMethodSignature().contains("someMethod()"));
+		assertEquals("my.pack.SomeClass", field.getDeclaringClassBinaryName());
+		assertNull(type.getMethodSignature());
+
+		assertTrue(snapshot == getSnapshot(doc));
+
+		harness.changeDocument(doc.getUri(), 0, 0, "     ");
+		CompilationUnitSnapshot snapshotAnother = getSnapshot(doc);
+		assertNotNull(snapshotAnother);
+		assertFalse(snapshot == snapshotAnother);
+	}
+
+	@Test
+	public void cu_snapshot_declaration_kinds() throws Exception {
+		harness.useProject(ProjectsHarness.dummyProject());
+		harness.intialize(null);
+
+		TextDocument doc = new TextDocument(harness.createTempUri(null), LanguageId.JAVA, 0, "package my.pack;\n" +
+				"\n" +
+				"public enum SomeEnum {\n" +
+				"	ONE;\n" +
+				"	public @interface SomeAnnotation {}\n" +
+				"}\n");
+
+		harness.newEditorFromFileUri(doc.getUri(), doc.getLanguageId());
+		CompilationUnitSnapshot snapshot = getSnapshot(doc);
+		assertNotNull(snapshot);
+		assertEquals(3, snapshot.getDeclarations().size());
+
+		assertEquals(Kind.TYPE, snapshot.getDeclarations().get(0).getKind());
+		assertEquals(Kind.ENUM_CONSTANT, snapshot.getDeclarations().get(1).getKind());
+		assertEquals("ONE", snapshot.getDeclarations().get(1).getName());
+
+		Declaration annotationType = snapshot.getDeclarations().get(2);
+		assertEquals(Kind.ANNOTATION_TYPE, annotationType.getKind());
+		assertEquals("SomeEnum$SomeAnnotation", annotationType.getDeclaringType());
+	}
+
 	@Test
 	public void cu_cache_invalidated_by_doc_change() throws Exception {
 		harness.useProject(ProjectsHarness.dummyProject());
@@ -190,6 +276,98 @@ public class CompilationUnitCacheTest {
 		assertTrue(cuAnother == cuYetAnother);
 	}
 
+	@Test
+	public void cu_pre_parsed_after_doc_change() throws Exception {
+		harness.useProject(ProjectsHarness.dummyProject());
+		harness.intialize(null);
+
+		TextDocument doc = new TextDocument(harness.createTempUri(null), LanguageId.JAVA, 0, "package my.package\n" +
+				"\n" +
+				"public class SomeClass {\n" +
+				"\n" +
+				"}\n");
+
+		harness.newEditorFromFileUri(doc.getUri(), doc.getLanguageId());
+		CompilationUnitCache cuCache = serverInit.getComponents().get(BootJavaLanguageServerComponents.class).getCompilationUnitCache();
+
+		// every change replaces the pending pre-parse of the document
+		harness.changeDocument(doc.getUri(), 0, 0, " ");
+		harness.changeDocument(doc.getUri(), 0, 0, " ");
+		harness.getServer().getAsync().waitForAll();
+		assertEquals(1, cuCache.getPendingPreParses());
+
+		// a finished pre-parse is not pending anymore
+		long timeout = System.currentTimeMillis() + 5000;
+		while (cuCache.getPendingPreParses() > 0 && System.currentTimeMillis() < timeout) {
+			Thread.sleep(50);
+		}
+		assertEquals(0, cuCache.getPendingPreParses());
+
+		CompilationUnit cu = getCompilationUnit(doc);
+		assertNotNull(cu);
+		assertTrue(cu == getCompilationUnit(doc));
+	}
+
+	@Test
+	public void cu_pre_parse_cancelled_by_doc_close() throws Exception {
+		harness.useProject(ProjectsHarness.dummyProject());
+		harness.intialize(null);
+
+		TextDocument doc = new TextDocument(harness.createTempUri(null), LanguageId.JAVA, 0, "package my.package\n" +
+				"\n" +
+				"public class SomeClass {\n" +
+				"\n" +
+				"}\n");
+
+		harness.newEditorFromFileUri(doc.getUri(), doc.getLanguageId());
+		CompilationUnitCache cuCache = serverInit.getComponents().get(BootJavaLanguageServerComponents.class).getCompilationUnitCache();
+
+		harness.changeDocument(doc.getUri(), 0, 0, " ");
+		harness.getServer().getAsync().waitForAll();
+		assertEquals(1, cuCache.getPendingPreParses());
+
+		harness.closeDocument(doc.getId());
+		harness.getServer().getAsync().waitForAll();
+		assertEquals(0, cuCache.getPendingPreParses());
+	}
+
+	@Test
+	public void cu_cache_bounded_by_source_weight() throws Exception {
+		IJavaProject project = ProjectsHarness.dummyProject();
+		Path file = Files.createTempFile("SomeClass", ".java");
+		try {
+			Files.write(file, ("package my.pack;\n" +
+					"\n" +
+					"public class SomeClass {\n" +
+					"}\n").getBytes());
+			URI uri = file.toUri();
+
+			CompilationUnitCache cuCache = new CompilationUnitCache(null, null, null, CompilationUnitCache.CU_MAX_SOURCE_WEIGHT, CompilationUnitCache.PRE_PARSE_DELAY);
+			try {
+				CompilationUnit cu = cuCache.withCompilationUnit(project, uri, c -> c);
+				assertNotNull(cu);
+				assertTrue(cu == cuCache.withCompilationUnit(project, uri, c -> c));
+			}
+			finally {
+				cuCache.dispose();
+			}
+
+			// ASTs of more source code than the bound allows are not kept
+			cuCache = new CompilationUnitCache(null, null, null, 10, CompilationUnitCache.PRE_PARSE_DELAY);
+			try {
+				CompilationUnit cu = cuCache.withCompilationUnit(project, uri, c -> c);
+				assertNotNull(cu);
+				assertFalse(cu == cuCache.withCompilationUnit(project, uri, c -> c));
+			}
+			finally {
+				cuCache.dispose();
+			}
+		}
+		finally {
+			Files.delete(file);
+		}
+	}
+
 	@Test
 	public void cu_cache_invalidated_by_project_change() throws Exception {
 		File directory = new File(
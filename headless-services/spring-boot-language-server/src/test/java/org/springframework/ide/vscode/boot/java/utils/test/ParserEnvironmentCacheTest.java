@@ -0,0 +1,80 @@
+/*******************************************************************************
+ * Copyright (c) 2019 Pivotal, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal, Inc. - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.vscode.boot.java.utils.test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+
+import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.eclipse.jdt.core.dom.ITypeBinding;
+import org.eclipse.jdt.core.dom.TypeDeclaration;
+import org.junit.Test;
+import org.springframework.ide.vscode.boot.java.utils.CompilationUnitCache;
+import org.springframework.ide.vscode.boot.java.utils.ParserEnvironment;
+import org.springframework.ide.vscode.boot.java.utils.ParserEnvironmentCache;
+import org.springframework.ide.vscode.commons.java.IJavaProject;
+import org.springframework.ide.vscode.project.harness.ProjectsHarness;
+
+public class ParserEnvironmentCacheTest {
+
+	private static final String SERVICE =
+			"package com.example;\n" +
+			"\n" +
+			"@org.springframework.stereotype.Component\n" +
+			"public class MyService {\n" +
+			"}\n";
+
+	@Test
+	public void testEnvironmentKeptUntilProjectChanges() throws Exception {
+		IJavaProject project = ProjectsHarness.INSTANCE.mavenProject("empty-boot-15-web-app");
+		MockProjectObserver projectObserver = new MockProjectObserver();
+		ParserEnvironmentCache cache = new ParserEnvironmentCache(projectObserver);
+
+		ParserEnvironment environment = cache.get(project);
+		assertSame(environment, cache.get(project));
+		assertTrue(Arrays.stream(environment.getClasspathEntries()).anyMatch(entry -> entry.contains("spring-context")));
+
+		// the classpath of the project is resolved again
+		projectObserver.doWithListeners(listener -> listener.changed(project));
+		ParserEnvironment changed = cache.get(project);
+		assertNotSame(environment, changed);
+		assertArrayEquals(environment.getClasspathEntries(), changed.getClasspathEntries());
+		assertSame(changed, cache.get(project));
+
+		cache.dispose();
+		assertEquals(0, projectObserver.listeners.size());
+	}
+
+	@Test
+	public void testEmptyEnvironmentWithoutProject() throws Exception {
+		ParserEnvironmentCache cache = new ParserEnvironmentCache(null);
+		assertSame(ParserEnvironment.EMPTY, cache.get(null));
+		assertSame(ParserEnvironment.EMPTY, ParserEnvironment.create(null));
+	}
+
+	@Test
+	public void testStaticParseResolvesBindings() throws Exception {
+		IJavaProject project = ProjectsHarness.INSTANCE.mavenProject("empty-boot-15-web-app");
+		CompilationUnit cu = CompilationUnitCache.parse("file:///com/example/MyService.java", SERVICE.toCharArray(), project);
+		assertNotNull(cu);
+
+		TypeDeclaration type = (TypeDeclaration) cu.types().get(0);
+		ITypeBinding annotationType = type.resolveBinding().getAnnotations()[0].getAnnotationType();
+		assertEquals("org.springframework.stereotype.Component", annotationType.getQualifiedName());
+	}
+
+}
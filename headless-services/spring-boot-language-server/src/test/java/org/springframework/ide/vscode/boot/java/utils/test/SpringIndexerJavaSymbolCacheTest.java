@@ -0,0 +1,254 @@
+/*******************************************************************************
+ * Copyright (c) 2019 Pivotal, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal, Inc. - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.vscode.boot.java.utils.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.commons.io.FileUtils;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.jdt.core.dom.Annotation;
+import org.eclipse.jdt.core.dom.ITypeBinding;
+import org.eclipse.jdt.core.dom.MethodDeclaration;
+import org.eclipse.jdt.core.dom.TypeDeclaration;
+import org.eclipse.lsp4j.Location;
+import org.eclipse.lsp4j.Position;
+import org.eclipse.lsp4j.Range;
+import org.eclipse.lsp4j.SymbolInformation;
+import org.eclipse.lsp4j.SymbolKind;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.ide.vscode.boot.java.annotations.AnnotationHierarchyAwareLookup;
+import org.springframework.ide.vscode.boot.java.handlers.EnhancedSymbolInformation;
+import org.springframework.ide.vscode.boot.java.handlers.SymbolProvider;
+import org.springframework.ide.vscode.boot.java.utils.ParserEnvironmentCache;
+import org.springframework.ide.vscode.boot.java.utils.SpringIndexerJava;
+import org.springframework.ide.vscode.boot.java.utils.SymbolCacheEntry;
+import org.springframework.ide.vscode.boot.java.utils.SymbolCacheKey;
+import org.springframework.ide.vscode.boot.java.utils.SymbolCacheOnDisc;
+import org.springframework.ide.vscode.commons.java.IJavaProject;
+import org.springframework.ide.vscode.commons.util.UriUtil;
+import org.springframework.ide.vscode.commons.util.text.TextDocument;
+import org.springframework.ide.vscode.project.harness.ProjectsHarness;
+import org.springframework.ide.vscode.project.harness.ProjectsHarness.CustomizableProjectContent;
+import org.springframework.ide.vscode.project.harness.ProjectsHarness.ProjectCustomizer;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.hash.Hashing;
+
+public class SpringIndexerJavaSymbolCacheTest {
+
+	private static final String STEREOTYPE =
+			"package com.example;\n" +
+			"\n" +
+			"import java.lang.annotation.Retention;\n" +
+			"import java.lang.annotation.RetentionPolicy;\n" +
+			"import org.springframework.stereotype.Component;\n" +
+			"\n" +
+			"@Component\n" +
+			"@Retention(RetentionPolicy.RUNTIME)\n" +
+			"public @interface MyStereotype {\n" +
+			"}\n";
+
+	private static final String SERVICE =
+			"package com.example;\n" +
+			"\n" +
+			"@MyStereotype\n" +
+			"public class MyService {\n" +
+			"}\n";
+
+	private File cacheDirectory;
+	private RecordingSymbolCache cache;
+	private Map<String, List<String>> symbols;
+
+	@Before
+	public void setup() throws Exception {
+		cacheDirectory = Files.createTempDirectory("symbol-cache-test").toFile();
+		cache = new RecordingSymbolCache(cacheDirectory);
+		symbols = new ConcurrentHashMap<>();
+	}
+
+	@After
+	public void cleanup() throws Exception {
+		FileUtils.deleteDirectory(cacheDirectory);
+	}
+
+	@Test
+	public void testCachedSymbolsAreReused() throws Exception {
+		IJavaProject project = createProject();
+		createIndexer().initializeProject(project);
+		assertEquals(ImmutableList.of("@MyStereotype"), symbols.get(getDocURI(project, "MyService")));
+
+		Path service = getFile(project, "MyService");
+		SymbolCacheEntry entry = cache.retrieve(cache.lastKey).get(service.toString());
+		assertEquals(ImmutableList.of("com.example.MyService"), entry.getDeclaredTypes());
+		assertEquals(Collections.singleton(getFile(project, "MyStereotype").toString()), entry.getDependencies().keySet());
+
+		symbols.clear();
+		createIndexer().initializeProject(project);
+		assertEquals(ImmutableList.of("@MyStereotype"), symbols.get(getDocURI(project, "MyService")));
+	}
+
+	@Test
+	public void testChangedDependencyInvalidatesCachedSymbols() throws Exception {
+		IJavaProject project = createProject();
+		createIndexer().initializeProject(project);
+		assertEquals(ImmutableList.of("@MyStereotype"), symbols.get(getDocURI(project, "MyService")));
+
+		// the file with the symbol doesn't change, but its annotation is no component anymore
+		write(getFile(project, "MyStereotype"), STEREOTYPE.replace("@Component\n", ""));
+
+		symbols.clear();
+		createIndexer().initializeProject(project);
+		assertFalse(symbols.containsKey(getDocURI(project, "MyService")));
+	}
+
+	@Test
+	public void testUpdatedFilesAreStored() throws Exception {
+		IJavaProject project = createProject();
+		SpringIndexerJava indexer = createIndexer();
+		indexer.initializeProject(project);
+
+		Path service = getFile(project, "MyService");
+		String content = SERVICE.replace("public class", "// changed\npublic class");
+		write(service, content);
+		indexer.updateFiles(project, new String[] {getDocURI(project, "MyService")}, null);
+
+		SymbolCacheEntry entry = cache.retrieve(cache.lastKey).get(service.toString());
+		assertEquals(Hashing.sha256().hashBytes(content.getBytes(StandardCharsets.UTF_8)).toString(), entry.getContentHash());
+		assertEquals(1, entry.getSymbols().size());
+	}
+
+	@Test
+	public void testCancelledUpdatesAreNotStored() throws Exception {
+		IJavaProject project = createProject();
+		SpringIndexerJava indexer = createIndexer();
+		indexer.initializeProject(project);
+
+		Path service = getFile(project, "MyService");
+		SymbolCacheEntry entry = cache.retrieve(cache.lastKey).get(service.toString());
+
+		// a newer version of the document arrived in the meantime
+		NullProgressMonitor monitor = new NullProgressMonitor();
+		monitor.setCanceled(true);
+
+		symbols.clear();
+		try {
+			indexer.updateFile(project, getDocURI(project, "MyService"), SERVICE.replace("@MyStereotype\n", ""), monitor);
+			fail("Expected the update to be cancelled");
+		}
+		catch (OperationCanceledException e) {
+		}
+
+		assertTrue(symbols.isEmpty());
+		assertEquals(entry.getContentHash(), cache.retrieve(cache.lastKey).get(service.toString()).getContentHash());
+	}
+
+	@Test
+	public void testRemovedFilesAreRemovedFromCache() throws Exception {
+		IJavaProject project = createProject();
+		SpringIndexerJava indexer = createIndexer();
+		indexer.initializeProject(project);
+
+		Path service = getFile(project, "MyService");
+		assertTrue(cache.retrieve(cache.lastKey).containsKey(service.toString()));
+
+		Files.delete(service);
+		indexer.removeFiles(project, new String[] {getDocURI(project, "MyService")});
+
+		assertFalse(cache.retrieve(cache.lastKey).containsKey(service.toString()));
+	}
+
+	private IJavaProject createProject() throws Exception {
+		// every test gets its own copy of the project, since tests change files of the project
+		ProjectCustomizer customizer = new ProjectCustomizer() {
+			@Override
+			public void customize(CustomizableProjectContent projectContent) throws Exception {
+				projectContent.createType("com.example.MyStereotype", STEREOTYPE);
+				projectContent.createType("com.example.MyService", SERVICE);
+			}
+		};
+		return ProjectsHarness.INSTANCE.mavenProject("empty-boot-15-web-app", customizer);
+	}
+
+	private SpringIndexerJava createIndexer() {
+		AnnotationHierarchyAwareLookup<SymbolProvider> providers = new AnnotationHierarchyAwareLookup<>();
+		providers.put("org.springframework.stereotype.Component", new TestSymbolProvider());
+
+		return new SpringIndexerJava((project, docURI, enhancedSymbol) -> {
+			symbols.computeIfAbsent(docURI, uri -> new ArrayList<>()).add(enhancedSymbol.getSymbol().getName());
+		}, providers, cache, new ParserEnvironmentCache(null));
+	}
+
+	private static Path getFile(IJavaProject project, String typeName) {
+		return Paths.get(project.getLocationUri()).resolve("src/main/java/com/example/" + typeName + ".java").toAbsolutePath();
+	}
+
+	private static String getDocURI(IJavaProject project, String typeName) {
+		return UriUtil.toUri(getFile(project, typeName).toFile()).toString();
+	}
+
+	private static void write(Path file, String content) throws Exception {
+		Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static class RecordingSymbolCache extends SymbolCacheOnDisc {
+
+		private SymbolCacheKey lastKey;
+
+		public RecordingSymbolCache(File cacheDirectory) {
+			super(cacheDirectory);
+		}
+
+		@Override
+		public synchronized void store(SymbolCacheKey cacheKey, Collection<SymbolCacheEntry> entries) {
+			lastKey = cacheKey;
+			super.store(cacheKey, entries);
+		}
+	}
+
+	private static class TestSymbolProvider implements SymbolProvider {
+
+		@Override
+		public Collection<EnhancedSymbolInformation> getSymbols(Annotation node, ITypeBinding typeBinding, Collection<ITypeBinding> metaAnnotations, TextDocument doc) {
+			Location location = new Location(doc.getUri(), new Range(new Position(0, 0), new Position(0, 0)));
+			SymbolInformation symbol = new SymbolInformation("@" + typeBinding.getName(), SymbolKind.Interface, location);
+			return ImmutableList.of(new EnhancedSymbolInformation(symbol, null));
+		}
+
+		@Override
+		public Collection<EnhancedSymbolInformation> getSymbols(TypeDeclaration typeDeclaration, TextDocument doc) {
+			return ImmutableList.of();
+		}
+
+		@Override
+		public Collection<EnhancedSymbolInformation> getSymbols(MethodDeclaration methodDeclaration, TextDocument doc) {
+			return ImmutableList.of();
+		}
+	}
+
+}
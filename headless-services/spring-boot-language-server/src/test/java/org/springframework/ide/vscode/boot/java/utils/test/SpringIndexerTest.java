@@ -17,6 +17,7 @@ import static org.junit.Assert.assertTrue;
 
 import java.io.File;
 import java.net.URI;
+import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
@@ -32,6 +33,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Import;
 import org.springframework.ide.vscode.boot.bootiful.BootLanguageServerTest;
 import org.springframework.ide.vscode.boot.bootiful.SymbolProviderTestConf;
+import org.springframework.ide.vscode.boot.java.utils.SpringIndexerJava;
 import org.springframework.ide.vscode.boot.java.utils.SpringSymbolIndex;
 import org.springframework.ide.vscode.commons.java.IJavaProject;
 import org.springframework.ide.vscode.commons.languageserver.java.JavaProjectFinder;
@@ -93,6 +95,44 @@ public class SpringIndexerTest {
 		assertTrue(containsSymbol(allSymbols, "@Configurable", docUri, 4, 0, 4, 13));
 	}
 
+	@Test
+	public void testScanningAllAnnotationsInParallel() throws Exception {
+		indexer.configureScanWorkers(4, 1);
+		try {
+			indexer.initializeProject(project).get(5, TimeUnit.SECONDS);
+
+			List<? extends SymbolInformation> allSymbols = indexer.getAllSymbols("");
+			assertEquals(7, allSymbols.size());
+
+			String docUri = directory.toPath().resolve("src/main/java/org/test/MainClass.java").toUri().toString();
+			assertTrue(containsSymbol(allSymbols, "@+ 'mainClass' (@SpringBootApplication <: @SpringBootConfiguration, @Configuration, @Component) MainClass", docUri, 6, 0, 6, 22));
+
+			docUri = directory.toPath().resolve("src/main/java/org/test/SimpleMappingClass.java").toUri().toString();
+			assertTrue(containsSymbol(allSymbols, "@/mapping1", docUri, 6, 1, 6, 28));
+			assertTrue(containsSymbol(allSymbols, "@/mapping2", docUri, 11, 1, 11, 28));
+
+			docUri = directory.toPath().resolve("src/main/java/org/test/sub/MappingClassSubpackage.java").toUri().toString();
+			assertTrue(containsSymbol(allSymbols, "@/classlevel/mapping-subpackage", docUri, 7, 1, 7, 38));
+		}
+		finally {
+			indexer.configureScanWorkers(1, SpringIndexerJava.DEFAULT_MIN_FILES_PER_BATCH);
+		}
+	}
+
+	@Test
+	public void testAllSymbolsInStableOrder() throws Exception {
+		List<? extends SymbolInformation> allSymbols = indexer.getAllSymbols("");
+
+		for (int i = 1; i < allSymbols.size(); i++) {
+			String previousDoc = allSymbols.get(i - 1).getLocation().getUri();
+			String doc = allSymbols.get(i).getLocation().getUri();
+			assertTrue(previousDoc.compareTo(doc) <= 0);
+		}
+
+		indexer.initializeProject(project).get(5, TimeUnit.SECONDS);
+		assertEquals(allSymbols, indexer.getAllSymbols(""));
+	}
+
 	@Test
 	public void testRetrievingSymbolsPerDocument() throws Exception {
 		String docUri = directory.toPath().resolve("src/main/java/org/test/MainClass.java").toUri().toString();
@@ -174,6 +214,59 @@ public class SpringIndexerTest {
 		assertTrue(containsSymbol(allSymbols, "@Configurable", docUri, 4, 0, 4, 13));
 	}
 
+	@Test
+	public void testSupersededUpdatesOfDocument() throws Exception {
+		String changedDocURI = directory.toPath().resolve("src/main/java/org/test/SimpleMappingClass.java").toUri().toString();
+		String content = FileUtils.readFileToString(new File(new URI(changedDocURI)));
+
+		// quick changes of the same document are processed as one update of the latest version
+		indexer.configureUpdateDelay(500, SpringSymbolIndex.DEFAULT_MAX_UPDATE_DELAY);
+		try {
+			List<CompletableFuture<Void>> updates = new ArrayList<>();
+			for (int i = 1; i <= 5; i++) {
+				updates.add(indexer.updateDocument(changedDocURI, content.replace("mapping1", "mapping1-VERSION" + i)));
+			}
+
+			// every caller is notified when the latest version got indexed
+			CompletableFuture.allOf(updates.toArray(new CompletableFuture[updates.size()])).get(5, TimeUnit.SECONDS);
+		}
+		finally {
+			indexer.configureUpdateDelay(SpringSymbolIndex.DEFAULT_UPDATE_DELAY, SpringSymbolIndex.DEFAULT_MAX_UPDATE_DELAY);
+		}
+
+		List<? extends SymbolInformation> symbols = indexer.getSymbols(changedDocURI);
+		assertEquals(2, symbols.size());
+		assertTrue(containsSymbol(symbols, "@/mapping1-VERSION5", changedDocURI, 6, 1, 6, 37));
+		assertTrue(containsSymbol(symbols, "@/mapping2", changedDocURI, 11, 1, 11, 28));
+		assertEquals(1, indexer.getAllSymbols("VERSION").size());
+	}
+
+	@Test
+	public void testContinuousUpdatesProcessedAfterMaxDelay() throws Exception {
+		String changedDocURI = directory.toPath().resolve("src/main/java/org/test/SimpleMappingClass.java").toUri().toString();
+		String content = FileUtils.readFileToString(new File(new URI(changedDocURI)));
+
+		// every change arrives before the delay is over, the first one has to be indexed after the max delay nevertheless
+		indexer.configureUpdateDelay(500, 1000);
+		try {
+			List<CompletableFuture<Void>> updates = new ArrayList<>();
+			for (int i = 1; i <= 15; i++) {
+				updates.add(indexer.updateDocument(changedDocURI, content.replace("mapping1", "mapping1-VERSION" + i)));
+				Thread.sleep(200);
+			}
+			assertTrue(updates.get(0).isDone());
+
+			CompletableFuture.allOf(updates.toArray(new CompletableFuture[updates.size()])).get(5, TimeUnit.SECONDS);
+		}
+		finally {
+			indexer.configureUpdateDelay(SpringSymbolIndex.DEFAULT_UPDATE_DELAY, SpringSymbolIndex.DEFAULT_MAX_UPDATE_DELAY);
+		}
+
+		List<? extends SymbolInformation> symbols = indexer.getSymbols(changedDocURI);
+		assertTrue(containsSymbol(symbols, "@/mapping1-VERSION15", changedDocURI, 6, 1, 6, 38));
+		assertEquals(1, indexer.getAllSymbols("VERSION").size());
+	}
+
 	@Test
 	public void testNewDocumentCreated() throws Exception {
 		String createdDocURI = directory.toPath().resolve("src/main/java/org/test/CreatedClass.java").toUri().toString();
@@ -0,0 +1,105 @@
+/*******************************************************************************
+ * Copyright (c) 2019 Pivotal, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal, Inc. - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.vscode.boot.java.utils.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+
+import org.apache.commons.io.FileUtils;
+import org.eclipse.lsp4j.Location;
+import org.eclipse.lsp4j.Position;
+import org.eclipse.lsp4j.Range;
+import org.eclipse.lsp4j.SymbolInformation;
+import org.eclipse.lsp4j.SymbolKind;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.ide.vscode.boot.java.handlers.EnhancedSymbolInformation;
+import org.springframework.ide.vscode.boot.java.handlers.SymbolAddOnInformation;
+import org.springframework.ide.vscode.boot.java.requestmapping.WebfluxHandlerInformation;
+import org.springframework.ide.vscode.boot.java.utils.SymbolCacheEntry;
+import org.springframework.ide.vscode.boot.java.utils.SymbolCacheKey;
+import org.springframework.ide.vscode.boot.java.utils.SymbolCacheOnDisc;
+
+public class SymbolCacheOnDiscTest {
+
+	private File tempDir;
+	private SymbolCacheOnDisc cache;
+
+	@Before
+	public void setup() throws Exception {
+		tempDir = Files.createTempDirectory("symbol-cache-test").toFile();
+		cache = new SymbolCacheOnDisc(tempDir);
+	}
+
+	@After
+	public void cleanup() throws Exception {
+		FileUtils.deleteDirectory(tempDir);
+	}
+
+	@Test
+	public void testEmptyCache() throws Exception {
+		Map<String, SymbolCacheEntry> entries = cache.retrieve(new SymbolCacheKey("project", "classpath"));
+		assertTrue(entries.isEmpty());
+	}
+
+	@Test
+	public void testStoreAndRetrieveSymbols() throws Exception {
+		SymbolCacheKey key = new SymbolCacheKey("project", "classpath");
+
+		SymbolInformation symbol = new SymbolInformation("@/mapping", SymbolKind.Interface, new Location("file:///Test.java", new Range(new Position(3, 1), new Position(3, 12))));
+		WebfluxHandlerInformation handlerInfo = new WebfluxHandlerInformation("org.test.Handler", "handle", "/mapping", new String[] {"GET"}, new String[0], new String[0]);
+		EnhancedSymbolInformation enhancedSymbol = new EnhancedSymbolInformation(symbol, new SymbolAddOnInformation[] {handlerInfo});
+
+		cache.store(key, Arrays.asList(new SymbolCacheEntry("/Test.java", "hash1", Arrays.asList(enhancedSymbol))));
+
+		Map<String, SymbolCacheEntry> entries = cache.retrieve(key);
+		assertEquals(1, entries.size());
+
+		SymbolCacheEntry entry = entries.get("/Test.java");
+		assertNotNull(entry);
+		assertEquals("hash1", entry.getContentHash());
+		assertEquals(1, entry.getSymbols().size());
+
+		EnhancedSymbolInformation retrievedSymbol = entry.getSymbols().get(0);
+		assertEquals(symbol, retrievedSymbol.getSymbol());
+		assertEquals(1, retrievedSymbol.getAdditionalInformation().length);
+
+		WebfluxHandlerInformation retrievedInfo = (WebfluxHandlerInformation) retrievedSymbol.getAdditionalInformation()[0];
+		assertEquals("org.test.Handler", retrievedInfo.getHandlerClass());
+		assertEquals("/mapping", retrievedInfo.getPath());
+	}
+
+	@Test
+	public void testChangedSecondaryIdentifierInvalidatesCache() throws Exception {
+		cache.store(new SymbolCacheKey("project", "classpath1"), Arrays.asList(new SymbolCacheEntry("/Test.java", "hash1", Collections.emptyList())));
+
+		assertEquals(1, cache.retrieve(new SymbolCacheKey("project", "classpath1")).size());
+		assertTrue(cache.retrieve(new SymbolCacheKey("project", "classpath2")).isEmpty());
+	}
+
+	@Test
+	public void testRemove() throws Exception {
+		SymbolCacheKey key = new SymbolCacheKey("project", "classpath");
+		cache.store(key, Arrays.asList(new SymbolCacheEntry("/Test.java", "hash1", Collections.emptyList())));
+		cache.remove(key);
+
+		assertTrue(cache.retrieve(key).isEmpty());
+	}
+
+}
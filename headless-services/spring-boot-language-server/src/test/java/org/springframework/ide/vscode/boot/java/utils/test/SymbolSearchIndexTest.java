@@ -0,0 +1,153 @@
+/*******************************************************************************
+ * Copyright (c) 2019 Pivotal, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal, Inc. - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.vscode.boot.java.utils.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.eclipse.lsp4j.Location;
+import org.eclipse.lsp4j.Position;
+import org.eclipse.lsp4j.Range;
+import org.eclipse.lsp4j.SymbolInformation;
+import org.eclipse.lsp4j.SymbolKind;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.ide.vscode.boot.java.utils.SymbolSearchIndex;
+import org.springframework.ide.vscode.commons.util.StringUtil;
+
+public class SymbolSearchIndexTest {
+
+	private Map<String, List<SymbolInformation>> symbolsByDoc;
+	private SymbolSearchIndex index;
+
+	@Before
+	public void setup() throws Exception {
+		symbolsByDoc = new HashMap<>();
+		addSymbol("file:///project1/src/Controller.java", "@/api/users");
+		addSymbol("file:///project1/src/Controller.java", "@/api/orders -- GET");
+		addSymbol("file:///project1/src/Config.java", "@+ 'dataSource' (@Bean) DataSource");
+		addSymbol("file:///project10/src/Other.java", "@/api/other");
+		addSymbol("file:///project2/src/Main.java", "@SpringBootApplication");
+		addSymbol("file:///project2/src/Main.java", "@/API/upper");
+
+		index = new SymbolSearchIndex(symbolsByDoc);
+	}
+
+	@Test
+	public void testAllSymbols() throws Exception {
+		assertEquals(6, index.getSymbols().size());
+		assertEquals(6, index.search("", "", Long.MAX_VALUE).size());
+	}
+
+	@Test
+	public void testSearchByName() throws Exception {
+		assertNames(index.search("", "@/api", Long.MAX_VALUE), "@/api/users", "@/api/orders -- GET", "@/api/other", "@/API/upper");
+		assertNames(index.search("", "dsrc", Long.MAX_VALUE), "@+ 'dataSource' (@Bean) DataSource");
+		assertNames(index.search("", "xyz", Long.MAX_VALUE));
+	}
+
+	@Test
+	public void testSearchRequiresCharacterOrder() throws Exception {
+		String controllerDoc = "file:///project1/src/Controller.java";
+		assertNames(index.search(controllerDoc, "sresu", Long.MAX_VALUE));
+		assertNames(index.search(controllerDoc, "users", Long.MAX_VALUE), "@/api/users");
+	}
+
+	@Test
+	public void testSearchByLocationPrefix() throws Exception {
+		assertNames(index.search("file:///project1/", "@/api", Long.MAX_VALUE), "@/api/users", "@/api/orders -- GET");
+		assertNames(index.search("file:///project1", "@/api", Long.MAX_VALUE), "@/api/users", "@/api/orders -- GET", "@/api/other");
+		assertNames(index.search("file:///project2/", "", Long.MAX_VALUE), "@SpringBootApplication", "@/API/upper");
+		assertNames(index.search("file:///project3/", "", Long.MAX_VALUE));
+	}
+
+	@Test
+	public void testSearchLimit() throws Exception {
+		assertEquals(2, index.search("", "@/api", 2).size());
+	}
+
+	@Test
+	public void testSameResultsAsLinearSearch() throws Exception {
+		String[] queries = new String[] {"", "@", "@/", "api", "get", "bean", "aa", "@+", "--", "z"};
+		String[] prefixes = new String[] {"", "file:///", "file:///project1", "file:///project2/src/Main.java"};
+
+		for (String prefix : prefixes) {
+			for (String query : queries) {
+				List<SymbolInformation> expected = index.getSymbols().stream()
+						.filter(symbol -> symbol.getLocation().getUri().startsWith(prefix))
+						.filter(symbol -> StringUtil.containsCharactersCaseInsensitive(symbol.getName(), query))
+						.collect(Collectors.toList());
+
+				assertEquals("prefix: " + prefix + " - query: " + query, expected, index.search(prefix, query, Long.MAX_VALUE));
+			}
+		}
+	}
+
+	@Test
+	public void testUpdateDocuments() throws Exception {
+		String controllerDoc = "file:///project1/src/Controller.java";
+
+		index.update(controllerDoc, symbols(controllerDoc, "@/api/customers"));
+		assertNames(index.search("file:///project1/", "@/api", Long.MAX_VALUE), "@/api/customers");
+		assertNames(index.search("", "orders", Long.MAX_VALUE));
+
+		index.remove("file:///project2/src/Main.java");
+		assertNames(index.search("file:///project2/", "", Long.MAX_VALUE));
+
+		index.update("file:///project3/src/New.java", symbols("file:///project3/src/New.java", "@/api/new"));
+		assertNames(index.search("", "@/api", Long.MAX_VALUE), "@/api/customers", "@/api/other", "@/api/new");
+
+		index.update(controllerDoc, symbols(controllerDoc));
+		assertEquals(3, index.getSymbols().size());
+	}
+
+	@Test
+	public void testSymbolsOrderedByDocument() throws Exception {
+		List<String> docs = index.getSymbols().stream()
+				.map(symbol -> symbol.getLocation().getUri())
+				.collect(Collectors.toList());
+		List<String> sortedDocs = new ArrayList<>(docs);
+		Collections.sort(sortedDocs);
+		assertEquals(sortedDocs, docs);
+
+		assertEquals(index.getSymbols().subList(0, 3), index.getSymbols(3));
+	}
+
+	private List<SymbolInformation> symbols(String docURI, String... names) {
+		List<SymbolInformation> symbols = new ArrayList<>();
+		for (String name : names) {
+			Location location = new Location(docURI, new Range(new Position(0, 0), new Position(0, 1)));
+			symbols.add(new SymbolInformation(name, SymbolKind.Interface, location));
+		}
+		return symbols;
+	}
+
+	private void addSymbol(String docURI, String name) {
+		Location location = new Location(docURI, new Range(new Position(0, 0), new Position(0, 1)));
+		symbolsByDoc.computeIfAbsent(docURI, uri -> new ArrayList<>()).add(new SymbolInformation(name, SymbolKind.Interface, location));
+	}
+
+	private void assertNames(List<SymbolInformation> symbols, String... expectedNames) {
+		assertEquals(expectedNames.length, symbols.size());
+		List<String> names = symbols.stream().map(symbol -> symbol.getName()).collect(Collectors.toList());
+		for (String expectedName : expectedNames) {
+			assertTrue("missing symbol: " + expectedName + " in " + names, names.contains(expectedName));
+		}
+	}
+
+}
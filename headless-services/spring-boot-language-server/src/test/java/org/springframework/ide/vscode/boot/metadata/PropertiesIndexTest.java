@@ -13,8 +13,20 @@ package org.springframework.ide.vscode.boot.metadata;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
+import java.io.File;
+import java.net.URI;
+
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.ide.vscode.boot.configurationmetadata.ConfigurationMetadataCache;
+import org.springframework.ide.vscode.boot.java.utils.test.MockProjectObserver;
+import org.springframework.ide.vscode.commons.java.ClasspathIndex;
+import org.springframework.ide.vscode.commons.java.IClasspath;
 import org.springframework.ide.vscode.commons.java.IJavaProject;
 import org.springframework.ide.vscode.commons.languageserver.ProgressService;
 import org.springframework.ide.vscode.commons.util.FuzzyMap;
@@ -33,6 +45,9 @@ public class PropertiesIndexTest {
 	private ProjectsHarness projects = ProjectsHarness.INSTANCE;
 	private ProgressService progressService = (id, msg) -> { /*ignore*/ };
 
+	@Rule
+	public TemporaryFolder tempFolder = new TemporaryFolder();
+
 	@Test
 	public void springStandardPropertyPresent_Maven() throws Exception {
 		SpringPropertiesIndexManager indexManager = new SpringPropertiesIndexManager(
@@ -66,4 +81,108 @@ public class PropertiesIndexTest {
 		PropertyInfo propertyInfo = index.get("my.server.port");
 		assertNull(propertyInfo);
 	}
+
+	@Test
+	public void cachedMetadataSameAsParsed_Maven() throws Exception {
+		IJavaProject mavenProject = projects.mavenProject(CUSTOM_PROPERTIES_PROJECT);
+		File cacheDir = tempFolder.newFolder();
+
+		SpringPropertyIndex parsed = new SpringPropertyIndex(new ValueProviderRegistry(), mavenProject.getClasspath());
+		SpringPropertyIndex stored = new SpringPropertyIndex(new ValueProviderRegistry(), mavenProject.getClasspath(), new ConfigurationMetadataCache(cacheDir));
+		assertTrue(cacheDir.list().length > 0);
+		SpringPropertyIndex restored = new SpringPropertyIndex(new ValueProviderRegistry(), mavenProject.getClasspath(), new ConfigurationMetadataCache(cacheDir));
+
+		assertEquals(parsed.size(), stored.size());
+		assertEquals(parsed.size(), restored.size());
+
+		for (String id : new String[] {"server.port", "demo.settings.user"}) {
+			PropertyInfo expected = parsed.get(id);
+			PropertyInfo actual = restored.get(id);
+			assertNotNull(actual);
+			assertEquals(expected.getType(), actual.getType());
+			assertEquals(expected.getName(), actual.getName());
+			assertEquals(String.valueOf(expected.getDefaultValue()), String.valueOf(actual.getDefaultValue()));
+			assertEquals(expected.getDescription(), actual.getDescription());
+		}
+	}
+
+	@Test
+	public void sharedIndexSameAsFullIndex_Maven() throws Exception {
+		IJavaProject mavenProject = projects.mavenProject(CUSTOM_PROPERTIES_PROJECT);
+		SpringPropertiesIndexManager indexManager = new SpringPropertiesIndexManager(
+				new ValueProviderRegistry(), null, null);
+
+		SpringPropertyIndex full = new SpringPropertyIndex(new ValueProviderRegistry(), mavenProject.getClasspath());
+		SpringPropertyIndex shared = indexManager.get(mavenProject, progressService);
+		assertEquals(full.size(), shared.size());
+
+		for (String id : new String[] {"server.port", "demo.settings.user"}) {
+			PropertyInfo expected = full.get(id);
+			PropertyInfo actual = shared.get(id);
+			assertNotNull(actual);
+			assertEquals(expected.getType(), actual.getType());
+			assertEquals(expected.getSources().size(), actual.getSources().size());
+		}
+
+		// rebuilding the index after clearing still works with the shared part released
+		indexManager.clear();
+		assertEquals(full.size(), indexManager.get(mavenProject, progressService).size());
+	}
+
+	@Test
+	public void indexSharedBetweenProjectsWithSameJars_Maven() throws Exception {
+		IJavaProject project1 = projects.mavenProject(CUSTOM_PROPERTIES_PROJECT);
+		IJavaProject project2 = withSameClasspath(project1);
+		MockProjectObserver projectObserver = new MockProjectObserver();
+		SpringPropertiesIndexManager indexManager = new SpringPropertiesIndexManager(
+				new ValueProviderRegistry(), projectObserver, null);
+
+		PropertyInfo shared = indexManager.get(project1, progressService).get("server.port");
+		assertSame(shared, indexManager.get(project2, progressService).get("server.port"));
+		assertEquals(1, indexManager.getSharedIndexCount());
+
+		// one project can't modify the metadata seen by the other one
+		assertTrue(shared.isFrozen());
+		try {
+			shared.setDeprecation(null);
+			fail("Expected IllegalStateException");
+		} catch (IllegalStateException e) {
+			// expected
+		}
+
+		// the shared index is kept as long as any project uses it, no matter how often the other one changes
+		projectObserver.doWithListeners(listener -> listener.changed(project1));
+		projectObserver.doWithListeners(listener -> listener.changed(project1));
+		assertSame(shared, indexManager.get(project1, progressService).get("server.port"));
+		projectObserver.doWithListeners(listener -> listener.changed(project2));
+		assertEquals(1, indexManager.getSharedIndexCount());
+		assertSame(shared, indexManager.get(project1, progressService).get("server.port"));
+
+		indexManager.clear();
+		assertEquals(0, indexManager.getSharedIndexCount());
+	}
+
+	private static IJavaProject withSameClasspath(IJavaProject project) {
+		return new IJavaProject() {
+			@Override
+			public IClasspath getClasspath() {
+				return project.getClasspath();
+			}
+
+			@Override
+			public ClasspathIndex getIndex() {
+				return project.getIndex();
+			}
+
+			@Override
+			public URI getLocationUri() {
+				return project.getLocationUri();
+			}
+
+			@Override
+			public boolean exists() {
+				return project.exists();
+			}
+		};
+	}
 }
@@ -8,7 +8,7 @@ export function registerClasspathService(client : LanguageClient) : void {
 
     let addRequest = new RequestType<ClasspathListenerParams, ClasspathListenerResponse, void, void>("sts/addClasspathListener");
     client.onRequest(addRequest, async (params: ClasspathListenerParams) => {
-        return <ClasspathListenerResponse> await VSCode.commands.executeCommand("java.execute.workspaceCommand", "sts.java.addClasspathListener", params.callbackCommandId);
+        return <ClasspathListenerResponse> await VSCode.commands.executeCommand("java.execute.workspaceCommand", "sts.java.addClasspathListener", params.callbackCommandId, !!params.typesChanged);
     });
 
     let removeRequest = new RequestType<ClasspathListenerParams, ClasspathListenerResponse, void, void>("sts/removeClasspathListener");
@@ -20,6 +20,7 @@ export function registerClasspathService(client : LanguageClient) : void {
 
 interface ClasspathListenerParams {
     callbackCommandId: string
+    typesChanged?: boolean
 }
 
 interface ClasspathListenerResponse {
@@ -8,6 +8,11 @@ export function registerJavaDataService(client : LanguageClient) : void {
         <any> await VSCode.commands.executeCommand("java.execute.workspaceCommand", "sts.java.type", params)
     );
 
+    const javaTypesRequest = new RequestType<JavaTypesParams, any, void, void>("sts/javaTypes");
+    client.onRequest(javaTypesRequest, async (params: JavaTypesParams) =>
+        <any> await VSCode.commands.executeCommand("java.execute.workspaceCommand", "sts.java.types", params)
+    );
+
     const javadocHoverLinkRequest = new RequestType<JavaDataParams, any, void, void>("sts/javadocHoverLink");
     client.onRequest(javadocHoverLinkRequest, async (params: JavaDataParams) =>
         <any> await VSCode.commands.executeCommand("java.execute.workspaceCommand", "sts.java.javadocHoverLink", params)
@@ -50,6 +55,13 @@ interface JavaDataParams {
     lookInOtherProjects?: boolean;
 }
 
+interface JavaTypesParams {
+    projectUri: string;
+    bindingKeys: string[];
+    lookInOtherProjects?: boolean;
+    lightweight?: boolean;
+}
+
 interface JavaSearchParams {
     projectUri: string;
     term: string;
@@ -60,4 +72,5 @@ interface JavaSearchParams {
 interface JavaTypeHierarchyParams {
     projectUri?: string;
     fqName: string;
+    lightweight?: boolean;
 }
\ No newline at end of file